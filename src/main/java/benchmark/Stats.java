@@ -1,7 +1,11 @@
 package benchmark;
 
 import domain.BitSequence;
+import domain.BlockLZW;
 import domain.CompressionAlgorithm;
+import domain.Huffman;
+import domain.LZW;
+import domain.LZWHuffman;
 import io.FileUtils;
 import io.IO;
 import java.nio.file.Path;
@@ -22,6 +26,28 @@ public class Stats {
     public long compressedSizeInBits;
     public long compressionElapsedTime;
     public long decompressionElapsedTime;
+    /**
+     * For algorithms which compute their code from a sample of the data,
+     * compressed size (in bits) obtained when the code is computed from all
+     * the data; zero for other algorithms.
+     */
+    public long referenceCompressedSizeInBits;
+    /**
+     * For LZW (and BlockLZW and LZWHuffman), number of dictionary lookups
+     * made during compression (and number of hash table slots examined by
+     * them); zero for other algorithms.
+     */
+    public long dictionaryLookups;
+    public long dictionaryProbes;
+    /**
+     * For LZW (and BlockLZW and LZWHuffman), size (in bytes) of the
+     * dictionary used for compression and of the table used for decompression
+     * (for BlockLZW, those of a single block), and whether they are allocated
+     * off the heap; zero (and false) for other algorithms.
+     */
+    public long compressionDictionarySize;
+    public long decompressionTableSize;
+    public boolean offHeapDictionaries;
 
     /**
      * Returns the compression rate measured in bits per symbol (bps), which is
@@ -46,6 +72,36 @@ public class Stats {
         return uncompressedSizeInBytes * Byte.SIZE / (double) compressedSizeInBits;
     }
 
+    /**
+     * Returns how much compressed size is lost by computing the code from a
+     * sample of the data, as a fraction of the compressed size obtained when
+     * the code is computed from all the data (for example 0.01 means that the
+     * compressed data is 1% larger).
+     *
+     * @return The compressed size lost by sampling, or zero if the algorithm
+     * doesn't use sampling.
+     */
+    public double samplingRatioLoss() {
+        if (referenceCompressedSizeInBits == 0) {
+            return 0;
+        }
+        return (double) compressedSizeInBits / referenceCompressedSizeInBits - 1;
+    }
+
+    /**
+     * Returns the average number of hash table slots examined by each
+     * dictionary lookup, which is 1 when there are no collisions.
+     *
+     * @return The average probe length, or zero if the algorithm doesn't use
+     * a hash table.
+     */
+    public double averageProbeLength() {
+        if (dictionaryLookups == 0) {
+            return 0;
+        }
+        return (double) dictionaryProbes / dictionaryLookups;
+    }
+
     /**
      * Computes stats about the given compression algorithm.
      *
@@ -63,6 +119,12 @@ public class Stats {
 
         stats.uncompressedSizeInBytes = originalData.length;
 
+        LZW lzw = lzwOf(algorithm);
+        if (lzw != null) {
+            stats.dictionaryLookups = -lzw.getDictionaryLookups();
+            stats.dictionaryProbes = -lzw.getDictionaryProbes();
+        }
+
         BitSequence compressedDataBitSeq;
         int i = 0;
         long compressionStartingTime = System.nanoTime();
@@ -71,7 +133,17 @@ public class Stats {
         } while (++i < reps);
         stats.compressionElapsedTime = System.nanoTime() - compressionStartingTime;
 
+        if (lzw != null) {
+            stats.dictionaryLookups += lzw.getDictionaryLookups();
+            stats.dictionaryProbes += lzw.getDictionaryProbes();
+            recordDictionarySizes(stats, algorithm, lzw);
+        }
+
         stats.compressedSizeInBits = compressedDataBitSeq.getLengthInBits();
+        if (algorithm instanceof Huffman && ((Huffman) algorithm).isSampling()) {
+            stats.referenceCompressedSizeInBits = ((Huffman) algorithm).withoutSampling()
+                    .compressData(originalData).getLengthInBits();
+        }
 
         Path compressedFilePath = originalFilePath.resolveSibling(
                 originalFilePath.getFileName() + algorithm.getExtension());
@@ -103,9 +175,39 @@ public class Stats {
         return stats;
     }
 
+    /**
+     * Returns the LZW instance which counts the dictionary lookups of the
+     * given algorithm, or null if it doesn't use LZW.
+     */
+    private static LZW lzwOf(CompressionAlgorithm algorithm) {
+        if (algorithm instanceof LZW) {
+            return (LZW) algorithm;
+        }
+        if (algorithm instanceof BlockLZW) {
+            return ((BlockLZW) algorithm).getLZW();
+        }
+        if (algorithm instanceof LZWHuffman) {
+            return ((LZWHuffman) algorithm).getLZW();
+        }
+        return null;
+    }
+
+    private static void recordDictionarySizes(Stats stats, CompressionAlgorithm algorithm,
+            LZW lzw) {
+        int dictionaryDataLength = (int) stats.uncompressedSizeInBytes;
+        if (algorithm instanceof BlockLZW) {
+            dictionaryDataLength = Math.min(dictionaryDataLength,
+                    ((BlockLZW) algorithm).getBlockSize());
+        }
+        stats.compressionDictionarySize = lzw.compressionDictionarySize(dictionaryDataLength);
+        stats.decompressionTableSize = lzw.decompressionTableSize(dictionaryDataLength);
+        stats.offHeapDictionaries = lzw.isOffHeap();
+    }
+
     /**
      * Returns a Stats object in which each variable is equal to the sum of the
-     * values it gets in each of the Stats object in the given array.
+     * values it gets in each of the Stats object in the given array (except
+     * dictionary sizes, which are the largest ones).
      *
      * @param stats The Stats objects whose variables' values will be summed.
      * @return A Stats object in which each variable is equal to the sum of the
@@ -121,6 +223,14 @@ public class Stats {
                 s1.compressedSizeInBits += s2.compressedSizeInBits;
                 s1.compressionElapsedTime += s2.compressionElapsedTime;
                 s1.decompressionElapsedTime += s2.decompressionElapsedTime;
+                s1.referenceCompressedSizeInBits += s2.referenceCompressedSizeInBits;
+                s1.dictionaryLookups += s2.dictionaryLookups;
+                s1.dictionaryProbes += s2.dictionaryProbes;
+                s1.compressionDictionarySize = Math.max(
+                        s1.compressionDictionarySize, s2.compressionDictionarySize);
+                s1.decompressionTableSize = Math.max(
+                        s1.decompressionTableSize, s2.decompressionTableSize);
+                s1.offHeapDictionaries |= s2.offHeapDictionaries;
                 return s1;
             });
         }
@@ -0,0 +1,108 @@
+package domain;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A {@link CompressionAlgorithm} implementation which uses adaptive Huffman
+ * coding: the data is compressed in a single pass, block by block, and the
+ * code used for each block is computed from a decayed histogram of the
+ * previous blocks (see {@link AdaptiveHuffmanModel}). The compressed data has
+ * the format of {@link AdaptiveHuffmanOutputStream}, which can also be used
+ * directly for compressing streams of unknown length.
+ */
+public final class AdaptiveHuffman extends CompressionAlgorithm {
+
+    /**
+     * Default block size (32 KiB).
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 15;
+
+    /**
+     * The file extension used for files compressed using this class.
+     */
+    private static final String COMPRESSED_FILE_EXTENSION = ".ahuff";
+    /**
+     * Short name for this algorithm (used in TUI).
+     */
+    private static final String NAME = "ahuffman";
+
+    private final int blockSize;
+    /**
+     * Longer name for this algorithm (used in TUI).
+     */
+    private final String description;
+
+    /**
+     * Returns an instance of AdaptiveHuffman with the default block size.
+     */
+    public AdaptiveHuffman() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Returns an instance of AdaptiveHuffman with the given block size.
+     *
+     * @param blockSize Maximum size (in bytes) of each block of original data;
+     * the code is updated after each block.
+     */
+    public AdaptiveHuffman(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Argument int blockSize has to be positive.");
+        }
+        this.blockSize = blockSize;
+        description = "adaptive canonical Huffman coding (code updated every "
+                + blockSize / 1024 + " KiB)";
+    }
+
+    @Override
+    public BitSequence compressData(byte[] originalData) {
+
+        ByteArrayOutputStream compressedData = new ByteArrayOutputStream();
+        try (AdaptiveHuffmanOutputStream out =
+                new AdaptiveHuffmanOutputStream(compressedData, blockSize)) {
+            out.write(originalData);
+        } catch (IOException e) {
+            // a ByteArrayOutputStream never throws IOExceptions
+            throw new UncheckedIOException(e);
+        }
+
+        return new BitSequence(compressedData.toByteArray(), 0);
+    }
+
+    @Override
+    public byte[] decompressData(byte[] compressedData) {
+
+        ByteArrayOutputStream originalData = new ByteArrayOutputStream();
+        byte[] buffer = new byte[blockSize];
+        try (AdaptiveHuffmanInputStream in =
+                new AdaptiveHuffmanInputStream(new ByteArrayInputStream(compressedData))) {
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                originalData.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            // a ByteArrayInputStream never throws IOExceptions, so this means
+            // that the compressed data has been truncated
+            throw new UncheckedIOException(e);
+        }
+
+        return originalData.toByteArray();
+    }
+
+    @Override
+    public String getExtension() {
+        return COMPRESSED_FILE_EXTENSION;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+}
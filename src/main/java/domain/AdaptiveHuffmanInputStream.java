@@ -0,0 +1,129 @@
+package domain;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An InputStream which decompresses data compressed by
+ * {@link AdaptiveHuffmanOutputStream}, reading it from another InputStream.
+ * Blocks are decompressed one at a time, as soon as they are needed, so the
+ * decompressed data can be read while the compressed stream is still being
+ * written.
+ */
+public class AdaptiveHuffmanInputStream extends InputStream {
+
+    private final InputStream in;
+    private final AdaptiveHuffmanModel model;
+    private final byte[] blockHeader;
+    /**
+     * Decompressed data of the current block; it grows if a block is larger
+     * than all the previous ones.
+     */
+    private byte[] block;
+    /**
+     * Index of the next byte of {@link block} to be read.
+     */
+    private int blockIndex;
+    /**
+     * Used length of {@link block}.
+     */
+    private int blockLength;
+    /**
+     * Compressed data of the current block; it grows like {@link block}.
+     */
+    private byte[] compressedBlock;
+    private boolean endReached;
+
+    /**
+     * Returns an instance of AdaptiveHuffmanInputStream which will read the
+     * compressed data from the given InputStream.
+     *
+     * @param in The InputStream from which compressed data will be read.
+     */
+    public AdaptiveHuffmanInputStream(InputStream in) {
+        this.in = in;
+        model = new AdaptiveHuffmanModel();
+        blockHeader = new byte[AdaptiveHuffmanOutputStream.OFFSET_BLOCK_DATA];
+        block = new byte[0];
+        compressedBlock = new byte[0];
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (blockIndex == blockLength && !readBlock()) {
+            return -1;
+        }
+        return Byte.toUnsignedInt(block[blockIndex++]);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (blockIndex == blockLength && !readBlock()) {
+            return -1;
+        }
+        int copied = Math.min(len, blockLength - blockIndex);
+        Utils.arrayCopy(block, blockIndex, b, off, copied);
+        blockIndex += copied;
+        return copied;
+    }
+
+    @Override
+    public int available() {
+        return blockLength - blockIndex;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads and decompresses the next block.
+     *
+     * @return False if the end of the compressed stream has been reached,
+     * true otherwise.
+     */
+    private boolean readBlock() throws IOException {
+
+        if (endReached) {
+            return false;
+        }
+
+        readFully(blockHeader, blockHeader.length);
+        blockLength = Utils.extractInt(blockHeader,
+                AdaptiveHuffmanOutputStream.OFFSET_ORIG_BLOCK_LENGTH);
+        int compressedLength = Utils.extractInt(blockHeader,
+                AdaptiveHuffmanOutputStream.OFFSET_COMPRESSED_BLOCK_LENGTH);
+        blockIndex = 0;
+        if (blockLength == 0) {
+            endReached = true;
+            return false;
+        }
+
+        if (block.length < blockLength) {
+            block = new byte[blockLength];
+        }
+        if (compressedBlock.length < compressedLength) {
+            compressedBlock = new byte[compressedLength];
+        }
+        readFully(compressedBlock, compressedLength);
+
+        model.getDecoder().decode(new BitReader(compressedBlock, 0), block, 0, blockLength);
+        model.update(ByteHistogram.count(block, 0, blockLength));
+        return true;
+    }
+
+    private void readFully(byte[] b, int len) throws IOException {
+        for (int off = 0; off < len;) {
+            int read = in.read(b, off, len - off);
+            if (read < 0) {
+                throw new EOFException("The compressed stream ended before its end block.");
+            }
+            off += read;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package domain;
+
+/**
+ * The model shared by {@link AdaptiveHuffmanOutputStream} and
+ * {@link AdaptiveHuffmanInputStream}: a canonical Huffman code computed from a
+ * decayed histogram of the data seen so far. After each block, the weights are
+ * halved and the byte counts of the block are added to them, so the code
+ * follows changes in the data's statistics, giving more importance to recent
+ * blocks. Since the code used for a block depends only on the previous blocks,
+ * the decoder can compute the same code as the encoder, and codes never need
+ * to be stored in the compressed data.
+ */
+public class AdaptiveHuffmanModel {
+
+    /**
+     * Maximum codeword length; since every byte value always has a codeword,
+     * this limits how much a block can grow when its statistics differ from
+     * those of the previous blocks.
+     */
+    public static final int MAX_CW_LENGTH = 15;
+
+    /**
+     * Weight of each byte value, indexed by unsigned byte value; weights are
+     * never less than one, so that every byte value has a codeword.
+     */
+    private final long[] weights;
+    private CanonicalCode code;
+    private HuffmanEncoder encoder;
+    private HuffmanDecoder decoder;
+
+    /**
+     * Returns an instance of AdaptiveHuffmanModel, where all byte values have
+     * the same weight (and thus all codewords are Byte.SIZE bits long).
+     */
+    public AdaptiveHuffmanModel() {
+        weights = new long[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        for (int byteValue = 0; byteValue < weights.length; byteValue++) {
+            weights[byteValue] = 1;
+        }
+        computeCode();
+    }
+
+    /**
+     * Updates the model with the byte counts of a block; the code used for the
+     * next block is then computed from the updated weights.
+     *
+     * @param blockByteCounts Occurrence counts of each byte value in the
+     * block (see {@link ByteHistogram}).
+     */
+    public void update(long[] blockByteCounts) {
+        for (int byteValue = 0; byteValue < weights.length; byteValue++) {
+            // halving rounds up, so that weights never drop to zero
+            weights[byteValue] = (weights[byteValue] + 1) / 2 + blockByteCounts[byteValue];
+        }
+        computeCode();
+    }
+
+    /**
+     * Returns an encoder for the current code; it's built only when needed,
+     * since decoding doesn't use it.
+     *
+     * @return An encoder for the current code.
+     */
+    public HuffmanEncoder getEncoder() {
+        if (encoder == null) {
+            encoder = new HuffmanEncoder(code, Utils.POSSIBLE_BYTE_VALUES_COUNT);
+        }
+        return encoder;
+    }
+
+    /**
+     * Returns a decoder for the current code; it's built only when needed,
+     * since encoding doesn't use it.
+     *
+     * @return A decoder for the current code.
+     */
+    public HuffmanDecoder getDecoder() {
+        if (decoder == null) {
+            decoder = new HuffmanDecoder(code);
+        }
+        return decoder;
+    }
+
+    private void computeCode() {
+        int[] codewordLengths = HuffmanCodeLengths.compute(weights, MAX_CW_LENGTH);
+        code = new TreeRepresentation(codewordLengths).buildCanonicalCode();
+        encoder = null;
+        decoder = null;
+    }
+}
@@ -0,0 +1,159 @@
+package domain;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An OutputStream which compresses the data written into it with adaptive
+ * Huffman coding (see {@link AdaptiveHuffmanModel}), and writes the compressed
+ * data into another OutputStream. Data is collected into blocks of a fixed
+ * maximum size, so memory usage is bounded and no block is delayed by more
+ * than one block of data; {@link #flush()} compresses and writes the current
+ * block right away, even if it isn't full. The compressed stream is a sequence
+ * of blocks, each of which contains (in this order):
+ * - int: length (in bytes) of the original (uncompressed) block;
+ * - int: length (in bytes) of the compressed block;
+ * - compressed block, whose last byte is padded with zeros.
+ * The stream ends with a block whose original length is zero (see
+ * {@link #finish()}).
+ */
+public class AdaptiveHuffmanOutputStream extends OutputStream {
+
+    /**
+     * Offset (in bytes) from the beginning of each block, indicating where the
+     * length of the original block (in bytes) will be written.
+     */
+    static final int OFFSET_ORIG_BLOCK_LENGTH = 0;
+    /**
+     * Offset (in bytes) from the beginning of each block, indicating where the
+     * length of the compressed block (in bytes) will be written.
+     */
+    static final int OFFSET_COMPRESSED_BLOCK_LENGTH = OFFSET_ORIG_BLOCK_LENGTH + Integer.BYTES;
+    /**
+     * Offset (in bytes) from the beginning of each block, indicating where the
+     * compressed block will be written.
+     */
+    static final int OFFSET_BLOCK_DATA = OFFSET_COMPRESSED_BLOCK_LENGTH + Integer.BYTES;
+
+    private final OutputStream out;
+    private final AdaptiveHuffmanModel model;
+    /**
+     * Original data of the current block.
+     */
+    private final byte[] block;
+    /**
+     * Used length of {@link block}.
+     */
+    private int blockLength;
+    /**
+     * Array used for compressing blocks; it's large enough for the worst case,
+     * in which each byte gets a codeword of
+     * {@link AdaptiveHuffmanModel#MAX_CW_LENGTH} bits.
+     */
+    private final byte[] compressedBlock;
+    private boolean finished;
+
+    /**
+     * Returns an instance of AdaptiveHuffmanOutputStream which will write the
+     * compressed data into the given OutputStream.
+     *
+     * @param out The OutputStream into which compressed data will be written.
+     * @param blockSize Maximum size (in bytes) of each block of original data;
+     * the code is updated after each block.
+     */
+    public AdaptiveHuffmanOutputStream(OutputStream out, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Argument int blockSize has to be positive.");
+        }
+        this.out = out;
+        model = new AdaptiveHuffmanModel();
+        block = new byte[blockSize];
+        compressedBlock = new byte[OFFSET_BLOCK_DATA + (int) (((long) blockSize
+                * AdaptiveHuffmanModel.MAX_CW_LENGTH + Byte.SIZE - 1) / Byte.SIZE)];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkNotFinished();
+        if (blockLength == block.length) {
+            writeBlock();
+        }
+        block[blockLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        checkNotFinished();
+        while (len > 0) {
+            if (blockLength == block.length) {
+                writeBlock();
+            }
+            int copied = Math.min(len, block.length - blockLength);
+            Utils.arrayCopy(b, off, block, blockLength, copied);
+            blockLength += copied;
+            off += copied;
+            len -= copied;
+        }
+    }
+
+    /**
+     * Compresses and writes the current block (even if it isn't full), and
+     * flushes the underlying OutputStream.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (blockLength > 0) {
+            writeBlock();
+        }
+        out.flush();
+    }
+
+    /**
+     * Compresses and writes the current block, and then writes the block which
+     * marks the end of the stream, without closing the underlying
+     * OutputStream. Nothing can be written after calling this.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public void finish() throws IOException {
+        if (!finished) {
+            flush();
+            // the end of the stream is marked by an empty block
+            writeBlock();
+            out.flush();
+            finished = true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+
+    private void checkNotFinished() throws IOException {
+        if (finished) {
+            throw new IOException("The stream has already been finished.");
+        }
+    }
+
+    private void writeBlock() throws IOException {
+
+        long[] byteCounts = ByteHistogram.count(block, 0, blockLength);
+        HuffmanEncoder encoder = model.getEncoder();
+        int compressedLength = (int) ((encoder.encodedLengthInBits(byteCounts)
+                + Byte.SIZE - 1) / Byte.SIZE);
+
+        Utils.insertInt(blockLength, compressedBlock, OFFSET_ORIG_BLOCK_LENGTH);
+        Utils.insertInt(compressedLength, compressedBlock, OFFSET_COMPRESSED_BLOCK_LENGTH);
+        BitWriter writer = new BitWriter(compressedBlock, (long) Byte.SIZE * OFFSET_BLOCK_DATA);
+        encoder.encode(block, 0, blockLength, writer);
+        writer.flush();
+
+        out.write(compressedBlock, 0, OFFSET_BLOCK_DATA + compressedLength);
+        model.update(byteCounts);
+        blockLength = 0;
+    }
+}
@@ -0,0 +1,282 @@
+package domain;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A {@link BlockCompressionAlgorithm} implementation of block-sorting
+ * compression, like bzip2: each block goes through the Burrows-Wheeler
+ * transform, move-to-front coding, zero-run-length coding and canonical
+ * Huffman coding (for more info see
+ * https://en.wikipedia.org/wiki/Burrows%E2%80%93Wheeler_transform ). Blocks
+ * are compressed and decompressed concurrently.
+ *
+ * The Burrows-Wheeler transform sorts the suffixes of the block (with a
+ * {@link SuffixArray}, in linear time) and takes the byte before each of
+ * them, so that bytes followed by the same context end up next to each other.
+ * Move-to-front coding turns them into their ranks in a list of the byte
+ * values, where each byte is moved to the front after being coded, so that
+ * repeated bytes become zeros and frequent bytes small ranks. Each run of
+ * zeros is written as its length in bijective base 2, with the two symbols
+ * {@link #RUN_A} and {@link #RUN_B} as digits (like bzip2's RUNA and RUNB),
+ * and the other ranks are symbols of their own, coded with a canonical
+ * Huffman code computed for the block.
+ *
+ * Each compressed block will include (in this order):
+ * - int: index of the row of the sorted suffixes which starts the block (the
+ * sentinel's row, which has no byte before it);
+ * - the codeword lengths of the Huffman code (see {@link CanonicalCodeHeader});
+ * - the Huffman-coded symbols.
+ */
+public final class BWT extends BlockCompressionAlgorithm {
+
+    /**
+     * Symbols which are the digits 1 and 2 of the lengths of runs of zeros.
+     */
+    public static final int RUN_A = 0;
+    public static final int RUN_B = 1;
+    /**
+     * Number of symbols: the two digits of run lengths, and the nonzero
+     * ranks (symbol rank + 1 for rank).
+     */
+    public static final int SYMBOL_COUNT = Utils.POSSIBLE_BYTE_VALUES_COUNT + 1;
+
+    /**
+     * Default block size (900 KiB, like bzip2's largest blocks).
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 900 << 10;
+
+    /**
+     * The file extension used for files compressed using this class.
+     */
+    private static final String COMPRESSED_FILE_EXTENSION = ".bwt";
+    /**
+     * Short name for this algorithm (used in TUI).
+     */
+    private static final String NAME = "bwt";
+
+    /**
+     * Offset (in bytes) from the beginning of each compressed block,
+     * indicating where the index of the sentinel's row will be written.
+     */
+    private static final int OFFSET_PRIMARY_INDEX = 0;
+    /**
+     * Offset (in bytes) from the beginning of each compressed block,
+     * indicating where the Huffman code will be written.
+     */
+    private static final int OFFSET_DATA = OFFSET_PRIMARY_INDEX + Integer.BYTES;
+
+    /**
+     * Longer name for this algorithm (used in TUI).
+     */
+    private final String description;
+
+    /**
+     * Returns an instance of BWT with the default block size, which will use
+     * the common ForkJoinPool.
+     */
+    public BWT() {
+        this(DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns an instance of BWT with the given block size, which will use the
+     * given pool.
+     *
+     * @param blockSize Size (in bytes) of each block of original data.
+     * @param pool The pool which will be used to process blocks concurrently.
+     */
+    public BWT(int blockSize, ForkJoinPool pool) {
+        super(blockSize, pool);
+        description = "Burrows-Wheeler transform, move-to-front and Huffman coding in "
+                + "independent blocks of " + blockSize / 1024 + " KiB (multithreaded)";
+    }
+
+    @Override
+    protected BitSequence compressBlock(byte[] originalData, int fromIndex, int toIndex) {
+
+        int n = toIndex - fromIndex;
+        int[] suffixArray = SuffixArray.ofBytes(originalData, fromIndex, toIndex);
+        byte[] lastColumn = new byte[n];
+        int primaryIndex = 0;
+        int j = 0;
+        for (int i = 0; i < suffixArray.length; i++) {
+            if (suffixArray[i] == 0) {
+                primaryIndex = i;
+            } else {
+                lastColumn[j++] = originalData[fromIndex + suffixArray[i] - 1];
+            }
+        }
+
+        int[] symbols = new int[n];
+        int symbolCount = moveToFrontAndRunLengths(lastColumn, symbols);
+        long[] counts = new long[SYMBOL_COUNT];
+        for (int i = 0; i < symbolCount; i++) {
+            counts[symbols[i]]++;
+        }
+        int[] codewordLengths = CanonicalCodeHeader.codewordLengths(counts);
+        HuffmanEncoder encoder = new HuffmanEncoder(CanonicalCode.fromLengths(codewordLengths),
+                SYMBOL_COUNT);
+
+        byte[] bytes = new byte[OFFSET_DATA];
+        Utils.insertInt(primaryIndex, bytes, OFFSET_PRIMARY_INDEX);
+        BitWriter writer = new BitWriter(bytes, (long) Byte.SIZE * OFFSET_DATA);
+        writer.ensureCapacity(CanonicalCodeHeader.maxLengthInBits(SYMBOL_COUNT)
+                + encoder.encodedLengthInBits(counts));
+        CanonicalCodeHeader.write(codewordLengths, writer);
+        for (int i = 0; i < symbolCount; i++) {
+            encoder.encodeSymbol(symbols[i], writer);
+        }
+        writer.flush();
+        return writer.toBitSequence();
+    }
+
+    /**
+     * Codes the given bytes with move-to-front coding, writing runs of zeros
+     * as their lengths in bijective base 2.
+     *
+     * @return The number of symbols written.
+     */
+    private static int moveToFrontAndRunLengths(byte[] data, int[] symbols) {
+        byte[] list = initialList();
+        int count = 0;
+        int run = 0;
+        for (byte b : data) {
+            if (list[0] == b) {
+                run++;
+                continue;
+            }
+            count = writeRunLength(run, symbols, count);
+            run = 0;
+            // move b to the front, shifting the bytes before it
+            byte previous = list[0];
+            int rank = 0;
+            while (previous != b) {
+                rank++;
+                byte next = list[rank];
+                list[rank] = previous;
+                previous = next;
+            }
+            list[0] = b;
+            symbols[count++] = rank + 1;
+        }
+        return writeRunLength(run, symbols, count);
+    }
+
+    private static int writeRunLength(int run, int[] symbols, int count) {
+        while (run > 0) {
+            if ((run & 1) == 1) {
+                symbols[count++] = RUN_A;
+                run = (run - 1) >>> 1;
+            } else {
+                symbols[count++] = RUN_B;
+                run = (run - 2) >>> 1;
+            }
+        }
+        return count;
+    }
+
+    private static byte[] initialList() {
+        byte[] list = new byte[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        for (int i = 0; i < list.length; i++) {
+            list[i] = (byte) i;
+        }
+        return list;
+    }
+
+    @Override
+    protected void decompressBlock(byte[] compressedData, int offset,
+            byte[] originalData, int fromIndex, int toIndex) {
+
+        int n = toIndex - fromIndex;
+        int primaryIndex = Utils.extractInt(compressedData, offset + OFFSET_PRIMARY_INDEX);
+        if (primaryIndex < 1 || primaryIndex > n) {
+            throw new IllegalArgumentException("The compressed data contains an invalid "
+                    + "Burrows-Wheeler transform.");
+        }
+        BitReader reader = new BitReader(compressedData, offset + OFFSET_DATA);
+        HuffmanDecoder decoder = new HuffmanDecoder(
+                CanonicalCodeHeader.read(reader, SYMBOL_COUNT));
+
+        byte[] lastColumn = new byte[n];
+        byte[] list = initialList();
+        int weight = 1;
+        int i = 0;
+        while (i < n) {
+            int symbol = decoder.decodeSymbol(reader);
+            if (symbol <= RUN_B) {
+                // each digit of a run length adds its zeros right away
+                int zeros = (symbol + 1) * weight;
+                if (zeros > n - i) {
+                    throw new IllegalArgumentException("The compressed data contains a run "
+                            + "longer than the block.");
+                }
+                Utils.fill(lastColumn, i, i + zeros, list[0]);
+                i += zeros;
+                weight <<= 1;
+                continue;
+            }
+            weight = 1;
+            int rank = symbol - 1;
+            byte b = list[rank];
+            for (int k = rank; k > 0; k--) {
+                list[k] = list[k - 1];
+            }
+            list[0] = b;
+            lastColumn[i++] = b;
+        }
+
+        inverseTransform(lastColumn, primaryIndex, originalData, fromIndex);
+    }
+
+    /**
+     * Restores the block from the last column of its sorted suffixes (without
+     * the sentinel, whose row is primaryIndex), from its end to its start:
+     * the row of the suffix starting one byte earlier is given by the number
+     * of smaller bytes, plus the number of the same bytes in earlier rows.
+     */
+    private static void inverseTransform(byte[] lastColumn, int primaryIndex,
+            byte[] originalData, int fromIndex) {
+
+        int n = lastColumn.length;
+        // the sentinel is the smallest byte, and its row comes first
+        int[] firstRows = new int[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        for (byte b : lastColumn) {
+            firstRows[Byte.toUnsignedInt(b)]++;
+        }
+        int sum = 1;
+        for (int c = 0; c < firstRows.length; c++) {
+            int count = firstRows[c];
+            firstRows[c] = sum;
+            sum += count;
+        }
+        // previousRows[row] is the row of the suffix starting one byte before
+        // the suffix of the given row
+        int[] previousRows = new int[n + 1];
+        for (int row = 0; row <= n; row++) {
+            if (row != primaryIndex) {
+                int c = Byte.toUnsignedInt(lastColumn[row < primaryIndex ? row : row - 1]);
+                previousRows[row] = firstRows[c]++;
+            }
+        }
+        int row = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            originalData[fromIndex + i] = lastColumn[row < primaryIndex ? row : row - 1];
+            row = previousRows[row];
+        }
+    }
+
+    @Override
+    public String getExtension() {
+        return COMPRESSED_FILE_EXTENSION;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,112 @@
+package domain;
+
+/**
+ * Reads bits from a byte array in the same order used by {@link BitSequence}
+ * (most significant bit first). Up to 64 bits are kept in a buffer, so that
+ * several bits can be peeked and consumed at once instead of being read one by
+ * one. Reading past the end of the array returns zeros, so the caller is the
+ * one who must know when to stop (for example by knowing how many symbols have
+ * to be decoded).
+ */
+public class BitReader {
+
+    /**
+     * The buffer is refilled (one byte at a time) until it contains more than
+     * this many bits.
+     */
+    private static final int REFILL_LIMIT = Long.SIZE - Byte.SIZE;
+    /**
+     * Maximum number of bits which can be peeked or read at once.
+     */
+    public static final int MAX_PEEK = Integer.SIZE;
+
+    private final byte[] bytes;
+    /**
+     * Index of the next byte of {@link bytes} to be loaded into the buffer.
+     */
+    private int index;
+    /**
+     * Buffered bits, left-aligned (the next bit to be read is the most
+     * significant bit).
+     */
+    private long buffer;
+    /**
+     * Number of valid bits in {@link buffer}.
+     */
+    private int bufferedBits;
+
+    /**
+     * Returns an instance of BitReader which will start reading from the most
+     * significant bit of bytes[fromIndex].
+     *
+     * @param bytes Array containing the bits to be read; it isn't copied.
+     * @param fromIndex Index of the byte containing the first bit to be read.
+     */
+    public BitReader(byte[] bytes, int fromIndex) {
+        this.bytes = bytes;
+        this.index = fromIndex;
+        buffer = 0;
+        bufferedBits = 0;
+        refill();
+    }
+
+    /**
+     * Returns the next n bits (where n is given by bitCount) as an integer,
+     * without changing the reading position. The parameter is not checked, so
+     * be sure to call this with legal values.
+     *
+     * @param bitCount Number of bits to be peeked; it can have values ranging
+     * from 1 (inclusive) to {@link #MAX_PEEK} (inclusive).
+     * @return The next n bits, stored in the rightmost bits of an integer.
+     */
+    public int peek(int bitCount) {
+        if (bufferedBits < bitCount) {
+            refill();
+        }
+        return (int) (buffer >>> (Long.SIZE - bitCount));
+    }
+
+    /**
+     * Increments the reading position by n bits (where n is given by
+     * bitCount); it must be called only after having peeked at least n bits.
+     *
+     * @param bitCount Number of bits to be consumed.
+     */
+    public void consume(int bitCount) {
+        buffer <<= bitCount;
+        bufferedBits -= bitCount;
+    }
+
+    /**
+     * Reads the next n bits (where n is given by bitCount) as an integer, then
+     * increments the reading position by n bits.
+     *
+     * @param bitCount Number of bits to be read; it can have values ranging
+     * from 1 (inclusive) to {@link #MAX_PEEK} (inclusive).
+     * @return The read bits, stored in the rightmost bits of an integer.
+     */
+    public int read(int bitCount) {
+        int bits = peek(bitCount);
+        consume(bitCount);
+        return bits;
+    }
+
+    /**
+     * Returns the current reading position, measured in bits from the
+     * beginning of the array.
+     *
+     * @return The current reading position (in bits).
+     */
+    public long getBitPosition() {
+        return (long) Byte.SIZE * index - bufferedBits;
+    }
+
+    private void refill() {
+        while (bufferedBits <= REFILL_LIMIT) {
+            long nextByte = index < bytes.length ? Byte.toUnsignedLong(bytes[index]) : 0;
+            buffer |= nextByte << (REFILL_LIMIT - bufferedBits);
+            bufferedBits += Byte.SIZE;
+            index++;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package domain;
+
+/**
+ * Writes bits into a byte array in the same order used by {@link BitSequence}
+ * (most significant bit first). Bits are collected into a 64-bit accumulator
+ * and written into the array a whole 32-bit word at a time, so that appending
+ * a codeword costs a shift and an or, instead of a loop over bytes. The array
+ * is resized only by {@link #ensureCapacity(long)}, so it must otherwise be
+ * large enough to contain all the bits that will be written (see for example
+ * {@link HuffmanEncoder#encodedLengthInBits(long[])}).
+ */
+public class BitWriter {
+
+    private byte[] bytes;
+    /**
+     * Index of the next byte of {@link bytes} to be written.
+     */
+    private int index;
+    /**
+     * Bits which haven't been written into {@link bytes} yet, right-aligned
+     * (the most recently written bit is the least significant bit).
+     */
+    private long buffer;
+    /**
+     * Number of valid bits in {@link buffer}; it's always less than
+     * Integer.SIZE between calls to {@link #write(long, int)}.
+     */
+    private int bufferedBits;
+
+    /**
+     * Returns an instance of BitWriter which will start writing at the given
+     * bit position of the given array. If the position isn't at the beginning
+     * of a byte, the bits which precede it in that byte are preserved.
+     *
+     * @param bytes Array into which the bits will be written; it isn't copied.
+     * @param bitPosition Position (in bits from the beginning of the array) of
+     * the first bit to be written.
+     */
+    public BitWriter(byte[] bytes, long bitPosition) {
+        this.bytes = bytes;
+        index = (int) (bitPosition / Byte.SIZE);
+        bufferedBits = (int) (bitPosition % Byte.SIZE);
+        buffer = bufferedBits == 0 ? 0
+                : Byte.toUnsignedInt(bytes[index]) >>> (Byte.SIZE - bufferedBits);
+    }
+
+    /**
+     * Appends the n rightmost bits (where n is given by bitCount) of the given
+     * long. The parameters are not checked, so be sure to call this with legal
+     * values (see the parameters' description).
+     *
+     * @param bits The bits to be written, right-aligned; all bits to the left
+     * of the n rightmost ones must be zero.
+     * @param bitCount Number of bits to be written; it can have values ranging
+     * from 0 (inclusive) to Long.SIZE (exclusive).
+     */
+    public void write(long bits, int bitCount) {
+        if (bitCount > Integer.SIZE) {
+            writeWord(bits >>> Integer.SIZE, bitCount - Integer.SIZE);
+            writeWord(bits & 0xFFFFFFFFL, Integer.SIZE);
+        } else {
+            writeWord(bits, bitCount);
+        }
+    }
+
+    /**
+     * Writes into the array all the bits which are still in the accumulator;
+     * the unused bits of the last written byte are set to zero. It must be
+     * called once, after the last call to {@link #write(long, int)}.
+     */
+    public void flush() {
+        int lastByte = flushWholeBytes();
+        if (bufferedBits > 0) {
+            bytes[index] = (byte) lastByte;
+        }
+    }
+
+    /**
+     * Like {@link #flush()}, but the last byte is written only if it's full:
+     * if it isn't, its bits are returned instead, so that the caller can merge
+     * them with the bits written into the same byte by another BitWriter
+     * (which is useful when several BitWriters write concurrently into
+     * adjacent parts of the same array).
+     *
+     * @return The bits of the last byte (left-aligned, with the unused bits set
+     * to zero) if it isn't full, otherwise zero.
+     */
+    public int flushWholeBytes() {
+        for (; bufferedBits >= Byte.SIZE; bufferedBits -= Byte.SIZE) {
+            bytes[index++] = (byte) (buffer >>> (bufferedBits - Byte.SIZE));
+        }
+        return bufferedBits == 0 ? 0 : (int) (buffer << (Byte.SIZE - bufferedBits)) & 0xFF;
+    }
+
+    /**
+     * Makes sure that the given number of bits can be written: if the array
+     * is too small, it's replaced by a copy at least one and a half times as
+     * large, so that the total cost of copying is proportional to the final
+     * length (see {@link #getBytes()}).
+     *
+     * @param bitCount Number of bits which will be written.
+     */
+    public void ensureCapacity(long bitCount) {
+        // whole words are written, so a word more than needed is reserved
+        long neededLength = index + (bufferedBits + bitCount + Byte.SIZE - 1) / Byte.SIZE
+                + Integer.BYTES;
+        if (neededLength > bytes.length) {
+            byte[] largerBytes = new byte[(int) Math.max(neededLength,
+                    (long) bytes.length + bytes.length / 2)];
+            Utils.arrayCopy(bytes, 0, largerBytes, 0, index);
+            bytes = largerBytes;
+        }
+    }
+
+    /**
+     * Returns the array into which bits are written; it changes when
+     * {@link #ensureCapacity(long)} enlarges it.
+     *
+     * @return The array into which bits are written.
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the current writing position, measured in bits from the
+     * beginning of the array.
+     *
+     * @return The current writing position (in bits).
+     */
+    public long getBitPosition() {
+        return (long) Byte.SIZE * index + bufferedBits;
+    }
+
+    /**
+     * Returns a BitSequence which uses the array of this BitWriter and ends at
+     * the current writing position; it must be called after
+     * {@link #flush()}.
+     *
+     * @return A BitSequence containing the bits written so far (including
+     * those which preceded this BitWriter's starting position).
+     */
+    public BitSequence toBitSequence() {
+        if (bufferedBits == 0) {
+            return index == 0
+                    ? new BitSequence(bytes, Byte.SIZE, 0)
+                    : new BitSequence(bytes, 0, index - 1);
+        }
+        return new BitSequence(bytes, Byte.SIZE - bufferedBits, index);
+    }
+
+    /**
+     * Appends up to Integer.SIZE bits; whenever the accumulator contains at
+     * least Integer.SIZE bits, a whole word is written into the array.
+     */
+    private void writeWord(long bits, int bitCount) {
+
+        buffer = (buffer << bitCount) | bits;
+        bufferedBits += bitCount;
+
+        if (bufferedBits >= Integer.SIZE) {
+            bufferedBits -= Integer.SIZE;
+            int word = (int) (buffer >>> bufferedBits);
+            bytes[index] = (byte) (word >>> 24);
+            bytes[index + 1] = (byte) (word >>> 16);
+            bytes[index + 2] = (byte) (word >>> 8);
+            bytes[index + 3] = (byte) word;
+            index += Integer.BYTES;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package domain;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * An abstract {@link CompressionAlgorithm} which splits the data into blocks
+ * of fixed size, and compresses each block independently from the others, so
+ * that blocks can be compressed (and decompressed) concurrently on a
+ * ForkJoinPool. Since each block is compressed in the same way regardless of
+ * how many threads are used, the compressed data doesn't depend on the number
+ * of threads. The compressed data will include (in this order):
+ * - int: length (in bytes) of the original (uncompressed) data;
+ * - int: block size (in bytes);
+ * - block index: for each block, an int containing the length (in bytes) of
+ * the compressed block (the number of blocks can be calculated from the
+ * original data length and the block size);
+ * - compressed blocks, each starting at the beginning of a byte.
+ */
+public abstract class BlockCompressionAlgorithm extends CompressionAlgorithm {
+
+    /**
+     * Default block size (1 MiB).
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the length of the original data (in bytes) will be written.
+     */
+    private static final int OFFSET_ORIG_DATA_LENGTH = 0;
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the block size (in bytes) will be written.
+     */
+    private static final int OFFSET_BLOCK_SIZE = OFFSET_ORIG_DATA_LENGTH + Integer.BYTES;
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the block index will be written.
+     */
+    private static final int OFFSET_BLOCK_INDEX = OFFSET_BLOCK_SIZE + Integer.BYTES;
+
+    private final int blockSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * Returns an instance of BlockCompressionAlgorithm with the given block
+     * size, which will use the given pool for compressing and decompressing
+     * blocks concurrently.
+     *
+     * @param blockSize Size (in bytes) of each block of original data (except
+     * the last one, which can be shorter).
+     * @param pool The pool which will be used to process blocks concurrently.
+     */
+    protected BlockCompressionAlgorithm(int blockSize, ForkJoinPool pool) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Argument int blockSize has to be positive.");
+        }
+        this.blockSize = blockSize;
+        this.pool = pool;
+    }
+
+    @Override
+    public BitSequence compressData(byte[] originalData) {
+
+        int blockCount = blockCount(originalData.length, blockSize);
+        BitSequence[] compressedBlocks = new BitSequence[blockCount];
+
+        ParallelLoop.run(pool, 0, blockCount, i -> {
+            int fromIndex = i * blockSize;
+            compressedBlocks[i] = compressBlock(originalData,
+                    fromIndex, Math.min(fromIndex + blockSize, originalData.length));
+        });
+
+        int offset = OFFSET_BLOCK_INDEX + Integer.BYTES * blockCount;
+        long length = offset;
+        for (BitSequence compressedBlock : compressedBlocks) {
+            length += compressedBlock.getLengthInBytes();
+        }
+
+        byte[] bytes = new byte[(int) length];
+        Utils.insertInt(originalData.length, bytes, OFFSET_ORIG_DATA_LENGTH);
+        Utils.insertInt(blockSize, bytes, OFFSET_BLOCK_SIZE);
+
+        for (int i = 0; i < blockCount; i++) {
+            int blockLength = compressedBlocks[i].getLengthInBytes();
+            Utils.insertInt(blockLength, bytes, OFFSET_BLOCK_INDEX + Integer.BYTES * i);
+            Utils.arrayCopy(compressedBlocks[i].getBits(), 0, bytes, offset, blockLength);
+            offset += blockLength;
+        }
+
+        return new BitSequence(bytes, 0, bytes.length - 1);
+    }
+
+    @Override
+    public byte[] decompressData(byte[] compressedData) {
+
+        int originalDataLength = Utils.extractInt(compressedData, OFFSET_ORIG_DATA_LENGTH);
+        int usedBlockSize = Utils.extractInt(compressedData, OFFSET_BLOCK_SIZE);
+        int blockCount = blockCount(originalDataLength, usedBlockSize);
+
+        // the block index makes it possible to find where each block begins
+        // before any block has been decompressed
+        int[] blockOffsets = new int[blockCount];
+        int offset = OFFSET_BLOCK_INDEX + Integer.BYTES * blockCount;
+        for (int i = 0; i < blockCount; i++) {
+            blockOffsets[i] = offset;
+            offset += Utils.extractInt(compressedData, OFFSET_BLOCK_INDEX + Integer.BYTES * i);
+        }
+
+        byte[] originalData = new byte[originalDataLength];
+
+        ParallelLoop.run(pool, 0, blockCount, i -> {
+            int fromIndex = i * usedBlockSize;
+            decompressBlock(compressedData, blockOffsets[i], originalData,
+                    fromIndex, Math.min(fromIndex + usedBlockSize, originalDataLength));
+        });
+
+        return originalData;
+    }
+
+    /**
+     * Compresses the given range of the given data (a single block).
+     *
+     * @param originalData The data containing the block to be compressed.
+     * @param fromIndex Index of the first byte of the block (inclusive).
+     * @param toIndex Index of the last byte of the block (exclusive).
+     * @return The compressed block.
+     */
+    protected abstract BitSequence compressBlock(byte[] originalData, int fromIndex, int toIndex);
+
+    /**
+     * Decompresses a single block, writing it into the given range of the
+     * given array.
+     *
+     * @param compressedData The compressed data containing the block.
+     * @param offset Offset (in bytes) of the compressed block.
+     * @param originalData The array into which the block will be decompressed.
+     * @param fromIndex Index of originalData where the first byte of the block
+     * will be written (inclusive).
+     * @param toIndex Index of originalData where the block ends (exclusive).
+     */
+    protected abstract void decompressBlock(byte[] compressedData, int offset,
+            byte[] originalData, int fromIndex, int toIndex);
+
+    /**
+     * Returns the block size (in bytes) used for compression.
+     *
+     * @return The block size (in bytes) used for compression.
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    private static int blockCount(int dataLength, int blockSize) {
+        return (int) (((long) dataLength + blockSize - 1) / blockSize);
+    }
+}
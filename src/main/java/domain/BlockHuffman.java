@@ -0,0 +1,77 @@
+package domain;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A {@link BlockCompressionAlgorithm} implementation which compresses each
+ * block with canonical Huffman coding, so that each block has its own
+ * canonical Huffman code (each compressed block has the same format used by
+ * {@link Huffman#compressData(byte[]) Huffman}). Blocks are compressed and
+ * decompressed concurrently.
+ */
+public final class BlockHuffman extends BlockCompressionAlgorithm {
+
+    /**
+     * The file extension used for files compressed using this class.
+     */
+    private static final String COMPRESSED_FILE_EXTENSION = ".bhuff";
+    /**
+     * Short name for this algorithm (used in TUI).
+     */
+    private static final String NAME = "bhuffman";
+
+    /**
+     * Longer name for this algorithm (used in TUI).
+     */
+    private final String description;
+
+    private final Huffman huffman;
+
+    /**
+     * Returns an instance of BlockHuffman with the default block size, which
+     * will use the common ForkJoinPool.
+     */
+    public BlockHuffman() {
+        this(DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns an instance of BlockHuffman with the given block size, which will
+     * use the given pool.
+     *
+     * @param blockSize Size (in bytes) of each block of original data.
+     * @param pool The pool which will be used to process blocks concurrently.
+     */
+    public BlockHuffman(int blockSize, ForkJoinPool pool) {
+        super(blockSize, pool);
+        huffman = new Huffman();
+        description = "canonical Huffman coding in independent blocks of "
+                + blockSize / 1024 + " KiB (multithreaded)";
+    }
+
+    @Override
+    protected BitSequence compressBlock(byte[] originalData, int fromIndex, int toIndex) {
+        return huffman.compressData(originalData, fromIndex, toIndex);
+    }
+
+    @Override
+    protected void decompressBlock(byte[] compressedData, int offset,
+            byte[] originalData, int fromIndex, int toIndex) {
+        huffman.decompressData(compressedData, offset, originalData, fromIndex);
+    }
+
+    @Override
+    public String getExtension() {
+        return COMPRESSED_FILE_EXTENSION;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+}
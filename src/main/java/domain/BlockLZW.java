@@ -0,0 +1,108 @@
+package domain;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A {@link BlockCompressionAlgorithm} implementation which compresses each
+ * block with {@link LZW}, so that each block starts with a fresh dictionary
+ * (each compressed block has the same format used by
+ * {@link LZW#compressData(byte[]) LZW}). Blocks are compressed and
+ * decompressed concurrently; smaller blocks make more of them available to
+ * the threads, but each dictionary sees less data, so compression is worse.
+ */
+public final class BlockLZW extends BlockCompressionAlgorithm {
+
+    /**
+     * Default maximum codeword length.
+     */
+    public static final int DEFAULT_MAX_CW_LENGTH = 16;
+
+    /**
+     * Names of instances of this class are this prefix followed by the
+     * maximum codeword length, which is needed for decompression.
+     */
+    private static final String NAME_PREFIX = "blzw";
+
+    /**
+     * The file extension used for files compressed using this class.
+     */
+    private final String compressedFileExtension;
+    /**
+     * Short name for this algorithm (used in TUI).
+     */
+    private final String name;
+    /**
+     * Longer name for this algorithm (used in TUI).
+     */
+    private final String description;
+
+    private final LZW lzw;
+
+    /**
+     * Returns an instance of BlockLZW with the default maximum codeword length
+     * and block size, which will use the common ForkJoinPool.
+     */
+    public BlockLZW() {
+        this(DEFAULT_MAX_CW_LENGTH, DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns an instance of BlockLZW with the given maximum codeword length
+     * and block size, which will use the given pool.
+     *
+     * @param maxCodewordLength Maximum length for variable-length LZW codewords
+     * (see {@link LZW#LZW(int)}).
+     * @param blockSize Size (in bytes) of each block of original data.
+     * @param pool The pool which will be used to process blocks concurrently.
+     */
+    public BlockLZW(int maxCodewordLength, int blockSize, ForkJoinPool pool) {
+        super(blockSize, pool);
+        lzw = new LZW(maxCodewordLength);
+        name = NAME_PREFIX + maxCodewordLength;
+        compressedFileExtension = "." + name;
+        description = "Lempel-Ziv-Welch (max length " + maxCodewordLength
+                + ") in independent blocks of " + blockSize / 1024 + " KiB (multithreaded)";
+    }
+
+    @Override
+    protected BitSequence compressBlock(byte[] originalData, int fromIndex, int toIndex) {
+        return lzw.compressData(originalData, fromIndex, toIndex);
+    }
+
+    @Override
+    protected void decompressBlock(byte[] compressedData, int offset,
+            byte[] originalData, int fromIndex, int toIndex) {
+        // checked before decoding, so that a corrupted block can't overwrite
+        // the blocks after it
+        if (LZW.originalDataLength(compressedData, offset) != toIndex - fromIndex) {
+            throw new IllegalArgumentException("The block at offset " + offset
+                    + " doesn't have the length of " + (toIndex - fromIndex) + " bytes.");
+        }
+        lzw.decompressData(compressedData, offset, originalData, fromIndex);
+    }
+
+    /**
+     * Returns the LZW instance which compresses each block; its dictionary
+     * statistics include the lookups made for all blocks.
+     *
+     * @return The LZW instance used for each block.
+     */
+    public LZW getLZW() {
+        return lzw;
+    }
+
+    @Override
+    public String getExtension() {
+        return compressedFileExtension;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+}
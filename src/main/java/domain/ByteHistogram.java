@@ -0,0 +1,137 @@
+package domain;
+
+import java.util.Random;
+
+/**
+ * Counts how many times each possible byte value occurs in some data. Instead
+ * of incrementing a single table of counts, consecutive bytes are counted into
+ * {@link #TABLE_COUNT} interleaved tables, which are summed at the end: when
+ * the same byte value repeats (which is common, especially in text), each
+ * increment doesn't have to wait for the previous one to be stored, since they
+ * are in different tables. Large data can also be split into chunks which are
+ * counted concurrently (like {@link Huffman} does), merging their histograms
+ * at the end.
+ */
+public class ByteHistogram {
+
+    /**
+     * Number of interleaved count tables.
+     */
+    private static final int TABLE_COUNT = 4;
+
+    /**
+     * Counts how many times each possible byte value occurs in the given range
+     * of the given data.
+     *
+     * @param data The data from which byte values occurrences will be counted.
+     * @param fromIndex Index of the first byte to be counted (inclusive).
+     * @param toIndex Index of the last byte to be counted (exclusive).
+     * @return An array containing occurrence counts for each possible byte
+     * value; the count for a given byte value can be found using its unsigned
+     * value as an index.
+     */
+    public static long[] count(byte[] data, int fromIndex, int toIndex) {
+
+        // a single array holds all the tables; table t begins at index
+        // t * POSSIBLE_BYTE_VALUES_COUNT, and an int can't overflow, since
+        // each table counts at most a quarter of the bytes
+        int[] tables = new int[TABLE_COUNT * Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        int i = fromIndex;
+
+        for (; i + TABLE_COUNT <= toIndex; i += TABLE_COUNT) {
+            tables[Byte.toUnsignedInt(data[i])]++;
+            tables[0x100 + Byte.toUnsignedInt(data[i + 1])]++;
+            tables[0x200 + Byte.toUnsignedInt(data[i + 2])]++;
+            tables[0x300 + Byte.toUnsignedInt(data[i + 3])]++;
+        }
+        for (; i < toIndex; i++) {
+            tables[Byte.toUnsignedInt(data[i])]++;
+        }
+
+        long[] counts = new long[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        for (int t = 0; t < tables.length; t++) {
+            counts[t % Utils.POSSIBLE_BYTE_VALUES_COUNT] += tables[t];
+        }
+        return counts;
+    }
+
+    /**
+     * Counts how many times each possible byte value occurs in a sample of the
+     * given range of the given data: the range is split into blockCount
+     * strata of the same length, and a block of blockSize bytes is counted
+     * from a pseudo-random position of each stratum. The positions depend
+     * only on the length of the range, so the same data always gives the same
+     * sample. If the range isn't longer than the whole sample, it's counted
+     * entirely.
+     *
+     * @param data The data from which byte values occurrences will be counted.
+     * @param fromIndex Index of the first byte of the range (inclusive).
+     * @param toIndex Index of the last byte of the range (exclusive).
+     * @param blockSize Length (in bytes) of each sampled block.
+     * @param blockCount Number of sampled blocks.
+     * @return An array containing occurrence counts for each possible byte
+     * value, counted only in the sampled blocks.
+     */
+    public static long[] sample(byte[] data, int fromIndex, int toIndex,
+            int blockSize, int blockCount) {
+
+        int length = toIndex - fromIndex;
+        if (length <= (long) blockSize * blockCount) {
+            return count(data, fromIndex, toIndex);
+        }
+
+        Random random = new Random(length);
+        long[][] histograms = new long[blockCount][];
+        for (int b = 0; b < blockCount; b++) {
+            int stratumStart = fromIndex + (int) ((long) length * b / blockCount);
+            int stratumEnd = fromIndex + (int) ((long) length * (b + 1) / blockCount);
+            int blockStart = stratumStart + random.nextInt(stratumEnd - stratumStart - blockSize + 1);
+            histograms[b] = count(data, blockStart, blockStart + blockSize);
+        }
+        return merge(histograms);
+    }
+
+    /**
+     * Merges the given histograms (for example the ones of different chunks of
+     * the same data) into a single one.
+     *
+     * @param histograms The histograms to be merged; each one must contain
+     * occurrence counts for each possible byte value.
+     * @return A new histogram, containing the sum of the given ones.
+     */
+    public static long[] merge(long[][] histograms) {
+        long[] counts = new long[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        for (long[] histogram : histograms) {
+            for (int byteValue = 0; byteValue < counts.length; byteValue++) {
+                counts[byteValue] += histogram[byteValue];
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Computes the Shannon entropy of the given histogram, which is the
+     * minimum average number of bits per byte that any code assigning a fixed
+     * codeword to each byte value (like Huffman coding) can achieve (for more
+     * info see https://en.wikipedia.org/wiki/Entropy_(information_theory)).
+     *
+     * @param counts Occurrence counts for each possible byte value.
+     * @return The entropy (in bits per byte), or zero if all counts are zero.
+     */
+    public static double entropy(long[] counts) {
+
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+
+        double entropy = 0;
+        for (long count : counts) {
+            if (count > 0) {
+                double probability = (double) count / total;
+                entropy -= probability * Math.log(probability);
+            }
+        }
+        return entropy / Math.log(2);
+    }
+}
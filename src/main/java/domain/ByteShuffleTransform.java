@@ -0,0 +1,102 @@
+package domain;
+
+/**
+ * A {@link Transform} for data made of fixed-width records (like arrays of
+ * ints or floats), which splits each block into byte planes: first the first
+ * byte of every record, then the second byte of every record, and so on. The
+ * bytes of the same field, which are often similar (the most significant
+ * bytes of small numbers are all zeros), end up next to each other. The bytes
+ * after the last whole record of a block are kept as they are, so blocks
+ * should be a multiple of the record width (see {@link TransformPipeline}).
+ */
+public final class ByteShuffleTransform implements Transform {
+
+    public static final int MIN_WIDTH = 2;
+    public static final int MAX_WIDTH = 255;
+
+    /**
+     * Names of instances of this class are this prefix followed by the width.
+     */
+    public static final String NAME_PREFIX = "shuffle";
+
+    private final int width;
+
+    /**
+     * Returns an instance of ByteShuffleTransform for records of the given
+     * width.
+     *
+     * @param width Width (in bytes) of the records; it has to be between
+     * {@link #MIN_WIDTH} and {@link #MAX_WIDTH} (both inclusive).
+     */
+    public ByteShuffleTransform(int width) {
+        if (width < MIN_WIDTH || width > MAX_WIDTH) {
+            throw new IllegalArgumentException("Argument int width has to be between "
+                    + MIN_WIDTH + " and " + MAX_WIDTH + " (both inclusive).");
+        }
+        this.width = width;
+    }
+
+    /**
+     * Returns an instance of ByteShuffleTransform with the given name (for
+     * example "shuffle4" for records of 4 bytes).
+     *
+     * @param name Name of a byte shuffle transform.
+     * @return An instance of ByteShuffleTransform with the given name, or null
+     * if no width corresponds to it.
+     */
+    public static ByteShuffleTransform forName(String name) {
+        for (int w = MIN_WIDTH; w <= MAX_WIDTH; w++) {
+            if (name.equals(NAME_PREFIX + w)) {
+                return new ByteShuffleTransform(w);
+            }
+        }
+        return null;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public String getName() {
+        return NAME_PREFIX + width;
+    }
+
+    @Override
+    public int maxTransformedLength(int length) {
+        return length;
+    }
+
+    @Override
+    public int forward(byte[] src, int srcFrom, int length, byte[] dest, int destFrom) {
+        int records = length / width;
+        for (int k = 0; k < width; k++) {
+            int plane = destFrom + k * records;
+            for (int r = 0; r < records; r++) {
+                dest[plane + r] = src[srcFrom + r * width + k];
+            }
+        }
+        int whole = records * width;
+        Utils.arrayCopy(src, srcFrom + whole, dest, destFrom + whole, length - whole);
+        return length;
+    }
+
+    @Override
+    public int inverse(byte[] src, int srcFrom, int length, byte[] dest, int destFrom,
+            int maxLength) {
+        if (length > maxLength) {
+            throw new IllegalArgumentException("The transformed block is longer than "
+                    + maxLength + " bytes.");
+        }
+        int records = length / width;
+        for (int k = 0; k < width; k++) {
+            int plane = srcFrom + k * records;
+            for (int r = 0; r < records; r++) {
+                dest[destFrom + r * width + k] = src[plane + r];
+            }
+        }
+        int whole = records * width;
+        Utils.arrayCopy(src, srcFrom + whole, dest, destFrom + whole, length - whole);
+        return length;
+    }
+}
@@ -0,0 +1,165 @@
+package domain;
+
+/**
+ * Represents a canonical Huffman code using only primitive arrays. The code is
+ * described (like in {@link TreeRepresentation}) by the number of codewords of
+ * each length and by the list of symbols in canonical order (so firstly by
+ * codeword length, and secondly by alphabetical order); from those, the
+ * codewords themselves are computed as consecutive binary numbers (for more
+ * info see https://en.wikipedia.org/wiki/Canonical_Huffman_code). Symbols are
+ * stored as ints, so that the same code can be used with alphabets which are
+ * larger than the byte alphabet.
+ */
+public class CanonicalCode {
+
+    /**
+     * Maximum supported codeword length; codewords are stored in longs, and
+     * using all of their bits would just make the arithmetic harder to follow.
+     */
+    public static final int MAX_CODEWORD_LENGTH = Long.SIZE - 1;
+
+    /**
+     * Symbols in canonical order.
+     */
+    private final int[] symbols;
+    /**
+     * Codeword length of each symbol; lengths[i] is the length of the codeword
+     * of symbols[i].
+     */
+    private final int[] lengths;
+    /**
+     * Codeword of each symbol (right-aligned); codewords[i] is the codeword of
+     * symbols[i].
+     */
+    private final long[] codewords;
+    /**
+     * Length of the longest codeword.
+     */
+    private final int maxLength;
+
+    /**
+     * Returns an instance of CanonicalCode with the given codeword length
+     * counts and symbols.
+     *
+     * @param lengthCounts Number of codewords of each length; the count for
+     * length l is in lengthCounts[l] (lengthCounts[0] is ignored).
+     * @param symbols All symbols of the code, in canonical order; its length
+     * must be equal to the sum of the counts in lengthCounts.
+     */
+    public CanonicalCode(int[] lengthCounts, int[] symbols) {
+
+        if (lengthCounts.length - 1 > MAX_CODEWORD_LENGTH) {
+            throw new IllegalArgumentException("Codeword lengths can't be greater than "
+                    + MAX_CODEWORD_LENGTH + ".");
+        }
+
+        this.symbols = symbols;
+        lengths = new int[symbols.length];
+        codewords = new long[symbols.length];
+
+        long codeword = 0;
+        int i = 0;
+        int length;
+        for (length = 1; length < lengthCounts.length; length++) {
+            for (int j = lengthCounts[length]; j > 0; j--) {
+                lengths[i] = length;
+                codewords[i++] = codeword++;
+            }
+            codeword <<= 1;
+        }
+
+        if (i != symbols.length) {
+            throw new IllegalArgumentException("The sum of the codeword length counts "
+                    + "must be equal to the number of symbols.");
+        }
+
+        maxLength = symbols.length == 0 ? 0 : lengths[symbols.length - 1];
+    }
+
+    /**
+     * Returns the canonical code with the given codeword lengths (see for
+     * example {@link HuffmanCodeLengths}); unlike
+     * {@link TreeRepresentation#TreeRepresentation(int[])}, the alphabet can
+     * have any size.
+     *
+     * @param codewordLengths Codeword length of each symbol, indexed by
+     * symbol; symbols which don't have a codeword must have length zero.
+     * @return The canonical code with the given codeword lengths.
+     */
+    public static CanonicalCode fromLengths(int[] codewordLengths) {
+
+        int maxLength = 0;
+        for (int length : codewordLengths) {
+            maxLength = Math.max(maxLength, length);
+        }
+        int[] lengthCounts = new int[maxLength + 1];
+        for (int length : codewordLengths) {
+            lengthCounts[length]++;
+        }
+
+        // symbolIndexes[l] is the index where the next symbol with codeword
+        // length l will be written, so that symbols end up in canonical order
+        int[] symbolIndexes = new int[maxLength + 1];
+        for (int l = 2; l <= maxLength; l++) {
+            symbolIndexes[l] = symbolIndexes[l - 1] + lengthCounts[l - 1];
+        }
+        int[] symbols = new int[codewordLengths.length - lengthCounts[0]];
+        for (int symbol = 0; symbol < codewordLengths.length; symbol++) {
+            if (codewordLengths[symbol] > 0) {
+                symbols[symbolIndexes[codewordLengths[symbol]]++] = symbol;
+            }
+        }
+
+        return new CanonicalCode(lengthCounts, symbols);
+    }
+
+    /**
+     * Returns the number of symbols in this code.
+     *
+     * @return Number of symbols in this code.
+     */
+    public int getSymbolCount() {
+        return symbols.length;
+    }
+
+    /**
+     * Returns the symbol at the given position in canonical order.
+     *
+     * @param i Position of the symbol in canonical order.
+     * @return The symbol at the given position in canonical order.
+     */
+    public int getSymbol(int i) {
+        return symbols[i];
+    }
+
+    /**
+     * Returns the length of the codeword at the given position in canonical
+     * order.
+     *
+     * @param i Position of the symbol in canonical order.
+     * @return Length of the codeword of the symbol at the given position.
+     */
+    public int getLength(int i) {
+        return lengths[i];
+    }
+
+    /**
+     * Returns the codeword at the given position in canonical order, stored in
+     * the rightmost {@link #getLength(int)} bits of a long.
+     *
+     * @param i Position of the symbol in canonical order.
+     * @return Codeword of the symbol at the given position.
+     */
+    public long getCodeword(int i) {
+        return codewords[i];
+    }
+
+    /**
+     * Returns the length of the longest codeword of this code.
+     *
+     * @return Length of the longest codeword, or zero if the code is empty.
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+}
@@ -0,0 +1,91 @@
+package domain;
+
+/**
+ * Writes and reads the compact description of a canonical Huffman code which
+ * precedes the data it encodes. Like {@link TreeRepresentation}, it relies on
+ * the code being canonical, so only codeword lengths are needed; but since
+ * the alphabet can be larger than the byte alphabet (and most symbols can be
+ * used), the length of each symbol is written instead of the list of symbols:
+ * each length takes {@link #LENGTH_BITS} bits, and a length of zero is
+ * followed by the number (written with {@link #ZERO_RUN_BITS} bits) of the
+ * following symbols which also have length zero, which are then skipped.
+ */
+public class CanonicalCodeHeader {
+
+    /**
+     * Maximum length of a codeword, so that lengths can be written with
+     * {@link #LENGTH_BITS} bits.
+     */
+    public static final int MAX_CODEWORD_LENGTH = 15;
+    private static final int LENGTH_BITS = 4;
+    /**
+     * Number of bits of the length of a run of symbols without codeword.
+     */
+    private static final int ZERO_RUN_BITS = 6;
+    private static final int MAX_ZERO_RUN = (1 << ZERO_RUN_BITS) - 1;
+
+    /**
+     * Returns the codeword lengths of a Huffman code for the given symbol
+     * counts, none of which is longer than {@link #MAX_CODEWORD_LENGTH} (see
+     * {@link HuffmanCodeLengths#compute(long[], int)}).
+     *
+     * @param symbolCounts Occurrence counts of each symbol, indexed by symbol.
+     * @return The codeword length of each symbol, indexed by symbol.
+     */
+    public static int[] codewordLengths(long[] symbolCounts) {
+        return HuffmanCodeLengths.compute(symbolCounts, MAX_CODEWORD_LENGTH);
+    }
+
+    /**
+     * Returns the maximum number of bits taken by the header of a code with
+     * the given number of symbols.
+     *
+     * @param symbolCount Number of symbols of the alphabet.
+     * @return The maximum length (in bits) of the header.
+     */
+    public static long maxLengthInBits(int symbolCount) {
+        return (long) (LENGTH_BITS + ZERO_RUN_BITS) * symbolCount;
+    }
+
+    /**
+     * Writes the given codeword lengths (one for each symbol of the
+     * alphabet).
+     *
+     * @param codewordLengths Codeword length of each symbol, indexed by symbol
+     * (zero for symbols without codeword); none can be longer than
+     * {@link #MAX_CODEWORD_LENGTH}.
+     * @param writer The BitWriter used to write the lengths.
+     */
+    public static void write(int[] codewordLengths, BitWriter writer) {
+        for (int symbol = 0; symbol < codewordLengths.length; symbol++) {
+            writer.write(codewordLengths[symbol], LENGTH_BITS);
+            if (codewordLengths[symbol] == 0) {
+                int run = 0;
+                while (run < MAX_ZERO_RUN && symbol + 1 < codewordLengths.length
+                        && codewordLengths[symbol + 1] == 0) {
+                    run++;
+                    symbol++;
+                }
+                writer.write(run, ZERO_RUN_BITS);
+            }
+        }
+    }
+
+    /**
+     * Reads codeword lengths written by {@link #write(int[], BitWriter)}.
+     *
+     * @param reader The BitReader used to read the lengths.
+     * @param symbolCount Number of symbols of the alphabet.
+     * @return The canonical code with the read codeword lengths.
+     */
+    public static CanonicalCode read(BitReader reader, int symbolCount) {
+        int[] codewordLengths = new int[symbolCount];
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            codewordLengths[symbol] = reader.read(LENGTH_BITS);
+            if (codewordLengths[symbol] == 0) {
+                symbol += reader.read(ZERO_RUN_BITS);
+            }
+        }
+        return CanonicalCode.fromLengths(codewordLengths);
+    }
+}
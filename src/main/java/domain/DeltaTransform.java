@@ -0,0 +1,103 @@
+package domain;
+
+/**
+ * A {@link Transform} which replaces each byte with its difference (modulo
+ * 256) from the byte the given distance before it, so that slowly changing
+ * values (like samples of a signal, or the fields of fixed-width records, with
+ * the record length as the distance) become small differences, which repeat
+ * more often. The first bytes of each block are kept as they are.
+ */
+public final class DeltaTransform implements Transform {
+
+    public static final int MIN_DISTANCE = 1;
+    public static final int MAX_DISTANCE = 255;
+
+    /**
+     * Names of instances of this class are this prefix, followed by the
+     * distance if it's not 1.
+     */
+    public static final String NAME_PREFIX = "delta";
+
+    private final int distance;
+    private final String name;
+
+    /**
+     * Returns an instance of DeltaTransform with a distance of one byte.
+     */
+    public DeltaTransform() {
+        this(MIN_DISTANCE);
+    }
+
+    /**
+     * Returns an instance of DeltaTransform with the given distance.
+     *
+     * @param distance Distance (in bytes) of the byte from which the
+     * difference is computed; it has to be between {@link #MIN_DISTANCE} and
+     * {@link #MAX_DISTANCE} (both inclusive).
+     */
+    public DeltaTransform(int distance) {
+        if (distance < MIN_DISTANCE || distance > MAX_DISTANCE) {
+            throw new IllegalArgumentException("Argument int distance has to be between "
+                    + MIN_DISTANCE + " and " + MAX_DISTANCE + " (both inclusive).");
+        }
+        this.distance = distance;
+        name = NAME_PREFIX + (distance == MIN_DISTANCE ? "" : distance);
+    }
+
+    /**
+     * Returns an instance of DeltaTransform with the given name (for example
+     * "delta4" for a distance of 4 bytes).
+     *
+     * @param name Name of a delta transform.
+     * @return An instance of DeltaTransform with the given name, or null if no
+     * distance corresponds to it.
+     */
+    public static DeltaTransform forName(String name) {
+        for (int d = MIN_DISTANCE; d <= MAX_DISTANCE; d++) {
+            DeltaTransform transform = new DeltaTransform(d);
+            if (transform.getName().equals(name)) {
+                return transform;
+            }
+        }
+        return null;
+    }
+
+    public int getDistance() {
+        return distance;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int maxTransformedLength(int length) {
+        return length;
+    }
+
+    @Override
+    public int forward(byte[] src, int srcFrom, int length, byte[] dest, int destFrom) {
+        int head = Math.min(distance, length);
+        Utils.arrayCopy(src, srcFrom, dest, destFrom, head);
+        for (int i = head; i < length; i++) {
+            dest[destFrom + i] = (byte) (src[srcFrom + i] - src[srcFrom + i - distance]);
+        }
+        return length;
+    }
+
+    @Override
+    public int inverse(byte[] src, int srcFrom, int length, byte[] dest, int destFrom,
+            int maxLength) {
+        if (length > maxLength) {
+            throw new IllegalArgumentException("The transformed block is longer than "
+                    + maxLength + " bytes.");
+        }
+        int head = Math.min(distance, length);
+        Utils.arrayCopy(src, srcFrom, dest, destFrom, head);
+        for (int i = head; i < length; i++) {
+            dest[destFrom + i] = (byte) (src[srcFrom + i] + dest[destFrom + i - distance]);
+        }
+        return length;
+    }
+}
@@ -1,5 +1,7 @@
 package domain;
 
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * A {@link CompressionAlgorithm} implementation which uses canonical Huffman
  * coding. For more details see {@link #compressData(byte[]) compressData} and
@@ -8,17 +10,71 @@ package domain;
 public final class Huffman extends CompressionAlgorithm {
 
     /**
-     * The file extension used for files compressed using this class.
+     * The file extension used for files compressed using this class; when
+     * codeword length is limited, it includes a number indicating the maximum
+     * codeword length (even if the compressed data can be decompressed by any
+     * instance of this class).
      */
-    private static final String COMPRESSED_FILE_EXTENSION = ".huff";
+    private final String compressedFileExtension;
     /**
      * Short name for this algorithm (used in TUI).
      */
-    private static final String NAME = "huffman";
+    private final String name;
     /**
      * Longer name for this algorithm (used in TUI).
      */
-    private static final String DESCRIPTION = "canonical Huffman coding";
+    private final String description;
+
+    /**
+     * Value of {@link #maxCodewordLength} meaning that codeword length isn't
+     * limited (apart from the limit given by the length of the input).
+     */
+    public static final int UNLIMITED_CW_LENGTH = 0;
+    /**
+     * Maximum length for a codeword; if the Huffman code computed for some data
+     * has longer codewords, the codeword lengths are computed again with the
+     * package-merge algorithm (see {@link PackageMerge}), which finds the best
+     * code among those whose codewords don't exceed this length. Short
+     * codewords keep the decoding table small (see {@link HuffmanDecoder}), at
+     * the cost of a slightly larger compressed size.
+     */
+    private final int maxCodewordLength;
+
+    /**
+     * Value of {@link #sampleBlockCount} meaning that the code is computed
+     * from the byte counts of all the data.
+     */
+    public static final int NO_SAMPLING = 0;
+    /**
+     * Default value of {@link #sampleBlockCount}; with blocks of
+     * {@link #SAMPLE_BLOCK_SIZE} bytes, the sample is 1 MiB long.
+     */
+    public static final int DEFAULT_SAMPLE_BLOCK_COUNT = 256;
+    /**
+     * Length (in bytes) of each block counted when the code is computed from a
+     * sample of the data.
+     */
+    public static final int SAMPLE_BLOCK_SIZE = 1 << 12;
+    /**
+     * Weight given to byte values which don't occur in the sample, so that
+     * they still get a codeword (the longest ones) in case they occur in the
+     * rest of the data.
+     */
+    private static final long ESCAPE_WEIGHT = 1;
+    /**
+     * Number of bytes encoded between checks of the output array's capacity,
+     * when the code is computed from a sample.
+     */
+    private static final int SAMPLED_PIECE_SIZE = 1 << 20;
+    /**
+     * Number of blocks counted for computing the code, when data is longer
+     * than the whole sample (see
+     * {@link ByteHistogram#sample(byte[], int, int, int, int)}); this saves a
+     * full pass over the data, at the cost of a slightly larger compressed
+     * size, since the code is optimal for the sample rather than for the whole
+     * data. The compressed data has the same format in both cases.
+     */
+    private final int sampleBlockCount;
 
     /**
      * Offset (in bytes) from the beginning of compressed files, indicating
@@ -45,386 +101,465 @@ public final class Huffman extends CompressionAlgorithm {
     public static final int OFFSET_TREE = OFFSET_FREEBITS + Byte.BYTES;
 
     /**
-     * Compresses the given data by first computing a canonical Huffman code,
-     * and then using it as compression code. The compressed data will include
-     * (in this order):
-     * - int: length (in bytes) of the original (uncompressed) file;
-     * - unsigned byte: length (in bytes) of the first part (codewordLengths) of
-     * the representation of the canonical Huffman tree used for compression
-     * (the total length of the tree representation can be calculated from this,
-     * see {@link TreeRepresentation});
-     * - unsigned byte: unused bits in the last byte of the compressed data
-     * (freeBits variable of the BitSequence class);
-     * - representation of the canonical Huffman tree;
-     * - compressed representation of the original data.
-     *
-     * @param originalData The data to be compressed.
-     * @return A bit sequence corresponding to the compressed data.
+     * Minimum number of bytes of original data for each chunk, when data is
+     * compressed concurrently (smaller data is compressed in a single thread).
      */
-    @Override
-    public BitSequence compressData(byte[] originalData) {
-
-        HuffNode[] leafNodes = computeCanonicalHuffmanTree(originalData);
-
-        BitSequence[] huffmanCode = extractHuffmanCode(leafNodes);
-
-        TreeRepresentation treeRepresentation = new TreeRepresentation(leafNodes);
-
-        int treeRepresentationLength = treeRepresentation.getTotalLength();
-        int dataOffset = OFFSET_TREE + treeRepresentationLength;
-        // probably larger than needed (avoids switching to a larger array later on)
-        byte[] bits = new byte[dataOffset + originalData.length];
-
-        byte[] originalDataLength = Utils.toByteArray(originalData.length);
-        Utils.arrayCopy(originalDataLength, 0,
-                bits, OFFSET_ORIG_DATA_LENGTH, originalDataLength.length);
-        bits[OFFSET_CWLENGTHS_LENGTH] = (byte) treeRepresentation.getCodewordLengthsLength();
-        Utils.arrayCopy(treeRepresentation.getBytes(), 0,
-                bits, OFFSET_TREE, treeRepresentationLength);
-
-        BitSequence compressedData = new BitSequence(bits, Byte.SIZE, dataOffset);
-        for (byte b : originalData) {
-            compressedData.append(huffmanCode[Byte.toUnsignedInt(b)]);
-        }
+    public static final int MIN_CHUNK_SIZE = 1 << 16;
+    /**
+     * Number of chunks for each thread of the pool, when data is compressed
+     * concurrently; having more chunks than threads balances the load when
+     * some chunks take longer to encode than others.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
 
-        bits = compressedData.getBits();
-        bits[OFFSET_FREEBITS] = (byte) compressedData.getFreeBits();
+    private final ForkJoinPool pool;
+    /**
+     * Decoders of the codes used by recently decompressed data, so that the
+     * decoding table of a code is built only once when many compressed files
+     * share the same code.
+     */
+    private final HuffmanDecoderCache decoderCache;
 
-        return compressedData;
+    /**
+     * Returns an instance of Huffman which doesn't limit codeword length, and
+     * which will use the common ForkJoinPool for compressing large data
+     * concurrently.
+     */
+    public Huffman() {
+        this(UNLIMITED_CW_LENGTH, ForkJoinPool.commonPool());
     }
 
     /**
-     * Computes a canonical Huffman tree from the given data.
+     * Returns an instance of Huffman which doesn't limit codeword length, and
+     * which will use the given pool for compressing large data concurrently.
      *
-     * @param data A byte array containing the data to be used for building the
-     * tree.
-     * @return The root of the tree.
+     * @param pool The pool which will be used to compress chunks of data
+     * concurrently.
      */
-    private static HuffNode[] computeCanonicalHuffmanTree(byte[] data) {
-
-        long[] byteCounts = countByteOccurrences(data);
-
-        HuffNode[] leafNodes = sortedLeafNodes(byteCounts);
-
-        HuffNode huffmanTree = linearTimeHuffman(leafNodes);
-
-        computeCodewords(huffmanTree, new BitSequence());
+    public Huffman(ForkJoinPool pool) {
+        this(UNLIMITED_CW_LENGTH, pool);
+    }
 
-        Utils.mergeSort(leafNodes, new HuffNode.ByCanonicalOrder());
-        convertToCanonical(leafNodes);
+    /**
+     * Returns an instance of Huffman with the specified value for
+     * {@link #maxCodewordLength}, which will use the common ForkJoinPool for
+     * compressing large data concurrently.
+     *
+     * @param maxCodewordLength Maximum length for codewords; it can have values
+     * ranging from Byte.SIZE to {@link CanonicalCode#MAX_CODEWORD_LENGTH}
+     * (both inclusive), or {@link #UNLIMITED_CW_LENGTH}.
+     */
+    public Huffman(int maxCodewordLength) {
+        this(maxCodewordLength, ForkJoinPool.commonPool());
+    }
 
-        return leafNodes;
+    /**
+     * Returns an instance of Huffman with the specified value for
+     * {@link #maxCodewordLength}, which will use the given pool for
+     * compressing large data concurrently.
+     *
+     * @param maxCodewordLength Maximum length for codewords; it can have values
+     * ranging from Byte.SIZE to {@link CanonicalCode#MAX_CODEWORD_LENGTH}
+     * (both inclusive), or {@link #UNLIMITED_CW_LENGTH}.
+     * @param pool The pool which will be used to compress chunks of data
+     * concurrently.
+     */
+    public Huffman(int maxCodewordLength, ForkJoinPool pool) {
+        this(maxCodewordLength, NO_SAMPLING, pool);
     }
 
     /**
-     * Counts how many times each possible byte value occurs in the given data.
+     * Returns an instance of Huffman with the specified values for
+     * {@link #maxCodewordLength} and {@link #sampleBlockCount}, which will use
+     * the common ForkJoinPool for compressing large data concurrently.
      *
-     * @param data The data from which byte values occurrences will be counted.
-     * @return An array containing occurrence counts for each possible byte
-     * value; the count for a given byte value can be found using its unsigned
-     * value as an index.
+     * @param maxCodewordLength Maximum length for codewords (see
+     * {@link #Huffman(int, int, ForkJoinPool)}).
+     * @param sampleBlockCount Number of blocks of data counted for computing
+     * the code (see {@link #Huffman(int, int, ForkJoinPool)}).
      */
-    private static long[] countByteOccurrences(byte[] data) {
+    public Huffman(int maxCodewordLength, int sampleBlockCount) {
+        this(maxCodewordLength, sampleBlockCount, ForkJoinPool.commonPool());
+    }
 
-        long[] byteCounts = new long[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+    /**
+     * Returns an instance of Huffman with the specified values for
+     * {@link #maxCodewordLength} and {@link #sampleBlockCount}, which will use
+     * the given pool for compressing large data concurrently.
+     *
+     * @param maxCodewordLength Maximum length for codewords; it can have values
+     * ranging from Byte.SIZE to {@link CanonicalCode#MAX_CODEWORD_LENGTH}
+     * (both inclusive), or {@link #UNLIMITED_CW_LENGTH} (only without
+     * sampling, since sampled data is compressed into an array allocated for
+     * the worst case).
+     * @param sampleBlockCount Number of blocks of data counted for computing
+     * the code; it has to be positive, or {@link #NO_SAMPLING}.
+     * @param pool The pool which will be used to compress chunks of data
+     * concurrently.
+     */
+    public Huffman(int maxCodewordLength, int sampleBlockCount, ForkJoinPool pool) {
 
-        for (byte byteValue : data) {
-            byteCounts[Byte.toUnsignedInt(byteValue)]++;
+        if (maxCodewordLength != UNLIMITED_CW_LENGTH && (maxCodewordLength < Byte.SIZE
+                || maxCodewordLength > CanonicalCode.MAX_CODEWORD_LENGTH)) {
+            throw new IllegalArgumentException("Argument int maxCodewordLength has to be "
+                    + "between " + Byte.SIZE + " and " + CanonicalCode.MAX_CODEWORD_LENGTH
+                    + " (both inclusive), or " + UNLIMITED_CW_LENGTH + ".");
+        }
+        if (sampleBlockCount < NO_SAMPLING || (sampleBlockCount != NO_SAMPLING
+                && maxCodewordLength == UNLIMITED_CW_LENGTH)) {
+            throw new IllegalArgumentException("Argument int sampleBlockCount has to be "
+                    + "positive (only if codeword length is limited), or " + NO_SAMPLING + ".");
         }
 
-        return byteCounts;
+        this.maxCodewordLength = maxCodewordLength;
+        this.sampleBlockCount = sampleBlockCount;
+        this.pool = pool;
+        decoderCache = new HuffmanDecoderCache();
+
+        if (maxCodewordLength == UNLIMITED_CW_LENGTH) {
+            name = "huffman";
+            description = "canonical Huffman coding";
+        } else if (sampleBlockCount == NO_SAMPLING) {
+            name = "huffman" + maxCodewordLength;
+            description = "canonical Huffman coding (max codeword length "
+                    + maxCodewordLength + ")";
+        } else {
+            name = "huffman" + maxCodewordLength + "s";
+            description = "canonical Huffman coding (max codeword length "
+                    + maxCodewordLength + ", code computed from a sample of "
+                    + sampleBlockCount * SAMPLE_BLOCK_SIZE / 1024 + " KiB)";
+        }
+        compressedFileExtension = "." + name.replace("huffman", "huff");
     }
 
     /**
-     * Returns an array containing all the leaf nodes (sorted by weight) of the
-     * Huffman tree under construction.
+     * Returns an instance of Huffman whose name is the given one: "huffman",
+     * "huffman" followed by a maximum codeword length (for example
+     * "huffman11"), or the same followed by "s" for a code computed from
+     * {@link #DEFAULT_SAMPLE_BLOCK_COUNT} sampled blocks (for example
+     * "huffman15s").
      *
-     * @param weights Contains the weight of each possible byte value.
-     * @return Leaf nodes, sorted by weight.
+     * @param name Name of a Huffman algorithm.
+     * @return An instance of Huffman with the given name, or null if no
+     * maximum codeword length corresponds to it.
      */
-    private static HuffNode[] sortedLeafNodes(long[] weights) {
-
-        HuffNode[] leafNodes = new HuffNode[Utils.POSSIBLE_BYTE_VALUES_COUNT];
-        int nodesCount = 0;
-
-        for (int byteValue = 0; byteValue < Utils.POSSIBLE_BYTE_VALUES_COUNT; byteValue++) {
-            long byteCount = weights[byteValue];
-            if (byteCount > 0) {
-                leafNodes[nodesCount++] = new HuffNode((byte) byteValue, byteCount);
+    public static Huffman forName(String name) {
+        if (name.equals("huffman")) {
+            return new Huffman();
+        }
+        for (int length = Byte.SIZE; length <= CanonicalCode.MAX_CODEWORD_LENGTH; length++) {
+            if (name.equals("huffman" + length)) {
+                return new Huffman(length);
+            }
+            if (name.equals("huffman" + length + "s")) {
+                return new Huffman(length, DEFAULT_SAMPLE_BLOCK_COUNT);
             }
         }
-
-        HuffNode[] resizedLeafNodes = new HuffNode[nodesCount];
-        Utils.arrayCopy(leafNodes, 0, resizedLeafNodes, 0, nodesCount);
-        Utils.mergeSort(resizedLeafNodes, new HuffNode.ByWeight());
-        return resizedLeafNodes;
+        return null;
     }
 
     /**
-     * Builds a Huffman tree, using a known linear time algorithm (time
-     * complexity O(n)) which uses two queues and takes as input the leaf nodes
-     * sorted by weight (for more info see
-     * https://en.wikipedia.org/wiki/Huffman_coding#Compression).
+     * Returns an instance of Huffman equal to this one, except that it always
+     * computes the code from the byte counts of all the data; its compressed
+     * size can be used to measure how much compression is lost by sampling.
      *
-     * @param leafNodes All the leaf nodes of the tree under construction,
-     * sorted by weight.
-     * @return The root of the built tree.
+     * @return An instance of Huffman which doesn't use sampling.
      */
-    private static HuffNode linearTimeHuffman(HuffNode[] leafNodes) {
-
-        SimpleQueue<HuffNode> q1 = new ArrayQueue(leafNodes);
-        SimpleQueue<HuffNode> q2 = new ArrayQueue();
-
-        HuffNode leftChild,
-                 rightChild;
-
-        while (!q1.isEmpty() || q2.size() > 1) {
-
-            leftChild = chooseNodeFromQueues(q1, q2);
-            rightChild = chooseNodeFromQueues(q1, q2);
+    public Huffman withoutSampling() {
+        return new Huffman(maxCodewordLength, NO_SAMPLING, pool);
+    }
 
-            q2.offer(new HuffNode(leftChild, rightChild));
-        }
+    /**
+     * Returns the cache of decoders used by this instance, whose hit and miss
+     * counts can be used to monitor how often compressed data shares the same
+     * code.
+     *
+     * @return The cache of decoders used by this instance.
+     */
+    public HuffmanDecoderCache getDecoderCache() {
+        return decoderCache;
+    }
 
-        return q2.peek();
+    public boolean isSampling() {
+        return sampleBlockCount != NO_SAMPLING;
     }
 
     /**
-     * Choose the HuffNode with the lowest weight between from the heads of the
-     * given queues. Please note: at least one queue must be not empty. Ties
-     * break in favor of the first queue, to minimize the variance of codeword
-     * length (see https://en.wikipedia.org/wiki/Huffman_coding#Compression).
+     * Compresses the given data by first computing a canonical Huffman code,
+     * and then using it as compression code. The compressed data will include
+     * (in this order):
+     * - int: length (in bytes) of the original (uncompressed) file;
+     * - unsigned byte: length (in bytes) of the first part (codewordLengths) of
+     * the representation of the canonical Huffman tree used for compression
+     * (the total length of the tree representation can be calculated from this,
+     * see {@link TreeRepresentation});
+     * - unsigned byte: unused bits in the last byte of the compressed data
+     * (freeBits variable of the BitSequence class);
+     * - representation of the canonical Huffman tree;
+     * - compressed representation of the original data.
+     *
+     * Data which is large enough is split into chunks, which are compressed
+     * concurrently: the byte counts of all chunks are merged into a single
+     * canonical Huffman code, and since the exact length of each compressed
+     * chunk is known in advance, each thread writes its chunk directly at the
+     * right bit position of the output. The compressed data is thus exactly
+     * the same as it would be if it were compressed in a single thread.
+     *
+     * If sampling is enabled (see {@link #sampleBlockCount}) and the data is
+     * longer than the whole sample, the code is computed from the byte counts
+     * of the sample, and the data is then encoded in a single pass (in the
+     * calling thread, since the length of each compressed chunk isn't known
+     * in advance).
      *
-     * @param q1 The first queue (ties break in favor of this queue); at least
-     * one of the two queues must be not empty.
-     * @param q2 The second queue (ties break in favor of the other queue); at
-     * least one of the two queues must be not empty.
-     * @return The queue head with lowest weight.
+     * @param originalData The data to be compressed.
+     * @return A bit sequence corresponding to the compressed data.
      */
-    private static HuffNode chooseNodeFromQueues(SimpleQueue<HuffNode> q1, SimpleQueue<HuffNode> q2) {
+    @Override
+    public BitSequence compressData(byte[] originalData) {
 
-        HuffNode q1Head = q1.peek();
-        HuffNode q2Head = q2.peek();
+        if (isSampling() && originalData.length > (long) SAMPLE_BLOCK_SIZE * sampleBlockCount) {
+            return compressSampled(originalData);
+        }
 
-        if (q1Head == null) {
-            return q2.poll();
-        } else if (q2Head == null) {
-            return q1.poll();
+        int chunkCount = Math.min(originalData.length / MIN_CHUNK_SIZE,
+                CHUNKS_PER_THREAD * pool.getParallelism());
+        if (chunkCount <= 1) {
+            return compressData(originalData, 0, originalData.length);
+        }
 
-        } else if (new HuffNode.ByWeight().compare(q1Head, q2Head) <= 0) {
-            return q1.poll();
-        } else {
-            return q2.poll();
+        int[] chunkBounds = new int[chunkCount + 1];
+        for (int c = 0; c <= chunkCount; c++) {
+            chunkBounds[c] = (int) ((long) originalData.length * c / chunkCount);
         }
+        return compressChunks(originalData, chunkBounds);
     }
 
     /**
-     * A recursive depth-first tree traversal algorithm for computing codewords
-     * of a given Huffman tree. Going to the left child appends a zero, going to
-     * the right child appends a one.
+     * Compresses the given range of the given data, in the same way (and with
+     * the same format) as {@link #compressData(byte[]) compressData}, but
+     * always in the calling thread.
      *
-     * @param node The current node.
+     * @param originalData The data containing the range to be compressed.
+     * @param fromIndex Index of the first byte to be compressed (inclusive).
+     * @param toIndex Index of the last byte to be compressed (exclusive).
+     * @return A bit sequence corresponding to the compressed data.
      */
-    private static void computeCodewords(HuffNode node, BitSequence codeword) {
+    public BitSequence compressData(byte[] originalData, int fromIndex, int toIndex) {
+        return compressChunks(originalData, new int[]{fromIndex, toIndex});
+    }
 
-        if (node.isLeaf()) {
-            node.setCodeword(codeword);
-            return;
+    /**
+     * Compresses the given data, which is split into the given chunks; chunks
+     * are counted and encoded concurrently (a single chunk is processed in
+     * the calling thread).
+     *
+     * @param originalData The data to be compressed.
+     * @param chunkBounds Indexes of originalData where chunks begin; chunk c
+     * goes from chunkBounds[c] (inclusive) to chunkBounds[c + 1] (exclusive).
+     * @return A bit sequence corresponding to the compressed data.
+     */
+    private BitSequence compressChunks(byte[] originalData, int[] chunkBounds) {
+
+        int chunkCount = chunkBounds.length - 1;
+        long[][] chunkByteCounts = new long[chunkCount][];
+        ParallelLoop.run(pool, 0, chunkCount, c -> chunkByteCounts[c] =
+                ByteHistogram.count(originalData, chunkBounds[c], chunkBounds[c + 1]));
+        long[] byteCounts = ByteHistogram.merge(chunkByteCounts);
+
+        TreeRepresentation treeRepresentation = new TreeRepresentation(
+                HuffmanCodeLengths.compute(byteCounts, maxCodewordLength == UNLIMITED_CW_LENGTH
+                        ? CanonicalCode.MAX_CODEWORD_LENGTH : maxCodewordLength));
+        HuffmanEncoder encoder = new HuffmanEncoder(
+                treeRepresentation.buildCanonicalCode(), Utils.POSSIBLE_BYTE_VALUES_COUNT);
+
+        // the position (in bits) where each chunk begins is the sum of the
+        // lengths of the preceding chunks, which are known in advance
+        long[] chunkOffsets = new long[chunkCount + 1];
+        chunkOffsets[0] = (long) Byte.SIZE * (OFFSET_TREE + treeRepresentation.getTotalLength());
+        for (int c = 0; c < chunkCount; c++) {
+            chunkOffsets[c + 1] = chunkOffsets[c] + encoder.encodedLengthInBits(chunkByteCounts[c]);
         }
+        long lengthInBits = chunkOffsets[chunkCount];
+
+        // the exact length is known in advance, so the array is allocated only once
+        byte[] bits = new byte[(int) ((lengthInBits + Byte.SIZE - 1) / Byte.SIZE)];
+        writeHeader(bits, chunkBounds[chunkCount] - chunkBounds[0], treeRepresentation, lengthInBits);
 
-        BitSequence cwLeft = new BitSequence();
-        BitSequence cwRight = new BitSequence();
-        cwLeft.append(codeword);
-        cwRight.append(codeword);
+        encodeChunks(originalData, chunkBounds, encoder, bits, chunkOffsets);
 
-        cwLeft.append(false);
-        cwRight.append(true);
-        computeCodewords(node.getLeftChild(), cwLeft);
-        computeCodewords(node.getRightChild(), cwRight);
+        return new BitSequence(bits, Byte.toUnsignedInt(bits[OFFSET_FREEBITS]));
     }
 
     /**
-     * Given the leaf nodes of a Huffman tree, changes the codewords contained
-     * in them to obtain a canonical Huffman code. Please note: the leaves
-     * should be sorted in canonical order (for more info see
-     * https://en.wikipedia.org/wiki/Canonical_Huffman_code).
+     * Compresses the given data using a code computed from a sample of it (see
+     * {@link #sampleBlockCount}). Since the exact compressed length isn't
+     * known in advance, the output array is allocated using the length
+     * estimated from the sample, and the data is encoded in pieces of
+     * {@link #SAMPLED_PIECE_SIZE} bytes: before each piece, the array is
+     * enlarged if it couldn't contain the piece in the worst case (in which
+     * each byte gets the longest codeword).
      *
-     * @param leafNodes All the leaf nodes of a Huffman tree; the leaf nodes
-     * must be sorted in canonical order.
+     * @param originalData The data to be compressed.
+     * @return A bit sequence corresponding to the compressed data.
      */
-    private static void convertToCanonical(HuffNode[] leafNodes) {
-
-        BitSequence canonicalCodeword = new BitSequence();
-
-        long previousBitLength;
-        long currentBitLength = leafNodes[0].getCodeword().getLengthInBits();
-
-        for (long i = 0; i < currentBitLength; i++) {
-            canonicalCodeword.append(false);
+    private BitSequence compressSampled(byte[] originalData) {
+
+        long[] byteCounts = ByteHistogram.sample(originalData, 0, originalData.length,
+                SAMPLE_BLOCK_SIZE, sampleBlockCount);
+        long sampleLength = 0;
+        for (int byteValue = 0; byteValue < byteCounts.length; byteValue++) {
+            sampleLength += byteCounts[byteValue];
+            if (byteCounts[byteValue] == 0) {
+                byteCounts[byteValue] = ESCAPE_WEIGHT;
+            }
         }
-        leafNodes[0].setCodeword(canonicalCodeword);
 
-        for (int i = 1; i < leafNodes.length; i++) {
+        TreeRepresentation treeRepresentation = new TreeRepresentation(
+                HuffmanCodeLengths.compute(byteCounts, maxCodewordLength));
+        CanonicalCode code = treeRepresentation.buildCanonicalCode();
+        HuffmanEncoder encoder = new HuffmanEncoder(code, Utils.POSSIBLE_BYTE_VALUES_COUNT);
+
+        long dataOffset = (long) Byte.SIZE * (OFFSET_TREE + treeRepresentation.getTotalLength());
+        long maxPieceLengthInBits = (long) code.getMaxLength() * SAMPLED_PIECE_SIZE;
+        byte[] bits = new byte[(int) ((dataOffset + maxPieceLengthInBits
+                + (double) encoder.encodedLengthInBits(byteCounts) / sampleLength
+                * originalData.length) / Byte.SIZE) + 1];
+
+        BitWriter writer = new BitWriter(bits, dataOffset);
+        for (int i = 0; i < originalData.length; i += SAMPLED_PIECE_SIZE) {
+            long bitPosition = writer.getBitPosition();
+            if (bitPosition + maxPieceLengthInBits > (long) Byte.SIZE * bits.length) {
+                writer.flush();
+                byte[] largerBits = new byte[(int) Math.max(bits.length + bits.length / 2,
+                        (bitPosition + maxPieceLengthInBits) / Byte.SIZE + 1)];
+                Utils.arrayCopy(bits, 0, largerBits, 0, (int) (bitPosition / Byte.SIZE) + 1);
+                bits = largerBits;
+                writer = new BitWriter(bits, bitPosition);
+            }
+            encoder.encode(originalData, i, Math.min(i + SAMPLED_PIECE_SIZE, originalData.length),
+                    writer);
+        }
+        long lengthInBits = writer.getBitPosition();
+        writer.flush();
+        writeHeader(bits, originalData.length, treeRepresentation, lengthInBits);
 
-            canonicalCodeword = canonicalCodeword.nextSequence();
+        return writer.toBitSequence();
+    }
 
-            previousBitLength = currentBitLength;
-            currentBitLength = leafNodes[i].getCodeword().getLengthInBits();
-            for (long j = 0; j < currentBitLength - previousBitLength; j++) {
-                canonicalCodeword.append(false);
+    /**
+     * Encodes the given chunks concurrently, each one starting at the given
+     * bit position of the given array.
+     *
+     * @param originalData The data to be encoded.
+     * @param chunkBounds Indexes of originalData where chunks begin (see
+     * {@link #compressChunks(byte[], int[])}).
+     * @param encoder The encoder used for all chunks.
+     * @param bits Array into which the chunks will be written.
+     * @param chunkOffsets Position (in bits) where each chunk begins; the last
+     * element is the position where the last chunk ends.
+     */
+    private void encodeChunks(byte[] originalData, int[] chunkBounds,
+            HuffmanEncoder encoder, byte[] bits, long[] chunkOffsets) {
+
+        int chunkCount = chunkBounds.length - 1;
+
+        // the last byte of a chunk can be shared with the following chunk, so
+        // it's merged into the array only after all chunks have been encoded
+        int[] lastBytes = new int[chunkCount];
+        ParallelLoop.run(pool, 0, chunkCount, c -> {
+            BitWriter writer = new BitWriter(bits, chunkOffsets[c]);
+            encoder.encode(originalData, chunkBounds[c], chunkBounds[c + 1], writer);
+            lastBytes[c] = writer.flushWholeBytes();
+        });
+
+        for (int c = 0; c < chunkCount; c++) {
+            if (chunkOffsets[c + 1] % Byte.SIZE != 0) {
+                bits[(int) (chunkOffsets[c + 1] / Byte.SIZE)] |= lastBytes[c];
             }
-
-            leafNodes[i].setCodeword(canonicalCodeword);
         }
     }
 
     /**
-     * Extracts the Huffman code contained in the given leaf nodes of a Huffman
-     * tree.
+     * Writes the header of compressed data (see
+     * {@link #compressData(byte[]) compressData}) into the given array.
      *
-     * @param leafNodes All the leaf nodes of a Huffman tree.
-     * @return An array containing the extracted Huffman code. The codeword of a
-     * given byte value (symbol) can be found using its unsigned value as index.
-     */
-    private static BitSequence[] extractHuffmanCode(HuffNode[] leafNodes) {
-        BitSequence[] huffmanCode = new BitSequence[Utils.POSSIBLE_BYTE_VALUES_COUNT];
-        for (HuffNode leaf : leafNodes) {
-            huffmanCode[Byte.toUnsignedInt(leaf.getSymbol())] = leaf.getCodeword();
-        }
-        return huffmanCode;
+     * @param bits Array which will contain the compressed data.
+     * @param originalDataLength Length (in bytes) of the original data.
+     * @param treeRepresentation Representation of the canonical Huffman tree
+     * used for compression.
+     * @param lengthInBits Total length (in bits) of the compressed data,
+     * including the header.
+     */
+    static void writeHeader(byte[] bits, int originalDataLength,
+            TreeRepresentation treeRepresentation, long lengthInBits) {
+
+        byte[] originalDataLengthBytes = Utils.toByteArray(originalDataLength);
+        Utils.arrayCopy(originalDataLengthBytes, 0,
+                bits, OFFSET_ORIG_DATA_LENGTH, originalDataLengthBytes.length);
+        bits[OFFSET_CWLENGTHS_LENGTH] = (byte) treeRepresentation.getCodewordLengthsLength();
+        bits[OFFSET_FREEBITS] = (byte) ((Byte.SIZE - lengthInBits % Byte.SIZE) % Byte.SIZE);
+        Utils.arrayCopy(treeRepresentation.getBytes(), 0,
+                bits, OFFSET_TREE, treeRepresentation.getTotalLength());
     }
 
     /**
-     * Decompresses the given compressed data by first building the canonical
-     * Huffman tree that was used for compression (using its representation,
-     * included in the compressed data) and then using it as decompression code.
+     * Decompresses the given compressed data by first building a decoding
+     * table for the canonical Huffman code that was used for compression (using
+     * its representation, included in the compressed data) and then using it to
+     * decode the data, resolving a whole symbol with each table lookup (see
+     * {@link HuffmanDecoder}). Decoding tables of recently used codes are
+     * reused (see {@link #getDecoderCache()}).
      *
      * @param compressedData The compressed data to be decompressed.
      * @return The original, uncompressed data.
      */
     @Override
     public byte[] decompressData(byte[] compressedData) {
-
         int originalDataLength = Utils.extractInt(compressedData, OFFSET_ORIG_DATA_LENGTH);
         byte[] originalData = new byte[originalDataLength];
-
-        TreeRepresentation treeRepresentation = new TreeRepresentation(compressedData);
-        HuffNode huffmanTreeRoot = buildTreeFromRepresentation(treeRepresentation);
-
-        int freeBits = compressedData[OFFSET_FREEBITS];
-        BitSequence compressedBitSeq = new BitSequence(compressedData, freeBits);
-
-        int dataOffset = OFFSET_TREE + treeRepresentation.getTotalLength();
-        compressedBitSeq.setReadPosition(dataOffset, 0);
-
-        parseData(huffmanTreeRoot, compressedBitSeq, originalData);
-
+        decompressData(compressedData, 0, originalData, 0);
         return originalData;
     }
 
     /**
-     * Builds a canonical Huffman tree using the given representation.
+     * Decompresses compressed data which begins at the given offset of the
+     * given array (see {@link #decompressData(byte[]) decompressData}),
+     * writing the original data into the given array from the given index.
      *
-     * @param treeRepresentation The representation that will used to build the
-     * canonical Huffman tree.
-     * @return The root of the Huffman tree that was built.
-     */
-    private static HuffNode buildTreeFromRepresentation(TreeRepresentation treeRepresentation) {
-        HuffNode[] leafNodes = treeRepresentation.buildLeafNodes();
-        convertToCanonical(leafNodes);
-        HuffNode root = buildTree(leafNodes);
-        return root;
-    }
-
-    private static HuffNode buildTree(HuffNode[] leafNodes) {
-        HuffNode root = new HuffNode(null, null);
-        for (HuffNode leaf : leafNodes) {
-            buildPath(root, leaf);
-        }
-        return root;
-    }
-
-    /**
-     * Builds a path from node fromNode to leaf node toLeaf, using the codeword
-     * contained in toLeaf, creating new nodes along the path when they don't
-     * exist yet.
-     *
-     * @param fromNode The starting node of the path to be built.
-     * @param toLeaf The destination leaf node of the path to be built; the
-     * codeword contained in this node will be used to build the path (zero
-     * corresponds to the left child, one corresponds to the right child).
-     */
-    private static void buildPath(HuffNode fromNode, HuffNode toLeaf) {
-
-        HuffNode from = fromNode;
-        BitSequence codeword = toLeaf.getCodeword();
-        long codewordLength = codeword.getLengthInBits();
-        HuffNode next;
-
-        for (long i = 0; i < codewordLength - 1; i++) {
-
-            if (codeword.readNextBit()) {
-                next = from.getRightChild();
-                if (next == null) {
-                    next = new HuffNode(null, null);
-                    from.setRightChild(next);
-                }
-            } else {
-                next = from.getLeftChild();
-                if (next == null) {
-                    next = new HuffNode(null, null);
-                    from.setLeftChild(next);
-                }
-            }
-
-            from = next;
-        }
-
-        if (codeword.readNextBit()) {
-            from.setRightChild(toLeaf);
-        } else {
-            from.setLeftChild(toLeaf);
-        }
-    }
-
-    /**
-     * Parses compressedDataBS bit by bit with the given Huffman tree, writing
-     * the obtained symbols to originalData.
-     *
-     * @param root The root of the Huffman tree to be used to parse the data.
-     * @param compressedDataBS The data to be parsed.
-     * @param originalData The array which will contain the symbols obtained
-     * while parsing the compressed data.
+     * @param compressedData Array containing the data to be decompressed.
+     * @param offset Offset (in bytes) where the compressed data begins.
+     * @param originalData The array into which the original data will be
+     * written.
+     * @param fromIndex Index of originalData where the first byte of the
+     * original data will be written.
+     * @return Length (in bytes) of the original data.
      */
-    private static void parseData(HuffNode root, BitSequence compressedDataBS, byte[] originalData) {
+    public int decompressData(byte[] compressedData, int offset, byte[] originalData, int fromIndex) {
 
-        HuffNode currentNode = root;
-        int i = 0;
-        Boolean bit;
+        int originalDataLength = Utils.extractInt(compressedData, offset + OFFSET_ORIG_DATA_LENGTH);
 
-        while ((bit = compressedDataBS.readNextBit()) != null) {
+        TreeRepresentation treeRepresentation = new TreeRepresentation(compressedData, offset);
+        HuffmanDecoder decoder = decoderCache.get(treeRepresentation);
 
-            currentNode = bit ? currentNode.getRightChild() : currentNode.getLeftChild();
+        int dataOffset = offset + OFFSET_TREE + treeRepresentation.getTotalLength();
+        decoder.decode(new BitReader(compressedData, dataOffset),
+                originalData, fromIndex, fromIndex + originalDataLength);
 
-            if (currentNode.isLeaf()) {
-                originalData[i++] = currentNode.getSymbol();
-                currentNode = root;
-            }
-        }
+        return originalDataLength;
     }
 
     @Override
     public String getExtension() {
-        return COMPRESSED_FILE_EXTENSION;
+        return compressedFileExtension;
     }
 
     @Override
     public String getName() {
-        return NAME;
+        return name;
     }
 
     @Override
     public String getDescription() {
-        return DESCRIPTION;
+        return description;
     }
 }
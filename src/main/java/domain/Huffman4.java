@@ -0,0 +1,167 @@
+package domain;
+
+/**
+ * A {@link CompressionAlgorithm} implementation which uses canonical Huffman
+ * coding like {@link Huffman}, but splits the data into four segments which
+ * are encoded into four separate bit streams. When decoding, the four streams
+ * are independent from each other, so a single loop can decode one symbol from
+ * each stream in turn: while decoding a symbol the processor doesn't have to
+ * wait for the previous one (which belongs to another stream), so it can work
+ * on several symbols at the same time. Codeword length is limited to
+ * {@link HuffmanDecoder#PRIMARY_BITS}, so that every symbol is decoded with a
+ * single table lookup.
+ */
+public final class Huffman4 extends CompressionAlgorithm {
+
+    /**
+     * The file extension used for files compressed using this class.
+     */
+    private static final String COMPRESSED_FILE_EXTENSION = ".huff4";
+    /**
+     * Short name for this algorithm (used in TUI).
+     */
+    private static final String NAME = "huffman4";
+    /**
+     * Longer name for this algorithm (used in TUI).
+     */
+    private static final String DESCRIPTION = "canonical Huffman coding in 4 interleaved streams";
+
+    /**
+     * Number of streams (and segments).
+     */
+    public static final int STREAM_COUNT = 4;
+    /**
+     * Length (in bytes) of the jump table, which contains the length of each
+     * stream except the last one.
+     */
+    private static final int JUMP_TABLE_LENGTH = Integer.BYTES * (STREAM_COUNT - 1);
+
+    /**
+     * Decoders of the codes used by recently decompressed data (see
+     * {@link Huffman#getDecoderCache()}).
+     */
+    private final HuffmanDecoderCache decoderCache = new HuffmanDecoderCache();
+
+    /**
+     * Compresses the given data. The compressed data will include (in this
+     * order):
+     * - the same header as {@link Huffman#compressData(byte[])} (original data
+     * length, codewordLengthsLength, freeBits and tree representation);
+     * - jump table: for each stream except the last one, an int containing the
+     * length (in bytes) of the stream;
+     * - the four streams, each starting at the beginning of a byte.
+     * The original data is split into four segments of the same length
+     * (except the last one, which can be shorter), and segment i is encoded
+     * into stream i.
+     *
+     * @param originalData The data to be compressed.
+     * @return A bit sequence corresponding to the compressed data.
+     */
+    @Override
+    public BitSequence compressData(byte[] originalData) {
+
+        int[] segmentBounds = segmentBounds(originalData.length);
+        long[][] segmentByteCounts = new long[STREAM_COUNT][];
+        for (int s = 0; s < STREAM_COUNT; s++) {
+            segmentByteCounts[s] = ByteHistogram.count(
+                    originalData, segmentBounds[s], segmentBounds[s + 1]);
+        }
+
+        TreeRepresentation treeRepresentation = new TreeRepresentation(HuffmanCodeLengths.compute(
+                ByteHistogram.merge(segmentByteCounts), HuffmanDecoder.PRIMARY_BITS));
+        HuffmanEncoder encoder = new HuffmanEncoder(
+                treeRepresentation.buildCanonicalCode(), Utils.POSSIBLE_BYTE_VALUES_COUNT);
+
+        int jumpTableOffset = Huffman.OFFSET_TREE + treeRepresentation.getTotalLength();
+        int[] streamOffsets = new int[STREAM_COUNT + 1];
+        streamOffsets[0] = jumpTableOffset + JUMP_TABLE_LENGTH;
+        long lastStreamLengthInBits = 0;
+        for (int s = 0; s < STREAM_COUNT; s++) {
+            lastStreamLengthInBits = encoder.encodedLengthInBits(segmentByteCounts[s]);
+            streamOffsets[s + 1] = streamOffsets[s]
+                    + (int) ((lastStreamLengthInBits + Byte.SIZE - 1) / Byte.SIZE);
+        }
+
+        long lengthInBits = (long) Byte.SIZE * streamOffsets[STREAM_COUNT - 1]
+                + lastStreamLengthInBits;
+        byte[] bits = new byte[streamOffsets[STREAM_COUNT]];
+        Huffman.writeHeader(bits, originalData.length, treeRepresentation, lengthInBits);
+        for (int s = 0; s < STREAM_COUNT - 1; s++) {
+            Utils.insertInt(streamOffsets[s + 1] - streamOffsets[s],
+                    bits, jumpTableOffset + Integer.BYTES * s);
+        }
+
+        for (int s = 0; s < STREAM_COUNT; s++) {
+            BitWriter writer = new BitWriter(bits, (long) Byte.SIZE * streamOffsets[s]);
+            encoder.encode(originalData, segmentBounds[s], segmentBounds[s + 1], writer);
+            writer.flush();
+        }
+
+        return new BitSequence(bits, (int) ((Byte.SIZE - lengthInBits % Byte.SIZE) % Byte.SIZE));
+    }
+
+    /**
+     * Decompresses the given compressed data, decoding the four streams in
+     * the same loop.
+     *
+     * @param compressedData The compressed data to be decompressed.
+     * @return The original, uncompressed data.
+     */
+    @Override
+    public byte[] decompressData(byte[] compressedData) {
+
+        byte[] originalData = new byte[Utils.extractInt(compressedData,
+                Huffman.OFFSET_ORIG_DATA_LENGTH)];
+        int[] segmentBounds = segmentBounds(originalData.length);
+
+        TreeRepresentation treeRepresentation = new TreeRepresentation(compressedData);
+        HuffmanDecoder decoder = decoderCache.get(treeRepresentation);
+
+        int jumpTableOffset = Huffman.OFFSET_TREE + treeRepresentation.getTotalLength();
+        int[] streamOffsets = new int[STREAM_COUNT];
+        streamOffsets[0] = jumpTableOffset + JUMP_TABLE_LENGTH;
+        for (int s = 1; s < STREAM_COUNT; s++) {
+            streamOffsets[s] = streamOffsets[s - 1]
+                    + Utils.extractInt(compressedData, jumpTableOffset + Integer.BYTES * (s - 1));
+        }
+
+        decoder.decodeInterleaved(compressedData, streamOffsets, originalData, segmentBounds);
+        return originalData;
+    }
+
+    /**
+     * Returns the indexes where the segments begin: segment s goes from
+     * element s (inclusive) to element s + 1 (exclusive) of the returned
+     * array.
+     *
+     * @param length Length (in bytes) of the original data.
+     * @return The bounds of the segments.
+     */
+    private static int[] segmentBounds(int length) {
+        int segmentLength = (int) (((long) length + STREAM_COUNT - 1) / STREAM_COUNT);
+        int[] segmentBounds = new int[STREAM_COUNT + 1];
+        for (int s = 0; s <= STREAM_COUNT; s++) {
+            segmentBounds[s] = (int) Math.min((long) segmentLength * s, length);
+        }
+        return segmentBounds;
+    }
+
+    public HuffmanDecoderCache getDecoderCache() {
+        return decoderCache;
+    }
+
+    @Override
+    public String getExtension() {
+        return COMPRESSED_FILE_EXTENSION;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return DESCRIPTION;
+    }
+}
@@ -0,0 +1,184 @@
+package domain;
+
+/**
+ * Computes Huffman codeword lengths using only primitive arrays, without
+ * building a tree of nodes. Symbols are sorted by weight with a radix sort,
+ * and the lengths are then computed in place with the algorithm by Moffat and
+ * Katajainen ("In-Place Calculation of Minimum-Redundancy Codes", 1995), which
+ * is the same two-queue algorithm used for building Huffman trees (see
+ * https://en.wikipedia.org/wiki/Huffman_coding#Compression), with the queue of
+ * internal nodes stored in the same array as the sorted weights. Since ties
+ * between a leaf and an internal node break in favor of the leaf (like in the
+ * two-queue algorithm), codeword length variance is minimized.
+ */
+public class HuffmanCodeLengths {
+
+    /**
+     * Number of bits of each radix sort digit.
+     */
+    private static final int RADIX_BITS = Byte.SIZE;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * Computes the codeword lengths of a Huffman code for the given symbol
+     * weights; if the code has codewords longer than maxLength, the lengths
+     * are computed again with the package-merge algorithm (see
+     * {@link PackageMerge}), so that no codeword exceeds maxLength. When there
+     * is only one symbol (or none at all) its codeword (or the one of symbol
+     * zero) gets length one, so that the code can still be represented.
+     *
+     * @param symbolCounts Occurrence counts (weights) of each symbol, indexed
+     * by symbol; counts must be less than 2^(63 - b), where b is the number of
+     * bits needed for the largest symbol.
+     * @param maxLength Maximum codeword length.
+     * @return The codeword length of each symbol, indexed by symbol; it's zero
+     * for symbols whose count is zero.
+     */
+    public static int[] compute(long[] symbolCounts, int maxLength) {
+
+        int symbolBits = Integer.SIZE - Integer.numberOfLeadingZeros(symbolCounts.length - 1);
+        long symbolMask = (1L << symbolBits) - 1;
+
+        // each key contains a weight and its symbol, so that sorting keys
+        // sorts symbols by weight (and symbols with equal weight by symbol)
+        long[] keys = new long[symbolCounts.length];
+        int symbolCount = 0;
+        for (int symbol = 0; symbol < symbolCounts.length; symbol++) {
+            if (symbolCounts[symbol] > 0) {
+                keys[symbolCount++] = symbolCounts[symbol] << symbolBits | symbol;
+            }
+        }
+
+        int[] lengths = new int[symbolCounts.length];
+        if (symbolCount <= 1) {
+            lengths[(int) (keys[0] & symbolMask)] = 1;
+            return lengths;
+        }
+
+        keys = radixSort(keys, symbolCount);
+        long[] weights = new long[symbolCount];
+        for (int i = 0; i < symbolCount; i++) {
+            weights[i] = keys[i] >>> symbolBits;
+        }
+
+        long[] sortedLengths = sortedCodewordLengths(weights.clone());
+        for (int i = 0; i < symbolCount; i++) {
+            lengths[(int) (keys[i] & symbolMask)] = (int) sortedLengths[i];
+        }
+
+        // the lightest symbol has the longest codeword
+        if (sortedLengths[0] > maxLength) {
+            int[] limitedLengths = PackageMerge.codewordLengths(weights, maxLength);
+            for (int i = 0; i < symbolCount; i++) {
+                lengths[(int) (keys[i] & symbolMask)] = limitedLengths[i];
+            }
+        }
+
+        return lengths;
+    }
+
+    /**
+     * Computes Huffman codeword lengths in place, using the three phases of
+     * the algorithm by Moffat and Katajainen: first the weights of the
+     * internal nodes are computed (replacing the weights of the leaves which
+     * have already been merged, and storing the index of each internal node's
+     * parent), then the depth of each internal node is computed from the one
+     * of its parent, and finally the depths of the leaves are computed by
+     * counting the internal nodes at each depth.
+     *
+     * @param a Weights of the symbols, sorted in ascending order; there must
+     * be at least two. It will be overwritten by the codeword lengths.
+     * @return The given array, where element i is now the codeword length for
+     * the symbol whose weight was a[i].
+     */
+    private static long[] sortedCodewordLengths(long[] a) {
+
+        int n = a.length;
+
+        // phase 1: a[root..next-1] is the queue of internal nodes whose
+        // parent hasn't been created yet, a[leaf..n-1] is the queue of leaves
+        a[0] += a[1];
+        int root = 0;
+        int leaf = 2;
+        for (int next = 1; next < n - 1; next++) {
+            if (leaf >= n || a[root] < a[leaf]) {
+                a[next] = a[root];
+                a[root++] = next;
+            } else {
+                a[next] = a[leaf++];
+            }
+            if (leaf >= n || (root < next && a[root] < a[leaf])) {
+                a[next] += a[root];
+                a[root++] = next;
+            } else {
+                a[next] += a[leaf++];
+            }
+        }
+
+        // phase 2: the root (a[n - 2]) has depth zero
+        a[n - 2] = 0;
+        for (int next = n - 3; next >= 0; next--) {
+            a[next] = a[(int) a[next]] + 1;
+        }
+
+        // phase 3: leaves are the nodes at each depth which aren't internal
+        int available = 1;
+        int depth = 0;
+        root = n - 2;
+        int next = n - 1;
+        while (available > 0) {
+            int used = 0;
+            for (; root >= 0 && a[root] == depth; root--) {
+                used++;
+            }
+            for (; available > used; available--) {
+                a[next--] = depth;
+            }
+            available = 2 * used;
+            depth++;
+        }
+
+        return a;
+    }
+
+    /**
+     * Sorts the first n keys (which must be non-negative) in ascending order,
+     * using a least significant digit radix sort with {@link #RADIX_BITS}-bit
+     * digits (and as many passes as needed by the largest key).
+     *
+     * @param keys Array containing the keys to be sorted; it's used as a
+     * buffer, so its content is undefined after sorting.
+     * @param n Number of keys to be sorted.
+     * @return An array whose first n elements are the sorted keys (it can be
+     * the keys array itself).
+     */
+    private static long[] radixSort(long[] keys, int n) {
+
+        long maxKey = 0;
+        for (int i = 0; i < n; i++) {
+            maxKey = Math.max(maxKey, keys[i]);
+        }
+
+        long[] a = keys;
+        long[] b = new long[n];
+        for (int shift = 0; shift < Long.SIZE && maxKey >>> shift > 0; shift += RADIX_BITS) {
+
+            int[] digitStarts = new int[RADIX + 1];
+            for (int i = 0; i < n; i++) {
+                digitStarts[(int) ((a[i] >>> shift) & (RADIX - 1)) + 1]++;
+            }
+            for (int digit = 0; digit < RADIX; digit++) {
+                digitStarts[digit + 1] += digitStarts[digit];
+            }
+            for (int i = 0; i < n; i++) {
+                b[digitStarts[(int) ((a[i] >>> shift) & (RADIX - 1))]++] = a[i];
+            }
+
+            long[] temp = a;
+            a = b;
+            b = temp;
+        }
+
+        return a;
+    }
+}
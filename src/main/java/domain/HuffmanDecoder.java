@@ -0,0 +1,289 @@
+package domain;
+
+/**
+ * A table-driven decoder for canonical Huffman codes. Instead of walking a
+ * Huffman tree one bit at a time, it peeks several bits at once and resolves a
+ * whole symbol with a single lookup into a flat table of ints. Codewords that
+ * are longer than the bits peeked by the primary table are resolved through
+ * second-level tables (which can be chained, if needed, for very long
+ * codewords), in the same way as zlib's inflate does (for more info see
+ * https://github.com/madler/zlib/blob/master/doc/algorithm.txt).
+ *
+ * Each table entry is either a leaf or a link. A leaf is non-negative and
+ * contains the decoded symbol (shifted left by {@link #LENGTH_BITS}) together
+ * with the number of bits that have to be consumed at that table's level. A
+ * link is negative and is the bitwise complement of the offset of the
+ * second-level table it points to.
+ */
+public class HuffmanDecoder {
+
+    /**
+     * Maximum number of bits peeked by the primary table; 2^11 ints (8 KiB)
+     * comfortably fit into L1 cache together with the data being decoded.
+     */
+    public static final int PRIMARY_BITS = 11;
+    /**
+     * Number of bits peeked by each second-level table.
+     */
+    private static final int SECONDARY_BITS = 8;
+    private static final int SECONDARY_SIZE = 1 << SECONDARY_BITS;
+
+    /**
+     * Number of valid bits returned by {@link #readWindow(byte[], long)}.
+     */
+    private static final int WINDOW_BITS = Long.SIZE - Byte.SIZE + 1;
+    /**
+     * Number of symbols which can be decoded from a single window, when no
+     * codeword is longer than {@link #PRIMARY_BITS}.
+     */
+    private static final int SYMBOLS_PER_WINDOW = WINDOW_BITS / PRIMARY_BITS;
+
+    private static final int LENGTH_BITS = 8;
+    private static final int LENGTH_MASK = (1 << LENGTH_BITS) - 1;
+
+    /**
+     * Number of bits peeked by the primary table (it is less than
+     * {@link #PRIMARY_BITS} when all codewords are shorter than that).
+     */
+    private final int primaryBits;
+    /**
+     * Length of the longest codeword.
+     */
+    private final int maxLength;
+    /**
+     * All tables: the primary one comes first, followed by all second-level
+     * tables.
+     */
+    private int[] table;
+    /**
+     * Used length of {@link table}.
+     */
+    private int tableLength;
+
+    /**
+     * Returns an instance of HuffmanDecoder for the given canonical code.
+     *
+     * @param code The canonical Huffman code to be decoded.
+     */
+    public HuffmanDecoder(CanonicalCode code) {
+
+        maxLength = code.getMaxLength();
+        primaryBits = Math.max(1, Math.min(PRIMARY_BITS, maxLength));
+        tableLength = 1 << primaryBits;
+        table = new int[tableLength];
+
+        for (int i = 0; i < code.getSymbolCount(); i++) {
+            addCodeword(code.getSymbol(i), code.getCodeword(i), code.getLength(i));
+        }
+    }
+
+    /**
+     * Decodes symbols from the given BitReader, writing them (as bytes) into
+     * the given array, until the given range of the array has been filled.
+     *
+     * @param reader The BitReader from which the encoded data will be read.
+     * @param decodedData The array into which the decoded symbols will be
+     * written.
+     * @param fromIndex Index of decodedData where the first decoded symbol will
+     * be written (inclusive).
+     * @param toIndex Index of decodedData where decoding will stop
+     * (exclusive).
+     */
+    public void decode(BitReader reader, byte[] decodedData, int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            decodedData[i] = (byte) decodeSymbol(reader);
+        }
+    }
+
+    /**
+     * Decodes four independent streams, each one into its own segment of the
+     * given array (see {@link Huffman4}). While the last (and shortest)
+     * segment isn't full, the same loop decodes symbols from each stream in
+     * turn, so that the decoding of a symbol doesn't have to wait for the
+     * previous one; the remaining symbols of the other segments are then
+     * decoded one stream at a time. If no codeword is longer than
+     * {@link #PRIMARY_BITS}, each stream's state is just its bit position: 64
+     * bits are read at once, and {@link #SYMBOLS_PER_WINDOW} symbols are
+     * decoded from them with one table lookup each.
+     *
+     * @param encodedData Array containing the four streams.
+     * @param streamOffsets Offset (in bytes) of each stream.
+     * @param decodedData The array into which the decoded symbols will be
+     * written.
+     * @param segmentBounds Indexes of decodedData where segments begin:
+     * segment s goes from segmentBounds[s] (inclusive) to segmentBounds[s + 1]
+     * (exclusive); the last segment must not be longer than the others.
+     */
+    public void decodeInterleaved(byte[] encodedData, int[] streamOffsets,
+            byte[] decodedData, int[] segmentBounds) {
+
+        if (maxLength > primaryBits) {
+            for (int s = 0; s < streamOffsets.length; s++) {
+                decode(new BitReader(encodedData, streamOffsets[s]),
+                        decodedData, segmentBounds[s], segmentBounds[s + 1]);
+            }
+            return;
+        }
+
+        long p0 = (long) Byte.SIZE * streamOffsets[0];
+        long p1 = (long) Byte.SIZE * streamOffsets[1];
+        long p2 = (long) Byte.SIZE * streamOffsets[2];
+        long p3 = (long) Byte.SIZE * streamOffsets[3];
+        int i0 = segmentBounds[0];
+        int i1 = segmentBounds[1];
+        int i2 = segmentBounds[2];
+        int i3 = segmentBounds[3];
+        int shift = Long.SIZE - primaryBits;
+
+        for (int end = segmentBounds[4] - SYMBOLS_PER_WINDOW; i3 <= end;) {
+            long w0 = readWindow(encodedData, p0);
+            long w1 = readWindow(encodedData, p1);
+            long w2 = readWindow(encodedData, p2);
+            long w3 = readWindow(encodedData, p3);
+            for (int k = 0; k < SYMBOLS_PER_WINDOW; k++) {
+                int e0 = table[(int) (w0 >>> shift)];
+                int e1 = table[(int) (w1 >>> shift)];
+                int e2 = table[(int) (w2 >>> shift)];
+                int e3 = table[(int) (w3 >>> shift)];
+                w0 <<= e0 & LENGTH_MASK;
+                w1 <<= e1 & LENGTH_MASK;
+                w2 <<= e2 & LENGTH_MASK;
+                w3 <<= e3 & LENGTH_MASK;
+                p0 += e0 & LENGTH_MASK;
+                p1 += e1 & LENGTH_MASK;
+                p2 += e2 & LENGTH_MASK;
+                p3 += e3 & LENGTH_MASK;
+                decodedData[i0++] = (byte) (e0 >>> LENGTH_BITS);
+                decodedData[i1++] = (byte) (e1 >>> LENGTH_BITS);
+                decodedData[i2++] = (byte) (e2 >>> LENGTH_BITS);
+                decodedData[i3++] = (byte) (e3 >>> LENGTH_BITS);
+            }
+        }
+
+        decodeShortCodewords(encodedData, p0, decodedData, i0, segmentBounds[1]);
+        decodeShortCodewords(encodedData, p1, decodedData, i1, segmentBounds[2]);
+        decodeShortCodewords(encodedData, p2, decodedData, i2, segmentBounds[3]);
+        decodeShortCodewords(encodedData, p3, decodedData, i3, segmentBounds[4]);
+    }
+
+    /**
+     * Decodes symbols into the given range of the given array, starting from
+     * the given bit position; it can be used only when no codeword is longer
+     * than {@link #primaryBits}.
+     */
+    private void decodeShortCodewords(byte[] encodedData, long bitPosition,
+            byte[] decodedData, int fromIndex, int toIndex) {
+
+        int shift = Long.SIZE - primaryBits;
+        long window = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            if ((i - fromIndex) % SYMBOLS_PER_WINDOW == 0) {
+                window = readWindow(encodedData, bitPosition);
+            }
+            int entry = table[(int) (window >>> shift)];
+            window <<= entry & LENGTH_MASK;
+            bitPosition += entry & LENGTH_MASK;
+            decodedData[i] = (byte) (entry >>> LENGTH_BITS);
+        }
+    }
+
+    /**
+     * Returns the 64 bits which begin at the given bit position (only the
+     * first {@link #WINDOW_BITS} are guaranteed to be valid, since the
+     * position isn't always at the beginning of a byte); bits beyond the end
+     * of the array are zeros.
+     */
+    private static long readWindow(byte[] bytes, long bitPosition) {
+
+        int index = (int) (bitPosition / Byte.SIZE);
+        long window = 0;
+        if (index + Long.BYTES <= bytes.length) {
+            for (int i = 0; i < Long.BYTES; i++) {
+                window = (window << Byte.SIZE) | Byte.toUnsignedLong(bytes[index + i]);
+            }
+        } else {
+            for (int i = 0; i < Long.BYTES; i++) {
+                window <<= Byte.SIZE;
+                if (index + i < bytes.length) {
+                    window |= Byte.toUnsignedLong(bytes[index + i]);
+                }
+            }
+        }
+        return window << (bitPosition % Byte.SIZE);
+    }
+
+    /**
+     * Decodes a single symbol from the given BitReader.
+     *
+     * @param reader The BitReader from which the encoded symbol will be read.
+     * @return The decoded symbol.
+     */
+    public int decodeSymbol(BitReader reader) {
+
+        int entry = table[reader.peek(primaryBits)];
+
+        if (entry < 0) {
+            reader.consume(primaryBits);
+            entry = table[~entry + reader.peek(SECONDARY_BITS)];
+            while (entry < 0) {
+                reader.consume(SECONDARY_BITS);
+                entry = table[~entry + reader.peek(SECONDARY_BITS)];
+            }
+        }
+
+        reader.consume(entry & LENGTH_MASK);
+        return entry >>> LENGTH_BITS;
+    }
+
+    private void addCodeword(int symbol, long codeword, int length) {
+
+        if (length <= primaryBits) {
+            int shift = primaryBits - length;
+            fillLeaves(0, (int) (codeword << shift), 1 << shift, symbol, length);
+            return;
+        }
+
+        int remaining = length - primaryBits;
+        int tableIndex = (int) (codeword >>> remaining);
+
+        while (true) {
+            int offset;
+            if (table[tableIndex] < 0) {
+                offset = ~table[tableIndex];
+            } else {
+                // newSecondaryTable() can replace the table array, so it must be called first
+                offset = newSecondaryTable();
+                table[tableIndex] = ~offset;
+            }
+            if (remaining <= SECONDARY_BITS) {
+                int shift = SECONDARY_BITS - remaining;
+                int bits = (int) (codeword & ((1L << remaining) - 1));
+                fillLeaves(offset, bits << shift, 1 << shift, symbol, remaining);
+                return;
+            }
+            remaining -= SECONDARY_BITS;
+            tableIndex = offset + (int) ((codeword >>> remaining) & (SECONDARY_SIZE - 1));
+        }
+    }
+
+    private void fillLeaves(int offset, int firstIndex, int count, int symbol, int length) {
+        int leaf = (symbol << LENGTH_BITS) | length;
+        int from = offset + firstIndex;
+        for (int i = from; i < from + count; i++) {
+            table[i] = leaf;
+        }
+    }
+
+    private int newSecondaryTable() {
+        int offset = tableLength;
+        tableLength += SECONDARY_SIZE;
+        if (tableLength > table.length) {
+            int[] expandedTable = new int[Math.max(tableLength, 2 * table.length)];
+            for (int i = 0; i < offset; i++) {
+                expandedTable[i] = table[i];
+            }
+            table = expandedTable;
+        }
+        return offset;
+    }
+}
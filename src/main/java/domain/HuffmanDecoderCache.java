@@ -0,0 +1,223 @@
+package domain;
+
+/**
+ * A bounded cache of {@link HuffmanDecoder HuffmanDecoders}, whose keys are
+ * the bytes of the {@link TreeRepresentation} of their code: when many small
+ * files compressed from similar data share the same code, its decoding table
+ * is built only once. When the cache is full, the least recently used decoder
+ * is evicted. The cache is implemented as a hash table with separate
+ * chaining, whose entries are also linked into a list ordered by last use. All methods are thread-safe; decoders are built
+ * outside the lock, so that threads which miss don't wait for each other.
+ */
+public class HuffmanDecoderCache {
+
+    /**
+     * Default maximum number of decoders in the cache.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final int capacity;
+    private final Entry[] hashTable;
+    /**
+     * Sentinel of the list of entries ordered by last use: its next entry is
+     * the most recently used one, and its previous entry is the least
+     * recently used one.
+     */
+    private final Entry lruList;
+    private int size;
+    private long hits;
+    private long misses;
+
+    /**
+     * Returns an instance of HuffmanDecoderCache with the default capacity.
+     */
+    public HuffmanDecoderCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns an instance of HuffmanDecoderCache with the given capacity.
+     *
+     * @param capacity Maximum number of decoders in the cache.
+     */
+    public HuffmanDecoderCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Argument int capacity has to be positive.");
+        }
+        this.capacity = capacity;
+        // twice as many buckets as entries keeps the chains short
+        hashTable = new Entry[2 * capacity];
+        lruList = new Entry(null, 0, null);
+        lruList.lruPrevious = lruList;
+        lruList.lruNext = lruList;
+    }
+
+    /**
+     * Returns a decoder for the code represented by the given tree
+     * representation: if the cache contains one, it's returned (and becomes
+     * the most recently used), otherwise a new decoder is built and put into
+     * the cache.
+     *
+     * @param treeRepresentation Representation of a canonical Huffman code.
+     * @return A decoder for the given code.
+     */
+    public HuffmanDecoder get(TreeRepresentation treeRepresentation) {
+
+        byte[] key = treeRepresentation.getBytes();
+        int hash = hash(key);
+        HuffmanDecoder decoder = lookUp(key, hash);
+        if (decoder != null) {
+            return decoder;
+        }
+
+        decoder = new HuffmanDecoder(treeRepresentation.buildCanonicalCode());
+        return put(key, hash, decoder);
+    }
+
+    private synchronized HuffmanDecoder lookUp(byte[] key, int hash) {
+        Entry entry = find(key, hash);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        unlink(entry);
+        linkFirst(entry);
+        return entry.decoder;
+    }
+
+    /**
+     * Puts the given decoder into the cache, unless another thread has put a
+     * decoder for the same key in the meantime.
+     *
+     * @return The decoder in the cache for the given key.
+     */
+    private synchronized HuffmanDecoder put(byte[] key, int hash, HuffmanDecoder decoder) {
+
+        Entry entry = find(key, hash);
+        if (entry != null) {
+            return entry.decoder;
+        }
+
+        if (size == capacity) {
+            Entry eldest = lruList.lruPrevious;
+            unlink(eldest);
+            removeFromBucket(eldest);
+            size--;
+        }
+
+        entry = new Entry(key, hash, decoder);
+        int bucket = bucket(hash);
+        entry.bucketNext = hashTable[bucket];
+        hashTable[bucket] = entry;
+        linkFirst(entry);
+        size++;
+        return decoder;
+    }
+
+    private Entry find(byte[] key, int hash) {
+        for (Entry e = hashTable[bucket(hash)]; e != null; e = e.bucketNext) {
+            if (e.hash == hash && equal(e.key, key)) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    private void removeFromBucket(Entry entry) {
+        int bucket = bucket(entry.hash);
+        if (hashTable[bucket] == entry) {
+            hashTable[bucket] = entry.bucketNext;
+            return;
+        }
+        Entry e = hashTable[bucket];
+        while (e.bucketNext != entry) {
+            e = e.bucketNext;
+        }
+        e.bucketNext = entry.bucketNext;
+    }
+
+    private void unlink(Entry entry) {
+        entry.lruPrevious.lruNext = entry.lruNext;
+        entry.lruNext.lruPrevious = entry.lruPrevious;
+    }
+
+    private void linkFirst(Entry entry) {
+        entry.lruPrevious = lruList;
+        entry.lruNext = lruList.lruNext;
+        lruList.lruNext.lruPrevious = entry;
+        lruList.lruNext = entry;
+    }
+
+    private int bucket(int hash) {
+        return (hash & Integer.MAX_VALUE) % hashTable.length;
+    }
+
+    private static int hash(byte[] key) {
+        int hash = 0;
+        for (byte b : key) {
+            hash = 31 * hash + b;
+        }
+        return hash;
+    }
+
+    private static boolean equal(byte[] a, byte[] b) {
+        if (a.length != b.length) {
+            return false;
+        }
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns how many times {@link #get(TreeRepresentation)} found a decoder
+     * in the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns how many times {@link #get(TreeRepresentation)} had to build a
+     * new decoder.
+     *
+     * @return The number of cache misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * An entry of the cache, which belongs both to a bucket of the hash table
+     * and to the list ordered by last use.
+     */
+    private static final class Entry {
+
+        private final byte[] key;
+        private final int hash;
+        private final HuffmanDecoder decoder;
+        private Entry bucketNext;
+        private Entry lruPrevious;
+        private Entry lruNext;
+
+        private Entry(byte[] key, int hash, HuffmanDecoder decoder) {
+            this.key = key;
+            this.hash = hash;
+            this.decoder = decoder;
+        }
+    }
+}
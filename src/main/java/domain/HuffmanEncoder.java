@@ -0,0 +1,91 @@
+package domain;
+
+/**
+ * An encoder for canonical Huffman codes which keeps the code in two primitive
+ * arrays indexed by symbol (codewords and their lengths), and writes codewords
+ * through a {@link BitWriter}, so that encoding doesn't allocate any object.
+ */
+public class HuffmanEncoder {
+
+    /**
+     * Codeword of each symbol (right-aligned), indexed by symbol; codewords are
+     * stored in longs because, even if rarely, Huffman codewords can be longer
+     * than Integer.SIZE bits.
+     */
+    private final long[] codewords;
+    /**
+     * Codeword length of each symbol, indexed by symbol; it's zero for symbols
+     * which don't have a codeword.
+     */
+    private final byte[] lengths;
+
+    /**
+     * Returns an instance of HuffmanEncoder for the given canonical code.
+     *
+     * @param code The canonical Huffman code to be used for encoding.
+     * @param alphabetSize Number of possible symbols (all symbols of the code
+     * must be less than this value).
+     */
+    public HuffmanEncoder(CanonicalCode code, int alphabetSize) {
+        codewords = new long[alphabetSize];
+        lengths = new byte[alphabetSize];
+        for (int i = 0; i < code.getSymbolCount(); i++) {
+            int symbol = code.getSymbol(i);
+            codewords[symbol] = code.getCodeword(i);
+            lengths[symbol] = (byte) code.getLength(i);
+        }
+    }
+
+    /**
+     * Returns the exact length (in bits) of the encoded data, given the number
+     * of occurrences of each symbol in the data.
+     *
+     * @param symbolCounts Number of occurrences of each symbol, indexed by
+     * symbol.
+     * @return Length (in bits) of the encoded data.
+     */
+    public long encodedLengthInBits(long[] symbolCounts) {
+        long lengthInBits = 0;
+        for (int symbol = 0; symbol < symbolCounts.length; symbol++) {
+            lengthInBits += symbolCounts[symbol] * lengths[symbol];
+        }
+        return lengthInBits;
+    }
+
+    /**
+     * Encodes the given range of the given data (interpreting each byte as an
+     * unsigned symbol), writing the codewords with the given BitWriter.
+     *
+     * @param data Data to be encoded.
+     * @param fromIndex Index of the first byte to be encoded (inclusive).
+     * @param toIndex Index of the last byte to be encoded (exclusive).
+     * @param writer The BitWriter used to write the codewords.
+     */
+    public void encode(byte[] data, int fromIndex, int toIndex, BitWriter writer) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            int symbol = Byte.toUnsignedInt(data[i]);
+            writer.write(codewords[symbol], lengths[symbol]);
+        }
+    }
+
+    /**
+     * Encodes a single symbol, writing its codeword with the given BitWriter.
+     *
+     * @param symbol The symbol to be encoded.
+     * @param writer The BitWriter used to write the codeword.
+     */
+    public void encodeSymbol(int symbol, BitWriter writer) {
+        writer.write(codewords[symbol], lengths[symbol]);
+    }
+
+    /**
+     * Returns the length of the codeword of the given symbol.
+     *
+     * @param symbol A symbol.
+     * @return Length of the codeword of the given symbol, or zero if the symbol
+     * doesn't have a codeword.
+     */
+    public int getLength(int symbol) {
+        return lengths[symbol];
+    }
+}
@@ -0,0 +1,445 @@
+package domain;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@link CompressionAlgorithm} implementation of the LZ4 block format, which
+ * trades compression ratio for speed: the data is parsed into sequences, each
+ * made up of a run of literals followed by a match, and sequences are written
+ * in whole bytes, without any entropy coding (for more info see
+ * https://github.com/lz4/lz4/blob/dev/doc/lz4_Block_format.md ). Each
+ * sequence starts with a token byte, whose 4 most significant bits are the
+ * number of literals and whose 4 least significant bits are the match length
+ * minus {@link #MIN_MATCH_LENGTH} (a value of 15 is followed by bytes which
+ * are added to it, up to the first one less than 255), followed by the
+ * literals and by the distance of the match (2 bytes, little-endian). The
+ * last sequence has literals only, and the last {@link #LAST_LITERALS} bytes
+ * are always literals.
+ *
+ * Matches are found with a single probe: a hash table gives the last position
+ * whose next {@link #MIN_MATCH_LENGTH} bytes had the same hash, and that
+ * position is compared with the current one; when no match is found for a
+ * while, positions are skipped more and more quickly, so that data which
+ * can't be compressed is gone through fast. Matches are extended backwards
+ * over the literals which precede them.
+ *
+ * Besides the methods of {@link CompressionAlgorithm}, which allocate their
+ * output, {@link #compress(ByteBuffer, int, int, ByteBuffer, int, int[])} and
+ * {@link #decompress(ByteBuffer, int, ByteBuffer, int, int)} work on buffers
+ * given by the caller (heap or direct ones), so that they don't allocate
+ * anything; the hash table is given by the caller too, and can be reused
+ * without being cleared. They don't write the length of the data, which the
+ * caller must know for decompression. Buffers are read 4 or 8 bytes at a
+ * time, which is what makes these methods fast: matches are compared 8 bytes
+ * at a time, and the decompressor copies literals and matches 8 bytes at a
+ * time, writing up to 15 bytes past their end when there is room for them
+ * (a "wild copy"), so that short copies take no branch.
+ *
+ * The compressed data will include (in this order):
+ * - int: length (in bytes) of the original (uncompressed) data;
+ * - the sequences (in the LZ4 block format).
+ */
+public final class LZ4 extends CompressionAlgorithm {
+
+    /**
+     * Minimum length of a match.
+     */
+    public static final int MIN_MATCH_LENGTH = 4;
+    /**
+     * Maximum distance of a match, so that it can be written with 2 bytes.
+     */
+    public static final int MAX_DISTANCE = (1 << 16) - 1;
+    /**
+     * Number of bytes at the end of the data which are always literals, and
+     * minimum number of bytes between the start of the last match and the end
+     * of the data (as required by the LZ4 block format).
+     */
+    public static final int LAST_LITERALS = 5;
+    private static final int MATCH_START_LIMIT = 12;
+    /**
+     * Number of bits of the hash of {@link #MIN_MATCH_LENGTH} bytes; a small
+     * hash table stays in the L1 cache, and is quick to allocate for short
+     * data.
+     */
+    private static final int HASH_BITS = 12;
+    /**
+     * Number of ints of the hash table given to
+     * {@link #compress(ByteBuffer, int, int, ByteBuffer, int, int[])}.
+     */
+    public static final int HASH_TABLE_SIZE = 1 << HASH_BITS;
+    /**
+     * The step between probed positions grows by one every 2^SKIP_STRENGTH
+     * positions without a match.
+     */
+    private static final int SKIP_STRENGTH = 6;
+
+    private static final int LENGTH_BITS = 4;
+    private static final int MAX_SHORT_LENGTH = (1 << LENGTH_BITS) - 1;
+    private static final int MAX_LENGTH_BYTE = 255;
+    private static final int WILD_COPY_LENGTH = Long.BYTES;
+
+    private static final String NAME = "lz4";
+    private static final String DESCRIPTION = "LZ4 (byte-aligned LZ77 without entropy coding)";
+
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the length of the original data (in bytes) will be written.
+     */
+    private static final int OFFSET_ORIG_DATA_LENGTH = 0;
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the sequences will be written.
+     */
+    private static final int OFFSET_DATA = OFFSET_ORIG_DATA_LENGTH + Integer.BYTES;
+
+    /**
+     * Returns the maximum length of the compressed data of the given length
+     * (without the length of the original data), which is what the array
+     * given to {@link #compress(ByteBuffer, int, int, ByteBuffer, int, int[])} must
+     * have room for.
+     *
+     * @param length Length of the original data.
+     * @return Maximum length of the compressed data.
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / MAX_LENGTH_BYTE + 16;
+    }
+
+    /**
+     * Compresses the given data.
+     *
+     * @param originalData The data to be compressed.
+     * @return A bit sequence corresponding to the compressed data.
+     */
+    @Override
+    public BitSequence compressData(byte[] originalData) {
+        byte[] compressedData = new byte[OFFSET_DATA + maxCompressedLength(originalData.length)];
+        Utils.insertInt(originalData.length, compressedData, OFFSET_ORIG_DATA_LENGTH);
+        int end = compress(ByteBuffer.wrap(originalData), 0, originalData.length,
+                ByteBuffer.wrap(compressedData), OFFSET_DATA, new int[HASH_TABLE_SIZE]);
+        return new BitSequence(compressedData, 0, end - 1);
+    }
+
+    /**
+     * Decompresses the given compressed data.
+     *
+     * @param compressedData The compressed data to be decompressed.
+     * @return The original, uncompressed data.
+     */
+    @Override
+    public byte[] decompressData(byte[] compressedData) {
+        byte[] originalData = new byte[Utils.extractInt(compressedData, OFFSET_ORIG_DATA_LENGTH)];
+        decompress(ByteBuffer.wrap(compressedData), OFFSET_DATA, ByteBuffer.wrap(originalData), 0,
+                originalData.length);
+        return originalData;
+    }
+
+    /**
+     * Compresses the given range of the given buffer into the given buffer,
+     * without allocating anything. The indexes are absolute, and the
+     * positions and limits of the buffers aren't changed; bytes of dest after
+     * the compressed data, up to its limit, can be overwritten.
+     *
+     * @param src Buffer containing the data to be compressed.
+     * @param srcFrom Index of the first byte to be compressed (inclusive).
+     * @param srcTo Index of the last byte to be compressed (exclusive).
+     * @param dest Buffer into which the compressed data will be written; it
+     * must have room for {@link #maxCompressedLength(int)} bytes after
+     * destFrom.
+     * @param destFrom Index of dest where the compressed data will start.
+     * @param hashTable An array of {@link #HASH_TABLE_SIZE} ints, which
+     * doesn't need to be cleared between calls, since the position found in
+     * it is always compared with the current one.
+     * @return The index of dest right after the compressed data.
+     */
+    public int compress(ByteBuffer src, int srcFrom, int srcTo, ByteBuffer dest, int destFrom,
+            int[] hashTable) {
+
+        checkArguments(src, srcFrom, srcTo, dest, destFrom, hashTable);
+        int matchStartLimit = srcTo - MATCH_START_LIMIT;
+        int matchEndLimit = srcTo - LAST_LITERALS;
+        int anchor = srcFrom;
+        int o = destFrom;
+        int misses = 0;
+        int i = srcFrom;
+        while (i <= matchStartLimit) {
+            int h = hash(src, i);
+            int candidate = hashTable[h];
+            hashTable[h] = i;
+            if (!isMatch(src, srcFrom, candidate, i)) {
+                // the step grows by one every 2^SKIP_STRENGTH misses
+                i += 1 + (misses++ >>> SKIP_STRENGTH);
+                continue;
+            }
+            while (i > anchor && candidate > srcFrom && src.get(i - 1) == src.get(candidate - 1)) {
+                i--;
+                candidate--;
+            }
+            int length = MIN_MATCH_LENGTH + matchLength(src, candidate + MIN_MATCH_LENGTH,
+                    i + MIN_MATCH_LENGTH, matchEndLimit);
+            o = writeSequence(src, anchor, i, dest, o, i - candidate, length);
+            i += length;
+            anchor = i;
+            misses = 0;
+            // the next position is probed right away, but the positions
+            // inside the match aren't put into the table, apart from one
+            hashTable[hash(src, i - 2)] = i - 2;
+        }
+        return writeLiterals(src, anchor, srcTo, dest, o);
+    }
+
+    private static void checkArguments(ByteBuffer src, int srcFrom, int srcTo, ByteBuffer dest,
+            int destFrom, int[] hashTable) {
+
+        if (srcFrom < 0 || srcTo < srcFrom || srcTo > src.limit()) {
+            throw new IllegalArgumentException("Arguments int srcFrom and int srcTo have to be "
+                    + "a range of src.");
+        }
+        if (destFrom < 0 || destFrom > dest.limit()
+                || dest.limit() - destFrom < maxCompressedLength(srcTo - srcFrom)) {
+            throw new IllegalArgumentException("Argument ByteBuffer dest has to have room for "
+                    + maxCompressedLength(srcTo - srcFrom) + " bytes after destFrom.");
+        }
+        if (hashTable.length != HASH_TABLE_SIZE) {
+            throw new IllegalArgumentException("Argument int[] hashTable has to have "
+                    + HASH_TABLE_SIZE + " elements.");
+        }
+    }
+
+    /**
+     * Returns the hash of the {@link #MIN_MATCH_LENGTH} bytes starting at the
+     * given index (a Fibonacci hash of the bytes read as a big-endian int, so
+     * that the compressed data doesn't depend on the byte order of the
+     * buffer).
+     */
+    private static int hash(ByteBuffer data, int index) {
+        int key = data.getInt(index);
+        if (data.order() == ByteOrder.LITTLE_ENDIAN) {
+            key = Integer.reverseBytes(key);
+        }
+        return (key * 0x9E3779B1) >>> (Integer.SIZE - HASH_BITS);
+    }
+
+    /**
+     * Returns true if the given candidate, found in the hash table, is a
+     * position before the given one (but not too far) whose next
+     * {@link #MIN_MATCH_LENGTH} bytes are the same.
+     */
+    private static boolean isMatch(ByteBuffer data, int from, int candidate, int position) {
+        return candidate >= from && candidate < position && position - candidate <= MAX_DISTANCE
+                && data.getInt(candidate) == data.getInt(position);
+    }
+
+    /**
+     * Returns the number of bytes which are the same from the given candidate
+     * and from the given position, up to the given limit; bytes are compared
+     * 8 at a time, and the first different byte is found from the lowest
+     * different bit in the byte order of the buffer.
+     */
+    private static int matchLength(ByteBuffer data, int candidate, int position, int limit) {
+        boolean bigEndian = data.order() == ByteOrder.BIG_ENDIAN;
+        int l = 0;
+        while (position + l + Long.BYTES <= limit) {
+            long difference = data.getLong(candidate + l) ^ data.getLong(position + l);
+            if (difference != 0) {
+                return l + (bigEndian ? Long.numberOfLeadingZeros(difference)
+                        : Long.numberOfTrailingZeros(difference)) / Byte.SIZE;
+            }
+            l += Long.BYTES;
+        }
+        while (position + l < limit && data.get(candidate + l) == data.get(position + l)) {
+            l++;
+        }
+        return l;
+    }
+
+    /**
+     * Writes a sequence made up of the literals from anchor to position
+     * (exclusive) and of the given match, returning the index of dest right
+     * after it.
+     */
+    private static int writeSequence(ByteBuffer src, int anchor, int position, ByteBuffer dest,
+            int o, int distance, int length) {
+
+        int tokenIndex = o;
+        o = writeLiterals(src, anchor, position, dest, o);
+        dest.put(o++, (byte) distance);
+        dest.put(o++, (byte) (distance >>> Byte.SIZE));
+        int lengthField = length - MIN_MATCH_LENGTH;
+        if (lengthField >= MAX_SHORT_LENGTH) {
+            dest.put(tokenIndex, (byte) (dest.get(tokenIndex) | MAX_SHORT_LENGTH));
+            return writeLength(dest, o, lengthField - MAX_SHORT_LENGTH);
+        }
+        dest.put(tokenIndex, (byte) (dest.get(tokenIndex) | lengthField));
+        return o;
+    }
+
+    /**
+     * Writes the token of a sequence with the given literals (and with a
+     * match length of zero), followed by them, returning the index of dest
+     * right after them.
+     */
+    private static int writeLiterals(ByteBuffer src, int from, int to, ByteBuffer dest, int o) {
+        int count = to - from;
+        if (count >= MAX_SHORT_LENGTH) {
+            dest.put(o++, (byte) (MAX_SHORT_LENGTH << LENGTH_BITS));
+            o = writeLength(dest, o, count - MAX_SHORT_LENGTH);
+        } else {
+            dest.put(o++, (byte) (count << LENGTH_BITS));
+        }
+        copy(src, from, dest, o, count, dest.limit());
+        return o + count;
+    }
+
+    /**
+     * Writes what is left of a length after the 4 bits of the token: bytes of
+     * 255, followed by a byte less than 255.
+     */
+    private static int writeLength(ByteBuffer dest, int o, int length) {
+        while (length >= MAX_LENGTH_BYTE) {
+            dest.put(o++, (byte) MAX_LENGTH_BYTE);
+            length -= MAX_LENGTH_BYTE;
+        }
+        dest.put(o++, (byte) length);
+        return o;
+    }
+
+    /**
+     * Decompresses the given compressed data (written by
+     * {@link #compress(ByteBuffer, int, int, ByteBuffer, int, int[])}) into
+     * the given range of the given buffer, without allocating anything. The
+     * indexes are absolute, and the positions and limits of the buffers
+     * aren't changed; bytes of dest after destTo, up to its limit, can be
+     * overwritten.
+     *
+     * @param src Buffer containing the compressed data.
+     * @param srcFrom Index of src where the compressed data starts.
+     * @param dest Buffer into which the original data will be written.
+     * @param destFrom Index of the first byte of the original data in dest
+     * (inclusive).
+     * @param destTo Index of the last byte of the original data in dest
+     * (exclusive); the length of the original data has to be known.
+     * @return The index of src right after the compressed data.
+     */
+    public int decompress(ByteBuffer src, int srcFrom, ByteBuffer dest, int destFrom,
+            int destTo) {
+
+        if (destFrom < 0 || destTo < destFrom || destTo > dest.limit()) {
+            throw new IllegalArgumentException("Arguments int destFrom and int destTo have to "
+                    + "be a range of dest.");
+        }
+        int s = srcFrom;
+        int d = destFrom;
+        while (true) {
+            int token = Byte.toUnsignedInt(src.get(s++));
+            int count = token >>> LENGTH_BITS;
+            if (count == MAX_SHORT_LENGTH) {
+                int extra = readLength(src, s);
+                s += extra / MAX_LENGTH_BYTE + 1;
+                count += extra;
+            }
+            if (count > destTo - d) {
+                throw new IllegalArgumentException("The compressed data contains more literals "
+                        + "than the original data.");
+            }
+            copy(src, s, dest, d, count, dest.limit());
+            s += count;
+            d += count;
+            if (d == destTo) {
+                return s;
+            }
+            int distance = Byte.toUnsignedInt(src.get(s))
+                    | Byte.toUnsignedInt(src.get(s + 1)) << Byte.SIZE;
+            s += 2;
+            int length = token & MAX_SHORT_LENGTH;
+            if (length == MAX_SHORT_LENGTH) {
+                int extra = readLength(src, s);
+                s += extra / MAX_LENGTH_BYTE + 1;
+                length += extra;
+            }
+            length += MIN_MATCH_LENGTH;
+            if (distance == 0 || distance > d - destFrom || length > destTo - d) {
+                throw new IllegalArgumentException("The compressed data contains a match outside "
+                        + "of the data.");
+            }
+            copy(dest, d - distance, dest, d, length, dest.limit());
+            d += length;
+        }
+    }
+
+    /**
+     * Returns what is left of a length after the 4 bits of the token, written
+     * at the given index (the number of bytes it takes is this value divided
+     * by 255, plus one).
+     */
+    private static int readLength(ByteBuffer src, int index) {
+        int length = 0;
+        int b;
+        do {
+            b = Byte.toUnsignedInt(src.get(index++));
+            length += b;
+        } while (b == MAX_LENGTH_BYTE);
+        return length;
+    }
+
+    /**
+     * Copies the given number of bytes from a buffer to another one, which
+     * can be the same buffer when copying a match (whose bytes overlap the
+     * bytes it produces, when its distance is less than its length). Most
+     * literal runs and matches are at most 16 bytes long: when the source is
+     * at least 8 bytes before the destination (or in another buffer with the
+     * same byte order), and both buffers have room for it, they are copied
+     * with two 8-byte words, without any branch, writing up to 15 bytes too
+     * many (which are overwritten by the next bytes, or are past the data).
+     * The other cases are left to another method, so that this one is small
+     * enough to be inlined by the JIT compiler.
+     */
+    private static void copy(ByteBuffer from, int f, ByteBuffer to, int t, int length,
+            int limit) {
+
+        if (length <= 2 * WILD_COPY_LENGTH && t + 2 * WILD_COPY_LENGTH <= limit
+                && f + 2 * WILD_COPY_LENGTH <= from.limit()
+                && (from == to ? t - f >= WILD_COPY_LENGTH : from.order() == to.order())) {
+            to.putLong(t, from.getLong(f));
+            to.putLong(t + WILD_COPY_LENGTH, from.getLong(f + WILD_COPY_LENGTH));
+        } else {
+            copyLong(from, f, to, t, length, limit);
+        }
+    }
+
+    /**
+     * Copies longer literal runs and matches 8 bytes at a time, like
+     * {@link #copy(ByteBuffer, int, ByteBuffer, int, int, int)}, and those
+     * which can't be copied that way one byte at a time.
+     */
+    private static void copyLong(ByteBuffer from, int f, ByteBuffer to, int t, int length,
+            int limit) {
+
+        if (t + length + WILD_COPY_LENGTH <= limit && f + length + WILD_COPY_LENGTH <= from.limit()
+                && (from == to ? t - f >= WILD_COPY_LENGTH : from.order() == to.order())) {
+            for (int i = 0; i < length; i += WILD_COPY_LENGTH) {
+                to.putLong(t + i, from.getLong(f + i));
+            }
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            to.put(t + i, from.get(f + i));
+        }
+    }
+
+    @Override
+    public String getExtension() {
+        return "." + NAME;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return DESCRIPTION;
+    }
+}
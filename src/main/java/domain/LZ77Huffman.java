@@ -0,0 +1,363 @@
+package domain;
+
+/**
+ * A {@link CompressionAlgorithm} implementation in the style of DEFLATE: the
+ * data is parsed into literals and matches by an {@link LZ77Parser}, and the
+ * tokens are encoded with canonical Huffman codes, one for literals and match
+ * lengths and one for match distances (for more info see
+ * https://tools.ietf.org/html/rfc1951 ). Tokens are encoded in blocks of
+ * {@link #BLOCK_TOKEN_COUNT}, each with its own codes, so that the codes
+ * follow the changes of the data.
+ *
+ * Literals are symbols of the first code on their own; match lengths and
+ * distances are grouped into buckets (see {@link ValueBuckets}), whose
+ * Huffman codewords are followed by the extra bits of the value: lengths
+ * (minus {@link LZ77Parser#MIN_MATCH_LENGTH}) are grouped with
+ * {@link #LENGTH_BUCKET_BITS} bits after the most significant one, which
+ * gives 28 symbols, and distances (minus one) with
+ * {@link #DISTANCE_BUCKET_BITS}, which gives 30 symbols for a window of 32 KiB
+ * (like in DEFLATE). The format isn't the same as DEFLATE's, though: there
+ * are no uncompressed or fixed-code blocks, and the codes are written with
+ * {@link CanonicalCodeHeader}.
+ *
+ * The compressed data will include (in this order):
+ * - int: length (in bytes) of the original (uncompressed) data;
+ * - byte: freeBits (unused bits in the last byte of the compressed data);
+ * - the blocks, one after the other (not aligned to bytes), each made up of
+ * the literal/length code, the distance code and the encoded tokens (each
+ * made up of a literal or length codeword and, for a match, its extra bits,
+ * the distance codeword and its extra bits); all blocks except the last one
+ * contain {@link #BLOCK_TOKEN_COUNT} tokens.
+ */
+public final class LZ77Huffman extends CompressionAlgorithm {
+
+    /**
+     * Default number of bits of the window size (32 KiB, like DEFLATE).
+     */
+    public static final int DEFAULT_WINDOW_BITS = 15;
+    /**
+     * Default maximum number of positions compared with the current one.
+     */
+    public static final int DEFAULT_MAX_CHAIN_LENGTH = 32;
+    /**
+     * Number of tokens of each block.
+     */
+    public static final int BLOCK_TOKEN_COUNT = 1 << 15;
+    /**
+     * Number of bits (after the most significant one) which determine the
+     * bucket of a match length and of a match distance.
+     */
+    public static final int LENGTH_BUCKET_BITS = 2;
+    public static final int DISTANCE_BUCKET_BITS = 1;
+    private static final ValueBuckets LENGTH_BUCKETS = new ValueBuckets(LENGTH_BUCKET_BITS);
+    private static final ValueBuckets DISTANCE_BUCKETS = new ValueBuckets(DISTANCE_BUCKET_BITS);
+    /**
+     * Number of bits of the largest match length (minus
+     * {@link LZ77Parser#MIN_MATCH_LENGTH}).
+     */
+    private static final int LENGTH_VALUE_BITS = Integer.SIZE - Integer.numberOfLeadingZeros(
+            LZ77Parser.MAX_MATCH_LENGTH - LZ77Parser.MIN_MATCH_LENGTH);
+    /**
+     * Number of symbols of the literal/length code: single bytes, and buckets
+     * of lengths.
+     */
+    private static final int LITERAL_LENGTH_SYMBOL_COUNT = Utils.POSSIBLE_BYTE_VALUES_COUNT
+            + LENGTH_BUCKETS.bucketCount(LENGTH_VALUE_BITS);
+
+    /**
+     * Names of instances of this class are this prefix followed by the number
+     * of bits of the window size, which is needed for decompression.
+     */
+    public static final String NAME_PREFIX = "lz77h";
+
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the length of the original data (in bytes) will be written.
+     */
+    private static final int OFFSET_ORIG_DATA_LENGTH = 0;
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the value of freeBits will be written.
+     */
+    private static final int OFFSET_FREEBITS = Integer.BYTES;
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the blocks will be written.
+     */
+    private static final int OFFSET_DATA = OFFSET_FREEBITS + Byte.BYTES;
+
+    /**
+     * The file extension used for files compressed using this class.
+     */
+    private final String compressedFileExtension;
+    /**
+     * Short name for this algorithm (used in TUI).
+     */
+    private final String name;
+    /**
+     * Longer name for this algorithm (used in TUI).
+     */
+    private final String description;
+
+    private final LZ77Parser parser;
+    /**
+     * Number of symbols of the distance code.
+     */
+    private final int distanceSymbolCount;
+
+    /**
+     * Returns an instance of LZ77Huffman with the default window size and
+     * chain depth, and with lazy matching.
+     */
+    public LZ77Huffman() {
+        this(DEFAULT_WINDOW_BITS, DEFAULT_MAX_CHAIN_LENGTH, true);
+    }
+
+    /**
+     * Returns an instance of LZ77Huffman with the given window size and chain
+     * depth (see {@link LZ77Parser#LZ77Parser(int, int, boolean)}).
+     *
+     * @param windowBits Number of bits of the window size (the window size is
+     * 2^windowBits bytes).
+     * @param maxChainLength Maximum number of earlier positions compared with
+     * the current one when looking for a match.
+     * @param lazy Whether a match is emitted only if the next position doesn't
+     * start a longer one.
+     */
+    public LZ77Huffman(int windowBits, int maxChainLength, boolean lazy) {
+        parser = new LZ77Parser(windowBits, maxChainLength, lazy);
+        distanceSymbolCount = DISTANCE_BUCKETS.bucketCount(windowBits);
+        name = NAME_PREFIX + windowBits;
+        compressedFileExtension = "." + name;
+        description = "LZ77 (window of " + LZSS.windowSizeDescription(windowBits)
+                + ") with Huffman-coded blocks, like DEFLATE";
+    }
+
+    /**
+     * Returns an instance of LZ77Huffman with the given name (for example
+     * "lz77h16" for a window of 64 KiB), with the default chain depth and lazy
+     * matching.
+     *
+     * @param name Name of an LZ77Huffman algorithm.
+     * @return An instance of LZ77Huffman with the given name, or null if no
+     * window size corresponds to it.
+     */
+    public static LZ77Huffman forName(String name) {
+        for (int bits = LZ77Parser.MIN_WINDOW_BITS; bits <= LZ77Parser.MAX_WINDOW_BITS; bits++) {
+            if (name.equals(NAME_PREFIX + bits)) {
+                return new LZ77Huffman(bits, DEFAULT_MAX_CHAIN_LENGTH, true);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns an instance of LZ77Huffman whose compressed files have the given
+     * extension (for example ".lz77h16" for a window of 64 KiB).
+     *
+     * @param extension Extension of a compressed file (including the period).
+     * @return An instance of LZ77Huffman with the given extension, or null if
+     * no window size corresponds to it.
+     */
+    public static LZ77Huffman forExtension(String extension) {
+        return extension.startsWith(".") ? forName(extension.substring(1)) : null;
+    }
+
+    /**
+     * Compresses the given data: the tokens given by the parser are collected
+     * into blocks, and each block is encoded as soon as it's full.
+     *
+     * @param originalData The data to be compressed.
+     * @return A bit sequence corresponding to the compressed data.
+     */
+    @Override
+    public BitSequence compressData(byte[] originalData) {
+
+        byte[] bytes = new byte[OFFSET_DATA + originalData.length];
+        Utils.insertInt(originalData.length, bytes, OFFSET_ORIG_DATA_LENGTH);
+        BitWriter writer = new BitWriter(bytes, (long) Byte.SIZE * OFFSET_DATA);
+
+        if (originalData.length > 0) {
+            BlockEncoder encoder = new BlockEncoder(writer, originalData.length);
+            parser.parse(originalData, encoder);
+            encoder.encodeBlock();
+        }
+
+        writer.flush();
+        BitSequence compressedBitSeq = writer.toBitSequence();
+        writer.getBytes()[OFFSET_FREEBITS] = (byte) compressedBitSeq.getFreeBits();
+        return compressedBitSeq;
+    }
+
+    /**
+     * Decompresses the given compressed data, reading the codes of each block
+     * before its first token.
+     *
+     * @param compressedData The compressed data to be decompressed.
+     * @return The original, uncompressed data.
+     */
+    @Override
+    public byte[] decompressData(byte[] compressedData) {
+
+        byte[] originalData = new byte[Utils.extractInt(compressedData, OFFSET_ORIG_DATA_LENGTH)];
+        BitReader reader = new BitReader(compressedData, OFFSET_DATA);
+
+        HuffmanDecoder literalLengthDecoder = null;
+        HuffmanDecoder distanceDecoder = null;
+        int remaining = 0;
+        int i = 0;
+        while (i < originalData.length) {
+            if (remaining == 0) {
+                literalLengthDecoder = new HuffmanDecoder(
+                        CanonicalCodeHeader.read(reader, LITERAL_LENGTH_SYMBOL_COUNT));
+                distanceDecoder = new HuffmanDecoder(
+                        CanonicalCodeHeader.read(reader, distanceSymbolCount));
+                remaining = BLOCK_TOKEN_COUNT;
+            }
+            remaining--;
+            int symbol = literalLengthDecoder.decodeSymbol(reader);
+            if (symbol < Utils.POSSIBLE_BYTE_VALUES_COUNT) {
+                originalData[i++] = (byte) symbol;
+                continue;
+            }
+            int length = LZ77Parser.MIN_MATCH_LENGTH
+                    + readValue(symbol - Utils.POSSIBLE_BYTE_VALUES_COUNT, LENGTH_BUCKETS, reader);
+            int distance = 1 + readValue(distanceDecoder.decodeSymbol(reader),
+                    DISTANCE_BUCKETS, reader);
+            i = LZ77Parser.copyMatch(originalData, i, distance, length);
+        }
+
+        return originalData;
+    }
+
+    /**
+     * Reads the extra bits of a value of the given bucket, and returns the
+     * value.
+     */
+    private static int readValue(int bucket, ValueBuckets buckets, BitReader reader) {
+        int extraBitCount = buckets.extraBitCount(bucket);
+        int extraBits = extraBitCount == 0 ? 0 : reader.read(extraBitCount);
+        return buckets.value(bucket, extraBitCount, extraBits);
+    }
+
+    /**
+     * Writes the given value with the given encoder: the codeword of its
+     * bucket, followed by its extra bits.
+     */
+    private static void writeValue(int value, ValueBuckets buckets, int symbolOffset,
+            HuffmanEncoder encoder, BitWriter writer) {
+        int bucket = buckets.bucket(value);
+        int extraBitCount = buckets.extraBitCount(bucket);
+        encoder.encodeSymbol(symbolOffset + bucket, writer);
+        writer.write(ValueBuckets.extraBits(value, extraBitCount), extraBitCount);
+    }
+
+    public LZ77Parser getParser() {
+        return parser;
+    }
+
+    @Override
+    public String getExtension() {
+        return compressedFileExtension;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Collects the tokens given by the parser, and encodes them whenever a
+     * block is full.
+     */
+    private final class BlockEncoder implements LZ77TokenWriter {
+
+        private final BitWriter writer;
+        /**
+         * Literal of each token of the current block, or the number of single
+         * bytes plus the length (minus {@link LZ77Parser#MIN_MATCH_LENGTH}) of
+         * a match; since each token takes at least one byte, the block is
+         * never longer than the original data.
+         */
+        private final int[] values;
+        /**
+         * Distance (minus one) of each match of the current block.
+         */
+        private final int[] distances;
+        private int count;
+
+        BlockEncoder(BitWriter writer, int originalDataLength) {
+            this.writer = writer;
+            values = new int[Math.min(BLOCK_TOKEN_COUNT, originalDataLength)];
+            distances = new int[values.length];
+        }
+
+        @Override
+        public void writeLiteral(byte literal) {
+            if (count == values.length) {
+                encodeBlock();
+            }
+            values[count++] = Byte.toUnsignedInt(literal);
+        }
+
+        @Override
+        public void writeMatch(int distance, int length) {
+            if (count == values.length) {
+                encodeBlock();
+            }
+            distances[count] = distance - 1;
+            values[count++] = Utils.POSSIBLE_BYTE_VALUES_COUNT + length
+                    - LZ77Parser.MIN_MATCH_LENGTH;
+        }
+
+        /**
+         * Writes the codes of the current block and its tokens.
+         */
+        void encodeBlock() {
+
+            long[] literalLengthCounts = new long[LITERAL_LENGTH_SYMBOL_COUNT];
+            long[] distanceCounts = new long[distanceSymbolCount];
+            for (int i = 0; i < count; i++) {
+                if (values[i] < Utils.POSSIBLE_BYTE_VALUES_COUNT) {
+                    literalLengthCounts[values[i]]++;
+                } else {
+                    literalLengthCounts[Utils.POSSIBLE_BYTE_VALUES_COUNT + LENGTH_BUCKETS.bucket(
+                            values[i] - Utils.POSSIBLE_BYTE_VALUES_COUNT)]++;
+                    distanceCounts[DISTANCE_BUCKETS.bucket(distances[i])]++;
+                }
+            }
+            HuffmanEncoder literalLengthEncoder = encoder(literalLengthCounts);
+            HuffmanEncoder distanceEncoder = encoder(distanceCounts);
+
+            writer.ensureCapacity((long) (2 * CanonicalCodeHeader.MAX_CODEWORD_LENGTH
+                    + LENGTH_VALUE_BITS + LZ77Parser.MAX_WINDOW_BITS) * count);
+            for (int i = 0; i < count; i++) {
+                if (values[i] < Utils.POSSIBLE_BYTE_VALUES_COUNT) {
+                    literalLengthEncoder.encodeSymbol(values[i], writer);
+                } else {
+                    writeValue(values[i] - Utils.POSSIBLE_BYTE_VALUES_COUNT, LENGTH_BUCKETS,
+                            Utils.POSSIBLE_BYTE_VALUES_COUNT, literalLengthEncoder, writer);
+                    writeValue(distances[i], DISTANCE_BUCKETS, 0, distanceEncoder, writer);
+                }
+            }
+            count = 0;
+        }
+
+        /**
+         * Computes a code for the given symbol counts, writes it and returns
+         * its encoder.
+         */
+        private HuffmanEncoder encoder(long[] symbolCounts) {
+            int[] codewordLengths = CanonicalCodeHeader.codewordLengths(symbolCounts);
+            writer.ensureCapacity(CanonicalCodeHeader.maxLengthInBits(symbolCounts.length));
+            CanonicalCodeHeader.write(codewordLengths, writer);
+            return new HuffmanEncoder(CanonicalCode.fromLengths(codewordLengths),
+                    symbolCounts.length);
+        }
+    }
+}
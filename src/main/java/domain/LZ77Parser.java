@@ -0,0 +1,259 @@
+package domain;
+
+/**
+ * Parses data into the tokens of LZ77: literals (single bytes) and matches,
+ * which are references (distance and length) to an earlier occurrence of the
+ * same bytes inside a sliding window (for more info see
+ * https://en.wikipedia.org/wiki/LZ77_and_LZ78 ). The tokens are given to an
+ * {@link LZ77TokenWriter}, so that each algorithm can encode them as it likes
+ * (see {@link LZSS} and {@link LZ77Huffman}).
+ *
+ * Matches are found with hash chains, like in zlib's deflate: the positions
+ * whose next {@link #MIN_MATCH_LENGTH} bytes have the same hash are linked
+ * together, from the most recent to the oldest, and at most a given number of
+ * them (the chain depth) is compared with the current position. With lazy
+ * matching, a match is emitted only if the next position doesn't start a
+ * longer one; otherwise a literal is emitted, and the longer match is
+ * considered in its turn. An instance keeps no state between calls to
+ * {@link #parse(byte[], LZ77TokenWriter)}, so it can be used by several
+ * threads at once.
+ */
+public final class LZ77Parser {
+
+    /**
+     * Minimum and maximum number of bits of the window size (the window size
+     * is 2^windowBits bytes).
+     */
+    public static final int MIN_WINDOW_BITS = 8;
+    public static final int MAX_WINDOW_BITS = 24;
+    /**
+     * Minimum and maximum length of a match (like in DEFLATE).
+     */
+    public static final int MIN_MATCH_LENGTH = 3;
+    public static final int MAX_MATCH_LENGTH = 258;
+    /**
+     * Matches at least this long are emitted without looking for a longer one
+     * at the next position, since the gain would be small compared to the
+     * time spent.
+     */
+    private static final int MAX_LAZY_LENGTH = 32;
+
+    /**
+     * Number of bits of the hash of {@link #MIN_MATCH_LENGTH} bytes (the
+     * number of chains is 2^HASH_BITS).
+     */
+    private static final int HASH_BITS = 15;
+    /**
+     * Value of {@link MatchFinder#head} for chains which are empty.
+     */
+    private static final int NO_POSITION = -1;
+
+    private final int windowBits;
+    private final int maxChainLength;
+    private final boolean lazy;
+
+    /**
+     * Returns an instance of LZ77Parser with the given window size and chain
+     * depth.
+     *
+     * @param windowBits Number of bits of the window size (the window size is
+     * 2^windowBits bytes); it has to be between {@link #MIN_WINDOW_BITS} and
+     * {@link #MAX_WINDOW_BITS} (both inclusive).
+     * @param maxChainLength Maximum number of earlier positions compared with
+     * the current one when looking for a match; it has to be positive.
+     * @param lazy Whether a match is emitted only if the next position doesn't
+     * start a longer one.
+     */
+    public LZ77Parser(int windowBits, int maxChainLength, boolean lazy) {
+        if (windowBits < MIN_WINDOW_BITS || windowBits > MAX_WINDOW_BITS) {
+            throw new IllegalArgumentException("Argument int windowBits has to be between "
+                    + MIN_WINDOW_BITS + " and " + MAX_WINDOW_BITS + " (both inclusive).");
+        }
+        if (maxChainLength <= 0) {
+            throw new IllegalArgumentException("Argument int maxChainLength has to be "
+                    + "positive.");
+        }
+        this.windowBits = windowBits;
+        this.maxChainLength = maxChainLength;
+        this.lazy = lazy;
+    }
+
+    /**
+     * Parses the given data, giving its tokens to the given writer.
+     *
+     * @param data The data to be parsed.
+     * @param writer The writer which receives the tokens.
+     */
+    public void parse(byte[] data, LZ77TokenWriter writer) {
+        MatchFinder finder = new MatchFinder(data);
+        int i = 0;
+        while (i < data.length) {
+            int length = finder.find(i);
+            int distance = finder.distance;
+            // while the next position starts a longer match, the current byte
+            // is emitted as a literal
+            while (lazy && length >= MIN_MATCH_LENGTH && length < MAX_LAZY_LENGTH
+                    && finder.find(i + 1) > length) {
+                writer.writeLiteral(data[i++]);
+                length = finder.length;
+                distance = finder.distance;
+            }
+            if (length >= MIN_MATCH_LENGTH) {
+                writer.writeMatch(distance, length);
+                i += length;
+            } else {
+                writer.writeLiteral(data[i++]);
+            }
+        }
+    }
+
+    /**
+     * Copies a match into the given decompressed data. The match is copied one
+     * byte at a time, since it can overlap the bytes it produces (when its
+     * distance is less than its length, as in a run of the same byte).
+     *
+     * @param data The decompressed data.
+     * @param index Index of data where the match starts.
+     * @param distance Distance of the match.
+     * @param length Length of the match.
+     * @return The index of data right after the match.
+     */
+    public static int copyMatch(byte[] data, int index, int distance, int length) {
+        int from = index - distance;
+        int to = index + length;
+        if (from < 0 || to > data.length) {
+            throw new IllegalArgumentException("The compressed data contains a match outside "
+                    + "of the data.");
+        }
+        while (index < to) {
+            data[index++] = data[from++];
+        }
+        return index;
+    }
+
+    public int getWindowBits() {
+        return windowBits;
+    }
+
+    public int getMaxChainLength() {
+        return maxChainLength;
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Finds the longest match starting at a given position, keeping the hash
+     * chains of the positions before it. Positions are put into the chains
+     * only when a match is looked for at a later position, so the positions
+     * covered by a match are put all at once after it.
+     */
+    private final class MatchFinder {
+
+        private final byte[] data;
+        /**
+         * The most recent position of each chain, or {@link #NO_POSITION}.
+         */
+        private final int[] head;
+        /**
+         * The previous position of the same chain of each position of the
+         * window (indexed by position modulo the length of this array, which
+         * is the window size, or less for data shorter than the window).
+         */
+        private final int[] previous;
+        private final int previousMask;
+        private final int windowSize;
+        /**
+         * The first position which hasn't been put into the chains yet.
+         */
+        private int nextPosition;
+        /**
+         * Length and distance of the match found by the last call to
+         * {@link #find(int)}.
+         */
+        int length;
+        int distance;
+
+        MatchFinder(byte[] data) {
+            this.data = data;
+            windowSize = 1 << windowBits;
+            head = new int[1 << HASH_BITS];
+            for (int i = 0; i < head.length; i++) {
+                head[i] = NO_POSITION;
+            }
+            int previousLength = 1;
+            while (previousLength < windowSize && previousLength < data.length) {
+                previousLength <<= 1;
+            }
+            previous = new int[previousLength];
+            previousMask = previousLength - 1;
+        }
+
+        /**
+         * Returns the length of the longest match starting at the given
+         * position (less than {@link #MIN_MATCH_LENGTH} if there is none),
+         * whose distance is then in {@link #distance}; after this call, the
+         * given position is in the chains.
+         */
+        int find(int position) {
+            while (nextPosition < position) {
+                insert(nextPosition++);
+            }
+            length = 0;
+            distance = 0;
+            int maxLength = Math.min(MAX_MATCH_LENGTH, data.length - position);
+            if (maxLength < MIN_MATCH_LENGTH) {
+                return length;
+            }
+            int minCandidate = Math.max(0, position - windowSize);
+            int candidate = head[hash(position)];
+            for (int chain = maxChainLength; chain > 0 && candidate >= minCandidate; chain--) {
+                // a candidate can be longer only if it matches the byte
+                // right after the current match
+                if (data[candidate + length] == data[position + length]) {
+                    int l = matchLength(candidate, position, maxLength);
+                    if (l > length) {
+                        length = l;
+                        distance = position - candidate;
+                        if (l == maxLength) {
+                            break;
+                        }
+                    }
+                }
+                candidate = previous[candidate & previousMask];
+            }
+            insert(nextPosition++);
+            return length;
+        }
+
+        private int matchLength(int candidate, int position, int maxLength) {
+            int l = 0;
+            while (l < maxLength && data[candidate + l] == data[position + l]) {
+                l++;
+            }
+            return l;
+        }
+
+        private void insert(int position) {
+            if (position + MIN_MATCH_LENGTH > data.length) {
+                return;
+            }
+            int h = hash(position);
+            previous[position & previousMask] = head[h];
+            head[h] = position;
+        }
+
+        /**
+         * Returns the hash of the {@link #MIN_MATCH_LENGTH} bytes starting at
+         * the given position (a Fibonacci hash of the bytes packed into an
+         * int).
+         */
+        private int hash(int position) {
+            int key = Byte.toUnsignedInt(data[position]) << (2 * Byte.SIZE)
+                    | Byte.toUnsignedInt(data[position + 1]) << Byte.SIZE
+                    | Byte.toUnsignedInt(data[position + 2]);
+            return (key * 0x9E3779B1) >>> (Integer.SIZE - HASH_BITS);
+        }
+    }
+}
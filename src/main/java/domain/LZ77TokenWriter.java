@@ -0,0 +1,28 @@
+package domain;
+
+/**
+ * Receives the tokens into which {@link LZ77Parser} parses the data, in the
+ * order in which they appear in it: literals (single bytes) and matches
+ * (references to an earlier occurrence of the same bytes).
+ */
+public interface LZ77TokenWriter {
+
+    /**
+     * Writes a literal.
+     *
+     * @param literal The byte which couldn't be matched.
+     */
+    public void writeLiteral(byte literal);
+
+    /**
+     * Writes a match: the next bytes of the data are the same as those which
+     * start the given distance before them.
+     *
+     * @param distance Distance (in bytes) of the earlier occurrence, between 1
+     * and the window size (both inclusive).
+     * @param length Length (in bytes) of the match, between
+     * {@link LZ77Parser#MIN_MATCH_LENGTH} and
+     * {@link LZ77Parser#MAX_MATCH_LENGTH} (both inclusive).
+     */
+    public void writeMatch(int distance, int length);
+}
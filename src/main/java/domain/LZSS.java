@@ -0,0 +1,250 @@
+package domain;
+
+/**
+ * A {@link CompressionAlgorithm} implementation of LZSS, a variant of LZ77:
+ * the data is parsed into literals (single bytes) and matches, which are
+ * references (distance and length) to an earlier occurrence of the same bytes
+ * inside a sliding window. Each token starts with a flag bit, so that a
+ * literal takes 9 bits, and a match is emitted only if it's at least
+ * {@link #MIN_MATCH_LENGTH} bytes long, so that it's never longer than the
+ * literals it replaces (for more info see
+ * https://en.wikipedia.org/wiki/Lempel%E2%80%93Ziv%E2%80%93Storer%E2%80%93Szymanski
+ * ).
+ *
+ * The data is parsed by an {@link LZ77Parser}, which finds matches with hash
+ * chains (and lazy matching, if chosen). The window size is needed for
+ * decompression, while the chain depth and lazy matching only change how hard
+ * the compressor looks for long matches.
+ *
+ * The compressed data will include (in this order):
+ * - int: length (in bytes) of the original (uncompressed) data;
+ * - byte: freeBits (unused bits in the last byte of the compressed data);
+ * - the tokens, each made up of a flag bit followed either (if the flag is 0)
+ * by a literal byte, or (if the flag is 1) by the distance minus one, written
+ * with as many bits as the window size needs, and by the length minus
+ * {@link #MIN_MATCH_LENGTH}, written with {@link #LENGTH_BITS} bits.
+ */
+public final class LZSS extends CompressionAlgorithm {
+
+    /**
+     * Minimum and maximum number of bits of the window size (the window size
+     * is 2^windowBits bytes); with the longest windows, a match of
+     * {@link #MIN_MATCH_LENGTH} bytes takes as many bits as its literals.
+     */
+    public static final int MIN_WINDOW_BITS = LZ77Parser.MIN_WINDOW_BITS;
+    public static final int MAX_WINDOW_BITS = 18;
+    /**
+     * Default number of bits of the window size (32 KiB, like DEFLATE).
+     */
+    public static final int DEFAULT_WINDOW_BITS = 15;
+    /**
+     * Default maximum number of positions compared with the current one.
+     */
+    public static final int DEFAULT_MAX_CHAIN_LENGTH = 32;
+    public static final int MIN_MATCH_LENGTH = LZ77Parser.MIN_MATCH_LENGTH;
+    /**
+     * Number of bits of the length of a match (which is enough for
+     * {@link LZ77Parser#MAX_MATCH_LENGTH}).
+     */
+    public static final int LENGTH_BITS = 8;
+
+    /**
+     * Names of instances of this class are this prefix followed by the number
+     * of bits of the window size, which is needed for decompression.
+     */
+    public static final String NAME_PREFIX = "lzss";
+
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the length of the original data (in bytes) will be written.
+     */
+    private static final int OFFSET_ORIG_DATA_LENGTH = 0;
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the value of freeBits will be written.
+     */
+    private static final int OFFSET_FREEBITS = Integer.BYTES;
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the tokens will be written.
+     */
+    private static final int OFFSET_DATA = OFFSET_FREEBITS + Byte.BYTES;
+
+    /**
+     * The file extension used for files compressed using this class.
+     */
+    private final String compressedFileExtension;
+    /**
+     * Short name for this algorithm (used in TUI).
+     */
+    private final String name;
+    /**
+     * Longer name for this algorithm (used in TUI).
+     */
+    private final String description;
+
+    private final int windowBits;
+    private final LZ77Parser parser;
+
+    /**
+     * Returns an instance of LZSS with the default window size and chain
+     * depth, and with lazy matching.
+     */
+    public LZSS() {
+        this(DEFAULT_WINDOW_BITS, DEFAULT_MAX_CHAIN_LENGTH, true);
+    }
+
+    /**
+     * Returns an instance of LZSS with the given window size and chain depth.
+     *
+     * @param windowBits Number of bits of the window size (the window size is
+     * 2^windowBits bytes); it has to be between {@link #MIN_WINDOW_BITS} and
+     * {@link #MAX_WINDOW_BITS} (both inclusive).
+     * @param maxChainLength Maximum number of earlier positions compared with
+     * the current one when looking for a match; it has to be positive.
+     * @param lazy Whether a match is emitted only if the next position doesn't
+     * start a longer one.
+     */
+    public LZSS(int windowBits, int maxChainLength, boolean lazy) {
+        if (windowBits < MIN_WINDOW_BITS || windowBits > MAX_WINDOW_BITS) {
+            throw new IllegalArgumentException("Argument int windowBits has to be between "
+                    + MIN_WINDOW_BITS + " and " + MAX_WINDOW_BITS + " (both inclusive).");
+        }
+        parser = new LZ77Parser(windowBits, maxChainLength, lazy);
+        this.windowBits = windowBits;
+        name = NAME_PREFIX + windowBits;
+        compressedFileExtension = "." + name;
+        description = "LZSS (window of " + windowSizeDescription(windowBits) + ", chain depth "
+                + maxChainLength + (lazy ? ", lazy matching)" : ")");
+    }
+
+    static String windowSizeDescription(int windowBits) {
+        return windowBits < 10 ? (1 << windowBits) + " B" : (1 << (windowBits - 10)) + " KiB";
+    }
+
+    /**
+     * Returns an instance of LZSS with the given name (for example "lzss12"
+     * for a window of 4 KiB), with the default chain depth and lazy matching.
+     *
+     * @param name Name of an LZSS algorithm.
+     * @return An instance of LZSS with the given name, or null if no window
+     * size corresponds to it.
+     */
+    public static LZSS forName(String name) {
+        for (int bits = MIN_WINDOW_BITS; bits <= MAX_WINDOW_BITS; bits++) {
+            if (name.equals(NAME_PREFIX + bits)) {
+                return new LZSS(bits, DEFAULT_MAX_CHAIN_LENGTH, true);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns an instance of LZSS whose compressed files have the given
+     * extension (for example ".lzss12" for a window of 4 KiB).
+     *
+     * @param extension Extension of a compressed file (including the period).
+     * @return An instance of LZSS with the given extension, or null if no
+     * window size corresponds to it.
+     */
+    public static LZSS forExtension(String extension) {
+        return extension.startsWith(".") ? forName(extension.substring(1)) : null;
+    }
+
+    /**
+     * Compresses the given data. Since a token never takes more than 9 bits
+     * for each byte it covers, the output array is allocated only once.
+     *
+     * @param originalData The data to be compressed.
+     * @return A bit sequence corresponding to the compressed data.
+     */
+    @Override
+    public BitSequence compressData(byte[] originalData) {
+
+        long maxDataLengthInBits = (long) (Byte.SIZE + 1) * originalData.length;
+        byte[] bytes = new byte[OFFSET_DATA
+                + (int) ((maxDataLengthInBits + Byte.SIZE - 1) / Byte.SIZE)];
+        Utils.insertInt(originalData.length, bytes, OFFSET_ORIG_DATA_LENGTH);
+        BitWriter writer = new BitWriter(bytes, (long) Byte.SIZE * OFFSET_DATA);
+
+        parser.parse(originalData, new TokenEncoder(writer));
+
+        writer.flush();
+        BitSequence compressedBitSeq = writer.toBitSequence();
+        writer.getBytes()[OFFSET_FREEBITS] = (byte) compressedBitSeq.getFreeBits();
+        return compressedBitSeq;
+    }
+
+    /**
+     * Decompresses the given compressed data.
+     *
+     * @param compressedData The compressed data to be decompressed.
+     * @return The original, uncompressed data.
+     */
+    @Override
+    public byte[] decompressData(byte[] compressedData) {
+
+        byte[] originalData = new byte[Utils.extractInt(compressedData, OFFSET_ORIG_DATA_LENGTH)];
+        BitReader reader = new BitReader(compressedData, OFFSET_DATA);
+
+        int i = 0;
+        while (i < originalData.length) {
+            if (reader.read(1) == 0) {
+                originalData[i++] = (byte) reader.read(Byte.SIZE);
+                continue;
+            }
+            int distance = 1 + reader.read(windowBits);
+            i = LZ77Parser.copyMatch(originalData, i, distance,
+                    MIN_MATCH_LENGTH + reader.read(LENGTH_BITS));
+        }
+
+        return originalData;
+    }
+
+    public int getWindowBits() {
+        return windowBits;
+    }
+
+    public LZ77Parser getParser() {
+        return parser;
+    }
+
+    @Override
+    public String getExtension() {
+        return compressedFileExtension;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Writes each token with a flag bit followed by the literal, or by the
+     * distance and the length of the match.
+     */
+    private final class TokenEncoder implements LZ77TokenWriter {
+
+        private final BitWriter writer;
+
+        TokenEncoder(BitWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeLiteral(byte literal) {
+            writer.write(Byte.toUnsignedInt(literal), 1 + Byte.SIZE);
+        }
+
+        @Override
+        public void writeMatch(int distance, int length) {
+            writer.write(1L << (windowBits + LENGTH_BITS) | (long) (distance - 1) << LENGTH_BITS
+                    | length - MIN_MATCH_LENGTH, 1 + windowBits + LENGTH_BITS);
+        }
+    }
+}
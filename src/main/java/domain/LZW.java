@@ -1,10 +1,10 @@
 package domain;
 
 /**
- * A {@link CompressionAlgorithm} implementation which uses the Lempel–Ziv–Welch
+ * A {@link CompressionAlgorithm} implementation which uses the Lempel-Ziv-Welch
  * algorithm with variable-length codewords and dictionary resets when full.
  */
-public final class LZW extends CompressionAlgorithm {
+public final class LZW extends CompressionAlgorithm implements AutoCloseable {
 
     /**
      * Minimum length for a codeword; since the symbol alphabet is made up of
@@ -12,36 +12,79 @@ public final class LZW extends CompressionAlgorithm {
      * less than 9 (and it doesn't have any good reason to be greater than 9,
      * either).
      */
-    private static final int MIN_CW_LENGTH = 9;
+    public static final int MIN_CW_LENGTH = 9;
     /**
-     * Maximum length for a codeword; this can be set to values ranging from 9
-     * (inclusive) up to about 29 (inclusive). However, often value larger than
-     * 20 don't make any improvement in the compression size, and they increase
-     * memory usage, which may result in an OutOfMemoryError.
+     * The largest value accepted for {@link #maxCodewordLength}. Values larger
+     * than 20 rarely make any improvement in the compression size, and they
+     * increase memory usage (with 24 the compressor's dictionary can take
+     * 384 MiB, and the decompressor's table 128 MiB).
+     */
+    public static final int LONGEST_MAX_CW_LENGTH = 24;
+    /**
+     * Unless specified otherwise, the dictionaries of instances whose
+     * {@link #maxCodewordLength} is at least this value are allocated off the
+     * heap (see {@link #offHeap}).
+     */
+    public static final int OFF_HEAP_MIN_CW_LENGTH = 21;
+    /**
+     * Maximum length for a codeword; this can be set to values ranging from
+     * {@link #MIN_CW_LENGTH} (inclusive) up to {@link #LONGEST_MAX_CW_LENGTH}
+     * (inclusive).
      */
     private final int maxCodewordLength;
     private static final int DEFAULT_MAX_CW_LENGTH = 12;
 
     /**
-     * The hash table size that will be passed to ByteSequcence and
-     * LZWDictionary. It can (and probably should) be changed depending on the
-     * value of {@link #maxCodewordLength}. Some example values: for a
-     * MAX_CW_LENGTH of 12, 12289; for 16, 196663; for 20, 393161. Here are more
-     * candidate values in increasing order (they are all prime numbers as far
-     * as possible from any power of 2): 12289, 24527, 49193, 98347, 196663,
-     * 393161, 786337, 1572919, 3145661, 6291529, 12582971, 25165913, 50331709,
-     * 100663207.
+     * Value of {@link #hashTableSize} which lets {@link LZWPrefixDictionary}
+     * choose the size of its table only from the number of entries it can
+     * contain.
+     */
+    public static final int AUTOMATIC_HASH_TABLE_SIZE = 0;
+    /**
+     * The minimum hash table size that will be passed to
+     * {@link LZWPrefixDictionary}, which rounds it up to a power of two, at
+     * least twice as large as the number of entries (so that the table is at
+     * most half full, whatever the value of {@link #maxCodewordLength}). It
+     * doesn't need to be set, unless a larger table is wanted.
      */
     private final int hashTableSize;
-    public static final int DEFAULT_HASH_TABLE_SIZE = 12289;
     /**
-     * The hash factor that will be used in the rolling hash function for the
-     * ByteSequence class. The value of 257 was chosen because it is a prime
-     * number slightly larger than the size of the alphabet (symbols are single
-     * bytes, so the size of the alphabet is 256).
+     * Whether the dictionaries (the hash table of {@link LZWPrefixDictionary}
+     * and the {@link LZWStringTable}) are allocated off the heap, so that
+     * wide codewords don't need a larger heap.
+     */
+    private final boolean offHeap;
+    /**
+     * Off-heap dictionaries which aren't in use, kept until this instance is
+     * closed: one per available processor, since {@link BlockLZW} compresses
+     * that many blocks at the same time (none, if {@link #offHeap} is false).
+     */
+    private final LZWDictionaryPool dictionaryPool;
+    /**
+     * The dictionary which each compression (and decompression) starts from,
+     * also after each reset, or null if it starts from the single bytes only.
+     */
+    private final LZWPrimedDictionary primedDictionary;
+    /**
+     * The first codeword which isn't a single byte or an entry of
+     * {@link #primedDictionary}.
      */
-    public static final int HASH_FACTOR = 257;
+    private final int firstCodeword;
+    /**
+     * ID of {@link #primedDictionary}, written into the header of compressed
+     * data.
+     */
+    private final int dictionaryId;
 
+    /**
+     * Names of instances of this class are this prefix followed by
+     * {@link #maxCodewordLength}.
+     */
+    public static final String NAME_PREFIX = "lzw";
+    /**
+     * Names of instances with a primed dictionary end with this suffix.
+     */
+    private static final String PRIMED_NAME_SUFFIX = "p";
     /**
      * The file extension used for files compressed using this class; it
      * includes a number indicating the value of {@link #maxCodewordLength} so
@@ -57,11 +100,6 @@ public final class LZW extends CompressionAlgorithm {
      */
     private final String description;
 
-    /**
-     * When the new codeword to be inserted into the dictionary reaches this
-     * value, codeword length has to be increased for the first time.
-     */
-    private static final int FIRST_LENGTH_THRESHOLD = 1 << MIN_CW_LENGTH;
     /**
      * The maximum value for codeword, after which the dictionary will be reset.
      */
@@ -78,6 +116,12 @@ public final class LZW extends CompressionAlgorithm {
      * compressed file, see the BitSequence class) will be written.
      */
     private static final int OFFSET_FREEBITS = Integer.BYTES;
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the ID of the primed dictionary (or
+     * {@link LZWPrimedDictionary#NO_DICTIONARY_ID}) will be written.
+     */
+    private static final int OFFSET_DICTIONARY_ID = OFFSET_FREEBITS + Byte.BYTES;
     /**
      * Offset (in bytes) from the beginning of compressed files, indicating
      * where the actual compressed data will be written.
@@ -85,166 +129,551 @@ public final class LZW extends CompressionAlgorithm {
     private static final int OFFSET_DATA = OFFSET_FREEBITS + Byte.SIZE;
 
     /**
-     * Returns an instance of LZW with default values for
-     * {@link #maxCodewordLength} and {@link #hashTableSize}.
+     * Number of lookups into the dictionary made by all the compressions done
+     * by this instance.
+     */
+    private long dictionaryLookups;
+    /**
+     * Number of hash table slots examined by those lookups.
+     */
+    private long dictionaryProbes;
+
+    /**
+     * Returns an instance of LZW with the default value for
+     * {@link #maxCodewordLength}, whose hash table is sized automatically.
      */
     public LZW() {
-        this(DEFAULT_MAX_CW_LENGTH, DEFAULT_HASH_TABLE_SIZE);
+        this(DEFAULT_MAX_CW_LENGTH);
+    }
+
+    /**
+     * Returns an instance of LZW with the specified value for
+     * {@link #maxCodewordLength}, whose hash table is sized automatically;
+     * its dictionaries are allocated off the heap if maxCodewordLength is at
+     * least {@link #OFF_HEAP_MIN_CW_LENGTH}.
+     *
+     * @param maxCodewordLength Maximum length for variable-length LZW codewords
+     * (it determines the maximum size of the dictionary).
+     */
+    public LZW(int maxCodewordLength) {
+        this(maxCodewordLength, AUTOMATIC_HASH_TABLE_SIZE);
     }
 
     /**
      * Returns an instance of LZW with the specified values for
-     * {@link #maxCodewordLength} and {@link #hashTableSize}.
+     * {@link #maxCodewordLength} and {@link #hashTableSize}; its dictionaries
+     * are allocated off the heap if maxCodewordLength is at least
+     * {@link #OFF_HEAP_MIN_CW_LENGTH}.
      *
      * @param maxCodewordLength Maximum length for variable-length LZW codewords
      * (it determines the maximum size of the dictionary).
-     * @param hashTableSize Size of the hash table that will be passed to
-     * {@link ByteSequence} and {@link LZWDictionary}.
+     * @param hashTableSize Minimum size of the hash table that will be passed
+     * to {@link LZWPrefixDictionary}.
      */
     public LZW(int maxCodewordLength, int hashTableSize) {
+        this(maxCodewordLength, hashTableSize, maxCodewordLength >= OFF_HEAP_MIN_CW_LENGTH);
+    }
+
+    /**
+     * Returns an instance of LZW with the specified values for
+     * {@link #maxCodewordLength}, {@link #hashTableSize} and
+     * {@link #offHeap}.
+     *
+     * @param maxCodewordLength Maximum length for variable-length LZW codewords
+     * (it determines the maximum size of the dictionary).
+     * @param hashTableSize Minimum size of the hash table that will be passed
+     * to {@link LZWPrefixDictionary}.
+     * @param offHeap Whether dictionaries will be allocated off the heap.
+     */
+    public LZW(int maxCodewordLength, int hashTableSize, boolean offHeap) {
+        this(maxCodewordLength, hashTableSize, offHeap, null);
+    }
+
+    /**
+     * Returns an instance of LZW which starts from the given dictionary, and
+     * has the same maximum codeword length; its hash table is sized
+     * automatically. Data compressed by this instance can be decompressed only
+     * by an instance with the same dictionary.
+     *
+     * @param primedDictionary The dictionary which compression and
+     * decompression will start from (also after each reset).
+     */
+    public LZW(LZWPrimedDictionary primedDictionary) {
+        this(primedDictionary.getMaxCodewordLength(), AUTOMATIC_HASH_TABLE_SIZE,
+                primedDictionary.getMaxCodewordLength() >= OFF_HEAP_MIN_CW_LENGTH, primedDictionary);
+    }
+
+    /**
+     * Returns an instance of LZW with the specified values for all of
+     * {@link #maxCodewordLength}, {@link #hashTableSize}, {@link #offHeap}
+     * and {@link #primedDictionary} (null, or with the same maxCodewordLength).
+     *
+     * @param maxCodewordLength Maximum length for variable-length LZW codewords.
+     * @param hashTableSize Minimum size of the hash table.
+     * @param offHeap Whether dictionaries will be allocated off the heap.
+     * @param primedDictionary The dictionary to start from, or null.
+     */
+    public LZW(int maxCodewordLength, int hashTableSize, boolean offHeap,
+            LZWPrimedDictionary primedDictionary) {
+        if (maxCodewordLength < MIN_CW_LENGTH || maxCodewordLength > LONGEST_MAX_CW_LENGTH) {
+            throw new IllegalArgumentException("Argument int maxCodewordLength has to be "
+                    + "between " + MIN_CW_LENGTH + " and " + LONGEST_MAX_CW_LENGTH
+                    + " (both inclusive).");
+        }
+        if (hashTableSize < 0) {
+            throw new IllegalArgumentException("Argument int hashTableSize can't be negative.");
+        }
+        if (primedDictionary != null
+                && primedDictionary.getMaxCodewordLength() != maxCodewordLength) {
+            throw new IllegalArgumentException("Argument LZWPrimedDictionary primedDictionary "
+                    + "has to have the same maximum codeword length.");
+        }
         this.maxCodewordLength = maxCodewordLength;
         this.hashTableSize = hashTableSize;
+        this.offHeap = offHeap;
+        dictionaryPool = new LZWDictionaryPool(
+                offHeap ? Runtime.getRuntime().availableProcessors() : 0);
+        this.primedDictionary = primedDictionary;
+        firstCodeword = primedDictionary == null
+                ? Utils.POSSIBLE_BYTE_VALUES_COUNT : primedDictionary.getFirstCodeword();
+        dictionaryId = primedDictionary == null
+                ? LZWPrimedDictionary.NO_DICTIONARY_ID : primedDictionary.getId();
         possibleCodewordValuesCount = 1 << maxCodewordLength;
         description = "Lempel-Ziv-Welch with variable-length codewords "
-                + "(max length " + maxCodewordLength + ")";
-        name = "lzw" + maxCodewordLength;
+                + "(max length " + maxCodewordLength + (offHeap ? ", off-heap dictionary" : "")
+                + (primedDictionary == null ? ")" : ", primed dictionary "
+                + Integer.toHexString(dictionaryId) + ")");
+        name = NAME_PREFIX + maxCodewordLength + (primedDictionary == null ? "" : PRIMED_NAME_SUFFIX);
         compressedFileExtension = "." + name;
     }
 
+    /**
+     * Returns an instance of LZW whose name is the given one (for example
+     * "lzw14" for a maximum codeword length of 14 bits).
+     *
+     * @param name Name of an LZW algorithm.
+     * @return An instance of LZW with the given name, or null if no maximum
+     * codeword length corresponds to it.
+     */
+    public static LZW forName(String name) {
+        for (int length = MIN_CW_LENGTH; length <= LONGEST_MAX_CW_LENGTH; length++) {
+            if (name.equals(NAME_PREFIX + length)) {
+                return new LZW(length);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns an instance of LZW whose compressed files have the given
+     * extension (for example ".lzw14" for a maximum codeword length of 14
+     * bits).
+     *
+     * @param extension Extension of a compressed file (including the period).
+     * @return An instance of LZW with the given extension, or null if no
+     * maximum codeword length corresponds to it.
+     */
+    public static LZW forExtension(String extension) {
+        return extension.startsWith(".") ? forName(extension.substring(1)) : null;
+    }
+
+    /**
+     * Compresses the given data. The dictionary is a {@link PrefixDictionary},
+     * where each string is represented by the codeword of its prefix and its
+     * last byte, so the current string is just a range of originalData and
+     * looking up the next string costs a single hash table probe. Codewords
+     * are written with a {@link BitWriter}, whose array grows geometrically
+     * when the compressed data is longer than the original data.
+     *
+     * When the dictionary is reset, the string which didn't match is put into
+     * the new dictionary (with the first codeword after the single bytes, or
+     * after the primed entries),
+     * even though its prefix isn't there; since its prefix has no codeword
+     * yet, the entry is kept aside (see {@link LZWPendingEntry}) and put into
+     * the dictionary only when its prefix is. With a primed dictionary (see
+     * {@link LZWPrimedDictionary}), its entries are in the dictionary from the
+     * beginning and after each reset, and its ID is written into the header.
+     *
+     * @param originalData The data to be compressed.
+     * @return A bit sequence corresponding to the compressed data.
+     */
     @Override
     public BitSequence compressData(byte[] originalData) {
+        return compressData(originalData, 0, originalData.length);
+    }
 
-        Dictionary dict = new LZWDictionary(hashTableSize, HASH_FACTOR);
-        initializeDictionary(dict);
-        byte[] bytes = new byte[originalData.length];
-        byte[] originalDataLength = Utils.toByteArray(originalData.length);
-        Utils.arrayCopy(originalDataLength, 0,
-                bytes, OFFSET_ORIG_DATA_LENGTH, originalDataLength.length);
-        BitSequence compressedData = new BitSequence(bytes, Byte.SIZE, OFFSET_DATA);
-
-        int i = 0;
-        int newCodeword = Utils.POSSIBLE_BYTE_VALUES_COUNT;
-        ByteSequence string = new ByteSequence(hashTableSize, HASH_FACTOR);
-        string.append(originalData[i]);
-        ByteSequence nextString;
-        Integer codewordForString = dict.get(string);
-        Integer codewordForNextString;
-        int codeWordLength = MIN_CW_LENGTH;
-        int lengthThreshold = FIRST_LENGTH_THRESHOLD;
-        byte symbol;
-
-        while (++i < originalData.length) {
-
-            symbol = originalData[i];
-            nextString = string.makeClone();
-            nextString.append(symbol);
-            codewordForNextString = dict.get(nextString);
-
-            if (codewordForNextString == null) {
-
-                compressedData.append(codewordForString, codeWordLength);
-
-                if (newCodeword == lengthThreshold) {
-                    if (++codeWordLength > maxCodewordLength) {
-                        dict.clear();
-                        initializeDictionary(dict);
-                        newCodeword = Utils.POSSIBLE_BYTE_VALUES_COUNT;
-                        codeWordLength = MIN_CW_LENGTH;
-                        lengthThreshold = FIRST_LENGTH_THRESHOLD;
-                    } else {
-                        lengthThreshold <<= 1;
-                    }
-                }
+    /**
+     * Compresses the given range of the given data, in the same way (and with
+     * the same format) as {@link #compressData(byte[]) compressData}.
+     *
+     * @param originalData The data containing the range to be compressed.
+     * @param fromIndex Index of the first byte to be compressed (inclusive).
+     * @param toIndex Index of the last byte to be compressed (exclusive).
+     * @return A bit sequence corresponding to the compressed data.
+     */
+    public BitSequence compressData(byte[] originalData, int fromIndex, int toIndex) {
+
+        BitWriter compressedData = newWriter(toIndex - fromIndex);
+        if (fromIndex == toIndex) {
+            return new BitSequence(compressedData.getBytes(), 0);
+        }
 
-                dict.put(nextString, newCodeword++);
-                string.reset();
-                string.append(symbol);
-                codewordForString = dict.get(string);
+        parse(originalData, fromIndex, toIndex, (codeword, limit) -> {
+            int length = codewordLength(limit);
+            compressedData.ensureCapacity(length);
+            compressedData.write(codeword, length);
+        });
 
-            } else {
+        compressedData.flush();
+        BitSequence compressedBitSeq = compressedData.toBitSequence();
+        compressedData.getBytes()[OFFSET_FREEBITS] = (byte) compressedBitSeq.getFreeBits();
+        return compressedBitSeq;
+    }
+
+    /**
+     * Parses the given (non-empty) range of the given data in the same way as
+     * {@link #compressData(byte[], int, int) compressData}, but gives each
+     * codeword to the given writer instead of writing it with its length (so
+     * that, for example, codewords can be entropy coded, see
+     * {@link LZWHuffman}); no header is written.
+     *
+     * @param originalData The data containing the range to be parsed.
+     * @param fromIndex Index of the first byte to be parsed (inclusive).
+     * @param toIndex Index of the last byte to be parsed (exclusive).
+     * @param writer The writer which receives the codewords.
+     */
+    public void parse(byte[] originalData, int fromIndex, int toIndex, LZWCodewordWriter writer) {
+        LZWPrefixDictionary dict = takeDictionary(toIndex - fromIndex);
+        long lookups = dict.getLookups();
+        long probes = dict.getProbes();
+        try {
+            compress(originalData, fromIndex, toIndex, dict, writer);
+            recordProbes(dict.getLookups() - lookups, dict.getProbes() - probes);
+        } finally {
+            dictionaryPool.giveBack(dict);
+        }
+    }
+
+    /**
+     * Gives the codewords of the given range of the given data to the given
+     * writer, using the given dictionary (which contains only the primed
+     * entries, if any).
+     */
+    private void compress(byte[] originalData, int fromIndex, int toIndex,
+            LZWPrefixDictionary dict, LZWCodewordWriter writer) {
+
+        int newCodeword = firstCodeword;
+        // the string is originalData[stringStart, i)
+        int stringStart = fromIndex;
+        int codewordForString = Byte.toUnsignedInt(originalData[fromIndex]);
+        LZWPendingEntry pendingEntry = null;
+
+        for (int i = fromIndex + 1; i < toIndex; i++) {
+
+            byte symbol = originalData[i];
+            int codewordForNextString = dict.get(codewordForString, symbol);
+            if (codewordForNextString != PrefixDictionary.NOT_FOUND) {
                 codewordForString = codewordForNextString;
-                string = nextString;
+                continue;
+            }
+
+            // the codewords in the dictionary are those less than newCodeword
+            writer.write(codewordForString, newCodeword);
+
+            if (newCodeword == possibleCodewordValuesCount) {
+                dict.clear();
+                newCodeword = firstCodeword;
+                // the pending entry takes the first codeword
+                pendingEntry = new LZWPendingEntry(stringStart, i, newCodeword++);
+                pendingEntry = pendingEntry.putIfPrefixIsInDictionary(originalData, dict);
+            } else {
+                dict.put(codewordForString, symbol, newCodeword);
+                if (pendingEntry != null && pendingEntry.prefixEquals(originalData, stringStart, i + 1)) {
+                    pendingEntry.put(originalData, dict, newCodeword);
+                    pendingEntry = null;
+                }
+                newCodeword++;
             }
+
+            stringStart = i;
+            codewordForString = Byte.toUnsignedInt(symbol);
+        }
+
+        writer.write(codewordForString, newCodeword);
+    }
+
+    /**
+     * Returns a BitWriter for compressing data of the given length, which has
+     * already written the header (except freeBits) and whose array is as long
+     * as the header and the original data.
+     */
+    private BitWriter newWriter(int originalDataLength) {
+        byte[] bytes = new byte[OFFSET_DATA + originalDataLength];
+        Utils.insertInt(originalDataLength, bytes, OFFSET_ORIG_DATA_LENGTH);
+        Utils.insertInt(dictionaryId, bytes, OFFSET_DICTIONARY_ID);
+        return new BitWriter(bytes, (long) Byte.SIZE * OFFSET_DATA);
+    }
+
+    /**
+     * Returns the maximum number of entries of the dictionary used for
+     * compressing data of the given length (not counting single bytes and
+     * primed entries): since each input byte adds at most one entry, short
+     * data doesn't need a table sized for all the possible codewords.
+     */
+    private int maxEntries(int originalDataLength) {
+        return Math.max(1, entryCount(originalDataLength));
+    }
+
+    /**
+     * Returns the number of entries of the table used for decompressing data
+     * of the given length, which has an entry for each codeword from
+     * {@link #firstCodeword}: each codeword adds at most one entry, and takes
+     * at least one byte.
+     */
+    private int entryCount(int originalDataLength) {
+        return Math.min(possibleCodewordValuesCount - firstCodeword, originalDataLength);
+    }
+
+    /**
+     * Returns the length codewords are written with when they are less than
+     * the given limit (see {@link LZWCodewordWriter#write(int, int)}): the
+     * smallest length which can represent all of them, but never less than
+     * {@link #MIN_CW_LENGTH}.
+     */
+    private static int codewordLength(int limit) {
+        return Math.max(MIN_CW_LENGTH, Integer.SIZE - Integer.numberOfLeadingZeros(limit - 1));
+    }
+
+    /**
+     * Returns an empty dictionary for compressing data of the given length,
+     * taken from {@link #dictionaryPool} if possible, whose base dictionary
+     * contains the entries of {@link #primedDictionary} (if any).
+     */
+    private LZWPrefixDictionary takeDictionary(int originalDataLength) {
+        int maxEntries = maxEntries(originalDataLength);
+        LZWPrefixDictionary dict = dictionaryPool.takeDictionary(
+                LZWPrefixDictionary.tableSize(maxEntries, hashTableSize));
+        if (dict != null) {
+            dict.clear();
+            return dict;
         }
+        return new LZWPrefixDictionary(maxEntries, hashTableSize, offHeap,
+                primedDictionary == null ? null : primedDictionary.getEntries());
+    }
+
+    /**
+     * Returns a table for decompressing data of the given length, taken from
+     * {@link #dictionaryPool} if possible.
+     */
+    private LZWStringTable takeTable(int originalDataLength) {
+        int entryCount = entryCount(originalDataLength);
+        LZWStringTable table = dictionaryPool.takeTable(entryCount);
+        return table != null ? table : new LZWStringTable(entryCount, offHeap);
+    }
 
-        compressedData.append(codewordForString, codeWordLength);
-        compressedData.getBits()[OFFSET_FREEBITS] = (byte) compressedData.getFreeBits();
-        return compressedData;
+    private synchronized void recordProbes(long lookups, long probes) {
+        dictionaryLookups += lookups;
+        dictionaryProbes += probes;
     }
 
+    /**
+     * Decompresses the given compressed data. Every string in the dictionary
+     * has already been written into the original data (it's the previous
+     * string followed by the first byte of the next one), so each dictionary
+     * entry is just the offset and length of a range of originalData: entries
+     * are kept in an {@link LZWStringTable}, and decoding a codeword copies its
+     * string straight out of the data decoded so far, without allocating any
+     * object.
+     *
+     * @param compressedData The compressed data to be decompressed.
+     * @return The original, uncompressed data.
+     */
     @Override
     public byte[] decompressData(byte[] compressedData) {
-
         int originalDataLength = Utils.extractInt(compressedData, OFFSET_ORIG_DATA_LENGTH);
         byte[] originalData = new byte[originalDataLength];
-        int freeBits = compressedData[OFFSET_FREEBITS];
-        BitSequence compressedBitSeq = new BitSequence(compressedData, freeBits);
-        compressedBitSeq.setReadPosition(OFFSET_DATA, 0);
-
-        ByteSequence[] dict = new ByteSequence[possibleCodewordValuesCount];
-        initializeDictionary(dict);
-        int codeWordLength = MIN_CW_LENGTH;
-        int lengthThreshold = FIRST_LENGTH_THRESHOLD;
-        Integer codeword = compressedBitSeq.readNextInt(codeWordLength);
-        ByteSequence string = dict[codeword].makeClone();
-        ByteSequence entry;
-        int i = string.copyTo(originalData, 0);
-        int newCodeword = Utils.POSSIBLE_BYTE_VALUES_COUNT;
-
-        while ((codeword = compressedBitSeq.readNextInt(codeWordLength)) != null) {
-
-            entry = dict[codeword];
-
-            if (entry == null) {
-                entry = string.makeClone();
-                entry.append(string.getFirst());
+        decompressData(compressedData, 0, originalData, 0);
+        return originalData;
+    }
+
+    /**
+     * Decompresses compressed data which begins at the given offset of the
+     * given array (see {@link #decompressData(byte[]) decompressData}),
+     * writing the original data into the given array from the given index.
+     *
+     * @param compressedData Array containing the data to be decompressed.
+     * @param offset Offset (in bytes) where the compressed data begins.
+     * @param originalData The array into which the original data will be
+     * written.
+     * @param fromIndex Index of originalData where the first byte of the
+     * original data will be written.
+     * @return Length (in bytes) of the original data.
+     */
+    public int decompressData(byte[] compressedData, int offset, byte[] originalData, int fromIndex) {
+
+        int originalDataLength = originalDataLength(compressedData, offset);
+        int id = Utils.extractInt(compressedData, offset + OFFSET_DICTIONARY_ID);
+        if (id != dictionaryId) {
+            throw new IllegalArgumentException("The data was compressed with LZW dictionary "
+                    + Integer.toHexString(id) + ", not " + Integer.toHexString(dictionaryId) + ".");
+        }
+        BitReader reader = new BitReader(compressedData, offset + OFFSET_DATA);
+        decode(limit -> reader.read(codewordLength(limit)),
+                originalData, fromIndex, fromIndex + originalDataLength);
+        return originalDataLength;
+    }
+
+    /**
+     * Returns the length of the original data, as written into the header of
+     * compressed data which begins at the given offset of the given array.
+     *
+     * @param compressedData Array containing the compressed data.
+     * @param offset Offset (in bytes) where the compressed data begins.
+     * @return Length (in bytes) of the original data.
+     */
+    public static int originalDataLength(byte[] compressedData, int offset) {
+        return Utils.extractInt(compressedData, offset + OFFSET_ORIG_DATA_LENGTH);
+    }
+
+    /**
+     * Decodes the codewords read by the given reader (those given to the
+     * writer by {@link #parse(byte[], int, int, LZWCodewordWriter) parse}),
+     * writing their strings into the given range of originalData. The entry
+     * of codeword c (for c >= {@link #firstCodeword}) in the table, at index
+     * c - firstCodeword, is a range of originalData.
+     *
+     * @param reader The reader which supplies the codewords.
+     * @param originalData The array into which the original data will be
+     * written.
+     * @param fromIndex Index of the first byte of the range (inclusive).
+     * @param toIndex Index of the last byte of the range (exclusive).
+     */
+    public void decode(LZWCodewordReader reader, byte[] originalData, int fromIndex, int toIndex) {
+
+        LZWStringTable table = takeTable(toIndex - fromIndex);
+        int newCodeword = firstCodeword;
+
+        // the previous string is originalData[stringStart, i)
+        int stringStart = fromIndex;
+        int i = fromIndex;
+        try {
+            if (fromIndex < toIndex) {
+                int codeword = reader.read(newCodeword);
+                i += copyEntry(codeword, newCodeword, table, originalData, stringStart, i);
             }
 
-            i += entry.copyTo(originalData, i);
-            string.append(entry.getFirst());
+            while (i < toIndex) {
 
-            // codeWordLength is updated one codeword before the threshold
-            if (newCodeword == lengthThreshold - 1) {
+                // the first codeword doesn't put any entry, so the encoder's
+                // newCodeword was one more than this one
+                int codeword = reader.read(newCodeword + 1);
+                int entryLength = copyEntry(codeword, newCodeword, table, originalData, stringStart, i);
 
-                if (++codeWordLength > maxCodewordLength) {
+                if (newCodeword + 1 == possibleCodewordValuesCount) {
                     // this is the only case when string is not entered in dict
-                    reinitializeDictionary(dict);
-                    newCodeword = Utils.POSSIBLE_BYTE_VALUES_COUNT;
-                    codeWordLength = MIN_CW_LENGTH;
-                    lengthThreshold = FIRST_LENGTH_THRESHOLD;
+                    newCodeword = firstCodeword;
                 } else {
-                    lengthThreshold <<= 1;
-                    dict[newCodeword++] = string;
+                    // the previous string followed by the first byte of this entry
+                    table.put(newCodeword++ - firstCodeword, stringStart, i - stringStart + 1);
                 }
 
-            } else {
-                dict[newCodeword++] = string;
+                stringStart = i;
+                i += entryLength;
             }
+        } finally {
+            dictionaryPool.giveBack(table);
+        }
+    }
+
+    /**
+     * Copies the string corresponding to the given codeword into originalData,
+     * starting at index i.
+     *
+     * @return Length of the copied string.
+     */
+    private int copyEntry(int codeword, int newCodeword, LZWStringTable table,
+            byte[] originalData, int stringStart, int i) {
 
-            string = entry.makeClone();
+        if (codeword < Utils.POSSIBLE_BYTE_VALUES_COUNT) {
+            originalData[i] = (byte) codeword;
+            return 1;
         }
 
-        return originalData;
-    }
+        if (codeword < firstCodeword) {
+            return primedDictionary.copyString(codeword, originalData, i);
+        }
 
-    private static void initializeDictionary(Dictionary dict) {
-        dict.clear();
-        for (int byteValue = 0; byteValue < Utils.POSSIBLE_BYTE_VALUES_COUNT; byteValue++) {
-            dict.put(new ByteSequence(new byte[]{(byte) byteValue}), byteValue);
+        if (codeword < newCodeword) {
+            long entry = table.get(codeword - firstCodeword);
+            int length = LZWStringTable.length(entry);
+            Utils.arrayCopy(originalData, LZWStringTable.offset(entry), originalData, i, length);
+            return length;
         }
+
+        // the "special case", when the codeword isn't in the dictionary yet: it
+        // must be the previous string followed by its own first byte
+        int stringLength = i - stringStart;
+        Utils.arrayCopy(originalData, stringStart, originalData, i, stringLength);
+        originalData[i + stringLength] = originalData[stringStart];
+        return stringLength + 1;
     }
 
-    private static void initializeDictionary(ByteSequence[] dict) {
-        for (int byteValue = 0; byteValue < Utils.POSSIBLE_BYTE_VALUES_COUNT; byteValue++) {
-            dict[byteValue] = new ByteSequence(new byte[]{(byte) byteValue});
-        }
+    /**
+     * Returns how many bytes the hash table of the dictionary takes, when
+     * compressing data of the given length.
+     *
+     * @param originalDataLength Length (in bytes) of the data to be
+     * compressed.
+     * @return The size of the compression dictionary in bytes.
+     */
+    public long compressionDictionarySize(int originalDataLength) {
+        return LZWPrefixDictionary.sizeInBytes(LZWPrefixDictionary.tableSize(
+                maxEntries(originalDataLength), hashTableSize));
     }
 
-    private static void reinitializeDictionary(ByteSequence[] dict) {
-        int codeword = Utils.POSSIBLE_BYTE_VALUES_COUNT;
-        while (codeword < dict.length) {
-            dict[codeword++] = null;
-        }
+    /**
+     * Returns how many bytes the table of strings takes, when decompressing
+     * data whose original length is the given one.
+     *
+     * @param originalDataLength Length (in bytes) of the decompressed data.
+     * @return The size of the decompression table in bytes.
+     */
+    public long decompressionTableSize(int originalDataLength) {
+        return LZWStringTable.sizeInBytes(entryCount(originalDataLength));
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Releases the off-heap dictionaries kept for reuse. This instance can
+     * still be used afterwards, but each compression (or decompression) will
+     * allocate its own dictionary again.
+     */
+    @Override
+    public void close() {
+        dictionaryPool.close();
+    }
+
+    /**
+     * Returns how many times the dictionary has been looked up, by all the
+     * compressions done by this instance.
+     *
+     * @return The number of dictionary lookups.
+     */
+    public synchronized long getDictionaryLookups() {
+        return dictionaryLookups;
+    }
+
+    /**
+     * Returns how many hash table slots have been examined by all the
+     * dictionary lookups (see {@link LZWPrefixDictionary#getProbes()}).
+     *
+     * @return The number of dictionary probes.
+     */
+    public synchronized long getDictionaryProbes() {
+        return dictionaryProbes;
     }
 
     @Override
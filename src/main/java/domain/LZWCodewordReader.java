@@ -0,0 +1,18 @@
+package domain;
+
+/**
+ * Supplies the codewords decoded by {@link LZW} (see
+ * {@link LZW#decode(LZWCodewordReader, byte[], int, int)}), in the order they
+ * were given to an {@link LZWCodewordWriter}.
+ */
+public interface LZWCodewordReader {
+
+    /**
+     * Reads the next codeword.
+     *
+     * @param limit The limit the codeword was written with (see
+     * {@link LZWCodewordWriter#write(int, int)}).
+     * @return The codeword.
+     */
+    public int read(int limit);
+}
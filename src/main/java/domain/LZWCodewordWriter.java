@@ -0,0 +1,22 @@
+package domain;
+
+/**
+ * Receives the codewords emitted by {@link LZW} while it parses data (see
+ * {@link LZW#parse(byte[], int, int, LZWCodewordWriter)}), so that they can be
+ * written with a different format than LZW's variable-length one.
+ */
+public interface LZWCodewordWriter {
+
+    /**
+     * Writes the next codeword, which is less than the given limit: the
+     * codewords which are in the dictionary when it's emitted are those less
+     * than limit. The decoder knows the same limit when it reads the codeword
+     * (see {@link LZWCodewordReader#read(int)}), so it can be used to encode
+     * the codeword (LZW itself writes it with the least number of bits which
+     * can represent all codewords less than limit).
+     *
+     * @param codeword The codeword.
+     * @param limit The number of codewords in the dictionary.
+     */
+    public void write(int codeword, int limit);
+}
@@ -0,0 +1,128 @@
+package domain;
+
+/**
+ * Keeps the off-heap dictionaries used by an {@link LZW} instance for reuse:
+ * allocating (and touching for the first time) a large direct buffer takes
+ * several times longer than allocating a heap array, so dictionaries are
+ * given back to the pool after each compression (or decompression) instead of
+ * being released. A dictionary can be reused for data which needs a
+ * dictionary at least half as large. Since {@link BlockLZW} uses the same
+ * instance from several threads, the pool can hold more than one dictionary
+ * of each kind; all methods are thread-safe. Pooled dictionaries are released
+ * by {@link #close()}; after that, given back dictionaries are closed
+ * immediately.
+ */
+public class LZWDictionaryPool implements AutoCloseable {
+
+    private final LZWPrefixDictionary[] dictionaries;
+    private final LZWStringTable[] tables;
+    private boolean closed;
+
+    /**
+     * Returns an instance of LZWDictionaryPool which keeps at most the given
+     * number of dictionaries of each kind (a pool with no capacity just
+     * closes the dictionaries given back).
+     *
+     * @param capacity Maximum number of dictionaries (and of tables) kept in
+     * the pool.
+     */
+    public LZWDictionaryPool(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Argument int capacity can't be negative.");
+        }
+        dictionaries = new LZWPrefixDictionary[capacity];
+        tables = new LZWStringTable[capacity];
+    }
+
+    /**
+     * Takes out of the pool a dictionary whose table size is between the
+     * given size (inclusive) and twice that size (inclusive), if there is
+     * one. The returned dictionary isn't cleared.
+     *
+     * @param tableSize Size of the table needed (see
+     * {@link LZWPrefixDictionary#tableSize(int, int)}).
+     * @return A pooled dictionary, or null if no suitable one is in the pool.
+     */
+    public synchronized LZWPrefixDictionary takeDictionary(int tableSize) {
+        for (int i = 0; i < dictionaries.length; i++) {
+            LZWPrefixDictionary dict = dictionaries[i];
+            if (dict != null && fits(dict.getTableSize(), tableSize)) {
+                dictionaries[i] = null;
+                return dict;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes out of the pool a table whose entry count is between the given
+     * count (inclusive) and twice that count (inclusive), if there is one.
+     *
+     * @param entryCount Number of entries needed.
+     * @return A pooled table, or null if no suitable one is in the pool.
+     */
+    public synchronized LZWStringTable takeTable(int entryCount) {
+        for (int i = 0; i < tables.length; i++) {
+            LZWStringTable table = tables[i];
+            if (table != null && fits(table.getEntryCount(), entryCount)) {
+                tables[i] = null;
+                return table;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Puts the given dictionary into the pool; if the pool is full (or
+     * closed), the dictionary is closed instead.
+     *
+     * @param dict A dictionary which won't be used anymore by the caller.
+     */
+    public synchronized void giveBack(LZWPrefixDictionary dict) {
+        for (int i = 0; !closed && i < dictionaries.length; i++) {
+            if (dictionaries[i] == null) {
+                dictionaries[i] = dict;
+                return;
+            }
+        }
+        dict.close();
+    }
+
+    /**
+     * Puts the given table into the pool; if the pool is full (or closed),
+     * the table is closed instead.
+     *
+     * @param table A table which won't be used anymore by the caller.
+     */
+    public synchronized void giveBack(LZWStringTable table) {
+        for (int i = 0; !closed && i < tables.length; i++) {
+            if (tables[i] == null) {
+                tables[i] = table;
+                return;
+            }
+        }
+        table.close();
+    }
+
+    /**
+     * Closes all the dictionaries and tables in the pool.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (int i = 0; i < dictionaries.length; i++) {
+            if (dictionaries[i] != null) {
+                dictionaries[i].close();
+                dictionaries[i] = null;
+            }
+            if (tables[i] != null) {
+                tables[i].close();
+                tables[i] = null;
+            }
+        }
+    }
+
+    private static boolean fits(int pooledSize, int neededSize) {
+        return pooledSize >= neededSize && pooledSize / 2 <= neededSize;
+    }
+}
@@ -0,0 +1,355 @@
+package domain;
+
+/**
+ * A {@link CompressionAlgorithm} implementation which parses the data with
+ * {@link LZW}, but instead of writing each codeword with the least number of
+ * bits which can represent all the codewords in the dictionary, encodes the
+ * codewords with canonical Huffman codes. Codewords are far from equally
+ * likely: strings learned recently are emitted more often than older ones, and
+ * some single bytes much more often than others. Codewords are encoded in
+ * blocks of {@link #BLOCK_CODEWORD_COUNT}, each with its own code, so that
+ * the code follows the changes of the distribution (for example while the
+ * dictionary grows, and after it's reset).
+ *
+ * Single bytes are symbols of the Huffman code on their own. Any other
+ * codeword is represented by its age (how many entries have been put into the
+ * dictionary after it, which the decoder knows as well), and since there can
+ * be up to 2^24 codewords, ages are grouped into buckets (see
+ * {@link ValueBuckets}), like DEFLATE does with match distances: the Huffman
+ * codeword of the bucket of an age is followed by its extra bits.
+ *
+ * The compressed data will include (in this order):
+ * - int: length (in bytes) of the original (uncompressed) data;
+ * - byte: freeBits (unused bits in the last byte of the compressed data);
+ * - the blocks, one after the other (not aligned to bytes), each made up of
+ * the codeword length of each symbol (see {@link CanonicalCodeHeader})
+ * followed by the encoded codewords; all blocks except the last one contain
+ * {@link #BLOCK_CODEWORD_COUNT} codewords.
+ */
+public final class LZWHuffman extends CompressionAlgorithm implements AutoCloseable {
+
+    /**
+     * Default maximum length of LZW codewords.
+     */
+    public static final int DEFAULT_MAX_CW_LENGTH = 16;
+    /**
+     * Number of codewords of each block.
+     */
+    public static final int BLOCK_CODEWORD_COUNT = 1 << 13;
+    /**
+     * Number of bits (after the most significant one) which determine the
+     * bucket of an age.
+     */
+    public static final int BUCKET_BITS = 3;
+    private static final ValueBuckets AGE_BUCKETS = new ValueBuckets(BUCKET_BITS);
+
+    /**
+     * Names of instances of this class are this prefix followed by the
+     * maximum codeword length, which is needed for decompression.
+     */
+    public static final String NAME_PREFIX = "lzwh";
+
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the length of the original data (in bytes) will be written.
+     */
+    private static final int OFFSET_ORIG_DATA_LENGTH = 0;
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the value of freeBits will be written.
+     */
+    private static final int OFFSET_FREEBITS = Integer.BYTES;
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the blocks will be written.
+     */
+    private static final int OFFSET_DATA = OFFSET_FREEBITS + Byte.BYTES;
+
+    /**
+     * The file extension used for files compressed using this class.
+     */
+    private final String compressedFileExtension;
+    /**
+     * Short name for this algorithm (used in TUI).
+     */
+    private final String name;
+    /**
+     * Longer name for this algorithm (used in TUI).
+     */
+    private final String description;
+
+    private final LZW lzw;
+    /**
+     * Number of symbols of the Huffman codes: single bytes, and buckets of
+     * ages.
+     */
+    private final int symbolCount;
+
+    /**
+     * Returns an instance of LZWHuffman with the default maximum codeword
+     * length.
+     */
+    public LZWHuffman() {
+        this(DEFAULT_MAX_CW_LENGTH);
+    }
+
+    /**
+     * Returns an instance of LZWHuffman with the given maximum codeword
+     * length.
+     *
+     * @param maxCodewordLength Maximum length for LZW codewords (see
+     * {@link LZW#LZW(int)}).
+     */
+    public LZWHuffman(int maxCodewordLength) {
+        lzw = new LZW(maxCodewordLength);
+        // ages are less than 2^maxCodewordLength
+        symbolCount = Utils.POSSIBLE_BYTE_VALUES_COUNT
+                + AGE_BUCKETS.bucketCount(maxCodewordLength);
+        name = NAME_PREFIX + maxCodewordLength;
+        compressedFileExtension = "." + name;
+        description = "Lempel-Ziv-Welch (max length " + maxCodewordLength
+                + ") with Huffman-coded codewords";
+    }
+
+    /**
+     * Returns an instance of LZWHuffman whose name is the given one (for
+     * example "lzwh14" for a maximum codeword length of 14 bits).
+     *
+     * @param name Name of an LZWHuffman algorithm.
+     * @return An instance of LZWHuffman with the given name, or null if no
+     * maximum codeword length corresponds to it.
+     */
+    public static LZWHuffman forName(String name) {
+        for (int length = LZW.MIN_CW_LENGTH; length <= LZW.LONGEST_MAX_CW_LENGTH; length++) {
+            if (name.equals(NAME_PREFIX + length)) {
+                return new LZWHuffman(length);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns an instance of LZWHuffman whose compressed files have the given
+     * extension (for example ".lzwh14" for a maximum codeword length of 14
+     * bits).
+     *
+     * @param extension Extension of a compressed file (including the period).
+     * @return An instance of LZWHuffman with the given extension, or null if
+     * no maximum codeword length corresponds to it.
+     */
+    public static LZWHuffman forExtension(String extension) {
+        return extension.startsWith(".") ? forName(extension.substring(1)) : null;
+    }
+
+    /**
+     * Compresses the given data: the codewords emitted by LZW are collected
+     * into blocks, and each block is encoded as soon as it's full.
+     *
+     * @param originalData The data to be compressed.
+     * @return A bit sequence corresponding to the compressed data.
+     */
+    @Override
+    public BitSequence compressData(byte[] originalData) {
+
+        byte[] bytes = new byte[OFFSET_DATA + originalData.length];
+        Utils.insertInt(originalData.length, bytes, OFFSET_ORIG_DATA_LENGTH);
+        BitWriter writer = new BitWriter(bytes, (long) Byte.SIZE * OFFSET_DATA);
+
+        if (originalData.length > 0) {
+            BlockEncoder encoder = new BlockEncoder(writer, originalData.length);
+            lzw.parse(originalData, 0, originalData.length, encoder);
+            encoder.encodeBlock();
+        }
+
+        writer.flush();
+        BitSequence compressedBitSeq = writer.toBitSequence();
+        writer.getBytes()[OFFSET_FREEBITS] = (byte) compressedBitSeq.getFreeBits();
+        return compressedBitSeq;
+    }
+
+    /**
+     * Decompresses the given compressed data: LZW reads the codewords from a
+     * reader which decodes them, reading the code of each block when the
+     * previous block is over.
+     *
+     * @param compressedData The compressed data to be decompressed.
+     * @return The original, uncompressed data.
+     */
+    @Override
+    public byte[] decompressData(byte[] compressedData) {
+        byte[] originalData = new byte[Utils.extractInt(compressedData, OFFSET_ORIG_DATA_LENGTH)];
+        lzw.decode(new BlockDecoder(new BitReader(compressedData, OFFSET_DATA)),
+                originalData, 0, originalData.length);
+        return originalData;
+    }
+
+    /**
+     * Returns the value encoded for the given codeword, which is less than
+     * the given limit (see {@link LZWCodewordWriter#write(int, int)}): a
+     * single byte is encoded as it is, and any other codeword as its age,
+     * plus the number of single bytes.
+     */
+    private static int value(int codeword, int limit) {
+        return codeword < Utils.POSSIBLE_BYTE_VALUES_COUNT
+                ? codeword : Utils.POSSIBLE_BYTE_VALUES_COUNT + limit - 1 - codeword;
+    }
+
+    /**
+     * Returns the codeword whose value (see {@link #value(int, int)}) is the
+     * given one.
+     */
+    private static int codeword(int value, int limit) {
+        return value < Utils.POSSIBLE_BYTE_VALUES_COUNT
+                ? value : Utils.POSSIBLE_BYTE_VALUES_COUNT + limit - 1 - value;
+    }
+
+    /**
+     * Returns the Huffman symbol of the given value: the value itself for a
+     * single byte, otherwise the number of single bytes plus the bucket of
+     * the age.
+     */
+    private static int symbol(int value) {
+        return value < Utils.POSSIBLE_BYTE_VALUES_COUNT ? value
+                : Utils.POSSIBLE_BYTE_VALUES_COUNT
+                + AGE_BUCKETS.bucket(value - Utils.POSSIBLE_BYTE_VALUES_COUNT);
+    }
+
+    /**
+     * Returns the number of bits which follow the Huffman codeword of the
+     * given symbol (the extra bits of the age).
+     */
+    private static int extraBitCount(int symbol) {
+        return symbol < Utils.POSSIBLE_BYTE_VALUES_COUNT ? 0
+                : AGE_BUCKETS.extraBitCount(symbol - Utils.POSSIBLE_BYTE_VALUES_COUNT);
+    }
+
+    /**
+     * Returns the value of the given symbol whose extra bits are the given
+     * ones.
+     */
+    private static int symbolValue(int symbol, int extraBitCount, int extraBits) {
+        return symbol < Utils.POSSIBLE_BYTE_VALUES_COUNT ? symbol
+                : Utils.POSSIBLE_BYTE_VALUES_COUNT + AGE_BUCKETS.value(
+                        symbol - Utils.POSSIBLE_BYTE_VALUES_COUNT, extraBitCount, extraBits);
+    }
+
+    /**
+     * Returns the LZW instance which parses the data; its dictionary
+     * statistics include the lookups made for all compressions.
+     *
+     * @return The LZW instance.
+     */
+    public LZW getLZW() {
+        return lzw;
+    }
+
+    /**
+     * Releases the off-heap dictionaries kept by the LZW instance (see
+     * {@link LZW#close()}).
+     */
+    @Override
+    public void close() {
+        lzw.close();
+    }
+
+    @Override
+    public String getExtension() {
+        return compressedFileExtension;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Collects the values (see {@link #value(int, int)}) of the codewords
+     * emitted by LZW, and encodes them whenever a block is full.
+     */
+    private final class BlockEncoder implements LZWCodewordWriter {
+
+        private final BitWriter writer;
+        /**
+         * Values of the current block; since each codeword takes at least one
+         * byte, it's never longer than the original data.
+         */
+        private final int[] values;
+        private int count;
+
+        BlockEncoder(BitWriter writer, int originalDataLength) {
+            this.writer = writer;
+            values = new int[Math.min(BLOCK_CODEWORD_COUNT, originalDataLength)];
+        }
+
+        @Override
+        public void write(int codeword, int limit) {
+            if (count == values.length) {
+                encodeBlock();
+            }
+            values[count++] = value(codeword, limit);
+        }
+
+        /**
+         * Writes the code of the current block and its values.
+         */
+        void encodeBlock() {
+
+            long[] symbolCounts = new long[symbolCount];
+            for (int i = 0; i < count; i++) {
+                symbolCounts[symbol(values[i])]++;
+            }
+            int[] codewordLengths = CanonicalCodeHeader.codewordLengths(symbolCounts);
+            HuffmanEncoder encoder = new HuffmanEncoder(
+                    CanonicalCode.fromLengths(codewordLengths), symbolCount);
+
+            writer.ensureCapacity(CanonicalCodeHeader.maxLengthInBits(symbolCount)
+                    + (long) (CanonicalCodeHeader.MAX_CODEWORD_LENGTH + Integer.SIZE) * count);
+            CanonicalCodeHeader.write(codewordLengths, writer);
+            for (int i = 0; i < count; i++) {
+                int symbol = symbol(values[i]);
+                int extraBitCount = extraBitCount(symbol);
+                encoder.encodeSymbol(symbol, writer);
+                // the least significant bits of the age (none for single bytes)
+                int age = values[i] - Utils.POSSIBLE_BYTE_VALUES_COUNT;
+                writer.write(ValueBuckets.extraBits(age, extraBitCount), extraBitCount);
+            }
+            count = 0;
+        }
+    }
+
+    /**
+     * Decodes the codewords read by LZW, reading the code of each block
+     * before its first codeword.
+     */
+    private final class BlockDecoder implements LZWCodewordReader {
+
+        private final BitReader reader;
+        private HuffmanDecoder decoder;
+        /**
+         * Number of codewords of the current block which haven't been read.
+         */
+        private int remaining;
+
+        BlockDecoder(BitReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public int read(int limit) {
+            if (remaining == 0) {
+                decoder = new HuffmanDecoder(CanonicalCodeHeader.read(reader, symbolCount));
+                remaining = BLOCK_CODEWORD_COUNT;
+            }
+            remaining--;
+            int symbol = decoder.decodeSymbol(reader);
+            int extraBitCount = extraBitCount(symbol);
+            int extraBits = extraBitCount == 0 ? 0 : reader.read(extraBitCount);
+            return codeword(symbolValue(symbol, extraBitCount, extraBits), limit);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package domain;
+
+/**
+ * An entry put into the dictionary of {@link LZW} right after a reset, whose
+ * prefix may not have a codeword yet: since the string is the range [start,
+ * end] of the original data, the entry can be put into the dictionary as soon
+ * as the range [start, end) gets a codeword.
+ */
+public final class LZWPendingEntry {
+
+    private final int start;
+    private final int end;
+    private final int codeword;
+
+    /**
+     * Returns an instance of LZWPendingEntry for the string which is the range
+     * [start, end] of the original data.
+     *
+     * @param start Index of the first byte of the string.
+     * @param end Index of the last byte of the string.
+     * @param codeword Codeword of the string.
+     */
+    public LZWPendingEntry(int start, int end, int codeword) {
+        this.start = start;
+        this.end = end;
+        this.codeword = codeword;
+    }
+
+    /**
+     * Puts this entry into the given dictionary if its prefix is already
+     * there: a single byte always has a codeword, and a longer prefix can be
+     * in a primed dictionary (see {@link LZWPrimedDictionary}).
+     *
+     * @param originalData The data containing the string of this entry.
+     * @param dict The dictionary.
+     * @return Null if this entry has been put into the dictionary, otherwise
+     * this entry.
+     */
+    public LZWPendingEntry putIfPrefixIsInDictionary(byte[] originalData, PrefixDictionary dict) {
+        int prefixCodeword = Byte.toUnsignedInt(originalData[start]);
+        for (int i = start + 1; i < end && prefixCodeword != PrefixDictionary.NOT_FOUND; i++) {
+            prefixCodeword = dict.get(prefixCodeword, originalData[i]);
+        }
+        if (prefixCodeword == PrefixDictionary.NOT_FOUND) {
+            return this;
+        }
+        put(originalData, dict, prefixCodeword);
+        return null;
+    }
+
+    /**
+     * Puts this entry into the given dictionary.
+     *
+     * @param originalData The data containing the string of this entry.
+     * @param dict The dictionary.
+     * @param prefixCodeword The codeword of the prefix of this entry.
+     */
+    public void put(byte[] originalData, PrefixDictionary dict, int prefixCodeword) {
+        dict.put(prefixCodeword, originalData[end], codeword);
+    }
+
+    /**
+     * Returns true if the range [from, to) of the original data is equal to
+     * the prefix of this entry.
+     *
+     * @param originalData The data containing the string of this entry.
+     * @param from Index of the first byte of the range (inclusive).
+     * @param to Index of the last byte of the range (exclusive).
+     * @return Whether the range is equal to the prefix of this entry.
+     */
+    public boolean prefixEquals(byte[] originalData, int from, int to) {
+        if (to - from != end - start) {
+            return false;
+        }
+        for (int i = 0; i < end - start; i++) {
+            if (originalData[from + i] != originalData[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
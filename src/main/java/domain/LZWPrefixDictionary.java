@@ -0,0 +1,276 @@
+package domain;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * A {@link PrefixDictionary} implementation which uses internally a hash table
+ * with open addressing and linear probing. Each key (prefix code and last
+ * byte) is packed into a single long, and keys and values are stored in two
+ * flat arrays, so that a lookup costs one hash computation and (usually) a
+ * single probe, without allocating any object. The table is never resized,
+ * since the number of entries in an LZW dictionary is bounded by the number of
+ * possible codewords; it's kept at most half full, so that probe sequences
+ * stay short. For more information see
+ * https://en.wikipedia.org/wiki/Open_addressing and
+ * https://en.wikipedia.org/wiki/Hash_function#Fibonacci_hashing .
+ *
+ * The arrays can also be allocated off the heap (as direct buffers), so that
+ * the large tables of long codewords don't need a larger heap and are never
+ * copied by the garbage collector. A dictionary should be closed when it's no
+ * longer needed: after {@link #close()} it can't be used anymore, and its
+ * memory is released as soon as the buffers are collected (the only way to
+ * release direct buffers without using internal APIs).
+ *
+ * A dictionary can also have a base dictionary, which is looked up when a key
+ * isn't found in this one (but never changed by it, so that it can be shared
+ * by dictionaries used in different threads): {@link #clear()} removes only
+ * the entries of this dictionary, and the base dictionary's are always there.
+ */
+public class LZWPrefixDictionary implements PrefixDictionary, AutoCloseable {
+
+    /**
+     * Value of empty slots of {@link #keys}; a real key is never negative.
+     */
+    private static final long EMPTY = -1;
+    /**
+     * 2^64 divided by the golden ratio, used as multiplier for Fibonacci
+     * hashing.
+     */
+    private static final long FIBONACCI_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    /**
+     * Maximum size of an off-heap table, whose slots must be addressable
+     * within a single direct buffer.
+     */
+    public static final int MAX_OFF_HEAP_TABLE_SIZE = 1 << 27;
+
+    private LongBuffer keys;
+    private IntBuffer values;
+    private final boolean offHeap;
+    /**
+     * Number of bits of a slot index (the table size is 2^indexBits).
+     */
+    private final int indexBits;
+    private final int mask;
+    /**
+     * The dictionary looked up when a key isn't in this one, or null.
+     */
+    private final LZWPrefixDictionary base;
+    /**
+     * Number of calls to {@link #get(int, byte)}.
+     */
+    private long lookups;
+    /**
+     * Number of slots examined by all calls to {@link #get(int, byte)}.
+     */
+    private long probes;
+
+    /**
+     * Returns an instance of LZWPrefixDictionary which can contain at least
+     * the given number of entries.
+     *
+     * @param maxEntries Maximum number of entries which will be put into this
+     * dictionary (between two calls to {@link #clear()}).
+     */
+    public LZWPrefixDictionary(int maxEntries) {
+        this(maxEntries, 0, false);
+    }
+
+    /**
+     * Returns an instance of LZWPrefixDictionary which can contain at least
+     * the given number of entries, and whose table has at least the given
+     * size.
+     *
+     * @param maxEntries Maximum number of entries which will be put into this
+     * dictionary (between two calls to {@link #clear()}).
+     * @param minTableSize Minimum size of the table; the actual size is the
+     * smallest power of two which is not less than this value and than twice
+     * maxEntries.
+     */
+    public LZWPrefixDictionary(int maxEntries, int minTableSize) {
+        this(maxEntries, minTableSize, false);
+    }
+
+    /**
+     * Returns an instance of LZWPrefixDictionary which can contain at least
+     * the given number of entries, whose table has at least the given size
+     * and is allocated on or off the heap.
+     *
+     * @param maxEntries Maximum number of entries which will be put into this
+     * dictionary (between two calls to {@link #clear()}).
+     * @param minTableSize Minimum size of the table (see
+     * {@link #tableSize(int, int)}).
+     * @param offHeap Whether the table will be allocated off the heap; its
+     * size can't exceed {@link #MAX_OFF_HEAP_TABLE_SIZE}.
+     */
+    public LZWPrefixDictionary(int maxEntries, int minTableSize, boolean offHeap) {
+        this(maxEntries, minTableSize, offHeap, null);
+    }
+
+    /**
+     * Returns an instance of LZWPrefixDictionary like
+     * {@link #LZWPrefixDictionary(int, int, boolean)}, which looks up keys in
+     * the given base dictionary when they aren't in its own table.
+     *
+     * @param maxEntries Maximum number of entries which will be put into this
+     * dictionary (between two calls to {@link #clear()}), not counting those
+     * of the base dictionary.
+     * @param minTableSize Minimum size of the table (see
+     * {@link #tableSize(int, int)}).
+     * @param offHeap Whether the table will be allocated off the heap.
+     * @param base The dictionary looked up when a key isn't in this one (which
+     * mustn't be changed anymore), or null.
+     */
+    public LZWPrefixDictionary(int maxEntries, int minTableSize, boolean offHeap,
+            LZWPrefixDictionary base) {
+        int tableSize = tableSize(maxEntries, minTableSize);
+        if (offHeap && tableSize > MAX_OFF_HEAP_TABLE_SIZE) {
+            throw new IllegalArgumentException("An off-heap table can't have more than "
+                    + MAX_OFF_HEAP_TABLE_SIZE + " slots.");
+        }
+        this.offHeap = offHeap;
+        this.base = base;
+        indexBits = Integer.numberOfTrailingZeros(tableSize);
+        mask = tableSize - 1;
+        if (offHeap) {
+            keys = ByteBuffer.allocateDirect(Long.BYTES * tableSize)
+                    .order(ByteOrder.nativeOrder()).asLongBuffer();
+            values = ByteBuffer.allocateDirect(Integer.BYTES * tableSize)
+                    .order(ByteOrder.nativeOrder()).asIntBuffer();
+        } else {
+            keys = LongBuffer.wrap(new long[tableSize]);
+            values = IntBuffer.wrap(new int[tableSize]);
+        }
+        clear();
+    }
+
+    /**
+     * Returns the size of the table of a dictionary which can contain the
+     * given number of entries: the smallest power of two which is not less
+     * than minTableSize and than twice maxEntries.
+     *
+     * @param maxEntries Maximum number of entries in the dictionary.
+     * @param minTableSize Minimum size of the table.
+     * @return The number of slots of the table.
+     */
+    public static int tableSize(int maxEntries, int minTableSize) {
+        if (maxEntries <= 0 || maxEntries > 1 << 29) {
+            throw new IllegalArgumentException("Argument int maxEntries has to be "
+                    + "between 1 and " + (1 << 29) + " (both inclusive).");
+        }
+        int tableSize = Math.max(2 * maxEntries, minTableSize);
+        int bits = 1;
+        while (bits < Integer.SIZE - 2 && 1 << bits < tableSize) {
+            bits++;
+        }
+        return 1 << bits;
+    }
+
+    /**
+     * Returns how many bytes a table of the given size takes.
+     *
+     * @param tableSize Number of slots of the table.
+     * @return The size of the table in bytes.
+     */
+    public static long sizeInBytes(int tableSize) {
+        return (long) (Long.BYTES + Integer.BYTES) * tableSize;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < keys.capacity(); i++) {
+            keys.put(i, EMPTY);
+        }
+    }
+
+    @Override
+    public int get(int prefixCode, byte lastByte) {
+        long key = key(prefixCode, lastByte);
+        lookups++;
+        int code = find(key, this);
+        return code == NOT_FOUND && base != null ? base.find(key, this) : code;
+    }
+
+    /**
+     * Returns the value of the given key in this dictionary's own table,
+     * counting the examined slots as probes of the given dictionary.
+     */
+    private int find(long key, LZWPrefixDictionary counter) {
+        for (int i = slot(key);; i = (i + 1) & mask) {
+            counter.probes++;
+            long k = keys.get(i);
+            if (k == key) {
+                return values.get(i);
+            }
+            if (k == EMPTY) {
+                return NOT_FOUND;
+            }
+        }
+    }
+
+    @Override
+    public void put(int prefixCode, byte lastByte, int code) {
+        long key = key(prefixCode, lastByte);
+        int i = slot(key);
+        // no need to check for equality, since we know that an entry is put
+        // into the dictionary only when it wasn't found in it already
+        while (keys.get(i) != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        keys.put(i, key);
+        values.put(i, code);
+    }
+
+    public int getTableSize() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns true if the table of this dictionary is allocated off the heap.
+     *
+     * @return Whether the table is off the heap.
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Releases the table of this dictionary, which can't be used anymore.
+     */
+    @Override
+    public void close() {
+        keys = null;
+        values = null;
+    }
+
+    /**
+     * Returns how many times {@link #get(int, byte)} has been called (also
+     * before calls to {@link #clear()}).
+     *
+     * @return The number of lookups.
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * Returns how many slots of the table have been examined by all the calls
+     * to {@link #get(int, byte)}; divided by {@link #getLookups()}, it gives
+     * the average probe length, which is 1 when there are no collisions.
+     *
+     * @return The number of probes.
+     */
+    public long getProbes() {
+        return probes;
+    }
+
+    private static long key(int prefixCode, byte lastByte) {
+        return (long) prefixCode << Byte.SIZE | Byte.toUnsignedInt(lastByte);
+    }
+
+    private int slot(long key) {
+        return (int) ((key * FIBONACCI_MULTIPLIER) >>> (Long.SIZE - indexBits));
+    }
+}
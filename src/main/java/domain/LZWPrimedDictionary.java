@@ -0,0 +1,245 @@
+package domain;
+
+import io.FileUtils;
+import java.nio.file.Path;
+
+/**
+ * A dictionary which {@link LZW} can start from (instead of the single bytes
+ * only) when compression begins and after each reset, so that short data
+ * doesn't have to learn again the strings which are common in the data it
+ * resembles. Its entries are those LZW puts into its dictionary while
+ * compressing a sample of such data, up to half of the possible codewords (so
+ * that the other half is left for the strings of the compressed data).
+ *
+ * Since each entry is an earlier string followed by one byte, the dictionary
+ * is determined by the part of the sample its entries come from and by the
+ * maximum codeword length: that's what is written into dictionary files,
+ * together with an ID (a hash of both), which LZW writes into the header of
+ * compressed data so that it can be decompressed only with the same
+ * dictionary. Nothing is copied for each compression: the entries are put
+ * once into an {@link LZWPrefixDictionary}, which is the base dictionary of
+ * those used by LZW (they contain only the strings learned from the
+ * compressed data); for decompression, the string of a primed codeword is
+ * copied straight from the sample.
+ */
+public final class LZWPrimedDictionary {
+
+    /**
+     * The ID written into the header of data compressed without a primed
+     * dictionary; no primed dictionary has this ID.
+     */
+    public static final int NO_DICTIONARY_ID = 0;
+
+    /**
+     * Offset (in bytes) from the beginning of dictionary files, indicating
+     * where the ID of the dictionary will be written.
+     */
+    private static final int OFFSET_ID = 0;
+    /**
+     * Offset (in bytes) from the beginning of dictionary files, indicating
+     * where the maximum codeword length will be written.
+     */
+    private static final int OFFSET_MAX_CW_LENGTH = Integer.BYTES;
+    /**
+     * Offset (in bytes) from the beginning of dictionary files, indicating
+     * where the sample will be written.
+     */
+    private static final int OFFSET_SAMPLE = OFFSET_MAX_CW_LENGTH + Byte.BYTES;
+
+    /**
+     * Offset basis and prime of the 32-bit FNV-1a hash function, used for
+     * computing IDs (see https://en.wikipedia.org/wiki/Fowler-Noll-Vo_hash_function ).
+     */
+    private static final int FNV_OFFSET_BASIS = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private final int maxCodewordLength;
+    /**
+     * The part of the sample the entries come from.
+     */
+    private final byte[] sample;
+    private final int entryCount;
+    /**
+     * The entries of this dictionary, which are never changed after training.
+     */
+    private final LZWPrefixDictionary entries;
+    /**
+     * Offset (in {@link #sample}) and length of the string of each codeword.
+     */
+    private final LZWStringTable strings;
+    private final int id;
+
+    /**
+     * Returns an instance of LZWPrimedDictionary containing the entries put
+     * into the dictionary by LZW while compressing the given sample.
+     *
+     * @param sample Data resembling the data which will be compressed.
+     * @param maxCodewordLength Maximum codeword length of the LZW instances
+     * which will use this dictionary (see {@link LZW#LZW(int)}).
+     */
+    public LZWPrimedDictionary(byte[] sample, int maxCodewordLength) {
+        if (maxCodewordLength < LZW.MIN_CW_LENGTH || maxCodewordLength > LZW.LONGEST_MAX_CW_LENGTH) {
+            throw new IllegalArgumentException("Argument int maxCodewordLength has to be "
+                    + "between " + LZW.MIN_CW_LENGTH + " and " + LZW.LONGEST_MAX_CW_LENGTH
+                    + " (both inclusive).");
+        }
+        this.maxCodewordLength = maxCodewordLength;
+        int maxEntryCount = Math.min((1 << maxCodewordLength) / 2 - Utils.POSSIBLE_BYTE_VALUES_COUNT,
+                Math.max(0, sample.length - 1));
+        entries = new LZWPrefixDictionary(Math.max(1, maxEntryCount));
+        strings = new LZWStringTable(Utils.POSSIBLE_BYTE_VALUES_COUNT + maxEntryCount, false);
+        entryCount = train(sample, maxEntryCount);
+
+        int sampleLength = 0;
+        if (entryCount > 0) {
+            long lastEntry = strings.get(getFirstCodeword() - 1);
+            sampleLength = LZWStringTable.offset(lastEntry) + LZWStringTable.length(lastEntry);
+        }
+        this.sample = new byte[sampleLength];
+        Utils.arrayCopy(sample, 0, this.sample, 0, sampleLength);
+        id = computeId();
+    }
+
+    /**
+     * Returns an instance of LZWPrimedDictionary from the content of a
+     * dictionary file (see {@link #toBytes()}).
+     *
+     * @param bytes The content of a dictionary file.
+     * @return The dictionary written into the file.
+     */
+    public static LZWPrimedDictionary fromBytes(byte[] bytes) {
+        if (bytes.length < OFFSET_SAMPLE) {
+            throw new IllegalArgumentException("Argument byte[] bytes is too short to contain "
+                    + "an LZW dictionary.");
+        }
+        byte[] sample = new byte[bytes.length - OFFSET_SAMPLE];
+        Utils.arrayCopy(bytes, OFFSET_SAMPLE, sample, 0, sample.length);
+        LZWPrimedDictionary dictionary = new LZWPrimedDictionary(sample, bytes[OFFSET_MAX_CW_LENGTH]);
+        if (dictionary.getId() != Utils.extractInt(bytes, OFFSET_ID)
+                || dictionary.sample.length != sample.length) {
+            throw new IllegalArgumentException("Argument byte[] bytes doesn't contain a valid "
+                    + "LZW dictionary.");
+        }
+        return dictionary;
+    }
+
+    /**
+     * Returns the content of a file containing this dictionary: its ID,
+     * maximum codeword length and the part of the sample its entries come
+     * from.
+     *
+     * @return The content of a dictionary file.
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[OFFSET_SAMPLE + sample.length];
+        Utils.insertInt(id, bytes, OFFSET_ID);
+        bytes[OFFSET_MAX_CW_LENGTH] = (byte) maxCodewordLength;
+        Utils.arrayCopy(sample, 0, bytes, OFFSET_SAMPLE, sample.length);
+        return bytes;
+    }
+
+    /**
+     * Reads a dictionary from the file at the given path.
+     *
+     * @param path Path of a dictionary file.
+     * @return The dictionary, or null if the file couldn't be read.
+     */
+    public static LZWPrimedDictionary readFile(Path path) {
+        byte[] bytes = FileUtils.readFile(path);
+        return bytes == null ? null : fromBytes(bytes);
+    }
+
+    /**
+     * Writes this dictionary into the file at the given path.
+     *
+     * @param path Path of the file to be written.
+     * @return True if successful, false otherwise.
+     */
+    public boolean writeFile(Path path) {
+        return FileUtils.writeFile(path, toBytes());
+    }
+
+    /**
+     * Puts into {@link #entries} and {@link #strings} the entries LZW puts
+     * while compressing the given sample, up to the given number.
+     *
+     * @return The number of entries.
+     */
+    private int train(byte[] sample, int maxEntryCount) {
+        if (maxEntryCount == 0) {
+            return 0;
+        }
+        int count = 0;
+        // the string is sample[stringStart, i)
+        int stringStart = 0;
+        int codewordForString = Byte.toUnsignedInt(sample[0]);
+        for (int i = 1; i < sample.length && count < maxEntryCount; i++) {
+            int codewordForNextString = entries.get(codewordForString, sample[i]);
+            if (codewordForNextString != PrefixDictionary.NOT_FOUND) {
+                codewordForString = codewordForNextString;
+                continue;
+            }
+            int codeword = Utils.POSSIBLE_BYTE_VALUES_COUNT + count++;
+            entries.put(codewordForString, sample[i], codeword);
+            strings.put(codeword, stringStart, i + 1 - stringStart);
+            stringStart = i;
+            codewordForString = Byte.toUnsignedInt(sample[i]);
+        }
+        return count;
+    }
+
+    private int computeId() {
+        int hash = (FNV_OFFSET_BASIS ^ maxCodewordLength) * FNV_PRIME;
+        for (byte b : sample) {
+            hash = (hash ^ Byte.toUnsignedInt(b)) * FNV_PRIME;
+        }
+        return hash == NO_DICTIONARY_ID ? NO_DICTIONARY_ID + 1 : hash;
+    }
+
+    /**
+     * Returns the entries of this dictionary, which can be the base
+     * dictionary of an {@link LZWPrefixDictionary} (and mustn't be changed).
+     *
+     * @return The entries of this dictionary.
+     */
+    public LZWPrefixDictionary getEntries() {
+        return entries;
+    }
+
+    /**
+     * Copies the string of the given codeword into the given array.
+     *
+     * @param codeword A codeword of this dictionary (not a single byte).
+     * @param dest The array into which the string will be copied.
+     * @param destIndex Index of dest where the first byte will be copied.
+     * @return Length of the string.
+     */
+    public int copyString(int codeword, byte[] dest, int destIndex) {
+        long entry = strings.get(codeword);
+        int length = LZWStringTable.length(entry);
+        Utils.arrayCopy(sample, LZWStringTable.offset(entry), dest, destIndex, length);
+        return length;
+    }
+
+    /**
+     * Returns the first codeword which isn't in this dictionary (LZW gives
+     * it to the first string it learns from the compressed data).
+     *
+     * @return The first codeword after the entries of this dictionary.
+     */
+    public int getFirstCodeword() {
+        return Utils.POSSIBLE_BYTE_VALUES_COUNT + entryCount;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public int getMaxCodewordLength() {
+        return maxCodewordLength;
+    }
+
+    public int getId() {
+        return id;
+    }
+}
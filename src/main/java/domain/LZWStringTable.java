@@ -0,0 +1,120 @@
+package domain;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * The dictionary used by {@link LZW} for decompression: since every string in
+ * the dictionary has already been written into the decompressed data, the
+ * entry of each codeword is just the offset and length of a range of it. Both
+ * are packed into a single long (offset in the upper 32 bits), so that the
+ * entries can be stored in one buffer, which can be allocated on or off the
+ * heap like the table of {@link LZWPrefixDictionary}; after {@link #close()}
+ * the table can't be used anymore.
+ */
+public class LZWStringTable implements AutoCloseable {
+
+    /**
+     * Maximum number of entries of an off-heap table, which must be
+     * addressable within a single direct buffer.
+     */
+    public static final int MAX_OFF_HEAP_ENTRY_COUNT = 1 << 27;
+
+    private LongBuffer entries;
+    private final int entryCount;
+    private final boolean offHeap;
+
+    /**
+     * Returns an instance of LZWStringTable which can contain the given number
+     * of entries, allocated on or off the heap.
+     *
+     * @param entryCount Number of entries; codewords go from 0 (inclusive) to
+     * entryCount (exclusive).
+     * @param offHeap Whether the table will be allocated off the heap; its
+     * size can't exceed {@link #MAX_OFF_HEAP_ENTRY_COUNT}.
+     */
+    public LZWStringTable(int entryCount, boolean offHeap) {
+        if (entryCount < 0 || entryCount > (offHeap ? MAX_OFF_HEAP_ENTRY_COUNT : 1 << 29)) {
+            throw new IllegalArgumentException("Argument int entryCount has to be between 0 and "
+                    + (offHeap ? MAX_OFF_HEAP_ENTRY_COUNT : 1 << 29) + " (both inclusive).");
+        }
+        this.entryCount = entryCount;
+        this.offHeap = offHeap;
+        entries = offHeap
+                ? ByteBuffer.allocateDirect(Long.BYTES * entryCount)
+                        .order(ByteOrder.nativeOrder()).asLongBuffer()
+                : LongBuffer.wrap(new long[entryCount]);
+    }
+
+    /**
+     * Returns how many bytes a table with the given number of entries takes.
+     *
+     * @param entryCount Number of entries of the table.
+     * @return The size of the table in bytes.
+     */
+    public static long sizeInBytes(int entryCount) {
+        return (long) Long.BYTES * entryCount;
+    }
+
+    /**
+     * Sets the entry of the given codeword.
+     *
+     * @param codeword The codeword.
+     * @param offset Offset of the string in the decompressed data.
+     * @param length Length of the string.
+     */
+    public void put(int codeword, int offset, int length) {
+        entries.put(codeword, (long) offset << Integer.SIZE | length);
+    }
+
+    /**
+     * Returns the entry of the given codeword: the offset of its string in
+     * the upper 32 bits, and its length in the lower ones (see
+     * {@link #offset(long)} and {@link #length(long)}).
+     *
+     * @param codeword The codeword.
+     * @return The entry of the codeword.
+     */
+    public long get(int codeword) {
+        return entries.get(codeword);
+    }
+
+    /**
+     * Returns the offset of the string of the given entry (see
+     * {@link #get(int)}).
+     *
+     * @param entry An entry of the table.
+     * @return Offset of the string in the decompressed data.
+     */
+    public static int offset(long entry) {
+        return (int) (entry >>> Integer.SIZE);
+    }
+
+    /**
+     * Returns the length of the string of the given entry (see
+     * {@link #get(int)}).
+     *
+     * @param entry An entry of the table.
+     * @return Length of the string.
+     */
+    public static int length(long entry) {
+        return (int) entry;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Releases the entries of this table, which can't be used anymore.
+     */
+    @Override
+    public void close() {
+        entries = null;
+    }
+}
@@ -0,0 +1,71 @@
+package domain;
+
+/**
+ * A {@link Transform} which replaces each byte with its rank in a list of the
+ * byte values, moving it to the front of the list afterwards: a byte which
+ * repeats becomes a zero, and bytes which occurred recently get small ranks,
+ * even if the byte values change along the data. The list starts in the
+ * order of the byte values at the beginning of each block.
+ */
+public final class MoveToFrontTransform implements Transform {
+
+    public static final String NAME = "mtf";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int maxTransformedLength(int length) {
+        return length;
+    }
+
+    @Override
+    public int forward(byte[] src, int srcFrom, int length, byte[] dest, int destFrom) {
+        byte[] list = initialList();
+        for (int i = 0; i < length; i++) {
+            byte b = src[srcFrom + i];
+            // move b to the front, shifting the bytes before it
+            byte previous = list[0];
+            int rank = 0;
+            while (previous != b) {
+                rank++;
+                byte next = list[rank];
+                list[rank] = previous;
+                previous = next;
+            }
+            list[0] = b;
+            dest[destFrom + i] = (byte) rank;
+        }
+        return length;
+    }
+
+    @Override
+    public int inverse(byte[] src, int srcFrom, int length, byte[] dest, int destFrom,
+            int maxLength) {
+        if (length > maxLength) {
+            throw new IllegalArgumentException("The transformed block is longer than "
+                    + maxLength + " bytes.");
+        }
+        byte[] list = initialList();
+        for (int i = 0; i < length; i++) {
+            int rank = Byte.toUnsignedInt(src[srcFrom + i]);
+            byte b = list[rank];
+            for (int k = rank; k > 0; k--) {
+                list[k] = list[k - 1];
+            }
+            list[0] = b;
+            dest[destFrom + i] = b;
+        }
+        return length;
+    }
+
+    private static byte[] initialList() {
+        byte[] list = new byte[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        for (int i = 0; i < list.length; i++) {
+            list[i] = (byte) i;
+        }
+        return list;
+    }
+}
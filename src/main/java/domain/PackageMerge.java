@@ -0,0 +1,109 @@
+package domain;
+
+/**
+ * Computes optimal length-limited codeword lengths using the package-merge
+ * algorithm by Larmore and Hirschberg (for more info see
+ * https://en.wikipedia.org/wiki/Package-merge_algorithm). While the Huffman
+ * algorithm can produce very long codewords when symbol weights are very
+ * skewed, package-merge finds the codeword lengths which minimize the
+ * compressed size among those which don't exceed a given maximum length.
+ */
+public class PackageMerge {
+
+    /**
+     * Computes the optimal codeword lengths for the given weights, such that no
+     * codeword is longer than maxLength. Each level of the algorithm (one for
+     * each possible codeword length) has a list of items, made by merging the
+     * leaves (one for each symbol) with the packages formed by pairing the
+     * items of the deeper level; the lengths are then found by selecting the
+     * 2n - 2 lightest items of the top level (where n is the number of
+     * symbols), and following the selected packages down to the deeper levels.
+     *
+     * @param sortedWeights Weights of the symbols, sorted in ascending order;
+     * there must be at least two symbols.
+     * @param maxLength Maximum codeword length, up to
+     * {@link CanonicalCode#MAX_CODEWORD_LENGTH}; the number of symbols can't be
+     * greater than 2^maxLength.
+     * @return The codeword length of each symbol; element i of this array is
+     * the length for the symbol with weight sortedWeights[i].
+     */
+    public static int[] codewordLengths(long[] sortedWeights, int maxLength) {
+
+        int symbolCount = sortedWeights.length;
+        if (symbolCount < 2) {
+            throw new IllegalArgumentException(
+                    "Argument long[] sortedWeights has to contain at least two weights.");
+        }
+        if (maxLength < 1 || maxLength > CanonicalCode.MAX_CODEWORD_LENGTH
+                || (maxLength < Integer.SIZE - 1 && symbolCount > 1 << maxLength)) {
+            throw new IllegalArgumentException("Argument int maxLength has to be large enough "
+                    + "for " + symbolCount + " symbols, and at most "
+                    + CanonicalCode.MAX_CODEWORD_LENGTH + ".");
+        }
+
+        // isPackage[l][i] tells whether item i of level l is a package or a
+        // leaf; level 0 is the top one, and the deepest level has only leaves
+        boolean[][] isPackage = new boolean[maxLength][];
+        isPackage[maxLength - 1] = new boolean[symbolCount];
+        long[] weights = sortedWeights;
+
+        for (int level = maxLength - 2; level >= 0; level--) {
+            isPackage[level] = new boolean[symbolCount + weights.length / 2];
+            weights = merge(sortedWeights, weights, isPackage[level]);
+        }
+
+        int[] lengths = new int[symbolCount];
+        int selectedCount = 2 * symbolCount - 2;
+        for (int level = 0; selectedCount > 0; level++) {
+            int packageCount = 0;
+            int leaf = 0;
+            for (int i = 0; i < selectedCount; i++) {
+                if (isPackage[level][i]) {
+                    packageCount++;
+                } else {
+                    // leaves appear in ascending order, so the selected ones
+                    // are always the lightest
+                    lengths[leaf++]++;
+                }
+            }
+            // each selected package contains two items of the deeper level
+            selectedCount = 2 * packageCount;
+        }
+
+        return lengths;
+    }
+
+    /**
+     * Merges the leaves with the packages made by pairing consecutive items of
+     * the deeper level (an odd item left over is discarded); ties break in
+     * favor of leaves.
+     *
+     * @param leafWeights Weights of the leaves, sorted in ascending order.
+     * @param deeperWeights Weights of the items of the deeper level, sorted in
+     * ascending order.
+     * @param isPackage Array which will be filled with the type of each item of
+     * the merged list.
+     * @return Weights of the items of the merged list, in ascending order.
+     */
+    private static long[] merge(long[] leafWeights, long[] deeperWeights, boolean[] isPackage) {
+
+        long[] merged = new long[isPackage.length];
+        int leaf = 0;
+        int pair = 0;
+
+        for (int i = 0; i < merged.length; i++) {
+            long packageWeight = pair + 1 < deeperWeights.length
+                    ? deeperWeights[pair] + deeperWeights[pair + 1]
+                    : Long.MAX_VALUE;
+            if (leaf < leafWeights.length && leafWeights[leaf] <= packageWeight) {
+                merged[i] = leafWeights[leaf++];
+            } else {
+                merged[i] = packageWeight;
+                isPackage[i] = true;
+                pair += 2;
+            }
+        }
+
+        return merged;
+    }
+}
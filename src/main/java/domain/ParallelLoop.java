@@ -0,0 +1,56 @@
+package domain;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * A loop whose iterations are independent from each other, and can thus be
+ * executed concurrently on a ForkJoinPool. The range of iterations is split in
+ * halves recursively, until each task is left with a single iteration.
+ */
+public class ParallelLoop extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int fromIndex;
+    private final int toIndex;
+    private final IntConsumer body;
+
+    private ParallelLoop(int fromIndex, int toIndex, IntConsumer body) {
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+        this.body = body;
+    }
+
+    /**
+     * Executes body.accept(i) for each i from fromIndex (inclusive) to toIndex
+     * (exclusive), using the given pool, and returns when all iterations are
+     * completed. The order in which the iterations are executed is not
+     * defined, so each iteration should write only to its own part of any
+     * shared data.
+     *
+     * @param pool The pool which will execute the iterations.
+     * @param fromIndex First iteration index (inclusive).
+     * @param toIndex Last iteration index (exclusive).
+     * @param body The body of the loop, which receives the iteration index.
+     */
+    public static void run(ForkJoinPool pool, int fromIndex, int toIndex, IntConsumer body) {
+        if (toIndex - fromIndex == 1) {
+            body.accept(fromIndex);
+        } else if (toIndex - fromIndex > 1) {
+            pool.invoke(new ParallelLoop(fromIndex, toIndex, body));
+        }
+    }
+
+    @Override
+    protected void compute() {
+        if (toIndex - fromIndex == 1) {
+            body.accept(fromIndex);
+        } else {
+            int middle = (fromIndex + toIndex) >>> 1;
+            invokeAll(new ParallelLoop(fromIndex, middle, body),
+                    new ParallelLoop(middle, toIndex, body));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package domain;
+
+/**
+ * Represents dictionaries of strings of bytes, where each string is
+ * represented by the code of its prefix (the string without its last byte)
+ * and its last byte, like in LZW; keys and values are primitive values, so that looking up a string allocates nothing and
+ * doesn't need to compare whole strings.
+ */
+public interface PrefixDictionary {
+
+    /**
+     * Value returned by {@link #get(int, byte)} when the dictionary contains no
+     * entry for the given key.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Removes all entries from this dictionary.
+     */
+    public void clear();
+
+    /**
+     * Returns the code of the string made up of the string whose code is
+     * prefixCode followed by the given byte, or {@link #NOT_FOUND} if this
+     * dictionary contains no entry for that string.
+     *
+     * @param prefixCode Code of the string without its last byte.
+     * @param lastByte Last byte of the string.
+     * @return The code of the string, or {@link #NOT_FOUND}.
+     */
+    public int get(int prefixCode, byte lastByte);
+
+    /**
+     * Associates the given code with the string made up of the string whose
+     * code is prefixCode followed by the given byte; this dictionary must not
+     * already contain an entry for that string.
+     *
+     * @param prefixCode Code of the string without its last byte.
+     * @param lastByte Last byte of the string.
+     * @param code Non-negative code to be associated with the string.
+     */
+    public void put(int prefixCode, byte lastByte, int code);
+}
@@ -0,0 +1,383 @@
+package domain;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link CompressionAlgorithm} implementation of range asymmetric numeral
+ * systems (rANS), an entropy coder which, unlike Huffman coding, doesn't round
+ * the cost of each byte value to a whole number of bits (for more info see
+ * https://arxiv.org/abs/1311.2540 and
+ * https://github.com/rygorous/ryg_rans ). The whole data is coded with the
+ * same order-0 model: the occurrence counts of the byte values are scaled to
+ * frequencies summing up to {@link #TOTAL_FREQUENCY}, a power of two, so that
+ * the coder never divides when decoding.
+ *
+ * The coder's state is a long between {@link #STATE_LOWER_BOUND} (inclusive)
+ * and 2^32 times that (exclusive); coding a byte value of frequency f
+ * multiplies the state by about TOTAL_FREQUENCY / f, after the lowest 32 bits
+ * of the state have been written out, if needed to keep it in its interval
+ * (like ryg_rans' 64-bit coder): so the decoder reads back at most one int
+ * for each byte, with a single branch. Bytes are
+ * coded from last to first, so that they are decoded from first to last.
+ * Byte i is coded with state i % {@link #STATE_COUNT}, and all the states
+ * share the same stream: while decoding a byte, the processor doesn't have to
+ * wait for the previous one (which belongs to another state), so it can work
+ * on several bytes at the same time. Each byte is decoded with a lookup in a
+ * table with an entry for each of the TOTAL_FREQUENCY values of the lowest
+ * bits of the state, holding the byte value, its frequency and the position
+ * of the value among those of the byte value.
+ *
+ * The compressed data will include (in this order):
+ * - int: length (in bytes) of the original (uncompressed) data;
+ * - 32 bytes: a bit for each byte value (in increasing order, starting from
+ * the most significant bit of the first byte), set if the byte value occurs in
+ * the data;
+ * - for each byte value which occurs in the data, its frequency minus one, in
+ * a single byte if it's less than 128, or else in two bytes, the first one
+ * with its most significant bit set;
+ * - the initial states, a long each;
+ * - the ints written out by the states.
+ */
+public final class RANS extends CompressionAlgorithm {
+
+    /**
+     * Number of bits of {@link #TOTAL_FREQUENCY}; with 12 bits, an entry of
+     * the decoding table fits into an int, and the table into the L1 cache.
+     */
+    public static final int FREQUENCY_BITS = 12;
+    /**
+     * Sum of the frequencies of all byte values.
+     */
+    public static final int TOTAL_FREQUENCY = 1 << FREQUENCY_BITS;
+    /**
+     * Lower bound of the states (inclusive); states are less than 2^32 times
+     * this, so that they are always positive.
+     */
+    public static final long STATE_LOWER_BOUND = 1L << 31;
+    /**
+     * Number of interleaved states.
+     */
+    public static final int STATE_COUNT = 4;
+
+    /**
+     * The file extension used for files compressed using this class.
+     */
+    private static final String COMPRESSED_FILE_EXTENSION = ".rans";
+    /**
+     * Short name for this algorithm (used in TUI).
+     */
+    private static final String NAME = "rans";
+    /**
+     * Longer name for this algorithm (used in TUI).
+     */
+    private static final String DESCRIPTION = "order-0 rANS coding with "
+            + STATE_COUNT + " interleaved states";
+
+    private static final int FREQUENCY_MASK = TOTAL_FREQUENCY - 1;
+    private static final int SHORT_FREQUENCY_LIMIT = 0x80;
+    private static final int BITMAP_LENGTH = Utils.POSSIBLE_BYTE_VALUES_COUNT / Byte.SIZE;
+    private static final long INT_MASK = 0xFFFFFFFFL;
+
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the length of the original data (in bytes) will be written.
+     */
+    private static final int OFFSET_ORIG_DATA_LENGTH = 0;
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the frequencies will be written.
+     */
+    private static final int OFFSET_FREQUENCIES = OFFSET_ORIG_DATA_LENGTH + Integer.BYTES;
+
+    /**
+     * Compresses the given data.
+     *
+     * @param originalData The data to be compressed.
+     * @return A bit sequence corresponding to the compressed data.
+     */
+    @Override
+    public BitSequence compressData(byte[] originalData) {
+
+        int[] frequencies = normalizedFrequencies(
+                ByteHistogram.count(originalData, 0, originalData.length));
+        byte[] header = new byte[OFFSET_FREQUENCIES + BITMAP_LENGTH
+                + 2 * Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        Utils.insertInt(originalData.length, header, OFFSET_ORIG_DATA_LENGTH);
+        int headerLength = writeFrequencies(frequencies, header, OFFSET_FREQUENCIES);
+
+        // a byte never takes more than FREQUENCY_BITS bits
+        byte[] stream = new byte[originalData.length + (originalData.length >>> 1)
+                + STATE_COUNT * (Long.BYTES + Integer.BYTES)];
+        int streamStart = encode(originalData, frequencies, ByteBuffer.wrap(stream));
+
+        byte[] compressedData = new byte[headerLength + stream.length - streamStart];
+        Utils.arrayCopy(header, 0, compressedData, 0, headerLength);
+        Utils.arrayCopy(stream, streamStart, compressedData, headerLength,
+                stream.length - streamStart);
+        return new BitSequence(compressedData, 0, compressedData.length - 1);
+    }
+
+    /**
+     * Scales the given occurrence counts to frequencies summing up to
+     * {@link #TOTAL_FREQUENCY}, each byte value which occurs getting a
+     * frequency of at least one. Frequencies are first rounded to the nearest
+     * integer, and then changed one at a time, each time where it costs the
+     * fewest bits, until they sum up to TOTAL_FREQUENCY.
+     *
+     * @param counts Occurrence counts for each possible byte value.
+     * @return The frequency of each byte value, or only zeros if all counts are
+     * zero.
+     */
+    public static int[] normalizedFrequencies(long[] counts) {
+
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        int[] frequencies = new int[counts.length];
+        if (total == 0) {
+            return frequencies;
+        }
+        int sum = 0;
+        for (int b = 0; b < counts.length; b++) {
+            if (counts[b] > 0) {
+                frequencies[b] = (int) Math.max(1,
+                        (counts[b] * TOTAL_FREQUENCY + total / 2) / total);
+                sum += frequencies[b];
+            }
+        }
+        for (; sum < TOTAL_FREQUENCY; sum++) {
+            frequencies[cheapestChange(counts, frequencies, 1)]++;
+        }
+        for (; sum > TOTAL_FREQUENCY; sum--) {
+            frequencies[cheapestChange(counts, frequencies, -1)]--;
+        }
+        return frequencies;
+    }
+
+    /**
+     * Returns the byte value whose frequency can be changed by the given
+     * amount with the smallest increase (or the largest decrease) of the
+     * length of the coded data; frequencies of byte values which occur stay
+     * positive.
+     */
+    private static int cheapestChange(long[] counts, int[] frequencies, int change) {
+        int cheapest = -1;
+        double cheapestCost = Double.POSITIVE_INFINITY;
+        for (int b = 0; b < counts.length; b++) {
+            int frequency = frequencies[b] + change;
+            if (counts[b] == 0 || frequency == 0) {
+                continue;
+            }
+            double cost = counts[b] * Math.log((double) frequencies[b] / frequency);
+            if (cost < cheapestCost) {
+                cheapest = b;
+                cheapestCost = cost;
+            }
+        }
+        return cheapest;
+    }
+
+    /**
+     * Writes the given frequencies into the given array.
+     *
+     * @return The index of the array right after the frequencies.
+     */
+    private static int writeFrequencies(int[] frequencies, byte[] bytes, int offset) {
+        int index = offset + BITMAP_LENGTH;
+        for (int b = 0; b < frequencies.length; b++) {
+            if (frequencies[b] == 0) {
+                continue;
+            }
+            bytes[offset + b / Byte.SIZE] |= 0x80 >>> (b % Byte.SIZE);
+            int value = frequencies[b] - 1;
+            if (value >= SHORT_FREQUENCY_LIMIT) {
+                bytes[index++] = (byte) (SHORT_FREQUENCY_LIMIT | value >>> Byte.SIZE);
+            }
+            bytes[index++] = (byte) value;
+        }
+        return index;
+    }
+
+    /**
+     * Reads the frequencies written by
+     * {@link #writeFrequencies(int[], byte[], int)} into the given array.
+     *
+     * @return The index of the array right after the frequencies.
+     */
+    private static int readFrequencies(byte[] bytes, int offset, int[] frequencies) {
+        int index = offset + BITMAP_LENGTH;
+        int sum = 0;
+        for (int b = 0; b < frequencies.length; b++) {
+            if ((bytes[offset + b / Byte.SIZE] & 0x80 >>> (b % Byte.SIZE)) == 0) {
+                continue;
+            }
+            int value = Byte.toUnsignedInt(bytes[index++]);
+            if (value >= SHORT_FREQUENCY_LIMIT) {
+                value = (value - SHORT_FREQUENCY_LIMIT) << Byte.SIZE
+                        | Byte.toUnsignedInt(bytes[index++]);
+            }
+            frequencies[b] = value + 1;
+            sum += frequencies[b];
+        }
+        if (sum != TOTAL_FREQUENCY) {
+            throw new IllegalArgumentException("The compressed data contains frequencies "
+                    + "which don't sum up to " + TOTAL_FREQUENCY + ".");
+        }
+        return index;
+    }
+
+    /**
+     * Codes the given data with the given frequencies, writing the stream at
+     * the end of the given buffer, backwards.
+     *
+     * @return The index of the buffer where the stream starts.
+     */
+    private static int encode(byte[] data, int[] frequencies, ByteBuffer stream) {
+
+        int[] starts = new int[frequencies.length];
+        for (int b = 1; b < frequencies.length; b++) {
+            starts[b] = starts[b - 1] + frequencies[b - 1];
+        }
+        long[] states = new long[STATE_COUNT];
+        for (int s = 0; s < STATE_COUNT; s++) {
+            states[s] = STATE_LOWER_BOUND;
+        }
+        int index = stream.capacity();
+        for (int i = data.length - 1; i >= 0; i--) {
+            int b = Byte.toUnsignedInt(data[i]);
+            int frequency = frequencies[b];
+            long state = states[i % STATE_COUNT];
+            // write out the lowest bits, if coding would take the state beyond
+            // its upper bound
+            if (state >>> (Long.SIZE - 1 - FREQUENCY_BITS) >= frequency) {
+                index -= Integer.BYTES;
+                stream.putInt(index, (int) state);
+                state >>>= Integer.SIZE;
+            }
+            long quotient = state / frequency;
+            states[i % STATE_COUNT] = (quotient << FREQUENCY_BITS) + state - quotient * frequency
+                    + starts[b];
+        }
+        for (int s = STATE_COUNT - 1; s >= 0; s--) {
+            index -= Long.BYTES;
+            stream.putLong(index, states[s]);
+        }
+        return index;
+    }
+
+    /**
+     * Decompresses the given compressed data, decoding a byte with each of
+     * the states in turn.
+     *
+     * @param compressedData The compressed data to be decompressed.
+     * @return The original, uncompressed data.
+     */
+    @Override
+    public byte[] decompressData(byte[] compressedData) {
+
+        byte[] originalData = new byte[Utils.extractInt(compressedData, OFFSET_ORIG_DATA_LENGTH)];
+        if (originalData.length == 0) {
+            return originalData;
+        }
+        int[] frequencies = new int[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        int index = readFrequencies(compressedData, OFFSET_FREQUENCIES, frequencies);
+        decode(ByteBuffer.wrap(compressedData), index, decodingTable(frequencies), originalData);
+        return originalData;
+    }
+
+    /**
+     * Decodes the given stream into the given array, with a lookup in the
+     * given decoding table for each byte. Each state is read back into its
+     * interval with at most one int, so the four states are updated with a
+     * branch each.
+     */
+    private static void decode(ByteBuffer stream, int index, int[] table, byte[] originalData) {
+
+        long x0 = stream.getLong(index);
+        long x1 = stream.getLong(index + Long.BYTES);
+        long x2 = stream.getLong(index + 2 * Long.BYTES);
+        long x3 = stream.getLong(index + 3 * Long.BYTES);
+        index += STATE_COUNT * Long.BYTES;
+
+        int i = 0;
+        for (int end = originalData.length - STATE_COUNT; i <= end; i += STATE_COUNT) {
+            int e0 = table[(int) x0 & FREQUENCY_MASK];
+            int e1 = table[(int) x1 & FREQUENCY_MASK];
+            int e2 = table[(int) x2 & FREQUENCY_MASK];
+            int e3 = table[(int) x3 & FREQUENCY_MASK];
+            originalData[i] = (byte) e0;
+            originalData[i + 1] = (byte) e1;
+            originalData[i + 2] = (byte) e2;
+            originalData[i + 3] = (byte) e3;
+            x0 = previousState(x0, e0);
+            x1 = previousState(x1, e1);
+            x2 = previousState(x2, e2);
+            x3 = previousState(x3, e3);
+            if (x0 < STATE_LOWER_BOUND) {
+                x0 = x0 << Integer.SIZE | stream.getInt(index) & INT_MASK;
+                index += Integer.BYTES;
+            }
+            if (x1 < STATE_LOWER_BOUND) {
+                x1 = x1 << Integer.SIZE | stream.getInt(index) & INT_MASK;
+                index += Integer.BYTES;
+            }
+            if (x2 < STATE_LOWER_BOUND) {
+                x2 = x2 << Integer.SIZE | stream.getInt(index) & INT_MASK;
+                index += Integer.BYTES;
+            }
+            if (x3 < STATE_LOWER_BOUND) {
+                x3 = x3 << Integer.SIZE | stream.getInt(index) & INT_MASK;
+                index += Integer.BYTES;
+            }
+        }
+        // the last bytes (fewer than STATE_COUNT) read nothing more
+        long[] states = {x0, x1, x2};
+        for (int s = 0; i < originalData.length; i++, s++) {
+            originalData[i] = (byte) table[(int) states[s] & FREQUENCY_MASK];
+        }
+    }
+
+    /**
+     * Returns the state before the byte value of the given entry of the
+     * decoding table was coded (without the bits written out).
+     */
+    private static long previousState(long state, int entry) {
+        return ((entry >>> Byte.SIZE & FREQUENCY_MASK) + 1) * (state >>> FREQUENCY_BITS)
+                + (entry >>> (Byte.SIZE + FREQUENCY_BITS));
+    }
+
+    /**
+     * Returns the decoding table: for each value of the lowest bits of the
+     * state, an int containing the byte value (8 least significant bits), its
+     * frequency minus one (next {@link #FREQUENCY_BITS} bits) and the
+     * position of the value among those of the byte value (most significant
+     * bits).
+     */
+    private static int[] decodingTable(int[] frequencies) {
+        int[] table = new int[TOTAL_FREQUENCY];
+        int slot = 0;
+        for (int b = 0; b < frequencies.length; b++) {
+            for (int position = 0; position < frequencies[b]; position++) {
+                table[slot++] = b | (frequencies[b] - 1) << Byte.SIZE
+                        | position << (Byte.SIZE + FREQUENCY_BITS);
+            }
+        }
+        return table;
+    }
+
+    @Override
+    public String getExtension() {
+        return COMPRESSED_FILE_EXTENSION;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return DESCRIPTION;
+    }
+}
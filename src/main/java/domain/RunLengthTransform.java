@@ -0,0 +1,86 @@
+package domain;
+
+/**
+ * A {@link Transform} which shortens runs of the same byte, like the first
+ * stage of bzip2: after {@link #MIN_RUN_LENGTH} equal bytes, a count byte
+ * tells how many more times (up to 255) the byte repeats. Shorter runs are
+ * copied as they are, so a block is at most a quarter longer after the
+ * transform.
+ */
+public final class RunLengthTransform implements Transform {
+
+    /**
+     * Number of equal bytes which are followed by a count byte.
+     */
+    public static final int MIN_RUN_LENGTH = 4;
+    /**
+     * Maximum length of a run written with a single count byte.
+     */
+    public static final int MAX_RUN_LENGTH = MIN_RUN_LENGTH + 255;
+
+    public static final String NAME = "rle";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int maxTransformedLength(int length) {
+        return length + length / MIN_RUN_LENGTH;
+    }
+
+    @Override
+    public int forward(byte[] src, int srcFrom, int length, byte[] dest, int destFrom) {
+        int end = srcFrom + length;
+        int j = destFrom;
+        int i = srcFrom;
+        while (i < end) {
+            byte b = src[i];
+            int run = 1;
+            while (i + run < end && src[i + run] == b && run < MAX_RUN_LENGTH) {
+                run++;
+            }
+            for (int k = 0; k < Math.min(run, MIN_RUN_LENGTH); k++) {
+                dest[j++] = b;
+            }
+            if (run >= MIN_RUN_LENGTH) {
+                dest[j++] = (byte) (run - MIN_RUN_LENGTH);
+            }
+            i += run;
+        }
+        return j - destFrom;
+    }
+
+    @Override
+    public int inverse(byte[] src, int srcFrom, int length, byte[] dest, int destFrom,
+            int maxLength) {
+        int end = destFrom + maxLength;
+        int j = destFrom;
+        int run = 0;
+        for (int i = srcFrom; i < srcFrom + length; i++) {
+            byte b = src[i];
+            if (run == MIN_RUN_LENGTH) {
+                int count = Byte.toUnsignedInt(b);
+                if (count > end - j) {
+                    throw tooLong(maxLength);
+                }
+                Utils.fill(dest, j, j + count, dest[j - 1]);
+                j += count;
+                run = 0;
+                continue;
+            }
+            if (j == end) {
+                throw tooLong(maxLength);
+            }
+            run = run > 0 && dest[j - 1] == b ? run + 1 : 1;
+            dest[j++] = b;
+        }
+        return j - destFrom;
+    }
+
+    private static IllegalArgumentException tooLong(int maxLength) {
+        return new IllegalArgumentException("The transformed block is restored to more than "
+                + maxLength + " bytes.");
+    }
+}
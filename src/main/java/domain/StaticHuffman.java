@@ -0,0 +1,123 @@
+package domain;
+
+/**
+ * A {@link CompressionAlgorithm} implementation which uses a canonical Huffman
+ * code trained in advance (see {@link StaticHuffmanTable}) instead of
+ * computing a new code for each input. The compressed data doesn't contain any
+ * tree representation, and compression doesn't need to count byte
+ * occurrences, which makes this algorithm suitable for many small inputs
+ * (similar to the samples the table was trained with). The compressed data
+ * will include (in this order):
+ * - int: length (in bytes) of the original (uncompressed) data;
+ * - int: id of the table used for compression;
+ * - compressed representation of the original data.
+ */
+public final class StaticHuffman extends CompressionAlgorithm {
+
+    /**
+     * Offset (in bytes) from the beginning of compressed data, indicating
+     * where the length of the original data (in bytes) will be written.
+     */
+    private static final int OFFSET_ORIG_DATA_LENGTH = 0;
+    /**
+     * Offset (in bytes) from the beginning of compressed data, indicating
+     * where the id of the table used for compression will be written.
+     */
+    private static final int OFFSET_TABLE_ID = OFFSET_ORIG_DATA_LENGTH + Integer.BYTES;
+    /**
+     * Offset (in bytes) from the beginning of compressed data, indicating
+     * where the actual compressed data will be written.
+     */
+    private static final int OFFSET_DATA = OFFSET_TABLE_ID + Integer.BYTES;
+
+    /**
+     * The file extension used for files compressed using this class.
+     */
+    private static final String COMPRESSED_FILE_EXTENSION = ".shuff";
+    /**
+     * Short name for this algorithm (used in TUI).
+     */
+    private static final String NAME = "shuffman";
+
+    private final StaticHuffmanTable table;
+    /**
+     * Longer name for this algorithm (used in TUI).
+     */
+    private final String description;
+
+    /**
+     * Returns an instance of StaticHuffman which will use the given table.
+     *
+     * @param table The table used for compression and decompression.
+     */
+    public StaticHuffman(StaticHuffmanTable table) {
+        this.table = table;
+        description = "canonical Huffman coding with static table " + table.getId();
+    }
+
+    /**
+     * Compresses the given data using the static table. Since the compressed
+     * length isn't computed in advance (that would need a pass over the data),
+     * the output array is allocated for the worst case, in which each byte gets
+     * a codeword of {@link StaticHuffmanTable#MAX_CW_LENGTH} bits.
+     *
+     * @param originalData The data to be compressed.
+     * @return A bit sequence corresponding to the compressed data.
+     */
+    @Override
+    public BitSequence compressData(byte[] originalData) {
+
+        long maxLengthInBits = (long) Byte.SIZE * OFFSET_DATA
+                + (long) StaticHuffmanTable.MAX_CW_LENGTH * originalData.length;
+        byte[] bits = new byte[(int) ((maxLengthInBits + Byte.SIZE - 1) / Byte.SIZE)];
+        Utils.insertInt(originalData.length, bits, OFFSET_ORIG_DATA_LENGTH);
+        Utils.insertInt(table.getId(), bits, OFFSET_TABLE_ID);
+
+        BitWriter writer = new BitWriter(bits, (long) Byte.SIZE * OFFSET_DATA);
+        table.getEncoder().encode(originalData, 0, originalData.length, writer);
+        writer.flush();
+
+        return writer.toBitSequence();
+    }
+
+    /**
+     * Decompresses the given compressed data using the static table, which
+     * must be the same table used for compression.
+     *
+     * @param compressedData The compressed data to be decompressed.
+     * @return The original, uncompressed data.
+     */
+    @Override
+    public byte[] decompressData(byte[] compressedData) {
+
+        int tableId = Utils.extractInt(compressedData, OFFSET_TABLE_ID);
+        if (tableId != table.getId()) {
+            throw new IllegalArgumentException("Argument byte[] compressedData has to be "
+                    + "compressed with table " + table.getId() + " (it uses table " + tableId + ").");
+        }
+
+        byte[] originalData = new byte[Utils.extractInt(compressedData, OFFSET_ORIG_DATA_LENGTH)];
+        table.getDecoder().decode(new BitReader(compressedData, OFFSET_DATA),
+                originalData, 0, originalData.length);
+        return originalData;
+    }
+
+    public StaticHuffmanTable getTable() {
+        return table;
+    }
+
+    @Override
+    public String getExtension() {
+        return COMPRESSED_FILE_EXTENSION;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+}
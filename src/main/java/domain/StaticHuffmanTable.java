@@ -0,0 +1,217 @@
+package domain;
+
+import io.FileUtils;
+import java.nio.file.Path;
+
+/**
+ * A canonical Huffman code trained in advance from a sample corpus, which can
+ * be saved to (and loaded from) a table file, and used by
+ * {@link StaticHuffman} to compress many small inputs without storing a tree
+ * representation in each of them. Each table has an id, which is written into
+ * the compressed data, so that data can't be decompressed with the wrong
+ * table by mistake. The encoding and decoding tables are built once, when the
+ * table is created, and they are never modified afterwards, so the same
+ * instance can be used by several threads at the same time.
+ *
+ * A table file contains (in this order):
+ * - int: table id;
+ * - unsigned bytes: codeword length of each possible byte value.
+ */
+public class StaticHuffmanTable {
+
+    /**
+     * Maximum codeword length of trained tables; since every byte value has a
+     * codeword (even those which never occur in the sample corpus), this
+     * limits how much data containing unexpected byte values can grow.
+     */
+    public static final int MAX_CW_LENGTH = 15;
+
+    /**
+     * Offset (in bytes) from the beginning of table files, indicating where
+     * the table id will be written.
+     */
+    private static final int OFFSET_ID = 0;
+    /**
+     * Offset (in bytes) from the beginning of table files, indicating where
+     * the codeword lengths will be written.
+     */
+    private static final int OFFSET_CW_LENGTHS = OFFSET_ID + Integer.BYTES;
+    /**
+     * Length (in bytes) of table files.
+     */
+    private static final int TABLE_FILE_LENGTH =
+            OFFSET_CW_LENGTHS + Utils.POSSIBLE_BYTE_VALUES_COUNT;
+
+    private final int id;
+    /**
+     * Codeword length of each byte value, indexed by unsigned byte value.
+     */
+    private final int[] codewordLengths;
+    private final HuffmanEncoder encoder;
+    private final HuffmanDecoder decoder;
+
+    /**
+     * Returns an instance of StaticHuffmanTable with the given id and codeword
+     * lengths.
+     *
+     * @param id Id of the table.
+     * @param codewordLengths Codeword length of each byte value, indexed by
+     * unsigned byte value; every byte value must have a codeword of at most
+     * {@link #MAX_CW_LENGTH} bits (which {@link StaticHuffman} relies on for
+     * sizing its output), and codeword lengths must describe a complete prefix
+     * code (like the lengths computed by {@link HuffmanCodeLengths}).
+     */
+    public StaticHuffmanTable(int id, int[] codewordLengths) {
+
+        if (codewordLengths.length != Utils.POSSIBLE_BYTE_VALUES_COUNT) {
+            throw new IllegalArgumentException("Argument int[] codewordLengths has to contain "
+                    + Utils.POSSIBLE_BYTE_VALUES_COUNT + " lengths.");
+        }
+        for (int length : codewordLengths) {
+            if (length < 1 || length > MAX_CW_LENGTH) {
+                throw new IllegalArgumentException("Argument int[] codewordLengths has to "
+                        + "contain lengths between 1 and " + MAX_CW_LENGTH + " (both inclusive).");
+            }
+        }
+        if (!isComplete(codewordLengths)) {
+            throw new IllegalArgumentException("Argument int[] codewordLengths has to describe "
+                    + "a complete prefix code (the sum of 2^-length has to be exactly 1).");
+        }
+
+        this.id = id;
+        this.codewordLengths = codewordLengths;
+        CanonicalCode code = new TreeRepresentation(codewordLengths).buildCanonicalCode();
+        encoder = new HuffmanEncoder(code, Utils.POSSIBLE_BYTE_VALUES_COUNT);
+        decoder = new HuffmanDecoder(code);
+    }
+
+    /**
+     * Tells whether the given codeword lengths satisfy the Kraft equality, so
+     * that the sum of 2^-length over all codewords is exactly 1. Instead of
+     * summing fractions, it counts how many codewords of each length are left
+     * unused by the shorter ones: this count must never be negative (the code
+     * would be oversubscribed), and must be zero after the longest length.
+     *
+     * @param codewordLengths Codeword lengths, each one between 1 and
+     * {@link #MAX_CW_LENGTH} (both inclusive).
+     * @return True if the lengths describe a complete prefix code.
+     */
+    private static boolean isComplete(int[] codewordLengths) {
+
+        int[] lengthCounts = new int[MAX_CW_LENGTH + 1];
+        for (int length : codewordLengths) {
+            lengthCounts[length]++;
+        }
+
+        // more unused codewords than symbols could never be filled, so the
+        // count can't overflow
+        long unused = 1;
+        for (int l = 1; l < lengthCounts.length && unused >= 0
+                && unused <= codewordLengths.length; l++) {
+            unused = 2 * unused - lengthCounts[l];
+        }
+        return unused == 0;
+    }
+
+    /**
+     * Trains a table from the given samples. Each byte value's count is
+     * increased by one (additive smoothing), so that also byte values which
+     * don't occur in the samples get a codeword.
+     *
+     * @param id Id of the trained table.
+     * @param samples Sample data, which should be representative of the data
+     * that will be compressed with the trained table.
+     * @return The trained table.
+     */
+    public static StaticHuffmanTable train(int id, byte[]... samples) {
+
+        long[][] histograms = new long[samples.length][];
+        for (int i = 0; i < samples.length; i++) {
+            histograms[i] = ByteHistogram.count(samples[i], 0, samples[i].length);
+        }
+
+        long[] byteCounts = ByteHistogram.merge(histograms);
+        for (int byteValue = 0; byteValue < byteCounts.length; byteValue++) {
+            byteCounts[byteValue]++;
+        }
+
+        return new StaticHuffmanTable(id, HuffmanCodeLengths.compute(byteCounts, MAX_CW_LENGTH));
+    }
+
+    /**
+     * Returns the content of a table file for this table.
+     *
+     * @return A byte array containing the table file.
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[TABLE_FILE_LENGTH];
+        Utils.insertInt(id, bytes, OFFSET_ID);
+        for (int byteValue = 0; byteValue < codewordLengths.length; byteValue++) {
+            bytes[OFFSET_CW_LENGTHS + byteValue] = (byte) codewordLengths[byteValue];
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the table contained in the given table file.
+     *
+     * @param bytes Content of a table file (see {@link #toBytes()}).
+     * @return The table contained in the given table file.
+     */
+    public static StaticHuffmanTable fromBytes(byte[] bytes) {
+
+        if (bytes.length != TABLE_FILE_LENGTH) {
+            throw new IllegalArgumentException("Argument byte[] bytes has to be "
+                    + TABLE_FILE_LENGTH + " bytes long.");
+        }
+
+        int[] codewordLengths = new int[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        for (int byteValue = 0; byteValue < codewordLengths.length; byteValue++) {
+            codewordLengths[byteValue] = Byte.toUnsignedInt(bytes[OFFSET_CW_LENGTHS + byteValue]);
+        }
+        return new StaticHuffmanTable(Utils.extractInt(bytes, OFFSET_ID), codewordLengths);
+    }
+
+    /**
+     * Saves this table into a table file at the given path.
+     *
+     * @param path Path of the table file to be written.
+     * @return True if the writing operation was successful, false otherwise.
+     */
+    public boolean save(Path path) {
+        return FileUtils.writeFile(path, toBytes());
+    }
+
+    /**
+     * Loads the table contained in the table file at the given path.
+     *
+     * @param path Path of the table file to be read.
+     * @return The loaded table, or null if the file couldn't be read.
+     */
+    public static StaticHuffmanTable load(Path path) {
+        byte[] bytes = FileUtils.readFile(path);
+        return bytes == null ? null : fromBytes(bytes);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the length of the codeword of the given byte value.
+     *
+     * @param byteValue A byte value (interpreted as unsigned).
+     * @return Length of the codeword of the given byte value.
+     */
+    public int getCodewordLength(int byteValue) {
+        return codewordLengths[byteValue];
+    }
+
+    public HuffmanEncoder getEncoder() {
+        return encoder;
+    }
+
+    public HuffmanDecoder getDecoder() {
+        return decoder;
+    }
+}
@@ -0,0 +1,238 @@
+package domain;
+
+/**
+ * Builds suffix arrays in linear time with SA-IS, the induced sorting
+ * algorithm by Nong, Zhang and Chan (for more info see
+ * https://doi.org/10.1109/DCC.2009.42 ). Each suffix is either S-type (smaller
+ * than the next suffix) or L-type (larger); the leftmost S-type suffixes of
+ * each run (LMS suffixes) are sorted first, by recursively sorting a shorter
+ * string made of the names of the substrings between them, and the order of
+ * all the other suffixes is then induced from theirs with two passes over the
+ * array, one for L-type and one for S-type suffixes.
+ *
+ * The string is made of ints from 0 to alphabetSize - 1, and it has to end
+ * with a sentinel: a single 0, smaller than all the other characters.
+ */
+public class SuffixArray {
+
+    /**
+     * Value of the suffix array's elements which haven't been set yet.
+     */
+    private static final int EMPTY = -1;
+
+    /**
+     * Returns the suffix array of the given range of the given data, followed
+     * by a sentinel smaller than any byte; its first element is always the
+     * position of the sentinel (the length of the range).
+     *
+     * @param data The data whose suffixes will be sorted.
+     * @param fromIndex Index of the first byte of the range (inclusive).
+     * @param toIndex Index of the last byte of the range (exclusive).
+     * @return The starting positions (relative to fromIndex) of the suffixes
+     * of the range, in lexicographic order.
+     */
+    public static int[] ofBytes(byte[] data, int fromIndex, int toIndex) {
+        int n = toIndex - fromIndex;
+        int[] string = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            string[i] = Byte.toUnsignedInt(data[fromIndex + i]) + 1;
+        }
+        int[] suffixArray = new int[n + 1];
+        build(string, suffixArray, n + 1, Utils.POSSIBLE_BYTE_VALUES_COUNT + 1);
+        return suffixArray;
+    }
+
+    /**
+     * Builds the suffix array of the given string.
+     *
+     * @param string The string, ending with a sentinel (a single 0).
+     * @param suffixArray The array where the suffix array will be written.
+     * @param n Length of the string (including the sentinel).
+     * @param alphabetSize Number of possible characters (characters are
+     * between 0 and alphabetSize - 1, both inclusive).
+     */
+    static void build(int[] string, int[] suffixArray, int n, int alphabetSize) {
+        if (n == 1) {
+            suffixArray[0] = 0;
+            return;
+        }
+        boolean[] sType = types(string, n);
+        int[] buckets = new int[alphabetSize];
+
+        // sort the LMS substrings, putting the LMS suffixes at the ends of
+        // their buckets in any order, and inducing the others
+        bucketEnds(string, n, buckets);
+        fill(suffixArray, 0, n, EMPTY);
+        for (int i = 1; i < n; i++) {
+            if (isLMS(sType, i)) {
+                suffixArray[--buckets[string[i]]] = i;
+            }
+        }
+        induce(string, suffixArray, n, sType, buckets);
+
+        int lmsCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (isLMS(sType, suffixArray[i])) {
+                suffixArray[lmsCount++] = suffixArray[i];
+            }
+        }
+        int[] reducedString = new int[lmsCount];
+        int nameCount = nameLMSSubstrings(string, suffixArray, n, sType, lmsCount,
+                reducedString);
+
+        // sort the LMS suffixes by the names of their substrings, recursively
+        // if some names are the same
+        int[] reducedSuffixArray = new int[lmsCount];
+        if (nameCount < lmsCount) {
+            build(reducedString, reducedSuffixArray, lmsCount, nameCount);
+        } else {
+            for (int i = 0; i < lmsCount; i++) {
+                reducedSuffixArray[reducedString[i]] = i;
+            }
+        }
+
+        placeSortedLMSSuffixes(string, suffixArray, n, sType, buckets, reducedSuffixArray);
+        induce(string, suffixArray, n, sType, buckets);
+    }
+
+    /**
+     * Returns the type of each suffix (true for S-type); the sentinel is
+     * S-type, and the suffix before it L-type.
+     */
+    private static boolean[] types(int[] string, int n) {
+        boolean[] sType = new boolean[n];
+        sType[n - 1] = true;
+        for (int i = n - 2; i >= 0; i--) {
+            sType[i] = string[i] < string[i + 1] || string[i] == string[i + 1] && sType[i + 1];
+        }
+        return sType;
+    }
+
+    private static boolean isLMS(boolean[] sType, int i) {
+        return i > 0 && sType[i] && !sType[i - 1];
+    }
+
+    /**
+     * Gives each sorted LMS substring (at the beginning of suffixArray) a name,
+     * the same for equal substrings, and writes the names into the reduced
+     * string in the order of the substrings in the string.
+     *
+     * @return The number of different names.
+     */
+    private static int nameLMSSubstrings(int[] string, int[] suffixArray, int n,
+            boolean[] sType, int lmsCount, int[] reducedString) {
+
+        // the name of the substring starting at i goes to lmsCount + i / 2,
+        // since LMS positions are at least 2 apart
+        fill(suffixArray, lmsCount, n, EMPTY);
+        int name = 0;
+        int previous = EMPTY;
+        for (int i = 0; i < lmsCount; i++) {
+            int position = suffixArray[i];
+            if (previous == EMPTY
+                    || !sameLMSSubstring(string, sType, n, previous, position)) {
+                name++;
+                previous = position;
+            }
+            suffixArray[lmsCount + position / 2] = name - 1;
+        }
+        int j = 0;
+        for (int i = lmsCount; i < n; i++) {
+            if (suffixArray[i] != EMPTY) {
+                reducedString[j++] = suffixArray[i];
+            }
+        }
+        return name;
+    }
+
+    private static boolean sameLMSSubstring(int[] string, boolean[] sType, int n, int a,
+            int b) {
+        for (int d = 0; a + d < n && b + d < n; d++) {
+            if (string[a + d] != string[b + d] || sType[a + d] != sType[b + d]) {
+                return false;
+            }
+            if (d > 0 && (isLMS(sType, a + d) || isLMS(sType, b + d))) {
+                return isLMS(sType, a + d) && isLMS(sType, b + d);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Puts the LMS suffixes, in the order given by the reduced suffix array,
+     * at the ends of their buckets, emptying the rest of the suffix array.
+     */
+    private static void placeSortedLMSSuffixes(int[] string, int[] suffixArray, int n,
+            boolean[] sType, int[] buckets, int[] reducedSuffixArray) {
+
+        int lmsCount = reducedSuffixArray.length;
+        int[] lmsPositions = new int[lmsCount];
+        int j = 0;
+        for (int i = 1; i < n; i++) {
+            if (isLMS(sType, i)) {
+                lmsPositions[j++] = i;
+            }
+        }
+        fill(suffixArray, 0, n, EMPTY);
+        bucketEnds(string, n, buckets);
+        for (int i = lmsCount - 1; i >= 0; i--) {
+            int position = lmsPositions[reducedSuffixArray[i]];
+            suffixArray[--buckets[string[position]]] = position;
+        }
+    }
+
+    /**
+     * Induces the order of the L-type suffixes from left to right, and then
+     * that of the S-type suffixes from right to left.
+     */
+    private static void induce(int[] string, int[] suffixArray, int n, boolean[] sType,
+            int[] buckets) {
+
+        bucketStarts(string, n, buckets);
+        for (int i = 0; i < n; i++) {
+            int j = suffixArray[i] - 1;
+            if (j >= 0 && !sType[j]) {
+                suffixArray[buckets[string[j]]++] = j;
+            }
+        }
+        bucketEnds(string, n, buckets);
+        for (int i = n - 1; i >= 0; i--) {
+            int j = suffixArray[i] - 1;
+            if (j >= 0 && sType[j]) {
+                suffixArray[--buckets[string[j]]] = j;
+            }
+        }
+    }
+
+    private static void bucketStarts(int[] string, int n, int[] buckets) {
+        countCharacters(string, n, buckets);
+        int sum = 0;
+        for (int c = 0; c < buckets.length; c++) {
+            int count = buckets[c];
+            buckets[c] = sum;
+            sum += count;
+        }
+    }
+
+    private static void bucketEnds(int[] string, int n, int[] buckets) {
+        countCharacters(string, n, buckets);
+        int sum = 0;
+        for (int c = 0; c < buckets.length; c++) {
+            sum += buckets[c];
+            buckets[c] = sum;
+        }
+    }
+
+    private static void countCharacters(int[] string, int n, int[] buckets) {
+        fill(buckets, 0, buckets.length, 0);
+        for (int i = 0; i < n; i++) {
+            buckets[string[i]]++;
+        }
+    }
+
+    private static void fill(int[] a, int fromIndex, int toIndex, int value) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            a[i] = value;
+        }
+    }
+}
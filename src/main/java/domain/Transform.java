@@ -0,0 +1,57 @@
+package domain;
+
+/**
+ * A reversible transform of blocks of bytes, which doesn't compress anything
+ * by itself but makes the data easier to compress for the coder which follows
+ * it; it's one of the stages of a {@link TransformPipeline}. Each block is
+ * transformed independently from the others, so a transform keeps no state
+ * between calls.
+ */
+public interface Transform {
+
+    /**
+     * Returns the name of the transform, which identifies it (with its
+     * parameters) in the name of a {@link TransformPipeline}.
+     *
+     * @return The name of the transform (for example "delta2").
+     */
+    public String getName();
+
+    /**
+     * Returns the maximum length of a transformed block.
+     *
+     * @param length Length of the block before the transform.
+     * @return Maximum length of the block after the transform.
+     */
+    public int maxTransformedLength(int length);
+
+    /**
+     * Transforms the given block.
+     *
+     * @param src Array containing the block.
+     * @param srcFrom Index of the first byte of the block.
+     * @param length Length of the block.
+     * @param dest Array into which the transformed block will be written; it
+     * must have room for {@link #maxTransformedLength(int)} bytes after
+     * destFrom.
+     * @param destFrom Index of dest where the transformed block will start.
+     * @return Length of the transformed block.
+     */
+    public int forward(byte[] src, int srcFrom, int length, byte[] dest, int destFrom);
+
+    /**
+     * Restores the given transformed block.
+     *
+     * @param src Array containing the transformed block.
+     * @param srcFrom Index of the first byte of the transformed block.
+     * @param length Length of the transformed block.
+     * @param dest Array into which the restored block will be written.
+     * @param destFrom Index of dest where the restored block will start.
+     * @param maxLength Maximum length of the restored block.
+     * @return Length of the restored block.
+     * @throws IllegalArgumentException If the restored block would be longer
+     * than maxLength.
+     */
+    public int inverse(byte[] src, int srcFrom, int length, byte[] dest, int destFrom,
+            int maxLength);
+}
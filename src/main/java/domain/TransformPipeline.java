@@ -0,0 +1,382 @@
+package domain;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link CompressionAlgorithm} which chains reversible {@link Transform}
+ * stages in front of a coder ({@link Huffman}, {@link RANS} or {@link LZW}).
+ * The data goes through the stages one block at a time: each block is
+ * transformed by each stage in turn, between two arrays of the size of a
+ * transformed block, and only the output of the last stage is collected for
+ * the coder, so no stage needs an array as large as the data. Decompression
+ * goes the other way: the coder restores the whole transformed data, and each
+ * block goes back through the stages in reverse order.
+ *
+ * The name of a pipeline is the names of its stages and of its coder, joined
+ * by "+" (for example "rle+mtf+huffman"), and it's written into the
+ * compressed data, so that any instance of this class can rebuild the chain
+ * which compressed it: all pipelines have the same file extension.
+ *
+ * The compressed data will include (in this order):
+ * - int: length (in bytes) of the original (uncompressed) data;
+ * - int: length (in bytes) of the blocks of original data;
+ * - byte: length of the name of the pipeline;
+ * - the name of the pipeline (in ASCII);
+ * - the data compressed by the coder, which is, for each block, an int
+ * containing the length of the transformed block, followed by the transformed
+ * block.
+ */
+public final class TransformPipeline extends CompressionAlgorithm {
+
+    /**
+     * Default length (in bytes) of the blocks of original data, which is
+     * rounded down to a multiple of the width of the records of every
+     * {@link ByteShuffleTransform} stage.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+    public static final String STAGE_SEPARATOR = "+";
+
+    /**
+     * The file extension used for files compressed using this class.
+     */
+    private static final String COMPRESSED_FILE_EXTENSION = ".pipe";
+
+    private static final int MAX_NAME_LENGTH = 255;
+
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the length of the original data (in bytes) will be written.
+     */
+    private static final int OFFSET_ORIG_DATA_LENGTH = 0;
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the block size will be written.
+     */
+    private static final int OFFSET_BLOCK_SIZE = OFFSET_ORIG_DATA_LENGTH + Integer.BYTES;
+    /**
+     * Offset (in bytes) from the beginning of compressed files, indicating
+     * where the length of the name will be written (followed by the name).
+     */
+    private static final int OFFSET_NAME = OFFSET_BLOCK_SIZE + Integer.BYTES;
+
+    private final CompressionAlgorithm coder;
+    private final Transform[] stages;
+    private final int blockSize;
+    /**
+     * Short name for this algorithm (used in TUI).
+     */
+    private final String name;
+    /**
+     * Longer name for this algorithm (used in TUI).
+     */
+    private final String description;
+
+    /**
+     * Returns an instance of TransformPipeline with the default block size.
+     *
+     * @param coder The algorithm which compresses the output of the last stage
+     * (see {@link #TransformPipeline(int, CompressionAlgorithm, Transform...)}).
+     * @param stages The transforms the data goes through, in this order.
+     */
+    public TransformPipeline(CompressionAlgorithm coder, Transform... stages) {
+        this(DEFAULT_BLOCK_SIZE, coder, stages);
+    }
+
+    /**
+     * Returns an instance of TransformPipeline with the given block size
+     * (rounded down to a multiple of the width of the records of every
+     * {@link ByteShuffleTransform} stage).
+     *
+     * @param blockSize Length (in bytes) of the blocks of original data; it
+     * has to be positive.
+     * @param coder The algorithm which compresses the output of the last stage;
+     * since decompression rebuilds it from its name, it has to be an instance
+     * of {@link Huffman}, {@link RANS} or {@link LZW} (without a primed
+     * dictionary) whose name is accepted by {@link #forName(String)}.
+     * @param stages The transforms the data goes through, in this order; there
+     * has to be at least one.
+     */
+    public TransformPipeline(int blockSize, CompressionAlgorithm coder, Transform... stages) {
+        if (stages.length == 0) {
+            throw new IllegalArgumentException("Argument Transform[] stages has to contain "
+                    + "at least one stage.");
+        }
+        if (coderForName(coder.getName()) == null) {
+            throw new IllegalArgumentException("Argument CompressionAlgorithm coder can't be "
+                    + coder.getName() + ", since it couldn't be rebuilt from its name.");
+        }
+        this.coder = coder;
+        this.stages = stages;
+        this.blockSize = roundedBlockSize(blockSize, stages);
+        StringBuilder nameBuilder = new StringBuilder();
+        for (Transform stage : stages) {
+            nameBuilder.append(stage.getName()).append(STAGE_SEPARATOR);
+        }
+        name = nameBuilder.append(coder.getName()).toString();
+        if (name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("The name of the pipeline can't be longer than "
+                    + MAX_NAME_LENGTH + " characters.");
+        }
+        description = "transforms (" + name.substring(0, name.lastIndexOf(STAGE_SEPARATOR))
+                .replace(STAGE_SEPARATOR, ", ") + ") in blocks of " + this.blockSize / 1024
+                + " KiB, then " + coder.getName();
+    }
+
+    private static int roundedBlockSize(int blockSize, Transform[] stages) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Argument int blockSize has to be positive.");
+        }
+        int recordWidth = 1;
+        for (Transform stage : stages) {
+            if (stage instanceof ByteShuffleTransform) {
+                int width = ((ByteShuffleTransform) stage).getWidth();
+                recordWidth = recordWidth / greatestCommonDivisor(recordWidth, width) * width;
+            }
+        }
+        return Math.max(recordWidth, blockSize - blockSize % recordWidth);
+    }
+
+    private static int greatestCommonDivisor(int a, int b) {
+        return b == 0 ? a : greatestCommonDivisor(b, a % b);
+    }
+
+    /**
+     * Returns an instance of TransformPipeline with the given name (for
+     * example "shuffle4+delta+huffman"): one or more stages ("rle", "delta",
+     * "delta" followed by a distance, "mtf", or "shuffle" followed by a record
+     * width) and a coder (the name of a Huffman algorithm, like "huffman" or
+     * "huffman15s", "rans", or the name of an LZW algorithm),
+     * separated by "+".
+     *
+     * @param name Name of a pipeline.
+     * @return An instance of TransformPipeline with the given name and the
+     * default block size, or null if the name doesn't describe a pipeline.
+     */
+    public static TransformPipeline forName(String name) {
+        String[] parts = name.split("\\" + STAGE_SEPARATOR, -1);
+        if (parts.length < 2) {
+            return null;
+        }
+        CompressionAlgorithm coder = coderForName(parts[parts.length - 1]);
+        if (coder == null) {
+            return null;
+        }
+        Transform[] stages = new Transform[parts.length - 1];
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = stageForName(parts[i]);
+            if (stages[i] == null) {
+                return null;
+            }
+        }
+        return new TransformPipeline(coder, stages);
+    }
+
+    private static CompressionAlgorithm coderForName(String name) {
+        CompressionAlgorithm coder = Huffman.forName(name);
+        if (coder != null) {
+            return coder;
+        }
+        RANS rans = new RANS();
+        return name.equals(rans.getName()) ? rans : LZW.forName(name);
+    }
+
+    private static Transform stageForName(String name) {
+        if (name.equals(RunLengthTransform.NAME)) {
+            return new RunLengthTransform();
+        }
+        if (name.equals(MoveToFrontTransform.NAME)) {
+            return new MoveToFrontTransform();
+        }
+        Transform stage = DeltaTransform.forName(name);
+        return stage != null ? stage : ByteShuffleTransform.forName(name);
+    }
+
+    /**
+     * Compresses the given data, passing it through the stages one block at a
+     * time.
+     *
+     * @param originalData The data to be compressed.
+     * @return A bit sequence corresponding to the compressed data.
+     */
+    @Override
+    public BitSequence compressData(byte[] originalData) {
+
+        int[] maxLengths = maxTransformedLengths(blockSize);
+        int blockCount = (int) (((long) originalData.length + blockSize - 1) / blockSize);
+        byte[] transformedData = new byte[transformedDataLength(originalData.length, blockCount)];
+        byte[][] buffers = {new byte[max(maxLengths)], new byte[max(maxLengths)]};
+
+        int index = 0;
+        for (int from = 0; from < originalData.length; from += blockSize) {
+            int length = Math.min(blockSize, originalData.length - from);
+            byte[] src = originalData;
+            int srcFrom = from;
+            for (int s = 0; s < stages.length; s++) {
+                boolean last = s == stages.length - 1;
+                byte[] dest = last ? transformedData : buffers[s % 2];
+                int destFrom = last ? index + Integer.BYTES : 0;
+                length = stages[s].forward(src, srcFrom, length, dest, destFrom);
+                src = dest;
+                srcFrom = destFrom;
+            }
+            Utils.insertInt(length, transformedData, index);
+            index += Integer.BYTES + length;
+        }
+
+        return withHeader(originalData.length, coder.compressData(
+                index == transformedData.length ? transformedData : copyOf(transformedData, index)));
+    }
+
+    /**
+     * Returns the maximum length of the given number of blocks of the given
+     * total length after all the stages, with the length of each block.
+     */
+    private int transformedDataLength(int length, int blockCount) {
+        long transformedLength = (long) Integer.BYTES * blockCount;
+        if (blockCount > 0) {
+            int lastBlockSize = length - (blockCount - 1) * blockSize;
+            transformedLength += (long) (blockCount - 1) * maxTransformedLengths(blockSize)[
+                    stages.length] + maxTransformedLengths(lastBlockSize)[stages.length];
+        }
+        if (transformedLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The transformed data would be too long.");
+        }
+        return (int) transformedLength;
+    }
+
+    /**
+     * Returns the maximum length of a block of the given length after each
+     * number of stages (from 0 to all of them).
+     */
+    private int[] maxTransformedLengths(int length) {
+        int[] maxLengths = new int[stages.length + 1];
+        maxLengths[0] = length;
+        for (int s = 0; s < stages.length; s++) {
+            maxLengths[s + 1] = stages[s].maxTransformedLength(maxLengths[s]);
+        }
+        return maxLengths;
+    }
+
+    private BitSequence withHeader(int originalDataLength, BitSequence coded) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.US_ASCII);
+        int offsetData = OFFSET_NAME + Byte.BYTES + nameBytes.length;
+        byte[] compressedData = new byte[offsetData + coded.getLengthInBytes()];
+        Utils.insertInt(originalDataLength, compressedData, OFFSET_ORIG_DATA_LENGTH);
+        Utils.insertInt(blockSize, compressedData, OFFSET_BLOCK_SIZE);
+        compressedData[OFFSET_NAME] = (byte) nameBytes.length;
+        Utils.arrayCopy(nameBytes, 0, compressedData, OFFSET_NAME + Byte.BYTES, nameBytes.length);
+        Utils.arrayCopy(coded.getBits(), 0, compressedData, offsetData, coded.getLengthInBytes());
+        return new BitSequence(compressedData, 0, compressedData.length - 1);
+    }
+
+    /**
+     * Decompresses the given compressed data, with the stages and the coder
+     * whose names are written in it (which can be different from those of
+     * this instance).
+     *
+     * @param compressedData The compressed data to be decompressed.
+     * @return The original, uncompressed data.
+     */
+    @Override
+    public byte[] decompressData(byte[] compressedData) {
+
+        int nameLength = Byte.toUnsignedInt(compressedData[OFFSET_NAME]);
+        String pipelineName = new String(compressedData, OFFSET_NAME + Byte.BYTES, nameLength,
+                StandardCharsets.US_ASCII);
+        TransformPipeline pipeline = forName(pipelineName);
+        if (pipeline == null) {
+            throw new IllegalArgumentException("The compressed data contains an unknown "
+                    + "pipeline (" + pipelineName + ").");
+        }
+        int offsetData = OFFSET_NAME + Byte.BYTES + nameLength;
+        byte[] codedData = new byte[compressedData.length - offsetData];
+        Utils.arrayCopy(compressedData, offsetData, codedData, 0, codedData.length);
+
+        return pipeline.restore(pipeline.coder.decompressData(codedData),
+                Utils.extractInt(compressedData, OFFSET_ORIG_DATA_LENGTH),
+                Utils.extractInt(compressedData, OFFSET_BLOCK_SIZE));
+    }
+
+    /**
+     * Passes each transformed block back through the stages, in reverse
+     * order.
+     */
+    private byte[] restore(byte[] transformedData, int originalDataLength, int originalBlockSize) {
+
+        if (originalBlockSize <= 0) {
+            throw new IllegalArgumentException("The compressed data contains an invalid "
+                    + "block size.");
+        }
+        int[] maxLengths = maxTransformedLengths(originalBlockSize);
+        byte[][] buffers = {new byte[max(maxLengths)], new byte[max(maxLengths)]};
+        byte[] originalData = new byte[originalDataLength];
+
+        int to = 0;
+        int index = 0;
+        while (index < transformedData.length) {
+            int length = Utils.extractInt(transformedData, index);
+            index += Integer.BYTES;
+            if (length < 0 || length > maxLengths[stages.length]
+                    || length > transformedData.length - index) {
+                throw new IllegalArgumentException("The compressed data contains an invalid "
+                        + "block length.");
+            }
+            byte[] src = transformedData;
+            int srcFrom = index;
+            index += length;
+            for (int s = stages.length - 1; s >= 0; s--) {
+                byte[] dest = s == 0 ? originalData : buffers[s % 2];
+                int destFrom = s == 0 ? to : 0;
+                int maxLength = s == 0 ? Math.min(originalBlockSize, originalDataLength - to)
+                        : maxLengths[s];
+                length = stages[s].inverse(src, srcFrom, length, dest, destFrom, maxLength);
+                src = dest;
+                srcFrom = destFrom;
+            }
+            to += length;
+        }
+        if (to != originalDataLength) {
+            throw new IllegalArgumentException("The compressed data is restored to " + to
+                    + " bytes instead of " + originalDataLength + ".");
+        }
+        return originalData;
+    }
+
+    private static int max(int[] a) {
+        int max = a[0];
+        for (int value : a) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    private static byte[] copyOf(byte[] a, int length) {
+        byte[] copy = new byte[length];
+        Utils.arrayCopy(a, 0, copy, 0, length);
+        return copy;
+    }
+
+    public CompressionAlgorithm getCoder() {
+        return coder;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    @Override
+    public String getExtension() {
+        return COMPRESSED_FILE_EXTENSION;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+}
@@ -32,38 +32,50 @@ public class TreeRepresentation {
     private static final int SPECIAL_CASE = (int) Math.pow(2, Byte.SIZE);
 
     /**
-     * Returns an instance of TreeRepresentation corresponding to the Huffman
-     * tree whose leaves are found in array leafNodes (given as parameter).
+     * Returns an instance of TreeRepresentation corresponding to the canonical
+     * Huffman code with the given codeword lengths (see for example
+     * {@link HuffmanCodeLengths}).
      *
-     * @param leafNodes Leaves of the Huffman tree of which we want a
-     * representation; this array must be sorted in canonical order (so firstly
-     * by bit-length of their codeword, and secondly by alphabetical order; see
-     * the HuffNode class for more info).
+     * @param codewordLengths Codeword length of each byte value, indexed by
+     * unsigned byte value; byte values which don't have a codeword must have
+     * length zero, and at least one byte value must have a codeword.
      */
-    public TreeRepresentation(HuffNode[] leafNodes) {
+    public TreeRepresentation(int[] codewordLengths) {
 
-        // maxLength is the length of the last leaf's codeword, since they are sorted
-        int maxLength = leafNodes[leafNodes.length - 1]
-                .getCodeword().getLengthInBits().intValue();
+        int maxLength = 0;
+        int[] lengthCounts = new int[CanonicalCode.MAX_CODEWORD_LENGTH + 1];
+        for (int length : codewordLengths) {
+            lengthCounts[length]++;
+            maxLength = Math.max(maxLength, length);
+        }
+        int symbolsLength = codewordLengths.length - lengthCounts[0];
 
-        if (maxLength == Byte.SIZE && leafNodes.length == SPECIAL_CASE) {
+        if (maxLength == Byte.SIZE && symbolsLength == SPECIAL_CASE) {
             // special case when there are 256 symbols with codeword of length Byte.SIZE
             codewordLengthsLength = 0;
-            bytes = new byte[leafNodes.length];
-            for (int i = 0; i < leafNodes.length; i++) {
-                bytes[i] = leafNodes[i].getSymbol();
-            }
+            bytes = new byte[symbolsLength];
         } else {
             // since there's one entry for each length from 1 to maxLength
             codewordLengthsLength = maxLength;
-            bytes = new byte[codewordLengthsLength + leafNodes.length];
-
-            int i = codewordLengthsLength;
-            for (HuffNode leaf : leafNodes) {
-                // consciously allow "overflow", since bytes are to be interpreted as unsigned
-                // length 0 isn't used, so the count for each codeword length l is in bytes[l-1]
-                bytes[leaf.getCodeword().getLengthInBits().intValue() - 1]++;
-                bytes[i++] = leaf.getSymbol();
+            bytes = new byte[codewordLengthsLength + symbolsLength];
+        }
+
+        // symbolIndexes[l] is the index where the next symbol with codeword
+        // length l will be written, so that symbols end up in canonical order
+        int[] symbolIndexes = new int[maxLength + 1];
+        int symbolIndex = codewordLengthsLength;
+        for (int l = 1; l <= maxLength; l++) {
+            symbolIndexes[l] = symbolIndex;
+            symbolIndex += lengthCounts[l];
+            if (codewordLengthsLength > 0) {
+                // the count for each codeword length l is in bytes[l-1]
+                bytes[l - 1] = (byte) lengthCounts[l];
+            }
+        }
+
+        for (int symbol = 0; symbol < codewordLengths.length; symbol++) {
+            if (codewordLengths[symbol] > 0) {
+                bytes[symbolIndexes[codewordLengths[symbol]]++] = (byte) symbol;
             }
         }
     }
@@ -75,8 +87,23 @@ public class TreeRepresentation {
      * must have been encoded by the Huffman class.
      */
     public TreeRepresentation(byte[] compressedData) {
+        this(compressedData, 0);
+    }
+
+    /**
+     * Returns an instance of TreeRepresentation built from array compressedData
+     * (given as a parameter), where the data encoded by the Huffman class
+     * begins at the given offset.
+     *
+     * @param compressedData Array used to build the tree representation.
+     * @param offset Offset (in bytes) where the data encoded by the Huffman
+     * class begins.
+     */
+    public TreeRepresentation(byte[] compressedData, int offset) {
 
-        codewordLengthsLength = Byte.toUnsignedInt(compressedData[Huffman.OFFSET_CWLENGTHS_LENGTH]);
+        codewordLengthsLength = Byte.toUnsignedInt(
+                compressedData[offset + Huffman.OFFSET_CWLENGTHS_LENGTH]);
+        int treeOffset = offset + Huffman.OFFSET_TREE;
 
         int symbolsLength;
         if (codewordLengthsLength == 0) {
@@ -84,60 +111,43 @@ public class TreeRepresentation {
             symbolsLength = SPECIAL_CASE;
         } else {
             symbolsLength = 0;
-            int symbolsOffset = Huffman.OFFSET_TREE + codewordLengthsLength;
-            for (int i = Huffman.OFFSET_TREE; i < symbolsOffset; i++) {
+            int symbolsOffset = treeOffset + codewordLengthsLength;
+            for (int i = treeOffset; i < symbolsOffset; i++) {
                 symbolsLength += Byte.toUnsignedInt(compressedData[i]);
             }
         }
 
         int totalLength = codewordLengthsLength + symbolsLength;
         bytes = new byte[totalLength];
-        Utils.arrayCopy(compressedData, Huffman.OFFSET_TREE, bytes, 0, totalLength);
+        Utils.arrayCopy(compressedData, treeOffset, bytes, 0, totalLength);
     }
 
     /**
-     * Returns an array containing the leaves of the Huffman tree this is a
-     * representation of.
+     * Returns the canonical Huffman code this is a representation of.
      *
-     * @return Leaves (HuffNodes) of the Huffman tree this is a representation
-     * of.
+     * @return The canonical Huffman code this is a representation of.
      */
-    public HuffNode[] buildLeafNodes() {
-
-        int symbolsLength = bytes.length - codewordLengthsLength;
-        HuffNode[] leafNodes = new HuffNode[symbolsLength];
-        HuffNode leaf;
+    public CanonicalCode buildCanonicalCode() {
 
+        int[] lengthCounts;
         if (codewordLengthsLength == 0) {
             // special case when there are 256 symbols with codeword of length Byte.SIZE
-            for (int i = 0; i < symbolsLength; i++) {
-                leaf = new HuffNode(bytes[i]);
-                leaf.setCodeword(new BitSequence(Byte.SIZE));
-                leafNodes[i] = leaf;
-            }
+            lengthCounts = new int[Byte.SIZE + 1];
+            lengthCounts[Byte.SIZE] = SPECIAL_CASE;
         } else {
-
-            int symbolsIndex = codewordLengthsLength;
-            int leafNodesIndex = 0;
-            int codewordLength = 1;
-
-            while (leafNodesIndex < symbolsLength) {
-                // the count for each codeword length l is in bytes[l-1]
-                while (bytes[codewordLength - 1] == 0) {
-                    codewordLength++;
-                }
-
-                for (int i = Byte.toUnsignedInt(bytes[codewordLength - 1]); i > 0; i--) {
-                    leaf = new HuffNode(bytes[symbolsIndex++]);
-                    leaf.setCodeword(new BitSequence(codewordLength));
-                    leafNodes[leafNodesIndex++] = leaf;
-                }
-
-                codewordLength++;
+            // the count for each codeword length l is in bytes[l-1]
+            lengthCounts = new int[codewordLengthsLength + 1];
+            for (int l = 1; l <= codewordLengthsLength; l++) {
+                lengthCounts[l] = Byte.toUnsignedInt(bytes[l - 1]);
             }
         }
 
-        return leafNodes;
+        int[] symbols = new int[bytes.length - codewordLengthsLength];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = Byte.toUnsignedInt(bytes[codewordLengthsLength + i]);
+        }
+
+        return new CanonicalCode(lengthCounts, symbols);
     }
 
     /**
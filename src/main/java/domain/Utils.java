@@ -1,7 +1,5 @@
 package domain;
 
-import java.util.Comparator;
-
 /**
  * A general purpose utility class.
  */
@@ -9,52 +7,6 @@ public class Utils {
 
     public static final int POSSIBLE_BYTE_VALUES_COUNT = Byte.MAX_VALUE + 1 - Byte.MIN_VALUE;
 
-    /**
-     * Merge sort implementation, adapted from Wikipedia
-     * (https://en.wikipedia.org/wiki/Merge_sort).
-     *
-     * @param original Array to be sorted.
-     * @param comp Comparator used to get the ordering of the elements.
-     */
-    public static void mergeSort(HuffNode[] original, Comparator<HuffNode> comp) {
-
-        int n = original.length;
-        HuffNode[] a = original;
-        HuffNode[] b = new HuffNode[n];
-        HuffNode[] temp;
-
-        for (int width = 1; width < n; width *= 2) {
-
-            for (int i = 0; i < n; i += 2 * width) {
-                merge(a, i, Math.min(i + width, n), Math.min(i + 2 * width, n), b, comp);
-            }
-
-            temp = a;
-            a = b;
-            b = temp;
-        }
-
-        if (a != original) {
-            arrayCopy(a, 0, original, 0, n);
-        }
-    }
-
-    private static void merge(HuffNode[] a, int iLeft, int iRight, int iEnd,
-            HuffNode[] b, Comparator<HuffNode> comp) {
-
-        int i = iLeft;
-        int j = iRight;
-
-        for (int k = iLeft; k < iEnd; k++) {
-
-            if (i < iRight && (j >= iEnd || comp.compare(a[i], a[j]) <= 0)) {
-                b[k] = a[i++];
-            } else {
-                b[k] = a[j++];
-            }
-        }
-    }
-
     /**
      * Copies data from an array to another one. It works like System.arraycopy
      * (but more slowly), so for more details see that method's documentation.
@@ -141,9 +93,25 @@ public class Utils {
      */
     public static int extractInt(byte[] bytes, int fromIndex) {
         int k = 0;
-        for (int i = fromIndex; i < Integer.BYTES; i++) {
-            k |= Byte.toUnsignedInt(bytes[Integer.BYTES - 1 - i]) << (i * Byte.SIZE);
+        for (int i = 0; i < Integer.BYTES; i++) {
+            k |= Byte.toUnsignedInt(bytes[fromIndex + Integer.BYTES - 1 - i]) << (i * Byte.SIZE);
         }
         return k;
     }
+
+    /**
+     * Writes the bytes of an integer into a byte array, starting from a given
+     * index, in big-endian order (so that it can be read back with
+     * {@link #extractInt(byte[], int)}).
+     *
+     * @param k Integer to be written.
+     * @param bytes Array into which the integer will be written.
+     * @param fromIndex The index where the first (most significant) byte of the
+     * integer will be written.
+     */
+    public static void insertInt(int k, byte[] bytes, int fromIndex) {
+        for (int i = 0; i < Integer.BYTES; i++) {
+            bytes[fromIndex + Integer.BYTES - 1 - i] = (byte) (k >>> (i * Byte.SIZE));
+        }
+    }
 }
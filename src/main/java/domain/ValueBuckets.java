@@ -0,0 +1,89 @@
+package domain;
+
+/**
+ * Groups non-negative values into buckets whose size grows with the values,
+ * like DEFLATE does with match lengths and distances: the bucket of a value
+ * is given by the position of its most significant bit and by the
+ * bucketBits bits which follow it, and the remaining (less significant) bits,
+ * called extra bits, tell apart the values of the same bucket. Values less
+ * than 2^(bucketBits + 1) are buckets on their own, and there are
+ * 2^bucketBits buckets for each larger power of two, so that buckets can be
+ * symbols of a small Huffman code, while the extra bits are written as they
+ * are (for more info see https://tools.ietf.org/html/rfc1951#section-3.2.5 ).
+ */
+public final class ValueBuckets {
+
+    private final int bucketBits;
+
+    /**
+     * Returns an instance of ValueBuckets with the given number of bits
+     * (after the most significant one) which determine the bucket of a value.
+     *
+     * @param bucketBits Number of bits which determine the bucket of a value,
+     * besides the most significant one.
+     */
+    public ValueBuckets(int bucketBits) {
+        if (bucketBits < 0 || bucketBits >= Integer.SIZE - 2) {
+            throw new IllegalArgumentException("Argument int bucketBits has to be between "
+                    + "0 and " + (Integer.SIZE - 3) + " (both inclusive).");
+        }
+        this.bucketBits = bucketBits;
+    }
+
+    /**
+     * Returns the number of buckets of the values less than 2^valueBits.
+     *
+     * @param valueBits Number of bits of the largest value.
+     * @return The number of buckets.
+     */
+    public int bucketCount(int valueBits) {
+        return Math.max(2, valueBits - bucketBits + 1) << bucketBits;
+    }
+
+    /**
+     * Returns the bucket of the given value.
+     *
+     * @param value A non-negative value.
+     * @return The bucket of the value.
+     */
+    public int bucket(int value) {
+        int extraBitCount = Math.max(0,
+                Integer.SIZE - 1 - Integer.numberOfLeadingZeros(value) - bucketBits);
+        return (extraBitCount << bucketBits) + (value >>> extraBitCount);
+    }
+
+    /**
+     * Returns the number of extra bits of the values of the given bucket.
+     *
+     * @param bucket A bucket.
+     * @return The number of bits which tell apart the values of the bucket.
+     */
+    public int extraBitCount(int bucket) {
+        return Math.max(0, (bucket >>> bucketBits) - 1);
+    }
+
+    /**
+     * Returns the extra bits of the given value.
+     *
+     * @param value A non-negative value.
+     * @param extraBitCount The number of extra bits of the bucket of the value
+     * (see {@link #extraBitCount(int)}).
+     * @return The extra bits of the value, right-aligned.
+     */
+    public static int extraBits(int value, int extraBitCount) {
+        return value & ((1 << extraBitCount) - 1);
+    }
+
+    /**
+     * Returns the value of the given bucket which has the given extra bits.
+     *
+     * @param bucket A bucket.
+     * @param extraBitCount The number of extra bits of the bucket (see
+     * {@link #extraBitCount(int)}).
+     * @param extraBits The extra bits of the value, right-aligned.
+     * @return The value.
+     */
+    public int value(int bucket, int extraBitCount, int extraBits) {
+        return (bucket - (extraBitCount << bucketBits)) << extraBitCount | extraBits;
+    }
+}
@@ -1,8 +1,23 @@
 package ui.commands;
 
+import domain.AdaptiveHuffman;
+import domain.BWT;
+import domain.BlockHuffman;
+import domain.BlockLZW;
+import domain.ByteShuffleTransform;
 import domain.CompressionAlgorithm;
+import domain.DeltaTransform;
 import domain.Huffman;
+import domain.Huffman4;
+import domain.LZ4;
+import domain.LZ77Huffman;
+import domain.LZ77Parser;
+import domain.LZSS;
 import domain.LZW;
+import domain.LZWHuffman;
+import domain.RANS;
+import domain.RunLengthTransform;
+import domain.TransformPipeline;
 import io.IO;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -18,11 +33,86 @@ public final class CommandUtils {
 
     public static final CompressionAlgorithm[] ALGORITHMS = new CompressionAlgorithm[]{
         new Huffman(),
+        new Huffman(11),
+        new Huffman(15, Huffman.DEFAULT_SAMPLE_BLOCK_COUNT),
+        new Huffman4(),
+        new BlockHuffman(),
+        new AdaptiveHuffman(),
         new LZW(),
-        new LZW(16, 196663),
-        new LZW(20, 393161)
+        new LZW(16),
+        new LZW(20),
+        new BlockLZW(),
+        new LZWHuffman(),
+        new LZSS(),
+        new LZ77Huffman(),
+        new LZ4(),
+        new BWT(),
+        new RANS(),
+        new TransformPipeline(new Huffman(), new RunLengthTransform()),
+        new TransformPipeline(new Huffman(), new ByteShuffleTransform(4), new DeltaTransform())
     };
 
+    /**
+     * Names, extensions and description of the LZW algorithms which can be
+     * chosen besides those in {@link #ALGORITHMS}, with any maximum codeword
+     * length.
+     */
+    private static final String
+            LZW_NAMES = LZW.NAME_PREFIX + LZW.MIN_CW_LENGTH + " - "
+            + LZW.NAME_PREFIX + LZW.LONGEST_MAX_CW_LENGTH,
+            LZW_EXTENSIONS = "." + LZW.NAME_PREFIX + LZW.MIN_CW_LENGTH + " - ."
+            + LZW.NAME_PREFIX + LZW.LONGEST_MAX_CW_LENGTH,
+            LZW_DESCRIPTION = "Lempel-Ziv-Welch with variable-length codewords (max length from "
+            + LZW.MIN_CW_LENGTH + " to " + LZW.LONGEST_MAX_CW_LENGTH + ")";
+
+    /**
+     * Names, extensions and description of the LZWHuffman algorithms which
+     * can be chosen besides those in {@link #ALGORITHMS}, with any maximum
+     * codeword length.
+     */
+    private static final String
+            LZWH_NAMES = LZWHuffman.NAME_PREFIX + LZW.MIN_CW_LENGTH + " - "
+            + LZWHuffman.NAME_PREFIX + LZW.LONGEST_MAX_CW_LENGTH,
+            LZWH_EXTENSIONS = "." + LZWHuffman.NAME_PREFIX + LZW.MIN_CW_LENGTH + " - ."
+            + LZWHuffman.NAME_PREFIX + LZW.LONGEST_MAX_CW_LENGTH,
+            LZWH_DESCRIPTION = "Lempel-Ziv-Welch with Huffman-coded codewords (max length from "
+            + LZW.MIN_CW_LENGTH + " to " + LZW.LONGEST_MAX_CW_LENGTH + ")";
+
+    /**
+     * Names, extensions and description of the LZSS algorithms which can be
+     * chosen besides those in {@link #ALGORITHMS}, with any window size.
+     */
+    private static final String
+            LZSS_NAMES = LZSS.NAME_PREFIX + LZSS.MIN_WINDOW_BITS + " - "
+            + LZSS.NAME_PREFIX + LZSS.MAX_WINDOW_BITS,
+            LZSS_EXTENSIONS = "." + LZSS.NAME_PREFIX + LZSS.MIN_WINDOW_BITS + " - ."
+            + LZSS.NAME_PREFIX + LZSS.MAX_WINDOW_BITS,
+            LZSS_DESCRIPTION = "LZSS with a window of 2^n bytes (n from "
+            + LZSS.MIN_WINDOW_BITS + " to " + LZSS.MAX_WINDOW_BITS + ")";
+
+    /**
+     * Names, extensions and description of the LZ77Huffman algorithms which
+     * can be chosen besides those in {@link #ALGORITHMS}, with any window
+     * size.
+     */
+    private static final String
+            LZ77H_NAMES = LZ77Huffman.NAME_PREFIX + LZ77Parser.MIN_WINDOW_BITS + " - "
+            + LZ77Huffman.NAME_PREFIX + LZ77Parser.MAX_WINDOW_BITS,
+            LZ77H_EXTENSIONS = "." + LZ77Huffman.NAME_PREFIX + LZ77Parser.MIN_WINDOW_BITS
+            + " - ." + LZ77Huffman.NAME_PREFIX + LZ77Parser.MAX_WINDOW_BITS,
+            LZ77H_DESCRIPTION = "LZ77 with Huffman-coded blocks and a window of 2^n bytes "
+            + "(n from " + LZ77Parser.MIN_WINDOW_BITS + " to " + LZ77Parser.MAX_WINDOW_BITS + ")";
+
+    /**
+     * Names and description of the pipelines which can be chosen besides
+     * those in {@link #ALGORITHMS}, with any stages and coder (they all have
+     * the same extension).
+     */
+    private static final String
+            PIPELINE_NAMES = "<stage>+...+<coder>",
+            PIPELINE_DESCRIPTION = "stages (rle, delta[n], mtf, shuffle<n>) in front of a coder "
+            + "(huffman[n][s], rans, lzw<n>), for example shuffle4+delta+huffman";
+
     public static final String CHOICE_LIST_FORMAT = "\t%-15s%s\n";
 
     private static final String PATH_PROMPT = "please enter the path of the ",
@@ -107,6 +197,11 @@ public final class CommandUtils {
         for (CompressionAlgorithm a : ALGORITHMS) {
             io.printf(CHOICE_LIST_FORMAT, a.getName(), a.getDescription());
         }
+        io.printf(CHOICE_LIST_FORMAT, LZW_NAMES, LZW_DESCRIPTION);
+        io.printf(CHOICE_LIST_FORMAT, LZWH_NAMES, LZWH_DESCRIPTION);
+        io.printf(CHOICE_LIST_FORMAT, LZSS_NAMES, LZSS_DESCRIPTION);
+        io.printf(CHOICE_LIST_FORMAT, LZ77H_NAMES, LZ77H_DESCRIPTION);
+        io.printf(CHOICE_LIST_FORMAT, PIPELINE_NAMES, PIPELINE_DESCRIPTION);
     }
 
     /**
@@ -119,14 +214,22 @@ public final class CommandUtils {
         for (CompressionAlgorithm a : ALGORITHMS) {
             io.printf(CHOICE_LIST_FORMAT, a.getExtension(), a.getDescription());
         }
+        io.printf(CHOICE_LIST_FORMAT, LZW_EXTENSIONS, LZW_DESCRIPTION);
+        io.printf(CHOICE_LIST_FORMAT, LZWH_EXTENSIONS, LZWH_DESCRIPTION);
+        io.printf(CHOICE_LIST_FORMAT, LZSS_EXTENSIONS, LZSS_DESCRIPTION);
+        io.printf(CHOICE_LIST_FORMAT, LZ77H_EXTENSIONS, LZ77H_DESCRIPTION);
     }
 
     /**
      * Returns the compression algorithm corresponding to the given algorithm
-     * name.
+     * name; LZW and LZWHuffman names with a maximum codeword length not in
+     * {@link #ALGORITHMS} (like lzw14 and lzwh14), and LZSS and LZ77Huffman names with
+     * any window size (like lzss12 and lz77h16), and pipelines with any stages
+     * and coder (like rle+mtf+huffman) are also accepted.
      *
      * @param name Name of the algorithm.
-     * @return Compression algorithm corresponding to the given name.
+     * @return Compression algorithm corresponding to the given name, or null
+     * if there is none.
      */
     public static CompressionAlgorithm getAlgorithmByName(String name) {
         for (CompressionAlgorithm a : ALGORITHMS) {
@@ -134,15 +237,28 @@ public final class CommandUtils {
                 return a;
             }
         }
-        return null;
+        CompressionAlgorithm algorithm = LZW.forName(name);
+        if (algorithm == null) {
+            algorithm = LZWHuffman.forName(name);
+        }
+        if (algorithm == null) {
+            algorithm = LZSS.forName(name);
+        }
+        if (algorithm == null) {
+            algorithm = LZ77Huffman.forName(name);
+        }
+        return algorithm != null ? algorithm : TransformPipeline.forName(name);
     }
 
     /**
      * Returns the compression algorithm corresponding to the given file
-     * extension.
+     * extension; LZW and LZWHuffman extensions with a maximum codeword length
+     * not in {@link #ALGORITHMS} (like .lzw14 and .lzwh14), and LZSS and LZ77Huffman extensions
+     * with any window size (like .lzss12 and .lz77h16) are also accepted.
      *
      * @param extension Extension of a compressed file.
-     * @return Compression algorithm corresponding to the given file extension.
+     * @return Compression algorithm corresponding to the given file extension,
+     * or null if there is none.
      */
     public static CompressionAlgorithm getAlgorithmByExtension(String extension) {
         for (CompressionAlgorithm a : ALGORITHMS) {
@@ -150,6 +266,13 @@ public final class CommandUtils {
                 return a;
             }
         }
-        return null;
+        CompressionAlgorithm algorithm = LZW.forExtension(extension);
+        if (algorithm == null) {
+            algorithm = LZWHuffman.forExtension(extension);
+        }
+        if (algorithm == null) {
+            algorithm = LZSS.forExtension(extension);
+        }
+        return algorithm != null ? algorithm : LZ77Huffman.forExtension(extension);
     }
 }
@@ -20,6 +20,10 @@ public class Compare extends BasicCommand {
                     "bits/symbol", "d. c. ratio", "compr. time", "decompr. time",
                     "\t-----------------------------------------------------------------------------------"),
             STATS_FORMAT = "\t%-15s%13.3f%17.3f%19d%19d\n",
+            SAMPLING_FORMAT = "\t%s: compressed size is %.3f%% larger than with a full histogram\n",
+            PROBES_FORMAT = "\t%s: %.3f hash table slots examined per dictionary lookup\n",
+            DICTIONARY_SIZE_FORMAT = "\t%s: dictionaries of %.1f MiB (compression) and %.1f MiB "
+                    + "(decompression), %s\n",
             ERROR_MSG = "an error occurred while ",
             READING_ERROR = ERROR_MSG + "reading ",
             FILE_R_ERROR = READING_ERROR + "file ",
@@ -104,6 +108,34 @@ public class Compare extends BasicCommand {
         }
 
         io.println("");
+
+        boolean sampling = false;
+        for (int i = 0; i < stats.length; i++) {
+            if (stats[i].referenceCompressedSizeInBits != 0) {
+                io.printf(SAMPLING_FORMAT, CommandUtils.ALGORITHMS[i].getName(),
+                        100 * stats[i].samplingRatioLoss());
+                sampling = true;
+            }
+        }
+        if (sampling) {
+            io.println("");
+        }
+
+        boolean probes = false;
+        for (int i = 0; i < stats.length; i++) {
+            if (stats[i].dictionaryLookups != 0) {
+                io.printf(PROBES_FORMAT, CommandUtils.ALGORITHMS[i].getName(),
+                        stats[i].averageProbeLength());
+                io.printf(DICTIONARY_SIZE_FORMAT, CommandUtils.ALGORITHMS[i].getName(),
+                        stats[i].compressionDictionarySize / (double) (1 << 20),
+                        stats[i].decompressionTableSize / (double) (1 << 20),
+                        stats[i].offHeapDictionaries ? "off heap" : "on heap");
+                probes = true;
+            }
+        }
+        if (probes) {
+            io.println("");
+        }
     }
 
     private void thoroughComparison() {
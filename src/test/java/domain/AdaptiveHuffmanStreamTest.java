@@ -0,0 +1,69 @@
+package domain;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveHuffmanStreamTest {
+
+    private static final byte[] MESSAGE = "adaptive Huffman coding, block by block".getBytes();
+
+    @Test
+    public void flushWritesPartialBlockWhichCanBeReadImmediately() throws IOException {
+
+        ByteArrayOutputStream compressedData = new ByteArrayOutputStream();
+        AdaptiveHuffmanOutputStream out = new AdaptiveHuffmanOutputStream(compressedData, 1024);
+        out.write(MESSAGE);
+        out.flush();
+
+        // the end of the stream hasn't been written yet
+        AdaptiveHuffmanInputStream in = new AdaptiveHuffmanInputStream(
+                new ByteArrayInputStream(compressedData.toByteArray()));
+        byte[] readData = new byte[MESSAGE.length];
+        assertEquals(MESSAGE.length, in.read(readData));
+        assertArrayEquals(MESSAGE, readData);
+    }
+
+    @Test
+    public void singleBytesAreReadUntilTheEndOfTheStream() throws IOException {
+
+        ByteArrayOutputStream compressedData = new ByteArrayOutputStream();
+        try (AdaptiveHuffmanOutputStream out = new AdaptiveHuffmanOutputStream(compressedData, 7)) {
+            for (byte b : MESSAGE) {
+                out.write(b);
+            }
+        }
+
+        AdaptiveHuffmanInputStream in = new AdaptiveHuffmanInputStream(
+                new ByteArrayInputStream(compressedData.toByteArray()));
+        for (byte b : MESSAGE) {
+            assertEquals(Byte.toUnsignedInt(b), in.read());
+        }
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void truncatedStreamThrowsEOFException() throws IOException {
+
+        ByteArrayOutputStream compressedData = new ByteArrayOutputStream();
+        AdaptiveHuffmanOutputStream out = new AdaptiveHuffmanOutputStream(compressedData, 1024);
+        out.write(MESSAGE);
+        out.flush();
+
+        AdaptiveHuffmanInputStream in = new AdaptiveHuffmanInputStream(
+                new ByteArrayInputStream(compressedData.toByteArray()));
+        assertEquals(MESSAGE.length, in.read(new byte[MESSAGE.length]));
+        assertThrows(EOFException.class, () -> in.read());
+    }
+
+    @Test
+    public void nothingCanBeWrittenAfterFinish() throws IOException {
+        AdaptiveHuffmanOutputStream out =
+                new AdaptiveHuffmanOutputStream(new ByteArrayOutputStream(), 1024);
+        out.finish();
+        assertThrows(IOException.class, () -> out.write(MESSAGE));
+    }
+}
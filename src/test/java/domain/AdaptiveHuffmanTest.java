@@ -0,0 +1,31 @@
+package domain;
+
+import java.io.IOException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
+
+public class AdaptiveHuffmanTest {
+
+    @Test
+    public void decompressingCompressedAdaptiveHuffmanFileRestoresItsOriginalContent()
+            throws IOException {
+        assertTrue(decompressingCompressedFileRestoresItsOriginalContent(new AdaptiveHuffman()));
+    }
+
+    @Test
+    public void adaptiveHuffmanWorksWhenStatisticsChangeBetweenBlocks() {
+
+        byte[] originalData = new byte[5000];
+        byte[] skewedData = randomSkewedData(2500);
+        Utils.arrayCopy(skewedData, 0, originalData, 0, skewedData.length);
+        new Random(0).nextBytes(skewedData);
+        Utils.arrayCopy(skewedData, 0, originalData, skewedData.length, skewedData.length);
+
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                new AdaptiveHuffman(300), originalData));
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                new AdaptiveHuffman(300), new byte[0]));
+    }
+}
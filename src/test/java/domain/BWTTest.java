@@ -0,0 +1,56 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
+
+public class BWTTest {
+
+    @Test
+    public void decompressingCompressedBWTFileRestoresItsOriginalContent() throws IOException {
+        assertTrue(decompressingCompressedFileRestoresItsOriginalContent(new BWT()));
+    }
+
+    @Test
+    public void bwtWorksWithShortDataAndLongRuns() {
+        byte[] run = new byte[100_000];
+        Utils.fill(run, 0, run.length, (byte) 'a');
+        byte[] runs = new byte[5000];
+        for (int i = 0; i < runs.length; i++) {
+            runs[i] = (byte) (i / 300 % 3 == 0 ? 0 : i / 700);
+        }
+        for (byte[] originalData : new byte[][]{new byte[0], new byte[1], {-1, 0},
+            "banana".getBytes(StandardCharsets.US_ASCII), run, runs, randomSkewedData(3000)}) {
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    new BWT(), originalData));
+        }
+    }
+
+    @Test
+    public void bwtOutputDoesNotDependOnNumberOfThreads() {
+
+        byte[] originalData = wordData(20_000, 1);
+        ForkJoinPool singleThreadPool = new ForkJoinPool(1);
+        ForkJoinPool multiThreadPool = new ForkJoinPool(4);
+
+        BitSequence singleThreadOutput = new BWT(1024, singleThreadPool).compressData(originalData);
+        BitSequence multiThreadOutput = new BWT(1024, multiThreadPool).compressData(originalData);
+
+        singleThreadPool.shutdown();
+        multiThreadPool.shutdown();
+        assertEquals(singleThreadOutput.toString(), multiThreadOutput.toString());
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                new BWT(1024, ForkJoinPool.commonPool()), originalData));
+    }
+
+    @Test
+    public void bwtCompressesTextBetterThanLZ77Huffman() {
+        byte[] originalData = wordData(200_000, 1);
+        long bwt = new BWT().compressData(originalData).getLengthInBits();
+        long lz77Huffman = new LZ77Huffman().compressData(originalData).getLengthInBits();
+        assertTrue(bwt < lz77Huffman);
+    }
+}
@@ -0,0 +1,65 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitReaderTest {
+
+    @Test
+    public void readReturnsBitsInTheSameOrderAsBitSequence() {
+
+        BitSequence bitSeq = new BitSequence();
+        bitSeq.append(0b101, 3);
+        bitSeq.append(0b1100110011, 10);
+        bitSeq.append(0b1, 1);
+
+        BitReader reader = new BitReader(bitSeq.getBits(), 0);
+        assertEquals(0b101, reader.read(3));
+        assertEquals(0b1100110011, reader.read(10));
+        assertEquals(0b1, reader.read(1));
+    }
+
+    @Test
+    public void peekDoesNotChangeReadingPosition() {
+
+        BitReader reader = new BitReader(new byte[]{(byte) 0b10110000}, 0);
+        assertEquals(0b1011, reader.peek(4));
+        assertEquals(0b1011, reader.peek(4));
+        assertEquals(0, reader.getBitPosition());
+
+        reader.consume(2);
+        assertEquals(0b11, reader.peek(2));
+        assertEquals(2, reader.getBitPosition());
+    }
+
+    @Test
+    public void readingPastTheEndOfTheArrayReturnsZeros() {
+        BitReader reader = new BitReader(new byte[]{(byte) 0xFF}, 0);
+        assertEquals(0xFF00, reader.read(16));
+        assertEquals(0, reader.read(BitReader.MAX_PEEK));
+    }
+
+    @Test
+    public void readerStartsFromTheGivenIndex() {
+        byte[] bytes = new byte[]{1, 2, 3, (byte) 0xAB, (byte) 0xCD};
+        BitReader reader = new BitReader(bytes, 3);
+        assertEquals(0xABCD, reader.read(16));
+        assertEquals(Byte.SIZE * bytes.length, reader.getBitPosition());
+    }
+
+    @Test
+    public void readWorksAcrossBufferRefills() {
+
+        byte[] bytes = new byte[100];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+
+        BitReader reader = new BitReader(bytes, 0);
+        reader.read(4);
+        for (int i = 0; i < bytes.length - 1; i++) {
+            int expected = ((i & 0x0F) << 4) | ((i + 1) >>> 4);
+            assertEquals(expected, reader.read(Byte.SIZE));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitWriterTest {
+
+    @Test
+    public void writtenBitsAreEqualToBitsAppendedToBitSequence() {
+
+        BitSequence expected = new BitSequence();
+        byte[] bytes = new byte[100];
+        BitWriter writer = new BitWriter(bytes, 0);
+
+        for (int i = 1; i < Integer.SIZE; i++) {
+            int bits = (1 << i) - 1 - i;
+            expected.append(bits, i);
+            writer.write(bits, i);
+        }
+        writer.flush();
+
+        assertEquals(expected.toString(), writer.toBitSequence().toString());
+    }
+
+    @Test
+    public void codewordsLongerThanAnIntAreWrittenCorrectly() {
+
+        byte[] bytes = new byte[8];
+        BitWriter writer = new BitWriter(bytes, 0);
+        writer.write(0b1, 1);
+        writer.write(0x1FFFFFFFFFL, 37);
+        writer.write(0b01, 2);
+        writer.flush();
+
+        BitSequence bitSeq = writer.toBitSequence();
+        assertEquals(40, bitSeq.getLengthInBits().longValue());
+        assertEquals("1111111111111111111111111111111111111101", bitSeq.toString());
+    }
+
+    @Test
+    public void writerPreservesBitsPrecedingItsStartingPosition() {
+
+        byte[] bytes = new byte[]{(byte) 0b10100000, 0};
+        BitWriter writer = new BitWriter(bytes, 3);
+        writer.write(0b11111, 5);
+        writer.write(0b1, 1);
+        writer.flush();
+
+        assertEquals((byte) 0b10111111, bytes[0]);
+        assertEquals((byte) 0b10000000, bytes[1]);
+        assertEquals(9, writer.getBitPosition());
+    }
+
+    @Test
+    public void toBitSequenceReturnsCorrectFreeBits() {
+
+        BitWriter writer = new BitWriter(new byte[2], 0);
+        writer.write(0b101, 3);
+        writer.flush();
+        assertEquals(5, writer.toBitSequence().getFreeBits());
+
+        writer = new BitWriter(new byte[2], 0);
+        writer.write(0xABCD, 16);
+        writer.flush();
+        BitSequence bitSeq = writer.toBitSequence();
+        assertEquals(0, bitSeq.getFreeBits());
+        assertEquals(2, bitSeq.getLengthInBytes());
+    }
+
+    @Test
+    public void flushWholeBytesReturnsBitsOfLastByteWithoutWritingThem() {
+
+        byte[] bytes = new byte[2];
+        BitWriter writer = new BitWriter(bytes, 0);
+        writer.write(0b1011001110L, 10);
+
+        assertEquals(0b10000000, writer.flushWholeBytes());
+        assertEquals((byte) 0b10110011, bytes[0]);
+        assertEquals(0, bytes[1]);
+    }
+}
@@ -0,0 +1,40 @@
+package domain;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
+
+public class BlockHuffmanTest {
+
+    @Test
+    public void decompressingCompressedBlockHuffmanFileRestoresItsOriginalContent()
+            throws IOException {
+        assertTrue(decompressingCompressedFileRestoresItsOriginalContent(new BlockHuffman()));
+    }
+
+    @Test
+    public void blockHuffmanWorksWhenLastBlockIsShorterThanBlockSize() {
+        byte[] originalData = randomSkewedData(1000);
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                new BlockHuffman(64, ForkJoinPool.commonPool()), originalData));
+    }
+
+    @Test
+    public void blockHuffmanOutputDoesNotDependOnNumberOfThreads() {
+
+        byte[] originalData = randomSkewedData(5000);
+        ForkJoinPool singleThreadPool = new ForkJoinPool(1);
+        ForkJoinPool multiThreadPool = new ForkJoinPool(4);
+
+        BitSequence singleThreadOutput =
+                new BlockHuffman(256, singleThreadPool).compressData(originalData);
+        BitSequence multiThreadOutput =
+                new BlockHuffman(256, multiThreadPool).compressData(originalData);
+
+        singleThreadPool.shutdown();
+        multiThreadPool.shutdown();
+        assertEquals(singleThreadOutput.toString(), multiThreadOutput.toString());
+    }
+}
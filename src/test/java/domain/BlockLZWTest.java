@@ -0,0 +1,51 @@
+package domain;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
+
+public class BlockLZWTest {
+
+    @Test
+    public void decompressingCompressedBlockLZWFileRestoresItsOriginalContent()
+            throws IOException {
+        assertTrue(decompressingCompressedFileRestoresItsOriginalContent(new BlockLZW()));
+    }
+
+    @Test
+    public void blockLZWWorksWhenLastBlockIsShorterThanBlockSize() {
+        // with 9-bit codewords the dictionary is also reset inside each block
+        byte[] originalData = randomSkewedData(10_000);
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                new BlockLZW(9, 3000, ForkJoinPool.commonPool()), originalData));
+    }
+
+    @Test
+    public void blockLZWRefusesBlocksWhoseLengthIsNotTheBlockSize() {
+        BlockLZW blockLZW = new BlockLZW(12, 3000, ForkJoinPool.commonPool());
+        byte[] compressedData = blockLZW.compressData(randomSkewedData(10_000)).getBits();
+        // the first block follows the header and the index of the 4 blocks
+        Utils.insertInt(2999, compressedData, 3 * Integer.BYTES + 4 * Integer.BYTES);
+        assertThrows(IllegalArgumentException.class,
+            () -> blockLZW.decompressData(compressedData));
+    }
+
+    @Test
+    public void blockLZWOutputDoesNotDependOnNumberOfThreads() {
+
+        byte[] originalData = randomSkewedData(50_000);
+        ForkJoinPool singleThreadPool = new ForkJoinPool(1);
+        ForkJoinPool multiThreadPool = new ForkJoinPool(4);
+
+        BitSequence singleThreadOutput =
+                new BlockLZW(12, 4096, singleThreadPool).compressData(originalData);
+        BitSequence multiThreadOutput =
+                new BlockLZW(12, 4096, multiThreadPool).compressData(originalData);
+
+        singleThreadPool.shutdown();
+        multiThreadPool.shutdown();
+        assertEquals(singleThreadOutput.toString(), multiThreadOutput.toString());
+    }
+}
@@ -0,0 +1,80 @@
+package domain;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteHistogramTest {
+
+    private static byte[] randomData(int length) {
+        byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+
+    private static long[] simpleCount(byte[] data, int fromIndex, int toIndex) {
+        long[] counts = new long[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        for (int i = fromIndex; i < toIndex; i++) {
+            counts[Byte.toUnsignedInt(data[i])]++;
+        }
+        return counts;
+    }
+
+    @Test
+    public void countIsEqualToSimpleCountForAnyRange() {
+        byte[] data = randomData(1000);
+        for (int fromIndex = 0; fromIndex < 5; fromIndex++) {
+            for (int toIndex = 990; toIndex <= 1000; toIndex++) {
+                assertArrayEquals(simpleCount(data, fromIndex, toIndex),
+                        ByteHistogram.count(data, fromIndex, toIndex));
+            }
+        }
+    }
+
+    @Test
+    public void countWorksWhenTheSameByteRepeats() {
+        byte[] data = new byte[1003];
+        Utils.fill(data, 0, data.length, (byte) -1);
+        assertEquals(1003, ByteHistogram.count(data, 0, data.length)[255]);
+    }
+
+    @Test
+    public void sampleCountsOnlyTheSampledBlocks() {
+        byte[] data = randomData(100_000);
+        long total = 0;
+        for (long count : ByteHistogram.sample(data, 7, data.length, 100, 16)) {
+            total += count;
+        }
+        assertEquals(1600, total);
+    }
+
+    @Test
+    public void sampleCountsTheWholeRangeWhenItIsNotLongerThanTheSample() {
+        byte[] data = randomData(1000);
+        assertArrayEquals(simpleCount(data, 0, 1000), ByteHistogram.sample(data, 0, 1000, 100, 10));
+    }
+
+    @Test
+    public void mergeSumsTheGivenHistograms() {
+        byte[] data = randomData(100);
+        long[] merged = ByteHistogram.merge(new long[][]{
+            ByteHistogram.count(data, 0, 40), ByteHistogram.count(data, 40, 100)});
+        assertArrayEquals(simpleCount(data, 0, 100), merged);
+    }
+
+    @Test
+    public void entropyOfUniformHistogramIsEightBits() {
+        long[] counts = new long[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        for (int byteValue = 0; byteValue < counts.length; byteValue++) {
+            counts[byteValue] = 3;
+        }
+        assertEquals(8.0, ByteHistogram.entropy(counts), 1e-9);
+    }
+
+    @Test
+    public void entropyOfSingleByteValueIsZero() {
+        long[] counts = new long[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        counts[42] = 1000;
+        assertEquals(0.0, ByteHistogram.entropy(counts), 1e-9);
+    }
+}
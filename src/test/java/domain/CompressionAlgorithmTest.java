@@ -1,17 +1,16 @@
 package domain;
 
-import io.FileUtils;
 import java.io.IOException;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
 import org.junit.jupiter.api.Disabled;
 
 public class CompressionAlgorithmTest {
 
-    private static final String TEST_TEXT_FILE_PATH = "test/test.txt";
     private static final String NONEXISTENT_FILE_PATH = "nonexistent";
     private static final int[] LENGTH_CHANGE_INDEXES = {255, 768, 1793, 3842};
     private static final int UNUSED_VALUES = LENGTH_CHANGE_INDEXES.length;
@@ -26,6 +25,23 @@ public class CompressionAlgorithmTest {
         assertTrue(decompressingCompressedFileRestoresItsOriginalContent(new LZW()));
     }
 
+    @Test
+    public void huffmanCompressesDataInChunksExactlyAsInASingleThread() {
+
+        byte[] originalData = randomSkewedData(10 * Huffman.MIN_CHUNK_SIZE + 12345);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Huffman huffman = new Huffman(pool);
+
+        BitSequence concurrentOutput = huffman.compressData(originalData);
+        BitSequence singleThreadOutput =
+                huffman.compressData(originalData, 0, originalData.length);
+
+        assertEquals(singleThreadOutput.getLengthInBits(), concurrentOutput.getLengthInBits());
+        assertArrayEquals(singleThreadOutput.getBits(), concurrentOutput.getBits());
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(huffman, originalData));
+        pool.shutdown();
+    }
+
     @Test
     public void huffmanWorksWhenDataContainsAllPossibleByteValuesWithDifferentProbabilities() {
         int length = 700;
@@ -47,6 +63,66 @@ public class CompressionAlgorithmTest {
         assertTrue(decompressingCompressedDataRestoresItsOriginalContent(new Huffman(), badData));
     }
 
+    @Test
+    public void huffmanWorksWithCodewordsLongerThanThePrimaryDecodingTable() {
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                new Huffman(), fibonacciDistributedData(30)));
+    }
+
+    @Test
+    public void huffmanWorksWhenDataContainsOnlyOneByteValue() {
+        byte[] originalData = new byte[1000];
+        Utils.fill(originalData, 0, originalData.length, (byte) 'a');
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                new Huffman(), originalData));
+    }
+
+    @Test
+    public void huffmanWorksWithEmptyData() {
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                new Huffman(), new byte[0]));
+    }
+
+    @Test
+    public void huffmanWithLimitedCodewordLengthDoesNotExceedTheLimit() {
+
+        byte[] originalData = fibonacciDistributedData(30);
+        Huffman huffman = new Huffman(11);
+        byte[] compressedData = huffman.compressData(originalData).getBits();
+
+        // the count of codewords of each length is stored up to the longest length
+        assertEquals(11, compressedData[Huffman.OFFSET_CWLENGTHS_LENGTH]);
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(huffman, originalData));
+    }
+
+    @Test
+    public void huffmanWorksWithCodewordLengthLimitAboveIntegerSize() {
+
+        // 34 symbols would get codewords of 33 bits without the limit
+        byte[] originalData = fibonacciDistributedData(34);
+        Huffman huffman = new Huffman(Integer.SIZE);
+        byte[] compressedData = huffman.compressData(originalData).getBits();
+
+        assertEquals(Integer.SIZE, compressedData[Huffman.OFFSET_CWLENGTHS_LENGTH]);
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(huffman, originalData));
+    }
+
+    @Test
+    public void huffmanIsFoundByNameForAnyCodewordLengthLimit() {
+        for (Huffman huffman : new Huffman[]{new Huffman(), new Huffman(Byte.SIZE),
+            new Huffman(CanonicalCode.MAX_CODEWORD_LENGTH), new Huffman(15, 4)}) {
+            assertEquals(huffman.getName(), Huffman.forName(huffman.getName()).getName());
+        }
+        assertNull(Huffman.forName("huffman7"));
+        assertNull(Huffman.forName("huffmans"));
+        assertNull(Huffman.forName("huff11"));
+    }
+
+    @Test
+    public void huffmanDoesNotAcceptTooShortCodewordLengthLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new Huffman(Byte.SIZE - 1));
+    }
+
     @Test
     public void lzwWorksWithSpecialCaseRightBeforeLengthChangesAndDictionaryReset() {
         assertTrue(lzwWorksWithSpecialCaseNearLengthChangesWithOffset(0));
@@ -78,36 +154,6 @@ public class CompressionAlgorithmTest {
         assertFalse(new LZW().decompressFile(Paths.get(NONEXISTENT_FILE_PATH)));
     }
 
-    private boolean decompressingCompressedFileRestoresItsOriginalContent(
-            CompressionAlgorithm algorithm) throws IOException {
-
-        String fileName = TEST_TEXT_FILE_PATH;
-        Path originalFilePath = Paths.get(fileName).toRealPath();
-        byte[] originalFile = FileUtils.readFile(originalFilePath);
-
-        algorithm.compressFile(originalFilePath);
-        Path compressedFilePath = Paths.get(fileName + algorithm.getExtension()).toRealPath();
-
-        algorithm.decompressFile(compressedFilePath);
-        byte[] decompressedFile = FileUtils.readFile(originalFilePath);
-
-        return Arrays.equals(originalFile, decompressedFile);
-    }
-
-    private boolean decompressingCompressedDataRestoresItsOriginalContent(
-            CompressionAlgorithm algorithm, byte[] originalData) {
-
-        BitSequence compressedDataBitSeq = algorithm.compressData(originalData);
-
-        int compressedDataLength = compressedDataBitSeq.getLengthInBytes();
-        byte[] compressedData = new byte[compressedDataLength];
-        System.arraycopy(compressedDataBitSeq.getBits(), 0, compressedData, 0, compressedDataLength);
-
-        byte[] decompressedData = algorithm.decompressData(compressedData);
-
-        return Arrays.equals(originalData, decompressedData);
-    }
-
     private boolean lzwWorksWithSpecialCaseNearLengthChangesWithOffset(int specialCaseOffset) {
 
         byte[] badData = new byte[4600];
@@ -0,0 +1,31 @@
+package domain;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
+
+public class Huffman4Test {
+
+    @Test
+    public void decompressingCompressedHuffman4FileRestoresItsOriginalContent()
+            throws IOException {
+        assertTrue(decompressingCompressedFileRestoresItsOriginalContent(new Huffman4()));
+    }
+
+    @Test
+    public void huffman4WorksWhenDataIsShorterThanStreamCount() {
+        for (int length = 0; length <= 2 * Huffman4.STREAM_COUNT + 1; length++) {
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    new Huffman4(), randomSkewedData(length)));
+        }
+    }
+
+    @Test
+    public void huffman4WorksWithLongestPossibleCodewords() {
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                new Huffman4(), fibonacciDistributedData(30)));
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                new Huffman4(), randomSkewedData(12345)));
+    }
+}
@@ -0,0 +1,47 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HuffmanCodeLengthsTest {
+
+    @Test
+    public void lengthsAreIndexedBySymbolAndZeroForMissingSymbols() {
+        long[] counts = new long[]{8, 0, 1, 4, 0, 1, 2};
+        int[] lengths = HuffmanCodeLengths.compute(counts, CanonicalCode.MAX_CODEWORD_LENGTH);
+        assertArrayEquals(new int[]{1, 0, 4, 2, 0, 4, 3}, lengths);
+    }
+
+    @Test
+    public void tiesBreakInFavorOfLeavesToMinimizeLengthVariance() {
+        // merging leaves first gives lengths {2, 2, 2, 2}, while merging the
+        // internal node of weight 2 first would give {1, 2, 3, 3}
+        long[] counts = new long[]{1, 1, 2, 2};
+        int[] lengths = HuffmanCodeLengths.compute(counts, CanonicalCode.MAX_CODEWORD_LENGTH);
+        assertArrayEquals(new int[]{2, 2, 2, 2}, lengths);
+    }
+
+    @Test
+    public void lengthsAreLimitedWhenCodeIsTooLong() {
+        long[] counts = new long[]{8, 4, 2, 1, 1};
+        assertArrayEquals(new int[]{1, 2, 3, 4, 4},
+                HuffmanCodeLengths.compute(counts, CanonicalCode.MAX_CODEWORD_LENGTH));
+        assertArrayEquals(new int[]{1, 3, 3, 3, 3}, HuffmanCodeLengths.compute(counts, 3));
+    }
+
+    @Test
+    public void singleSymbolGetsCodewordOfLengthOne() {
+        long[] counts = new long[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        counts[200] = 1000;
+        int[] lengths = HuffmanCodeLengths.compute(counts, CanonicalCode.MAX_CODEWORD_LENGTH);
+        assertEquals(1, lengths[200]);
+        assertEquals(0, lengths[0]);
+    }
+
+    @Test
+    public void largeWeightsAreSortedCorrectly() {
+        long[] counts = new long[]{1L << 40, 1, (1L << 40) + 1, 1L << 20};
+        int[] lengths = HuffmanCodeLengths.compute(counts, CanonicalCode.MAX_CODEWORD_LENGTH);
+        assertArrayEquals(new int[]{2, 3, 1, 3}, lengths);
+    }
+}
@@ -0,0 +1,77 @@
+package domain;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HuffmanDecoderCacheTest {
+
+    /**
+     * Returns the representation of a code where the given symbol has a
+     * codeword of length 1, and symbols 0 and 1 have codewords of length 2
+     * (or 1, if one of them is the given symbol).
+     */
+    private static TreeRepresentation treeRepresentation(int symbol) {
+        int[] codewordLengths = new int[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        codewordLengths[0] = 2;
+        codewordLengths[1] = 2;
+        codewordLengths[symbol] = 1;
+        return new TreeRepresentation(codewordLengths);
+    }
+
+    @Test
+    public void equalTreeRepresentationsGetTheSameDecoder() {
+        HuffmanDecoderCache cache = new HuffmanDecoderCache(4);
+        HuffmanDecoder decoder = cache.get(treeRepresentation(7));
+        assertSame(decoder, cache.get(treeRepresentation(7)));
+        assertNotSame(decoder, cache.get(treeRepresentation(8)));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.getSize());
+    }
+
+    @Test
+    public void leastRecentlyUsedDecoderIsEvictedWhenCacheIsFull() {
+
+        HuffmanDecoderCache cache = new HuffmanDecoderCache(2);
+        HuffmanDecoder decoder7 = cache.get(treeRepresentation(7));
+        HuffmanDecoder decoder8 = cache.get(treeRepresentation(8));
+        cache.get(treeRepresentation(7));
+        cache.get(treeRepresentation(9));
+
+        assertEquals(2, cache.getSize());
+        assertSame(decoder7, cache.get(treeRepresentation(7)));
+        assertNotSame(decoder8, cache.get(treeRepresentation(8)));
+        assertEquals(2, cache.getHits());
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void cachedDecoderDecodesLikeANewDecoder() {
+
+        byte[] originalData = "abracadabra".getBytes();
+        Huffman huffman = new Huffman();
+        byte[] compressedData = huffman.compressData(originalData).getBits();
+
+        assertArrayEquals(originalData, huffman.decompressData(compressedData));
+        assertArrayEquals(originalData, huffman.decompressData(compressedData));
+        assertEquals(1, huffman.getDecoderCache().getHits());
+        assertEquals(1, huffman.getDecoderCache().getMisses());
+    }
+
+    @Test
+    public void cacheCanBeUsedByManyThreads() {
+
+        HuffmanDecoderCache cache = new HuffmanDecoderCache(3);
+        ParallelLoop.run(ForkJoinPool.commonPool(), 0, 1000,
+            i -> assertNotNull(cache.get(treeRepresentation(2 + i % 5))));
+
+        assertEquals(1000, cache.getHits() + cache.getMisses());
+        assertEquals(3, cache.getSize());
+    }
+
+    @Test
+    public void constructorDoesNotAcceptNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new HuffmanDecoderCache(0));
+    }
+}
@@ -0,0 +1,63 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
+
+public class HuffmanTest {
+
+    @Test
+    public void sampledHuffmanEncodesByteValuesWhichAreNotInTheSample() {
+
+        // byte values other than zero are rare, so most of them won't be
+        // in the sampled blocks
+        byte[] originalData = new byte[64 * Huffman.SAMPLE_BLOCK_SIZE];
+        Random r = new Random(0);
+        for (int i = 0; i < 300; i++) {
+            originalData[r.nextInt(originalData.length)] = (byte) r.nextInt();
+        }
+
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                new Huffman(15, 4), originalData));
+    }
+
+    @Test
+    public void sampledHuffmanWorksWhenTheSampleUnderestimatesCompressedLength() {
+
+        // half of the data is random, so whichever half contains the single
+        // sampled block, the other arrangement gives a misleading sample
+        byte[] randomHalf = new byte[3 << 19];
+        new Random(0).nextBytes(randomHalf);
+        for (int randomHalfStart : new int[]{0, randomHalf.length}) {
+            byte[] originalData = new byte[2 * randomHalf.length];
+            Utils.arrayCopy(randomHalf, 0, originalData, randomHalfStart, randomHalf.length);
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    new Huffman(15, 1), originalData));
+        }
+    }
+
+    @Test
+    public void sampledHuffmanCompressesShortDataLikeHuffman() {
+        byte[] originalData = randomSkewedData(4 * Huffman.SAMPLE_BLOCK_SIZE);
+        assertArrayEquals(new Huffman(15).compressData(originalData).getBits(),
+                new Huffman(15, 4).compressData(originalData).getBits());
+    }
+
+    @Test
+    public void sampledHuffmanOutputCanBeDecompressedByAnyHuffman() {
+        byte[] originalData = randomSkewedData(10 * Huffman.SAMPLE_BLOCK_SIZE + 3);
+        BitSequence compressedData = new Huffman(15, 2).compressData(originalData);
+        byte[] compressedBytes = Arrays.copyOf(compressedData.getBits(),
+                compressedData.getLengthInBytes());
+        assertArrayEquals(originalData, new Huffman().decompressData(compressedBytes));
+    }
+
+    @Test
+    public void huffmanDoesNotAcceptSamplingWithoutCodewordLengthLimit() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new Huffman(Huffman.UNLIMITED_CW_LENGTH, 4));
+        assertThrows(IllegalArgumentException.class, () -> new Huffman(15, -1));
+    }
+}
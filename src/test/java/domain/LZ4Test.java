@@ -0,0 +1,136 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
+
+public class LZ4Test {
+
+    @Test
+    public void decompressingCompressedLZ4FileRestoresItsOriginalContent() throws IOException {
+        assertTrue(decompressingCompressedFileRestoresItsOriginalContent(new LZ4()));
+    }
+
+    @Test
+    public void lz4WritesSequencesInTheLZ4BlockFormat() {
+        byte[] originalData = "abcabcabcabcabcabcabcabc".getBytes(StandardCharsets.US_ASCII);
+        BitSequence compressed = new LZ4().compressData(originalData);
+        // 3 literals and a match of 16 bytes at distance 3, then the last 5
+        // bytes as literals
+        byte[] expected = {0, 0, 0, 24, 0x3C, 'a', 'b', 'c', 3, 0, 0x50, 'b', 'c', 'a', 'b', 'c'};
+        assertArrayEquals(expected, Arrays.copyOf(compressed.getBits(),
+                compressed.getLengthInBytes()));
+    }
+
+    @Test
+    public void lz4WorksWithLongLiteralRunsAndLongOverlappingMatches() {
+        // random data is made up of long literal runs, and runs of the same
+        // byte of long matches at distance 1
+        byte[] runs = new byte[100_000];
+        for (int i = 0; i < runs.length; i++) {
+            runs[i] = (byte) (i / 1000 % 3);
+        }
+        for (byte[] originalData : new byte[][]{randomSkewedData(100_000), runs,
+            wordData(300_000, 2)}) {
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    new LZ4(), originalData));
+        }
+        assertTrue(new LZ4().compressData(runs).getLengthInBytes() < 1000);
+    }
+
+    @Test
+    public void lz4WorksWithDataShorterThanTheShortestSequenceWithAMatch() {
+        for (int length = 0; length <= 40; length++) {
+            byte[] originalData = Arrays.copyOf(wordData(40, 1), length);
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    new LZ4(), originalData));
+        }
+    }
+
+    @Test
+    public void lz4FindsMatchesOnlyUpToTheMaximumDistance() {
+        byte[] block = randomSkewedData(1000);
+        for (int distance : new int[]{LZ4.MAX_DISTANCE, LZ4.MAX_DISTANCE + 1}) {
+            byte[] originalData = new byte[distance + 2 * block.length];
+            for (int i = 0; i < block.length; i++) {
+                originalData[i] = block[i];
+                originalData[distance + i] = block[i];
+            }
+            LZ4 lz4 = new LZ4();
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(lz4, originalData));
+            long compressedLength = lz4.compressData(originalData).getLengthInBytes();
+            assertEquals(distance == LZ4.MAX_DISTANCE, compressedLength < 3 * block.length / 2);
+        }
+    }
+
+    @Test
+    public void lz4CompressesIntoCallerBuffersWithADirtyHashTable() {
+        byte[] originalData = wordData(100_000, 1);
+        BitSequence expected = new LZ4().compressData(originalData);
+        LZ4 lz4 = new LZ4();
+        // direct buffers read little-endian, with data starting at an offset
+        ByteBuffer src = ByteBuffer.allocateDirect(originalData.length + 10)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer dest = ByteBuffer.allocateDirect(LZ4.maxCompressedLength(originalData.length)
+                + 20);
+        for (int i = 0; i < originalData.length; i++) {
+            src.put(10 + i, originalData[i]);
+        }
+        // as a new table is for data starting at index 0
+        int[] hashTable = new int[LZ4.HASH_TABLE_SIZE];
+        Arrays.fill(hashTable, 10);
+        int end = lz4.compress(src, 10, 10 + originalData.length, dest, 20, hashTable);
+        assertEquals(expected.getLengthInBytes() - Integer.BYTES, end - 20);
+        for (int i = 20; i < end; i++) {
+            assertEquals(expected.getBits()[Integer.BYTES + i - 20], dest.get(i));
+        }
+        // the hash table is left with positions of the previous data, which
+        // can be anywhere in the new data
+        for (int i = 0; i < hashTable.length; i += 2) {
+            hashTable[i] = i * 100;
+        }
+        src.put(10 + originalData.length / 2, (byte) 0);
+        originalData[originalData.length / 2] = 0;
+        end = lz4.compress(src, 10, 10 + originalData.length, dest, 20, hashTable);
+        ByteBuffer decompressed = ByteBuffer.allocate(originalData.length + 5);
+        assertEquals(end, lz4.decompress(dest, 20, decompressed, 5, 5 + originalData.length));
+        assertArrayEquals(originalData, Arrays.copyOfRange(decompressed.array(), 5,
+                5 + originalData.length));
+        assertEquals(0, src.position());
+        assertEquals(0, dest.position());
+    }
+
+    @Test
+    public void lz4NeverExceedsTheMaximumCompressedLength() {
+        for (int length : new int[]{0, 1, 13, 1000, 100_000}) {
+            byte[] originalData = new byte[length];
+            new Random(length).nextBytes(originalData);
+            assertTrue(new LZ4().compressData(originalData).getLengthInBytes()
+                    <= Integer.BYTES + LZ4.maxCompressedLength(length));
+        }
+    }
+
+    @Test
+    public void lz4DoesNotAcceptTooShortBuffersOrMatchesOutsideOfTheData() {
+        LZ4 lz4 = new LZ4();
+        ByteBuffer src = ByteBuffer.allocate(100);
+        assertThrows(IllegalArgumentException.class, () -> lz4.compress(src, 0, 100,
+                ByteBuffer.allocate(LZ4.maxCompressedLength(100) - 1), 0,
+                new int[LZ4.HASH_TABLE_SIZE]));
+        assertThrows(IllegalArgumentException.class, () -> lz4.compress(src, 0, 100,
+                ByteBuffer.allocate(LZ4.maxCompressedLength(100)), 0, new int[100]));
+        // 1 literal and a match at distance 2
+        ByteBuffer compressed = ByteBuffer.wrap(new byte[]{0x10, 'a', 2, 0, 0x50, 1, 2, 3, 4, 5});
+        assertThrows(IllegalArgumentException.class, () -> lz4.decompress(compressed, 0,
+                ByteBuffer.allocate(10), 0, 10));
+        // more literals than the original data
+        assertThrows(IllegalArgumentException.class, () -> lz4.decompress(compressed, 4,
+                ByteBuffer.allocate(4), 0, 4));
+    }
+}
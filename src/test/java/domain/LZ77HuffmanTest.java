@@ -0,0 +1,70 @@
+package domain;
+
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
+
+public class LZ77HuffmanTest {
+
+    @Test
+    public void decompressingCompressedLZ77HuffmanFileRestoresItsOriginalContent()
+            throws IOException {
+        assertTrue(decompressingCompressedFileRestoresItsOriginalContent(new LZ77Huffman()));
+    }
+
+    @Test
+    public void lz77HuffmanWorksWithAnyWindowSize() {
+        byte[] originalData = wordData(50_000, 1);
+        for (int windowBits = LZ77Parser.MIN_WINDOW_BITS; windowBits <= LZ77Parser.MAX_WINDOW_BITS;
+                windowBits++) {
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    new LZ77Huffman(windowBits, LZ77Huffman.DEFAULT_MAX_CHAIN_LENGTH, true),
+                    originalData));
+        }
+    }
+
+    @Test
+    public void lz77HuffmanWorksAcrossBlocksAndWithBlocksWithoutMatches() {
+        // random data has more tokens than a block, almost all of them
+        // literals; runs are matches longer than the longest match
+        byte[] runs = new byte[100_000];
+        for (int i = 0; i < runs.length; i++) {
+            runs[i] = (byte) (i / 1000 % 3);
+        }
+        for (byte[] originalData : new byte[][]{randomSkewedData(100_000), runs,
+            wordData(300_000, 2)}) {
+            for (boolean lazy : new boolean[]{false, true}) {
+                assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                        new LZ77Huffman(LZ77Huffman.DEFAULT_WINDOW_BITS, 8, lazy), originalData));
+            }
+        }
+    }
+
+    @Test
+    public void lz77HuffmanWorksWithDataShorterThanTheShortestMatch() {
+        for (int length = 0; length <= 16; length++) {
+            byte[] originalData = Arrays.copyOf(randomSkewedData(16), length);
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    new LZ77Huffman(), originalData));
+        }
+    }
+
+    @Test
+    public void lz77HuffmanCompressesTextBetterThanLZSSAndLZW() {
+        byte[] originalData = wordData(200_000, 1);
+        long lz77Huffman = new LZ77Huffman().compressData(originalData).getLengthInBits();
+        assertTrue(lz77Huffman < new LZSS().compressData(originalData).getLengthInBits());
+        assertTrue(lz77Huffman < new LZW(16).compressData(originalData).getLengthInBits());
+    }
+
+    @Test
+    public void lz77HuffmanIsFoundByNameAndExtensionForAnyWindowSize() {
+        assertEquals("lz77h16", LZ77Huffman.forName("lz77h16").getName());
+        assertEquals(".lz77h24", LZ77Huffman.forExtension(".lz77h24").getExtension());
+        assertNull(LZ77Huffman.forName("lz77h25"));
+        assertNull(LZ77Huffman.forName("lzss16"));
+        assertNull(LZ77Huffman.forExtension("lz77h16"));
+    }
+}
@@ -0,0 +1,97 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
+
+public class LZSSTest {
+
+    @Test
+    public void decompressingCompressedLZSSFileRestoresItsOriginalContent() throws IOException {
+        assertTrue(decompressingCompressedFileRestoresItsOriginalContent(new LZSS()));
+    }
+
+    @Test
+    public void lzssWorksWithAnyWindowSizeChainDepthAndMatching() {
+        for (byte[] originalData : new byte[][]{randomSkewedData(50_000), wordData(50_000, 1)}) {
+            for (int windowBits = LZSS.MIN_WINDOW_BITS; windowBits <= LZSS.MAX_WINDOW_BITS;
+                    windowBits++) {
+                for (int maxChainLength : new int[]{1, LZSS.DEFAULT_MAX_CHAIN_LENGTH}) {
+                    assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                            new LZSS(windowBits, maxChainLength, false), originalData));
+                    assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                            new LZSS(windowBits, maxChainLength, true), originalData));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void lzssWorksWithMatchesOverlappingTheirOwnOutput() {
+        // runs of the same byte are matches at distance 1, longer than the
+        // longest match
+        byte[] runs = new byte[10_000];
+        for (int i = 0; i < runs.length; i++) {
+            runs[i] = (byte) (i / 1000);
+        }
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(new LZSS(), runs));
+        assertTrue(new LZSS().compressData(runs).getLengthInBytes() < 1000);
+    }
+
+    @Test
+    public void lzssWorksWithDataShorterThanTheShortestMatch() {
+        for (int length = 0; length <= 16; length++) {
+            byte[] originalData = Arrays.copyOf("abababababababab".getBytes(
+                    StandardCharsets.US_ASCII), length);
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    new LZSS(), originalData));
+        }
+    }
+
+    @Test
+    public void lzssFindsMatchesOnlyInsideTheWindow() {
+        // random bytes repeated at the distance of the window (which can be
+        // matched), and one byte farther (which can't)
+        byte[] block = randomSkewedData(256);
+        for (int distance : new int[]{256, 257}) {
+            byte[] originalData = new byte[4 * distance];
+            for (int i = 0; i < originalData.length; i++) {
+                originalData[i] = i % distance < block.length ? block[i % distance] : 0;
+            }
+            LZSS lzss = new LZSS(8, LZSS.DEFAULT_MAX_CHAIN_LENGTH, true);
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(lzss, originalData));
+            long compressedLength = lzss.compressData(originalData).getLengthInBytes();
+            assertEquals(distance == 256, compressedLength < 2 * distance);
+        }
+    }
+
+    @Test
+    public void lzssCompressesTextBetterWithLazyMatchingAndLongerChains() {
+        byte[] originalData = wordData(200_000, 1);
+        long greedy = new LZSS(15, 4, false).compressData(originalData).getLengthInBits();
+        long lazy = new LZSS(15, 4, true).compressData(originalData).getLengthInBits();
+        long deep = new LZSS(15, 128, true).compressData(originalData).getLengthInBits();
+        assertTrue(lazy < greedy);
+        assertTrue(deep < lazy);
+    }
+
+    @Test
+    public void lzssIsFoundByNameAndExtensionForAnyWindowSize() {
+        assertEquals("lzss12", LZSS.forName("lzss12").getName());
+        assertEquals(".lzss18", LZSS.forExtension(".lzss18").getExtension());
+        assertNull(LZSS.forName("lzss7"));
+        assertNull(LZSS.forName("lzss19"));
+        assertNull(LZSS.forName("lzw12"));
+        assertNull(LZSS.forExtension("lzss12"));
+    }
+
+    @Test
+    public void lzssDoesNotAcceptUnsupportedWindowSizeOrChainDepth() {
+        assertThrows(IllegalArgumentException.class, () -> new LZSS(7, 1, false));
+        assertThrows(IllegalArgumentException.class, () -> new LZSS(19, 1, false));
+        assertThrows(IllegalArgumentException.class, () -> new LZSS(12, 0, true));
+    }
+}
@@ -0,0 +1,60 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LZWDictionaryPoolTest {
+
+    @Test
+    public void takeReturnsOnlyDictionariesOfASuitableSize() {
+        LZWDictionaryPool pool = new LZWDictionaryPool(2);
+        LZWPrefixDictionary dict = new LZWPrefixDictionary(1000, 0, true);
+        pool.giveBack(dict);
+
+        assertNull(pool.takeDictionary(4096));
+        assertNull(pool.takeDictionary(512));
+        assertSame(dict, pool.takeDictionary(1024));
+        assertNull(pool.takeDictionary(2048));
+    }
+
+    @Test
+    public void takeReturnsOnlyTablesOfASuitableSize() {
+        LZWDictionaryPool pool = new LZWDictionaryPool(2);
+        LZWStringTable table = new LZWStringTable(1000, true);
+        pool.giveBack(table);
+
+        assertNull(pool.takeTable(1001));
+        assertNull(pool.takeTable(499));
+        assertSame(table, pool.takeTable(500));
+        assertNull(pool.takeTable(1000));
+    }
+
+    @Test
+    public void poolKeepsAtMostItsCapacityAndNothingAfterClose() {
+        LZWDictionaryPool pool = new LZWDictionaryPool(1);
+        LZWStringTable first = new LZWStringTable(1000, true);
+        pool.giveBack(first);
+        pool.giveBack(new LZWStringTable(1000, true));
+
+        assertSame(first, pool.takeTable(1000));
+        assertNull(pool.takeTable(1000));
+
+        pool.giveBack(first);
+        pool.close();
+        assertNull(pool.takeTable(1000));
+        pool.giveBack(new LZWStringTable(1000, true));
+        assertNull(pool.takeTable(1000));
+    }
+
+    @Test
+    public void constructorThrowsExceptionWhenCapacityIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> new LZWDictionaryPool(-1));
+    }
+
+    @Test
+    public void poolWithNoCapacityKeepsNothing() {
+        LZWDictionaryPool pool = new LZWDictionaryPool(0);
+        pool.giveBack(new LZWPrefixDictionary(1000));
+        assertNull(pool.takeDictionary(2048));
+    }
+}
@@ -0,0 +1,70 @@
+package domain;
+
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
+
+public class LZWHuffmanTest {
+
+    @Test
+    public void decompressingCompressedLZWHuffmanFileRestoresItsOriginalContent()
+            throws IOException {
+        assertTrue(decompressingCompressedFileRestoresItsOriginalContent(new LZWHuffman()));
+    }
+
+    @Test
+    public void lzwHuffmanWorksWithAnyMaxCodewordLength() {
+        byte[] originalData = randomSkewedData(50_000);
+        for (int length = LZW.MIN_CW_LENGTH; length <= LZW.LONGEST_MAX_CW_LENGTH; length++) {
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    new LZWHuffman(length), originalData));
+        }
+    }
+
+    @Test
+    public void lzwHuffmanWorksAcrossBlocksAndDictionaryResets() {
+        // more codewords than a block, with the special case and a reset
+        // every 256 codewords
+        byte[] runs = new byte[100_000];
+        for (int i = 0; i < runs.length; i++) {
+            runs[i] = (byte) (i / 1000 % 3);
+        }
+        for (byte[] originalData : new byte[][]{randomSkewedData(100_000), runs}) {
+            for (int maxCodewordLength : new int[]{9, 12, 16}) {
+                assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                        new LZWHuffman(maxCodewordLength), originalData));
+            }
+        }
+    }
+
+    @Test
+    public void lzwHuffmanWorksWithDataShorterThanAnyDictionaryString() {
+        for (int length = 0; length <= 16; length++) {
+            byte[] originalData = Arrays.copyOf(randomSkewedData(16), length);
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    new LZWHuffman(), originalData));
+        }
+    }
+
+    @Test
+    public void lzwHuffmanCompressesTextBetterThanLZW() {
+        byte[] originalData = wordData(200_000, 1);
+        for (int maxCodewordLength : new int[]{12, 16}) {
+            assertTrue(new LZWHuffman(maxCodewordLength).compressData(originalData).getLengthInBits()
+                    < new LZW(maxCodewordLength).compressData(originalData).getLengthInBits());
+        }
+    }
+
+    @Test
+    public void lzwHuffmanIsFoundByNameAndExtensionForAnyMaximumCodewordLength() {
+        assertEquals("lzwh9", LZWHuffman.forName("lzwh9").getName());
+        assertEquals(".lzwh24", LZWHuffman.forExtension(".lzwh24").getExtension());
+        assertNull(LZWHuffman.forName("lzwh8"));
+        assertNull(LZWHuffman.forName("lzwh25"));
+        assertNull(LZWHuffman.forName("lzw12"));
+        assertNull(LZWHuffman.forExtension("lzwh12"));
+        assertNull(LZW.forName("lzwh12"));
+    }
+}
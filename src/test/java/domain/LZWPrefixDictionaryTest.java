@@ -0,0 +1,106 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LZWPrefixDictionaryTest {
+
+    @Test
+    public void putPutsOneEntryInDictionaryAndGetReturnsItsValue() {
+        PrefixDictionary dict = new LZWPrefixDictionary(4096);
+        dict.put(300, (byte) 255, 51);
+        assertEquals(51, dict.get(300, (byte) 255));
+    }
+
+    @Test
+    public void getReturnsNotFoundWhenKeyIsNotInDictionary() {
+        PrefixDictionary dict = new LZWPrefixDictionary(4096);
+        dict.put(300, (byte) 255, 51);
+        assertEquals(PrefixDictionary.NOT_FOUND, dict.get(300, (byte) 254));
+        assertEquals(PrefixDictionary.NOT_FOUND, dict.get(299, (byte) 255));
+    }
+
+    @Test
+    public void getReturnsCorrectValuesWhenDictionaryIsFull() {
+
+        int maxEntries = 1 << 12;
+        PrefixDictionary dict = new LZWPrefixDictionary(maxEntries);
+        for (int code = 0; code < maxEntries; code++) {
+            dict.put(code / 3, (byte) (code * 7), code);
+        }
+
+        for (int code = 0; code < maxEntries; code++) {
+            assertEquals(code, dict.get(code / 3, (byte) (code * 7)));
+        }
+        assertEquals(PrefixDictionary.NOT_FOUND, dict.get(maxEntries, (byte) 0));
+    }
+
+    @Test
+    public void clearRemovesAllEntries() {
+        PrefixDictionary dict = new LZWPrefixDictionary(16);
+        dict.put(1, (byte) 2, 3);
+        dict.clear();
+        assertEquals(PrefixDictionary.NOT_FOUND, dict.get(1, (byte) 2));
+    }
+
+    @Test
+    public void everyLookupExaminesAtLeastOneSlot() {
+        LZWPrefixDictionary dict = new LZWPrefixDictionary(16);
+        dict.put(1, (byte) 2, 3);
+        dict.get(1, (byte) 2);
+        dict.get(1, (byte) 3);
+        assertEquals(2, dict.getLookups());
+        assertTrue(dict.getProbes() >= 2);
+    }
+
+    @Test
+    public void offHeapDictionaryReturnsCorrectValuesWhenFull() {
+
+        int maxEntries = 1 << 12;
+        try (LZWPrefixDictionary dict = new LZWPrefixDictionary(maxEntries, 0, true)) {
+            assertTrue(dict.isOffHeap());
+            for (int code = 0; code < maxEntries; code++) {
+                dict.put(code / 3, (byte) (code * 7), code);
+            }
+            for (int code = 0; code < maxEntries; code++) {
+                assertEquals(code, dict.get(code / 3, (byte) (code * 7)));
+            }
+            dict.clear();
+            assertEquals(PrefixDictionary.NOT_FOUND, dict.get(0, (byte) 0));
+        }
+    }
+
+    @Test
+    public void offHeapTableCanNotExceedItsMaximumSize() {
+        assertThrows(IllegalArgumentException.class, () -> new LZWPrefixDictionary(
+                1, 2 * LZWPrefixDictionary.MAX_OFF_HEAP_TABLE_SIZE, true));
+    }
+
+    @Test
+    public void getLooksUpKeysInTheBaseDictionaryWhichClearDoesNotRemove() {
+        LZWPrefixDictionary base = new LZWPrefixDictionary(16);
+        base.put(1, (byte) 2, 3);
+        LZWPrefixDictionary dict = new LZWPrefixDictionary(16, 0, false, base);
+        dict.put(3, (byte) 4, 5);
+
+        assertEquals(3, dict.get(1, (byte) 2));
+        assertEquals(5, dict.get(3, (byte) 4));
+        assertEquals(PrefixDictionary.NOT_FOUND, base.get(3, (byte) 4));
+        dict.clear();
+        assertEquals(3, dict.get(1, (byte) 2));
+        assertEquals(PrefixDictionary.NOT_FOUND, dict.get(3, (byte) 4));
+        // probes of the base dictionary are counted by the dictionary looked up
+        assertEquals(4, dict.getLookups());
+        assertTrue(dict.getProbes() >= 6);
+        assertEquals(1, base.getLookups());
+    }
+
+    @Test
+    public void tableIsAPowerOfTwoAtLeastTwiceTheMaxEntries() {
+        assertEquals(8192, new LZWPrefixDictionary(4096).getTableSize());
+        assertEquals(16384, new LZWPrefixDictionary(4096, 12289).getTableSize());
+        assertEquals(16384, LZWPrefixDictionary.tableSize(4096, 12289));
+        assertEquals(12 * 16384, LZWPrefixDictionary.sizeInBytes(16384));
+        assertThrows(IllegalArgumentException.class, () -> new LZWPrefixDictionary(0));
+    }
+}
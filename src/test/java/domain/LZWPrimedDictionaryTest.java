@@ -0,0 +1,93 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LZWPrimedDictionaryTest {
+
+    private static final String TEST_DICTIONARY_FILE_PATH = "test/test.txt.dictionary";
+
+    @Test
+    public void entriesAreThoseLZWPutsWhileCompressingTheSample() {
+
+        LZWPrimedDictionary dictionary = new LZWPrimedDictionary(
+                "abababab".getBytes(StandardCharsets.US_ASCII), 12);
+        String[] strings = {"ab", "ba", "aba", "abab"};
+
+        assertEquals(strings.length, dictionary.getEntryCount());
+        assertEquals(256 + strings.length, dictionary.getFirstCodeword());
+        for (int i = 0; i < strings.length; i++) {
+            byte[] string = new byte[strings[i].length()];
+            assertEquals(string.length, dictionary.copyString(256 + i, string, 0));
+            assertEquals(strings[i], new String(string, StandardCharsets.US_ASCII));
+        }
+        assertEquals(256, dictionary.getEntries().get('a', (byte) 'b'));
+        assertEquals(258, dictionary.getEntries().get(256, (byte) 'a'));
+        assertEquals(259, dictionary.getEntries().get(258, (byte) 'b'));
+    }
+
+    @Test
+    public void entriesTakeAtMostHalfOfTheCodewords() {
+        byte[] sample = randomData(100_000);
+        assertEquals(512, new LZWPrimedDictionary(sample, 10).getFirstCodeword());
+        assertEquals(1 << 13, new LZWPrimedDictionary(sample, 14).getFirstCodeword());
+        assertEquals(0, new LZWPrimedDictionary(sample, LZW.MIN_CW_LENGTH).getEntryCount());
+        assertEquals(0, new LZWPrimedDictionary(new byte[1], 12).getEntryCount());
+        assertEquals(0, new LZWPrimedDictionary(new byte[0], 12).getEntryCount());
+    }
+
+    @Test
+    public void fromBytesRestoresTheDictionaryWrittenByToBytes() {
+
+        LZWPrimedDictionary dictionary = new LZWPrimedDictionary(randomData(100_000), 14);
+        byte[] bytes = dictionary.toBytes();
+        LZWPrimedDictionary restored = LZWPrimedDictionary.fromBytes(bytes);
+
+        assertEquals(dictionary.getId(), restored.getId());
+        assertEquals(dictionary.getEntryCount(), restored.getEntryCount());
+        assertEquals(14, restored.getMaxCodewordLength());
+        assertArrayEquals(bytes, restored.toBytes());
+        assertNotEquals(LZWPrimedDictionary.NO_DICTIONARY_ID,
+                new LZWPrimedDictionary(new byte[0], 12).getId());
+    }
+
+    @Test
+    public void fromBytesThrowsExceptionWhenContentIsNotAValidDictionary() {
+
+        byte[] bytes = new LZWPrimedDictionary(randomData(10_000), 12).toBytes();
+        bytes[bytes.length / 2]++;
+
+        assertThrows(IllegalArgumentException.class, () -> LZWPrimedDictionary.fromBytes(bytes));
+        assertThrows(IllegalArgumentException.class, () -> LZWPrimedDictionary.fromBytes(new byte[3]));
+        assertThrows(IllegalArgumentException.class, () -> new LZWPrimedDictionary(new byte[10], 25));
+    }
+
+    @Test
+    public void readFileReturnsTheDictionaryWrittenByWriteFile() throws IOException {
+
+        Path path = Paths.get(TEST_DICTIONARY_FILE_PATH);
+        LZWPrimedDictionary dictionary = new LZWPrimedDictionary(randomData(10_000), 12);
+        try {
+            assertTrue(dictionary.writeFile(path));
+            assertEquals(dictionary.getId(), LZWPrimedDictionary.readFile(path).getId());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+        assertNull(LZWPrimedDictionary.readFile(path));
+    }
+
+    private byte[] randomData(int length) {
+        byte[] data = new byte[length];
+        Random r = new Random(length);
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) ('a' + r.nextInt(1 + r.nextInt(8)));
+        }
+        return data;
+    }
+}
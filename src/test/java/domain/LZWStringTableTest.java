@@ -0,0 +1,36 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LZWStringTableTest {
+
+    @Test
+    public void getOffsetAndGetLengthReturnWhatWasPut() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            try (LZWStringTable table = new LZWStringTable(4096, offHeap)) {
+                for (int codeword = 0; codeword < 4096; codeword++) {
+                    table.put(codeword, 3 * codeword, codeword + 1);
+                }
+                for (int codeword = 0; codeword < 4096; codeword++) {
+                    assertEquals(3 * codeword, LZWStringTable.offset(table.get(codeword)));
+                    assertEquals(codeword + 1, LZWStringTable.length(table.get(codeword)));
+                }
+                assertEquals(offHeap, table.isOffHeap());
+            }
+        }
+    }
+
+    @Test
+    public void sizeIsOneLongPerEntry() {
+        assertEquals(8 * 4096, LZWStringTable.sizeInBytes(4096));
+        assertEquals(4096, new LZWStringTable(4096, false).getEntryCount());
+    }
+
+    @Test
+    public void constructorDoesNotAcceptInvalidEntryCounts() {
+        assertThrows(IllegalArgumentException.class, () -> new LZWStringTable(-1, false));
+        assertThrows(IllegalArgumentException.class, () -> new LZWStringTable(
+                LZWStringTable.MAX_OFF_HEAP_ENTRY_COUNT + 1, true));
+    }
+}
@@ -0,0 +1,287 @@
+package domain;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
+
+public class LZWTest {
+
+    @Test
+    public void lzwOutputIsEqualToThatOfAWholeStringDictionary() {
+
+        // with 9-bit codewords the dictionary is reset every 256 strings,
+        // also when the string which didn't match is longer than two bytes
+        byte[] originalData = randomSkewedData(100_000);
+        for (int i = 0; i < originalData.length; i++) {
+            originalData[i] = (byte) ('a' + Byte.toUnsignedInt(originalData[i]) % 5);
+        }
+
+        for (int maxCodewordLength = 9; maxCodewordLength <= 12; maxCodewordLength++) {
+            BitSequence expected = wholeStringLZW(originalData, maxCodewordLength);
+            BitSequence actual = new LZW(maxCodewordLength).compressData(originalData);
+            assertEquals(expected.getLengthInBits(), actual.getLengthInBits());
+            assertArrayEquals(Arrays.copyOf(expected.getBits(), expected.getLengthInBytes()),
+                    Arrays.copyOf(actual.getBits(), actual.getLengthInBytes()));
+        }
+    }
+
+    /**
+     * Compresses the given data like LZW does, but using a map whose keys are
+     * whole strings (as LZW did before using {@link PrefixDictionary}).
+     */
+    private BitSequence wholeStringLZW(byte[] originalData, int maxCodewordLength) {
+
+        Map<String, Integer> dict = new HashMap<>();
+        BitSequence compressedData = new BitSequence(new byte[originalData.length], Byte.SIZE, 12);
+        byte[] originalDataLength = Utils.toByteArray(originalData.length);
+        Utils.arrayCopy(originalDataLength, 0, compressedData.getBits(), 0, Integer.BYTES);
+
+        int newCodeword = Utils.POSSIBLE_BYTE_VALUES_COUNT;
+        int codeWordLength = 9;
+        String string = new String(originalData, 0, 1, StandardCharsets.ISO_8859_1);
+        for (int i = 1; i < originalData.length; i++) {
+            String nextString = string + (char) Byte.toUnsignedInt(originalData[i]);
+            if (nextString.length() == 1 || dict.containsKey(nextString)) {
+                string = nextString;
+                continue;
+            }
+            compressedData.append(codeword(dict, string), codeWordLength);
+            if (newCodeword == 1 << codeWordLength && ++codeWordLength > maxCodewordLength) {
+                dict.clear();
+                newCodeword = Utils.POSSIBLE_BYTE_VALUES_COUNT;
+                codeWordLength = 9;
+            }
+            dict.put(nextString, newCodeword++);
+            string = nextString.substring(nextString.length() - 1);
+        }
+
+        compressedData.append(codeword(dict, string), codeWordLength);
+        compressedData.getBits()[Integer.BYTES] = (byte) compressedData.getFreeBits();
+        return compressedData;
+    }
+
+    private int codeword(Map<String, Integer> dict, String string) {
+        return string.length() == 1 ? string.charAt(0) : dict.get(string);
+    }
+
+    @Test
+    public void lzwWorksWithDataShorterThanAnyDictionaryString() {
+        for (int length = 0; length <= 16; length++) {
+            byte[] originalData = Arrays.copyOf(randomSkewedData(16), length);
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(new LZW(), originalData));
+        }
+    }
+
+    @Test
+    public void lzwWorksWithRunsWhereTheSpecialCaseRepeatsAcrossDictionaryResets() {
+
+        // each run makes the special case happen several times in a row, and
+        // its strings are copied from data decoded just before them
+        byte[] originalData = new byte[200_000];
+        int i = 0;
+        for (int run = 1; i < originalData.length; run = run % 300 + 1) {
+            byte value = (byte) (run % 3);
+            for (int j = 0; j < run && i < originalData.length; j++) {
+                originalData[i++] = value;
+            }
+        }
+
+        for (int maxCodewordLength = 9; maxCodewordLength <= 12; maxCodewordLength++) {
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    new LZW(maxCodewordLength), originalData));
+        }
+    }
+
+    @Test
+    public void lzwWorksWithAnyMaxCodewordLength() {
+        byte[] originalData = randomSkewedData(50_000);
+        for (int length = LZW.MIN_CW_LENGTH; length <= LZW.LONGEST_MAX_CW_LENGTH; length++) {
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    new LZW(length), originalData));
+        }
+    }
+
+    @Test
+    public void lzwOutputDoesNotDependOnHashTableSize() {
+        byte[] originalData = randomSkewedData(100_000);
+        BitSequence expected = new LZW(16).compressData(originalData);
+        BitSequence actual = new LZW(16, 393161).compressData(originalData);
+        assertArrayEquals(Arrays.copyOf(expected.getBits(), expected.getLengthInBytes()),
+                Arrays.copyOf(actual.getBits(), actual.getLengthInBytes()));
+    }
+
+    @Test
+    public void lzwIsFoundByNameAndExtensionForAnyMaxCodewordLength() {
+        assertEquals("lzw14", LZW.forName("lzw14").getName());
+        assertEquals(".lzw24", LZW.forExtension(".lzw24").getExtension());
+        assertNull(LZW.forName("lzw8"));
+        assertNull(LZW.forName("lzw25"));
+        assertNull(LZW.forName("lzw09"));
+        assertNull(LZW.forName("huffman"));
+        assertNull(LZW.forExtension("lzw14"));
+    }
+
+    @Test
+    public void lzwDoesNotAcceptUnsupportedMaxCodewordLength() {
+        assertThrows(IllegalArgumentException.class, () -> new LZW(8));
+        assertThrows(IllegalArgumentException.class, () -> new LZW(25));
+        assertThrows(IllegalArgumentException.class, () -> new LZW(12, -1));
+    }
+
+    @Test
+    public void lzwCountsDictionaryLookupsAndProbes() {
+        LZW lzw = new LZW();
+        lzw.compressData(randomSkewedData(10_000));
+        assertTrue(lzw.getDictionaryLookups() > 0);
+        assertTrue(lzw.getDictionaryProbes() >= lzw.getDictionaryLookups());
+    }
+
+    @Test
+    public void lzwCompressesARangeExactlyLikeACopyOfIt() {
+
+        byte[] originalData = randomSkewedData(20_000);
+        BitSequence expected = new LZW(10).compressData(Arrays.copyOfRange(originalData, 123, 15_000));
+        BitSequence actual = new LZW(10).compressData(originalData, 123, 15_000);
+        assertArrayEquals(Arrays.copyOf(expected.getBits(), expected.getLengthInBytes()),
+                Arrays.copyOf(actual.getBits(), actual.getLengthInBytes()));
+
+        byte[] decompressedData = new byte[20_000];
+        new LZW(10).decompressData(Arrays.copyOf(actual.getBits(), actual.getLengthInBytes()),
+                0, decompressedData, 123);
+        assertArrayEquals(Arrays.copyOfRange(originalData, 123, 15_000),
+                Arrays.copyOfRange(decompressedData, 123, 15_000));
+    }
+
+    @Test
+    public void lzwWithOffHeapDictionariesProducesTheSameOutput() {
+
+        byte[] originalData = randomSkewedData(100_000);
+        LZW offHeapLZW = new LZW(12, LZW.AUTOMATIC_HASH_TABLE_SIZE, true);
+        BitSequence expected = new LZW(12).compressData(originalData);
+        BitSequence actual = offHeapLZW.compressData(originalData);
+
+        assertArrayEquals(Arrays.copyOf(expected.getBits(), expected.getLengthInBytes()),
+                Arrays.copyOf(actual.getBits(), actual.getLengthInBytes()));
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(offHeapLZW, originalData));
+    }
+
+    @Test
+    public void lzwReusesOffHeapDictionariesForDataOfDifferentLengths() {
+
+        LZW offHeapLZW = new LZW(16, LZW.AUTOMATIC_HASH_TABLE_SIZE, true);
+        LZW heapLZW = new LZW(16);
+        for (int length : new int[]{100_000, 60_000, 100_000, 10, 100_000}) {
+            byte[] originalData = randomSkewedData(length);
+            BitSequence expected = heapLZW.compressData(originalData);
+            BitSequence actual = offHeapLZW.compressData(originalData);
+
+            byte[] compressedData = Arrays.copyOf(actual.getBits(), actual.getLengthInBytes());
+            assertArrayEquals(Arrays.copyOf(expected.getBits(), expected.getLengthInBytes()),
+                    compressedData);
+            assertArrayEquals(originalData, offHeapLZW.decompressData(compressedData));
+        }
+        assertEquals(heapLZW.getDictionaryLookups(), offHeapLZW.getDictionaryLookups());
+        assertEquals(heapLZW.getDictionaryProbes(), offHeapLZW.getDictionaryProbes());
+
+        offHeapLZW.close();
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                offHeapLZW, randomSkewedData(1000)));
+    }
+
+    @Test
+    public void lzwKeepsWideDictionariesOffTheHeapAndReportsTheirSize() {
+        assertFalse(new LZW(LZW.OFF_HEAP_MIN_CW_LENGTH - 1).isOffHeap());
+        assertTrue(new LZW(LZW.OFF_HEAP_MIN_CW_LENGTH).isOffHeap());
+        // a table twice as large as the number of entries, 12 bytes per slot
+        assertEquals(12 * 2 * (1 << 24), new LZW(24).compressionDictionarySize(1 << 30));
+        assertEquals(12 * 2 * 1024, new LZW(24).compressionDictionarySize(1000));
+        assertEquals(8 * 1000, new LZW(24).decompressionTableSize(1000));
+    }
+
+    @Test
+    public void lzwWithPrimedDictionaryCompressesShortDataBetter() {
+
+        LZWPrimedDictionary dictionary = new LZWPrimedDictionary(wordData(100_000, 1), 16);
+        byte[] originalData = wordData(2000, 2);
+        LZW primedLZW = new LZW(dictionary);
+
+        assertTrue(primedLZW.compressData(originalData).getLengthInBytes()
+                < new LZW(16).compressData(originalData).getLengthInBytes() / 2);
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(primedLZW, originalData));
+        assertEquals("lzw16p", primedLZW.getName());
+    }
+
+    @Test
+    public void lzwWithPrimedDictionaryWorksAcrossDictionaryResets() {
+        for (int maxCodewordLength = LZW.MIN_CW_LENGTH; maxCodewordLength <= 14; maxCodewordLength++) {
+            // both a full dictionary and one whose first codeword isn't a power of two
+            for (int sampleLength : new int[]{100_000, 300}) {
+                LZWPrimedDictionary dictionary = new LZWPrimedDictionary(
+                        wordData(sampleLength, 1), maxCodewordLength);
+                for (byte[] originalData : new byte[][]{wordData(50_000, 2), randomSkewedData(20_000),
+                    new byte[30_000], wordData(1, 3), new byte[0]}) {
+                    assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                            new LZW(dictionary), originalData));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void lzwWithPrimedDictionaryOffTheHeapProducesTheSameOutput() {
+
+        LZWPrimedDictionary dictionary = new LZWPrimedDictionary(wordData(100_000, 1), 12);
+        byte[] originalData = wordData(20_000, 2);
+        BitSequence expected = new LZW(dictionary).compressData(originalData);
+        BitSequence actual = new LZW(dictionary.getMaxCodewordLength(), LZW.AUTOMATIC_HASH_TABLE_SIZE,
+                true, dictionary).compressData(originalData);
+
+        assertArrayEquals(Arrays.copyOf(expected.getBits(), expected.getLengthInBytes()),
+                Arrays.copyOf(actual.getBits(), actual.getLengthInBytes()));
+    }
+
+    @Test
+    public void lzwDoesNotDecompressDataCompressedWithAnotherDictionary() {
+
+        LZWPrimedDictionary dictionary = new LZWPrimedDictionary(wordData(10_000, 1), 12);
+        LZWPrimedDictionary otherDictionary = new LZWPrimedDictionary(wordData(10_000, 2), 12);
+        byte[] originalData = wordData(1000, 3);
+        BitSequence primed = new LZW(dictionary).compressData(originalData);
+        BitSequence unprimed = new LZW(12).compressData(originalData);
+
+        assertThrows(IllegalArgumentException.class, () -> new LZW(12).decompressData(
+                Arrays.copyOf(primed.getBits(), primed.getLengthInBytes())));
+        assertThrows(IllegalArgumentException.class, () -> new LZW(otherDictionary).decompressData(
+                Arrays.copyOf(primed.getBits(), primed.getLengthInBytes())));
+        assertThrows(IllegalArgumentException.class, () -> new LZW(dictionary).decompressData(
+                Arrays.copyOf(unprimed.getBits(), unprimed.getLengthInBytes())));
+    }
+
+    @Test
+    public void lzwGivesEachCodewordALimitWhichTheDecoderKnowsToo() {
+
+        byte[] originalData = randomSkewedData(20_000);
+        int[] codewords = new int[originalData.length];
+        int[] limits = new int[originalData.length];
+        int[] count = new int[1];
+        LZW lzw = new LZW(9);
+        lzw.parse(originalData, 0, originalData.length, (codeword, limit) -> {
+            assertTrue(codeword < limit && limit <= 1 << 9);
+            codewords[count[0]] = codeword;
+            limits[count[0]++] = limit;
+        });
+
+        byte[] decompressedData = new byte[originalData.length];
+        int[] i = new int[1];
+        lzw.decode(limit -> {
+            assertEquals(limits[i[0]], limit);
+            return codewords[i[0]++];
+        }, decompressedData, 0, decompressedData.length);
+        assertEquals(count[0], i[0]);
+        assertArrayEquals(originalData, decompressedData);
+    }
+}
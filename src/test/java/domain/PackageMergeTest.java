@@ -0,0 +1,77 @@
+package domain;
+
+import java.math.BigInteger;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackageMergeTest {
+
+    private static final long[] FIBONACCI_WEIGHTS =
+            new long[]{1, 1, 2, 3, 5, 8, 13, 21, 34, 55, 89, 144};
+
+    @Test
+    public void lengthsAreEqualToHuffmanLengthsWhenLimitIsNotReached() {
+        int[] lengths = PackageMerge.codewordLengths(new long[]{1, 1, 2, 4, 8}, 4);
+        assertArrayEquals(new int[]{4, 4, 3, 2, 1}, lengths);
+    }
+
+    @Test
+    public void lengthsAreOptimalWhenLimitIsReached() {
+        int[] lengths = PackageMerge.codewordLengths(new long[]{1, 1, 2, 4, 8}, 3);
+        assertArrayEquals(new int[]{3, 3, 3, 3, 1}, lengths);
+    }
+
+    @Test
+    public void lengthsDoNotExceedLimitAndSatisfyKraftEquality() {
+
+        int maxLength = 5;
+        int[] lengths = PackageMerge.codewordLengths(FIBONACCI_WEIGHTS, maxLength);
+
+        long kraftSum = 0;
+        for (int length : lengths) {
+            assertTrue(length >= 1 && length <= maxLength);
+            kraftSum += 1L << (maxLength - length);
+        }
+        assertEquals(1L << maxLength, kraftSum);
+    }
+
+    @Test
+    public void lengthsAreAllEqualWhenLimitIsTheShortestPossible() {
+        int[] lengths = PackageMerge.codewordLengths(new long[]{1, 2, 3, 100}, 2);
+        assertArrayEquals(new int[]{2, 2, 2, 2}, lengths);
+    }
+
+    @Test
+    public void tooShortLimitIsNotAccepted() {
+        assertThrows(IllegalArgumentException.class,
+            () -> PackageMerge.codewordLengths(FIBONACCI_WEIGHTS, 3));
+    }
+
+    @Test
+    public void lengthsCanReachTheLongestPossibleCodewordLength() {
+
+        // Huffman would give the lightest symbols codewords of 65 bits
+        long[] weights = new long[66];
+        weights[0] = 1;
+        weights[1] = 1;
+        for (int i = 2; i < weights.length; i++) {
+            weights[i] = weights[i - 1] + weights[i - 2];
+        }
+        int maxLength = CanonicalCode.MAX_CODEWORD_LENGTH;
+        int[] lengths = PackageMerge.codewordLengths(weights, maxLength);
+
+        BigInteger kraftSum = BigInteger.ZERO;
+        for (int length : lengths) {
+            assertTrue(length >= 1 && length <= maxLength);
+            kraftSum = kraftSum.add(BigInteger.ONE.shiftLeft(maxLength - length));
+        }
+        assertEquals(maxLength, lengths[0]);
+        assertEquals(BigInteger.ONE.shiftLeft(maxLength), kraftSum);
+    }
+
+    @Test
+    public void tooLongLimitIsNotAccepted() {
+        assertThrows(IllegalArgumentException.class, () -> PackageMerge.codewordLengths(
+                FIBONACCI_WEIGHTS, CanonicalCode.MAX_CODEWORD_LENGTH + 1));
+    }
+}
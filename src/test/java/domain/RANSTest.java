@@ -0,0 +1,83 @@
+package domain;
+
+import java.io.IOException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
+
+public class RANSTest {
+
+    @Test
+    public void decompressingCompressedRANSFileRestoresItsOriginalContent() throws IOException {
+        assertTrue(decompressingCompressedFileRestoresItsOriginalContent(new RANS()));
+    }
+
+    @Test
+    public void ransWorksWithAnyLengthAndAnyNumberOfByteValues() {
+        Random r = new Random(1);
+        for (int length = 0; length < 50; length++) {
+            byte[] originalData = new byte[length];
+            for (int i = 0; i < length; i++) {
+                originalData[i] = (byte) r.nextInt(1 + length % 3 * 120);
+            }
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    new RANS(), originalData));
+        }
+        byte[] allValues = new byte[Utils.POSSIBLE_BYTE_VALUES_COUNT * 3];
+        for (int i = 0; i < allValues.length; i++) {
+            allValues[i] = (byte) i;
+        }
+        byte[] run = new byte[100_003];
+        Utils.fill(run, 0, run.length, (byte) -1);
+        for (byte[] originalData : new byte[][]{allValues, run, fibonacciDistributedData(30),
+            randomSkewedData(100_001)}) {
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    new RANS(), originalData));
+        }
+    }
+
+    @Test
+    public void ransNormalizedFrequenciesSumUpToTotalFrequency() {
+        long[] counts = new long[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        for (int b = 0; b < counts.length; b++) {
+            counts[b] = b % 2 == 0 ? 1 : 1_000_000L * b;
+        }
+        counts[7] = 0;
+        byte[] fibonacciData = fibonacciDistributedData(30);
+        for (long[] histogram : new long[][]{counts, ByteHistogram.count(wordData(10_000, 1),
+            0, 10_000), ByteHistogram.count(fibonacciData, 0, fibonacciData.length)}) {
+            int[] frequencies = RANS.normalizedFrequencies(histogram);
+            int sum = 0;
+            for (int b = 0; b < frequencies.length; b++) {
+                assertEquals(histogram[b] > 0, frequencies[b] > 0);
+                sum += frequencies[b];
+            }
+            assertEquals(RANS.TOTAL_FREQUENCY, sum);
+        }
+    }
+
+    @Test
+    public void ransCompressesSkewedDataBetterThanHuffman() {
+        // a byte value occurring 90% of the time costs a whole bit with Huffman
+        byte[] originalData = new byte[100_000];
+        Random r = new Random(2);
+        for (int i = 0; i < originalData.length; i++) {
+            originalData[i] = (byte) (r.nextInt(10) == 0 ? r.nextInt(4) : 'e');
+        }
+        long rans = new RANS().compressData(originalData).getLengthInBits();
+        long huffman = new Huffman().compressData(originalData).getLengthInBits();
+        assertTrue(rans < huffman * 2 / 3);
+        long[] counts = ByteHistogram.count(wordData(100_000, 1), 0, 100_000);
+        assertTrue(new RANS().compressData(wordData(100_000, 1)).getLengthInBits()
+                < ByteHistogram.entropy(counts) * 100_000 * 1.002 + 8 * 300);
+    }
+
+    @Test
+    public void ransRefusesFrequenciesWhichDontSumUpToTotalFrequency() {
+        byte[] compressedData = new RANS().compressData(wordData(1000, 1)).getBits();
+        compressedData[Integer.BYTES + Utils.POSSIBLE_BYTE_VALUES_COUNT / Byte.SIZE]++;
+        assertThrows(IllegalArgumentException.class,
+            () -> new RANS().decompressData(compressedData));
+    }
+}
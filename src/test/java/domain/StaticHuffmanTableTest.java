@@ -0,0 +1,83 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StaticHuffmanTableTest {
+
+    private static final byte[] SAMPLE = ("{\"id\": 42, \"status\": \"ok\", \"items\": []}\n"
+            + "{\"id\": 43, \"status\": \"error\", \"items\": [1, 2]}\n").getBytes();
+
+    @Test
+    public void trainedTableHasCodewordForEveryByteValue() {
+        StaticHuffmanTable table = StaticHuffmanTable.train(7, SAMPLE);
+        for (int byteValue = 0; byteValue < Utils.POSSIBLE_BYTE_VALUES_COUNT; byteValue++) {
+            assertTrue(table.getCodewordLength(byteValue) >= 1);
+            assertTrue(table.getCodewordLength(byteValue) <= StaticHuffmanTable.MAX_CW_LENGTH);
+        }
+        assertTrue(table.getCodewordLength('"') < table.getCodewordLength('#'));
+    }
+
+    @Test
+    public void tableRestoredFromBytesIsEqualToTheOriginalTable() {
+        StaticHuffmanTable table = StaticHuffmanTable.train(7, SAMPLE);
+        StaticHuffmanTable restoredTable = StaticHuffmanTable.fromBytes(table.toBytes());
+        assertEquals(7, restoredTable.getId());
+        assertArrayEquals(table.toBytes(), restoredTable.toBytes());
+    }
+
+    @Test
+    public void savedTableCanBeLoaded() throws IOException {
+        Path path = Files.createTempFile("table", ".shufftable");
+        StaticHuffmanTable table = StaticHuffmanTable.train(-3, SAMPLE);
+        assertTrue(table.save(path));
+        assertArrayEquals(table.toBytes(), StaticHuffmanTable.load(path).toBytes());
+        Files.delete(path);
+    }
+
+    @Test
+    public void codeWithoutCodewordForEveryByteValueIsNotAccepted() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new StaticHuffmanTable(0, new int[Utils.POSSIBLE_BYTE_VALUES_COUNT]));
+    }
+
+    @Test
+    public void incompleteCodeIsNotAccepted() {
+        // 256 codewords of 9 bits use only half of the code space
+        int[] codewordLengths = new int[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        Arrays.fill(codewordLengths, Byte.SIZE + 1);
+        assertThrows(IllegalArgumentException.class,
+            () -> new StaticHuffmanTable(0, codewordLengths));
+        codewordLengths[0] = 1;
+        assertThrows(IllegalArgumentException.class,
+            () -> new StaticHuffmanTable(0, codewordLengths));
+    }
+
+    @Test
+    public void codewordsLongerThanTheLimitAreNotAccepted() {
+        // a complete code: lengths 1 to 15, then one codeword of 19 bits and
+        // 240 of 23 bits sharing the last 2^-15 of the code space
+        int[] codewordLengths = new int[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        for (int i = 0; i < StaticHuffmanTable.MAX_CW_LENGTH; i++) {
+            codewordLengths[i] = i + 1;
+        }
+        codewordLengths[StaticHuffmanTable.MAX_CW_LENGTH] = 19;
+        Arrays.fill(codewordLengths, StaticHuffmanTable.MAX_CW_LENGTH + 1,
+                codewordLengths.length, 23);
+        assertThrows(IllegalArgumentException.class,
+            () -> new StaticHuffmanTable(0, codewordLengths));
+    }
+
+    @Test
+    public void oversubscribedCodeIsNotAccepted() {
+        // one codeword of 7 bits takes the place of two of 8 bits
+        byte[] bytes = StaticHuffmanTable.train(7, SAMPLE).toBytes();
+        Arrays.fill(bytes, Integer.BYTES, bytes.length, (byte) Byte.SIZE);
+        bytes[Integer.BYTES + 3] = Byte.SIZE - 1;
+        assertThrows(IllegalArgumentException.class, () -> StaticHuffmanTable.fromBytes(bytes));
+    }
+}
@@ -0,0 +1,34 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
+
+public class StaticHuffmanTest {
+
+    @Test
+    public void staticHuffmanRestoresDataWhichWasNotInTheTrainingSamples() {
+
+        StaticHuffmanTable table = StaticHuffmanTable.train(1, "abracadabra".getBytes());
+        StaticHuffman staticHuffman = new StaticHuffman(table);
+
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                staticHuffman, "abracadabra, abracadabra".getBytes()));
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                staticHuffman, randomSkewedData(1000)));
+        assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                staticHuffman, new byte[0]));
+    }
+
+    @Test
+    public void staticHuffmanDoesNotDecompressDataCompressedWithAnotherTable() {
+
+        byte[] compressedData = new StaticHuffman(StaticHuffmanTable.train(1, "abc".getBytes()))
+                .compressData("cab".getBytes()).getBits();
+        StaticHuffman otherStaticHuffman =
+                new StaticHuffman(StaticHuffmanTable.train(2, "abc".getBytes()));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> otherStaticHuffman.decompressData(compressedData));
+    }
+}
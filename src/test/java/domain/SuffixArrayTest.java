@@ -0,0 +1,97 @@
+package domain;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SuffixArrayTest {
+
+    /**
+     * Returns the suffix array of the given range of the given data (with the
+     * sentinel), by comparing whole suffixes.
+     */
+    private static int[] naiveSuffixArray(byte[] data, int fromIndex, int toIndex) {
+        int n = toIndex - fromIndex;
+        Integer[] suffixes = new Integer[n + 1];
+        for (int i = 0; i <= n; i++) {
+            suffixes[i] = i;
+        }
+        Arrays.sort(suffixes, (a, b) -> {
+            for (int d = 0; a + d < n && b + d < n; d++) {
+                int difference = Byte.toUnsignedInt(data[fromIndex + a + d])
+                        - Byte.toUnsignedInt(data[fromIndex + b + d]);
+                if (difference != 0) {
+                    return difference;
+                }
+            }
+            return b - a;
+        });
+        int[] suffixArray = new int[n + 1];
+        for (int i = 0; i <= n; i++) {
+            suffixArray[i] = suffixes[i];
+        }
+        return suffixArray;
+    }
+
+    private static void assertSameAsNaive(byte[] data, int fromIndex, int toIndex) {
+        assertArrayEquals(naiveSuffixArray(data, fromIndex, toIndex),
+                SuffixArray.ofBytes(data, fromIndex, toIndex));
+    }
+
+    @Test
+    public void suffixArrayOfEmptyRangeContainsOnlyTheSentinel() {
+        assertArrayEquals(new int[]{0}, SuffixArray.ofBytes(new byte[3], 2, 2));
+    }
+
+    @Test
+    public void suffixArrayIsEqualToNaiveSuffixArrayForRandomData() {
+        Random r = new Random(1);
+        for (int length = 1; length < 200; length++) {
+            byte[] data = new byte[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = (byte) r.nextInt(1 + length % 5 * 60);
+            }
+            assertSameAsNaive(data, 0, length);
+        }
+    }
+
+    @Test
+    public void suffixArrayIsEqualToNaiveSuffixArrayForRepetitiveData() {
+        byte[] data = "abracadabra abracadabra mississippi mississippi banana bananas"
+                .getBytes(StandardCharsets.US_ASCII);
+        for (int fromIndex = 0; fromIndex < 5; fromIndex++) {
+            assertSameAsNaive(data, fromIndex, data.length - fromIndex);
+        }
+        byte[] periodic = new byte[3000];
+        for (int i = 0; i < periodic.length; i++) {
+            periodic[i] = (byte) (i % 7 == 0 || i % 11 == 0 ? 'a' : 'b');
+        }
+        assertSameAsNaive(periodic, 0, periodic.length);
+    }
+
+    @Test
+    public void suffixArrayOfRunIsInReverseOrder() {
+        byte[] data = new byte[1000];
+        Utils.fill(data, 0, data.length, (byte) -1);
+        int[] suffixArray = SuffixArray.ofBytes(data, 0, data.length);
+        for (int i = 0; i <= data.length; i++) {
+            assertEquals(data.length - i, suffixArray[i]);
+        }
+    }
+
+    @Test
+    public void suffixArrayOfFibonacciWordIsEqualToNaiveSuffixArray() {
+        // Fibonacci words need the most levels of recursion
+        StringBuilder previous = new StringBuilder("a");
+        StringBuilder word = new StringBuilder("ab");
+        while (word.length() < 5000) {
+            String next = word.toString() + previous;
+            previous = word;
+            word = new StringBuilder(next);
+        }
+        byte[] data = word.toString().getBytes(StandardCharsets.US_ASCII);
+        assertSameAsNaive(data, 0, data.length);
+    }
+}
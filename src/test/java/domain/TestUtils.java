@@ -0,0 +1,104 @@
+package domain;
+
+import io.FileUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Round trips and test data shared by the tests of the compression
+ * algorithms.
+ */
+final class TestUtils {
+
+    private static final String TEST_TEXT_FILE_PATH = "test/test.txt";
+
+    static boolean decompressingCompressedFileRestoresItsOriginalContent(
+            CompressionAlgorithm algorithm) throws IOException {
+
+        String fileName = TEST_TEXT_FILE_PATH;
+        Path originalFilePath = Paths.get(fileName).toRealPath();
+        byte[] originalFile = FileUtils.readFile(originalFilePath);
+
+        algorithm.compressFile(originalFilePath);
+        Path compressedFilePath = Paths.get(fileName + algorithm.getExtension()).toRealPath();
+
+        algorithm.decompressFile(compressedFilePath);
+        byte[] decompressedFile = FileUtils.readFile(originalFilePath);
+
+        return Arrays.equals(originalFile, decompressedFile);
+    }
+
+    static boolean decompressingCompressedDataRestoresItsOriginalContent(
+            CompressionAlgorithm algorithm, byte[] originalData) {
+
+        BitSequence compressedDataBitSeq = algorithm.compressData(originalData);
+
+        int compressedDataLength = compressedDataBitSeq.getLengthInBytes();
+        byte[] compressedData = new byte[compressedDataLength];
+        System.arraycopy(compressedDataBitSeq.getBits(), 0, compressedData, 0, compressedDataLength);
+
+        byte[] decompressedData = algorithm.decompressData(compressedData);
+
+        return Arrays.equals(originalData, decompressedData);
+    }
+
+    /**
+     * Returns text made of words randomly chosen from a small vocabulary,
+     * which is the same for every seed.
+     */
+    static byte[] wordData(int length, int seed) {
+        Random vocabularyRandom = new Random(0);
+        String[] words = new String[300];
+        for (int i = 0; i < words.length; i++) {
+            char[] word = new char[2 + vocabularyRandom.nextInt(8)];
+            for (int j = 0; j < word.length; j++) {
+                word[j] = (char) ('a' + vocabularyRandom.nextInt(26));
+            }
+            words[i] = new String(word);
+        }
+        Random r = new Random(seed);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < length) {
+            text.append(words[r.nextInt(1 + r.nextInt(words.length))]).append(' ');
+        }
+        return text.substring(0, length).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    static byte[] randomSkewedData(int length) {
+        byte[] data = new byte[length];
+        Random r = new Random(length);
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (r.nextInt(1 + r.nextInt(Utils.POSSIBLE_BYTE_VALUES_COUNT)));
+        }
+        return data;
+    }
+
+    /**
+     * Returns data where the occurrence counts of the symbols are the first n
+     * Fibonacci numbers, which gives the longest possible Huffman codewords.
+     */
+    static byte[] fibonacciDistributedData(int symbolCount) {
+
+        long[] counts = new long[symbolCount];
+        counts[0] = 1;
+        counts[1] = 1;
+        int length = 2;
+        for (int i = 2; i < symbolCount; i++) {
+            counts[i] = counts[i - 1] + counts[i - 2];
+            length += counts[i];
+        }
+
+        byte[] data = new byte[length];
+        int i = 0;
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            for (long j = 0; j < counts[symbol]; j++) {
+                data[i++] = (byte) symbol;
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,119 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static domain.TestUtils.*;
+
+public class TransformPipelineTest {
+
+    @Test
+    public void decompressingCompressedTransformPipelineFileRestoresItsOriginalContent()
+            throws IOException {
+        assertTrue(decompressingCompressedFileRestoresItsOriginalContent(
+                TransformPipeline.forName("rle+mtf+delta+shuffle3+lzw12")));
+    }
+
+    @Test
+    public void transformPipelineWorksWithEveryCoder() {
+        byte[] run = new byte[100_000];
+        Utils.fill(run, 0, run.length, (byte) 'a');
+        for (String name : new String[]{"rle+huffman", "mtf+rans", "delta2+lzw16",
+            "shuffle3+shuffle4+rle+rle+huffman"}) {
+            TransformPipeline pipeline = TransformPipeline.forName(name);
+            assertEquals(name, pipeline.getName());
+            for (byte[] originalData : new byte[][]{new byte[0], new byte[1], run,
+                wordData(200_000, 1), randomSkewedData(777)}) {
+                assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                        pipeline, originalData));
+            }
+        }
+    }
+
+    @Test
+    public void transformPipelineWorksWithBlocksOfAnySize() {
+        byte[] originalData = wordData(5000, 1);
+        for (int blockSize = 1; blockSize < 40; blockSize++) {
+            TransformPipeline pipeline = new TransformPipeline(blockSize, new Huffman(),
+                    new RunLengthTransform(), new ByteShuffleTransform(3), new DeltaTransform(),
+                    new ByteShuffleTransform(2));
+            // blocks are a multiple of the width of every record
+            assertEquals(0, pipeline.getBlockSize() % 6);
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    pipeline, originalData));
+        }
+    }
+
+    @Test
+    public void transformPipelineRebuildsTheChainWrittenInTheCompressedData() {
+        byte[] originalData = wordData(10_000, 1);
+        byte[] compressedData = TransformPipeline.forName("delta3+mtf+rans")
+                .compressData(originalData).getBits();
+        assertArrayEquals(originalData, TransformPipeline.forName("rle+huffman")
+                .decompressData(compressedData));
+
+        String name = "rle+huffman";
+        int nameIndex = 2 * Integer.BYTES + Byte.BYTES;
+        compressedData = TransformPipeline.forName(name).compressData(originalData).getBits();
+        assertEquals(name, new String(compressedData, nameIndex, name.length(),
+                StandardCharsets.US_ASCII));
+        compressedData[nameIndex] = 'x';
+        byte[] unknownPipeline = compressedData;
+        assertThrows(IllegalArgumentException.class,
+            () -> TransformPipeline.forName(name).decompressData(unknownPipeline));
+    }
+
+    @Test
+    public void transformPipelineWorksWithCodersWhichAreNotTheDefaultOnes() {
+        byte[] originalData = wordData(200_000, 1);
+        for (CompressionAlgorithm coder : new CompressionAlgorithm[]{new Huffman(11),
+            new Huffman(15, Huffman.DEFAULT_SAMPLE_BLOCK_COUNT), new LZW(20)}) {
+            TransformPipeline pipeline = new TransformPipeline(coder, new RunLengthTransform());
+            assertEquals("rle+" + coder.getName(), pipeline.getName());
+            assertTrue(decompressingCompressedDataRestoresItsOriginalContent(
+                    pipeline, originalData));
+        }
+    }
+
+    @Test
+    public void transformPipelineRefusesCodersWhichCantBeRebuiltFromTheirName() {
+        LZW primedLZW = new LZW(new LZWPrimedDictionary(wordData(10_000, 1), 12));
+        for (CompressionAlgorithm coder : new CompressionAlgorithm[]{primedLZW, new LZ4(),
+            new BlockLZW(), new TransformPipeline(new Huffman(), new RunLengthTransform())}) {
+            assertThrows(IllegalArgumentException.class,
+                () -> new TransformPipeline(coder, new MoveToFrontTransform()));
+        }
+    }
+
+    @Test
+    public void transformPipelineNamesNeedStagesAndACoder() {
+        assertNull(TransformPipeline.forName("huffman"));
+        assertNull(TransformPipeline.forName("rle+"));
+        assertNull(TransformPipeline.forName("+huffman"));
+        assertNull(TransformPipeline.forName("rle+mtf"));
+        assertNull(TransformPipeline.forName("rle+lz4"));
+        assertNull(TransformPipeline.forName("rle+huffman+huffman"));
+        assertThrows(IllegalArgumentException.class,
+            () -> new TransformPipeline(new Huffman()));
+    }
+
+    @Test
+    public void byteShuffleAndDeltaPipelineCompressesRecordsBetterThanHuffman() {
+        // little-endian ints which grow slowly
+        byte[] originalData = new byte[400_000];
+        Random r = new Random(3);
+        int value = 0;
+        for (int i = 0; i < originalData.length; i += Integer.BYTES) {
+            value += r.nextInt(300);
+            for (int k = 0; k < Integer.BYTES; k++) {
+                originalData[i + k] = (byte) (value >>> (k * Byte.SIZE));
+            }
+        }
+        long pipeline = TransformPipeline.forName("shuffle4+delta+huffman")
+                .compressData(originalData).getLengthInBits();
+        long huffman = new Huffman().compressData(originalData).getLengthInBits();
+        assertTrue(pipeline < huffman / 2);
+    }
+}
@@ -0,0 +1,111 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransformTest {
+
+    private static final Transform[] TRANSFORMS = {new RunLengthTransform(),
+        new DeltaTransform(), new DeltaTransform(3), new MoveToFrontTransform(),
+        new ByteShuffleTransform(2), new ByteShuffleTransform(5)};
+
+    private static byte[] runsData(int length) {
+        byte[] data = new byte[length];
+        Random r = new Random(length);
+        int i = 0;
+        while (i < length) {
+            int run = Math.min(length - i, r.nextInt(r.nextBoolean() ? 6 : 600));
+            Utils.fill(data, i, i + run, (byte) r.nextInt(4));
+            i += run;
+        }
+        return data;
+    }
+
+    /**
+     * Transforms the given data at an offset, and restores it at another
+     * offset with the exact maximum length.
+     */
+    private static void assertInverseRestoresData(Transform transform, byte[] data) {
+        byte[] transformed = new byte[3 + transform.maxTransformedLength(data.length)];
+        int length = transform.forward(data, 0, data.length, transformed, 3);
+        assertTrue(length <= transform.maxTransformedLength(data.length));
+        byte[] restored = new byte[5 + data.length];
+        assertEquals(data.length,
+                transform.inverse(transformed, 3, length, restored, 5, data.length));
+        assertArrayEquals(data, Arrays.copyOfRange(restored, 5, restored.length));
+    }
+
+    @Test
+    public void inverseRestoresDataOfAnyLength() {
+        for (Transform transform : TRANSFORMS) {
+            for (int length = 0; length < 30; length++) {
+                assertInverseRestoresData(transform, runsData(length));
+            }
+            byte[] randomData = new byte[10_000];
+            new Random(1).nextBytes(randomData);
+            assertInverseRestoresData(transform, randomData);
+            assertInverseRestoresData(transform, runsData(100_000));
+        }
+    }
+
+    @Test
+    public void runLengthTransformShortensRunsAndSplitsLongOnes() {
+        byte[] run = new byte[2 * RunLengthTransform.MAX_RUN_LENGTH + 3];
+        Utils.fill(run, 0, run.length, (byte) 7);
+        byte[] transformed = new byte[new RunLengthTransform().maxTransformedLength(run.length)];
+        int length = new RunLengthTransform().forward(run, 0, run.length, transformed, 0);
+        assertArrayEquals(new byte[]{7, 7, 7, 7, -1, 7, 7, 7, 7, -1, 7, 7, 7},
+                Arrays.copyOf(transformed, length));
+        assertInverseRestoresData(new RunLengthTransform(), run);
+    }
+
+    @Test
+    public void runLengthTransformDoesNotExceedItsMaximumLength() {
+        byte[] data = {1, 1, 1, 1, 2, 2, 2, 2, 3, 3, 3, 3};
+        assertEquals(15, new RunLengthTransform().forward(data, 0, data.length,
+                new byte[new RunLengthTransform().maxTransformedLength(data.length)], 0));
+    }
+
+    @Test
+    public void inverseRefusesBlocksLongerThanTheMaximumLength() {
+        byte[] data = runsData(1000);
+        for (Transform transform : TRANSFORMS) {
+            byte[] transformed = new byte[transform.maxTransformedLength(data.length)];
+            int length = transform.forward(data, 0, data.length, transformed, 0);
+            assertThrows(IllegalArgumentException.class, () -> transform.inverse(
+                    transformed, 0, length, new byte[data.length], 0, data.length - 1));
+        }
+    }
+
+    @Test
+    public void deltaTransformWritesDifferences() {
+        byte[] data = {10, 20, 15, 15, -128, 127};
+        byte[] transformed = new byte[data.length];
+        new DeltaTransform().forward(data, 0, data.length, transformed, 0);
+        assertArrayEquals(new byte[]{10, 10, -5, 0, 113, -1}, transformed);
+        new DeltaTransform(2).forward(data, 0, data.length, transformed, 0);
+        assertArrayEquals(new byte[]{10, 20, 5, -5, 113, 112}, transformed);
+    }
+
+    @Test
+    public void byteShuffleTransformSplitsRecordsIntoBytePlanes() {
+        byte[] data = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11};
+        byte[] transformed = new byte[data.length];
+        new ByteShuffleTransform(3).forward(data, 0, data.length, transformed, 0);
+        assertArrayEquals(new byte[]{1, 4, 7, 2, 5, 8, 3, 6, 9, 10, 11}, transformed);
+    }
+
+    @Test
+    public void transformsAreFoundByName() {
+        assertEquals(4, DeltaTransform.forName("delta4").getDistance());
+        assertEquals(1, DeltaTransform.forName("delta").getDistance());
+        assertNull(DeltaTransform.forName("delta1"));
+        assertNull(DeltaTransform.forName("delta256"));
+        assertEquals(8, ByteShuffleTransform.forName("shuffle8").getWidth());
+        assertNull(ByteShuffleTransform.forName("shuffle1"));
+        assertThrows(IllegalArgumentException.class, () -> new ByteShuffleTransform(256));
+        assertThrows(IllegalArgumentException.class, () -> new DeltaTransform(0));
+    }
+}
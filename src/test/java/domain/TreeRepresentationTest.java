@@ -7,25 +7,17 @@ import static org.junit.jupiter.api.Assertions.*;
 public class TreeRepresentationTest {
 
     @Test
-    public void bothConstructorsBuildTreeRepresentationWhichReturnsTheOriginalHuffNodeArray() {
+    public void treeRepresentationReadFromCompressedDataIsEqualToTheWrittenOne() {
 
-        HuffNode[] originalLeafNodes = new HuffNode[13];
-
-        byte[] randomSymbols = new byte[originalLeafNodes.length];
-        Random r = new Random();
-        r.nextBytes(randomSymbols);
-
-        long[] codewordLengths = new long[]{1, 2, 3, 5, 5, 5, 8, 8, 8, 8, 8, 8, 8};
-
-        for (int i = 0; i < originalLeafNodes.length; i++) {
-            originalLeafNodes[i] = new HuffNode(randomSymbols[i]);
-            originalLeafNodes[i].setCodeword(new BitSequence(codewordLengths[i]));
+        int[] codewordLengths = new int[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        byte[] randomSymbols = new byte[13];
+        new Random().nextBytes(randomSymbols);
+        int[] lengths = new int[]{1, 2, 3, 5, 5, 5, 8, 8, 8, 8, 8, 8, 8};
+        for (int i = 0; i < randomSymbols.length; i++) {
+            codewordLengths[Byte.toUnsignedInt(randomSymbols[i])] = lengths[i];
         }
 
-        TreeRepresentation treeRepresentation = new TreeRepresentation(originalLeafNodes);
-        HuffNode[] generatedLeafNodes = treeRepresentation.buildLeafNodes();
-        assertTrue(areEqual(originalLeafNodes, generatedLeafNodes));
-
+        TreeRepresentation treeRepresentation = new TreeRepresentation(codewordLengths);
         int treeRepresentationLength = treeRepresentation.getTotalLength();
         byte[] fakeCompressedData = new byte[Huffman.OFFSET_TREE + treeRepresentationLength];
         fakeCompressedData[Huffman.OFFSET_CWLENGTHS_LENGTH] =
@@ -33,22 +25,103 @@ public class TreeRepresentationTest {
         System.arraycopy(treeRepresentation.getBytes(), 0,
                 fakeCompressedData, Huffman.OFFSET_TREE, treeRepresentationLength);
 
-        treeRepresentation = new TreeRepresentation(fakeCompressedData);
-        generatedLeafNodes = treeRepresentation.buildLeafNodes();
-        assertTrue(areEqual(originalLeafNodes, generatedLeafNodes));
+        TreeRepresentation readTreeRepresentation = new TreeRepresentation(fakeCompressedData);
+        assertEquals(treeRepresentation.getCodewordLengthsLength(),
+                readTreeRepresentation.getCodewordLengthsLength());
+        assertArrayEquals(treeRepresentation.getBytes(), readTreeRepresentation.getBytes());
+    }
+
+    @Test
+    public void treeRepresentationBuiltFromCodewordLengthsIsInCanonicalOrder() {
+
+        int[] codewordLengths = new int[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        codewordLengths[7] = 3;
+        codewordLengths[200] = 1;
+        codewordLengths[3] = 3;
+        codewordLengths[100] = 2;
+
+        TreeRepresentation treeRepresentation = new TreeRepresentation(codewordLengths);
+        assertEquals(3, treeRepresentation.getCodewordLengthsLength());
+        assertArrayEquals(new byte[]{1, 1, 2, (byte) 200, 100, 3, 7},
+                treeRepresentation.getBytes());
+    }
+
+    @Test
+    public void treeRepresentationBuiltFromCodewordLengthsHandlesSpecialCase() {
+
+        int[] codewordLengths = new int[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        for (int i = 0; i < codewordLengths.length; i++) {
+            codewordLengths[i] = Byte.SIZE;
+        }
+
+        TreeRepresentation treeRepresentation = new TreeRepresentation(codewordLengths);
+        assertEquals(0, treeRepresentation.getCodewordLengthsLength());
+        assertEquals(Utils.POSSIBLE_BYTE_VALUES_COUNT, treeRepresentation.getTotalLength());
+        assertEquals((byte) 255, treeRepresentation.getBytes()[255]);
     }
 
-    private boolean areEqual(HuffNode[] ln1, HuffNode[] ln2) {
-        if (ln1.length != ln2.length) {
-            return false;
+    @Test
+    public void canonicalCodeFromLengthsIsTheSameAsThatOfTheTreeRepresentation() {
+
+        int[] codewordLengths = new int[Utils.POSSIBLE_BYTE_VALUES_COUNT];
+        codewordLengths[7] = 3;
+        codewordLengths[200] = 1;
+        codewordLengths[3] = 3;
+        codewordLengths[100] = 2;
+
+        CanonicalCode expected = new TreeRepresentation(codewordLengths).buildCanonicalCode();
+        CanonicalCode actual = CanonicalCode.fromLengths(codewordLengths);
+        assertEquals(expected.getSymbolCount(), actual.getSymbolCount());
+        for (int i = 0; i < expected.getSymbolCount(); i++) {
+            assertEquals(expected.getSymbol(i), actual.getSymbol(i));
+            assertEquals(expected.getLength(i), actual.getLength(i));
+            assertEquals(expected.getCodeword(i), actual.getCodeword(i));
         }
-        for (int i = 0; i < ln1.length; i++) {
-            if (!ln1[i].getSymbol().equals(ln2[i].getSymbol())
-                    || !ln1[i].getCodeword().getLengthInBits()
-                            .equals(ln2[i].getCodeword().getLengthInBits())) {
-                return false;
-            }
+    }
+
+    @Test
+    public void canonicalCodeFromLengthsAcceptsSymbolsLargerThanBytes() {
+
+        int[] codewordLengths = new int[1000];
+        codewordLengths[999] = 1;
+        codewordLengths[300] = 2;
+        codewordLengths[5] = 2;
+
+        CanonicalCode code = CanonicalCode.fromLengths(codewordLengths);
+        assertEquals(3, code.getSymbolCount());
+        assertEquals(999, code.getSymbol(0));
+        assertEquals(5, code.getSymbol(1));
+        assertEquals(300, code.getSymbol(2));
+        assertEquals(0b11, code.getCodeword(2));
+    }
+
+    @Test
+    public void canonicalCodeHeaderRestoresTheCodewordLengths() {
+
+        int[] codewordLengths = new int[300];
+        codewordLengths[0] = 15;
+        codewordLengths[1] = 2;
+        for (int symbol = 200; symbol < 299; symbol++) {
+            codewordLengths[symbol] = 1 + symbol % CanonicalCodeHeader.MAX_CODEWORD_LENGTH;
+        }
+        // a run of zeros longer than a single run can describe
+        codewordLengths[299] = 7;
+
+        byte[] bytes = new byte[(int) CanonicalCodeHeader.maxLengthInBits(300) / Byte.SIZE + 8];
+        BitWriter writer = new BitWriter(bytes, 3);
+        CanonicalCodeHeader.write(codewordLengths, writer);
+        long headerEnd = writer.getBitPosition();
+        writer.flush();
+        BitReader reader = new BitReader(bytes, 0);
+        reader.read(3);
+
+        CanonicalCode expected = CanonicalCode.fromLengths(codewordLengths);
+        CanonicalCode actual = CanonicalCodeHeader.read(reader, 300);
+        assertEquals(headerEnd, reader.getBitPosition());
+        assertEquals(expected.getSymbolCount(), actual.getSymbolCount());
+        for (int i = 0; i < expected.getSymbolCount(); i++) {
+            assertEquals(expected.getSymbol(i), actual.getSymbol(i));
+            assertEquals(expected.getLength(i), actual.getLength(i));
         }
-        return true;
     }
 }
@@ -7,40 +7,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 public class UtilsTest {
 
-    /**
-     * These array sizes assures that the outermost for-loop in Utils.mergeSort
-     * is executed an odd and an even number of times, so that both branches of
-     * its last if-statement are tested
-     */
-    private static final int[] ARRAY_LENGTHS = new int[]{123, 137};
-    /**
-     * This upper bound assures there will be some repetitions in the randomly
-     * generated elements.
-     */
-    private static final int UPPER_BOUND = 99;
-
     private final Random r = new Random();
 
-    @Test
-    public void mergeSortSortsHuffNodeArraysCorrectly() {
-
-        for (int length : ARRAY_LENGTHS) {
-
-            HuffNode[] a = new HuffNode[length];
-            HuffNode[] b = new HuffNode[length];
-
-            for (int i = 0; i < length; i++) {
-                a[i] = new HuffNode(Byte.MIN_VALUE, r.nextInt(UPPER_BOUND));
-            }
-            System.arraycopy(a, 0, b, 0, length);
-
-            Arrays.sort(a, new HuffNode.ByWeight());
-            Utils.mergeSort(b, new HuffNode.ByWeight());
-
-            assertArrayEquals(a, b);
-        }
-    }
-
     @Test
     public void arrayCopyCopiesWholeIntegerArraysCorrectly() {
 
@@ -207,4 +175,21 @@ public class UtilsTest {
             }
         }
     }
+
+    @Test
+    public void extractIntReadsIntegerStartingFromTheGivenIndex() {
+        byte[] bytes = new byte[]{7, 0x12, 0x34, 0x56, 0x78, 9};
+        assertEquals(0x12345678, Utils.extractInt(bytes, 1));
+        assertEquals(0x07123456, Utils.extractInt(bytes, 0));
+    }
+
+    @Test
+    public void insertIntWritesIntegerThatCanBeExtracted() {
+        byte[] bytes = new byte[7];
+        Utils.insertInt(-123456789, bytes, 2);
+        assertEquals(-123456789, Utils.extractInt(bytes, 2));
+        assertEquals(0, bytes[1]);
+        assertEquals(0, bytes[6]);
+        assertArrayEquals(Utils.toByteArray(-123456789), Arrays.copyOfRange(bytes, 2, 6));
+    }
 }
@@ -0,0 +1,49 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValueBucketsTest {
+
+    @Test
+    public void valueIsRestoredFromItsBucketAndExtraBits() {
+        for (int bucketBits = 0; bucketBits <= 3; bucketBits++) {
+            ValueBuckets buckets = new ValueBuckets(bucketBits);
+            for (int value = 0; value < 1 << 16; value++) {
+                int bucket = buckets.bucket(value);
+                int extraBitCount = buckets.extraBitCount(bucket);
+                int extraBits = ValueBuckets.extraBits(value, extraBitCount);
+                assertEquals(value, buckets.value(bucket, extraBitCount, extraBits));
+            }
+        }
+    }
+
+    @Test
+    public void bucketsAreOrderedAndCountedByBucketCount() {
+        for (int bucketBits = 0; bucketBits <= 3; bucketBits++) {
+            ValueBuckets buckets = new ValueBuckets(bucketBits);
+            for (int valueBits = 1; valueBits <= 16; valueBits++) {
+                int lastValue = (1 << valueBits) - 1;
+                assertTrue(buckets.bucket(lastValue) < buckets.bucketCount(valueBits));
+                assertTrue(buckets.bucket(lastValue) >= buckets.bucketCount(valueBits - 1)
+                        || valueBits <= bucketBits + 1);
+            }
+            for (int value = 1; value < 1 << 12; value++) {
+                assertTrue(buckets.bucket(value - 1) <= buckets.bucket(value));
+            }
+        }
+    }
+
+    @Test
+    public void bucketCountsAreThoseOfDeflate() {
+        // match lengths from 3 to 258, and distances up to 32 KiB
+        assertEquals(28, new ValueBuckets(2).bucketCount(8));
+        assertEquals(30, new ValueBuckets(1).bucketCount(15));
+    }
+
+    @Test
+    public void constructorDoesNotAcceptInvalidBucketBits() {
+        assertThrows(IllegalArgumentException.class, () -> new ValueBuckets(-1));
+        assertThrows(IllegalArgumentException.class, () -> new ValueBuckets(Integer.SIZE - 2));
+    }
+}